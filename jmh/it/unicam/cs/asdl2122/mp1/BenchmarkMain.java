@@ -0,0 +1,24 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Punto di ingresso del jar dei benchmark. Accetta le stesse opzioni di {@code org.openjdk.jmh.Main} e aggiunge
+ * sempre il profiler GC, così che ogni risultato riporti anche il tasso di allocazione ({@code gc.alloc.rate.norm}).
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions opzioni = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder().parent(opzioni).addProfiler(GCProfiler.class).build()).run();
+    }
+
+}
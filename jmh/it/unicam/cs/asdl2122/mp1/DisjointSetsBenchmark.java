@@ -0,0 +1,85 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark delle implementazioni di {@link DisjointSets}. Ogni chiamata crea {@code size} singoletti, applica
+ * {@code size} unioni tra coppie di elementi estratte dalla distribuzione scelta e poi chiede il rappresentante di
+ * ogni elemento, quindi misura il costo complessivo di un caso d'uso tipico come il calcolo delle componenti connesse.
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class DisjointSetsBenchmark {
+
+    @Param({"LinkedListDisjointSets", "ForestDisjointSets", "IntDisjointSets"})
+    public String implementation;
+
+    @Param({Distribuzioni.UNIFORME, Distribuzioni.ZIPF})
+    public String distribution;
+
+    @Param({"1000", "100000", "10000000"})
+    public int size;
+
+    private int[] da;
+    private int[] a;
+
+    /**
+     * Crea l'implementazione richiesta, vuota.
+     *
+     * @param implementazione il nome semplice della classe
+     * @param n               il numero di elementi che verranno inseriti
+     * @return una collezione vuota di insiemi disgiunti
+     */
+    static DisjointSets crea(String implementazione, int n) {
+        switch (implementazione) {
+            case "LinkedListDisjointSets":
+                return new LinkedListDisjointSets();
+            case "ForestDisjointSets":
+                return new ForestDisjointSets();
+            case "IntDisjointSets":
+                return new IntDisjointSets(n).asDisjointSets();
+            default:
+                throw new IllegalArgumentException("Implementazione sconosciuta: " + implementazione);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void archi() {
+        da = Distribuzioni.chiavi(distribution, size, size, 1);
+        a = Distribuzioni.chiavi(Distribuzioni.UNIFORME, size, size, 2);
+    }
+
+    @Benchmark
+    public int unionFind() {
+        DisjointSets ds = crea(implementation, size);
+        DisjointSetElement[] elementi = new DisjointSetElement[size];
+        for (int i = 0; i < size; i++) {
+            elementi[i] = new MyIntLinkedListDisjointSetElement(i);
+            ds.makeSet(elementi[i]);
+        }
+        for (int i = 0; i < size; i++) ds.union(elementi[da[i]], elementi[a[i]]);
+        int somma = 0;
+        for (int i = 0; i < size; i++) somma += ds.findSet(elementi[i]).getNumber();
+        return somma;
+    }
+
+}
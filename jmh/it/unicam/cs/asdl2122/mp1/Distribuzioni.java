@@ -0,0 +1,66 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generatori delle chiavi usate dai benchmark. Le chiavi sono interi in {@code [0, n)} estratti con distribuzione
+ * uniforme o di Zipf, e vengono calcolate una volta sola nel setup così che la loro generazione non pesi sulle misure.
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+final class Distribuzioni {
+
+    static final String UNIFORME = "uniform";
+    static final String ZIPF = "zipf";
+
+    //Esponente della distribuzione di Zipf, lo stesso usato da YCSB
+    private static final double THETA = 0.99;
+
+    private Distribuzioni() {
+    }
+
+    /**
+     * Restituisce quante chiavi estratte dalla distribuzione data con seme fissato.
+     *
+     * @param distribuzione {@link #UNIFORME} o {@link #ZIPF}
+     * @param n             numero di chiavi distinte possibili
+     * @param quante        numero di chiavi da estrarre
+     * @param seme          seme del generatore casuale
+     * @return le chiavi estratte
+     * @throws IllegalArgumentException se la distribuzione non è riconosciuta
+     */
+    static int[] chiavi(String distribuzione, int n, int quante, long seme) {
+        SplittableRandom random = new SplittableRandom(seme);
+        int[] chiavi = new int[quante];
+        if (UNIFORME.equals(distribuzione)) {
+            for (int i = 0; i < quante; i++) chiavi[i] = random.nextInt(n);
+            return chiavi;
+        }
+        if (!ZIPF.equals(distribuzione)) throw new IllegalArgumentException("Distribuzione sconosciuta: "
+                + distribuzione);
+        //Generatore di Gray et al., "Quickly generating billion-record synthetic databases"
+        double zetaN = zeta(n);
+        double zeta2 = zeta(2);
+        double alpha = 1 / (1 - THETA);
+        double eta = (1 - Math.pow(2.0 / n, 1 - THETA)) / (1 - zeta2 / zetaN);
+        for (int i = 0; i < quante; i++) {
+            double u = random.nextDouble();
+            double uz = u * zetaN;
+            int chiave;
+            if (uz < 1) chiave = 0;
+            else if (uz < 1 + Math.pow(0.5, THETA)) chiave = 1;
+            else chiave = (int) (n * Math.pow(eta * u - eta + 1, alpha));
+            //Sparpaglio le chiavi calde, altrimenti sarebbero tutte piccole e vicine. Moltiplicare per un primo che non
+            //divide n è una permutazione di [0, n)
+            chiavi[i] = (int) (chiave * 1_000_000_007L % n);
+        }
+        return chiavi;
+    }
+
+    private static double zeta(int n) {
+        double somma = 0;
+        for (int i = 1; i <= n; i++) somma += 1 / Math.pow(i, THETA);
+        return somma;
+    }
+
+}
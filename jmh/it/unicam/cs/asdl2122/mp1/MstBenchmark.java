@@ -0,0 +1,75 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Confronta {@link MstEngine} con il ciclo di Kruskal scritto nel modo più diretto, che ordina un array di Integer
+ * con un comparatore e poi esegue le unioni su {@link IntDisjointSets}. Gli archi hanno pesi uniformi e un nodo
+ * estratto con la distribuzione scelta, quindi con Zipf molti archi pesanti vengono scartati dal filtro.
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class MstBenchmark {
+
+    @Param({Distribuzioni.UNIFORME, Distribuzioni.ZIPF})
+    public String distribution;
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    @Param({"16"})
+    public int degree;
+
+    private int[] da;
+    private int[] a;
+    private double[] pesi;
+
+    @Setup(Level.Trial)
+    public void archi() {
+        int m = size * degree;
+        da = Distribuzioni.chiavi(distribution, size, m, 1);
+        a = Distribuzioni.chiavi(Distribuzioni.UNIFORME, size, m, 2);
+        pesi = new double[m];
+        SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < m; i++) pesi[i] = random.nextDouble();
+    }
+
+    @Benchmark
+    public double kruskal() {
+        Integer[] ordine = new Integer[pesi.length];
+        for (int i = 0; i < ordine.length; i++) ordine[i] = i;
+        Arrays.sort(ordine, Comparator.comparingDouble(i -> pesi[i]));
+        IntDisjointSets ds = new IntDisjointSets(size);
+        double totale = 0;
+        for (int i : ordine) if (ds.union(da[i], a[i])) totale += pesi[i];
+        return totale;
+    }
+
+    @Benchmark
+    public double mstEngine() {
+        return MstEngine.of(size, da, a, pesi).totalWeight();
+    }
+
+}
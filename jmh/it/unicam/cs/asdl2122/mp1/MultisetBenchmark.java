@@ -0,0 +1,102 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark delle operazioni puntuali di ogni implementazione di {@link Multiset}. Il multinsieme viene riempito nel
+ * setup con {@code size} estrazioni dalla distribuzione scelta, poi ogni chiamata misura una singola operazione su una
+ * chiave presa ciclicamente da una sequenza precalcolata con la stessa distribuzione.
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class MultisetBenchmark {
+
+    //Numero di chiavi precalcolate, potenza di 2 per scorrerle con una maschera
+    private static final int CHIAVI = 1 << 20;
+
+    @Param({"MyMultiset", "IntMultiset", "ConcurrentMultiset", "FrequencyMultiset", "LongCountMultiset",
+            "TopKMultiset", "SketchMultiset"})
+    public String implementation;
+
+    @Param({Distribuzioni.UNIFORME, Distribuzioni.ZIPF})
+    public String distribution;
+
+    @Param({"1000", "100000", "10000000"})
+    public int size;
+
+    private Multiset<Integer> multiset;
+    private Integer[] chiavi;
+    private int indice;
+
+    /**
+     * Crea l'implementazione richiesta, vuota.
+     *
+     * @param implementazione il nome semplice della classe
+     * @return un multinsieme vuoto
+     */
+    static Multiset<Integer> crea(String implementazione) {
+        switch (implementazione) {
+            case "MyMultiset":
+                return new MyMultiset<>();
+            case "IntMultiset":
+                return new IntMultiset().asMultiset();
+            case "ConcurrentMultiset":
+                return new ConcurrentMultiset<>();
+            case "FrequencyMultiset":
+                return new FrequencyMultiset<>();
+            case "LongCountMultiset":
+                return new LongCountMultiset<>();
+            case "TopKMultiset":
+                return new TopKMultiset<>(1000);
+            case "SketchMultiset":
+                return new SketchMultiset<>(0.0001, 0.001);
+            default:
+                throw new IllegalArgumentException("Implementazione sconosciuta: " + implementazione);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void riempi() {
+        multiset = crea(implementation);
+        for (int chiave : Distribuzioni.chiavi(distribution, size, size, 1)) multiset.add(chiave);
+        //Le chiavi sono già convertite, così la conversione in Integer non viene misurata
+        int[] estratte = Distribuzioni.chiavi(distribution, size, CHIAVI, 2);
+        chiavi = new Integer[CHIAVI];
+        for (int i = 0; i < CHIAVI; i++) chiavi[i] = estratte[i];
+        indice = 0;
+    }
+
+    private Integer prossima() {
+        return chiavi[indice++ & (CHIAVI - 1)];
+    }
+
+    @Benchmark
+    public int add() {
+        return multiset.add(prossima(), 1);
+    }
+
+    @Benchmark
+    public int count() {
+        return multiset.count(prossima());
+    }
+
+}
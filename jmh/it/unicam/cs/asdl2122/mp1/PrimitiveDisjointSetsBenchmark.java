@@ -0,0 +1,62 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lo stesso carico di {@link DisjointSetsBenchmark} eseguito direttamente sugli interi di {@link IntDisjointSets},
+ * senza oggetti per gli elementi, per misurare quanto costano gli elementi e l'interface, e con le unioni in
+ * parallelo di {@link ConnectedComponents}.
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class PrimitiveDisjointSetsBenchmark {
+
+    @Param({Distribuzioni.UNIFORME, Distribuzioni.ZIPF})
+    public String distribution;
+
+    @Param({"1000", "100000", "10000000"})
+    public int size;
+
+    private int[] da;
+    private int[] a;
+
+    @Setup(Level.Trial)
+    public void archi() {
+        da = Distribuzioni.chiavi(distribution, size, size, 1);
+        a = Distribuzioni.chiavi(Distribuzioni.UNIFORME, size, size, 2);
+    }
+
+    @Benchmark
+    public int unionFind() {
+        IntDisjointSets ds = new IntDisjointSets(size);
+        for (int i = 0; i < size; i++) ds.union(da[i], a[i]);
+        int somma = 0;
+        for (int i = 0; i < size; i++) somma += ds.find(i);
+        return somma;
+    }
+
+    @Benchmark
+    public int connectedComponents() {
+        return ConnectedComponents.of(size, da, a).count();
+    }
+
+}
@@ -0,0 +1,95 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Confronto tra {@link IntMultiset}, {@link LongMultiset} e {@link MyMultiset} con chiavi intere, usando i metodi
+ * primitivi per i primi due. Le chiavi vengono convertite in {@link Integer} dentro il benchmark di MyMultiset, perché
+ * la conversione è un costo reale di chi conta identificativi numerici con l'interface generica.
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class PrimitiveMultisetBenchmark {
+
+    private static final int CHIAVI = 1 << 20;
+
+    @Param({Distribuzioni.UNIFORME, Distribuzioni.ZIPF})
+    public String distribution;
+
+    @Param({"1000", "100000", "10000000"})
+    public int size;
+
+    private IntMultiset interi;
+    private LongMultiset lunghi;
+    private MyMultiset<Integer> generico;
+    private int[] chiavi;
+    private int indice;
+
+    @Setup(Level.Trial)
+    public void riempi() {
+        interi = new IntMultiset();
+        lunghi = new LongMultiset();
+        generico = new MyMultiset<>();
+        for (int chiave : Distribuzioni.chiavi(distribution, size, size, 1)) {
+            interi.add(chiave);
+            lunghi.add(chiave);
+            generico.add(chiave);
+        }
+        chiavi = Distribuzioni.chiavi(distribution, size, CHIAVI, 2);
+        indice = 0;
+    }
+
+    private int prossima() {
+        return chiavi[indice++ & (CHIAVI - 1)];
+    }
+
+    @Benchmark
+    public int addInt() {
+        return interi.add(prossima(), 1);
+    }
+
+    @Benchmark
+    public int addLong() {
+        return lunghi.add((long) prossima(), 1);
+    }
+
+    @Benchmark
+    public int addBoxed() {
+        return generico.add(prossima(), 1);
+    }
+
+    @Benchmark
+    public int countInt() {
+        return interi.count(prossima());
+    }
+
+    @Benchmark
+    public int countLong() {
+        return lunghi.count((long) prossima());
+    }
+
+    @Benchmark
+    public int countBoxed() {
+        return generico.count(prossima());
+    }
+
+}
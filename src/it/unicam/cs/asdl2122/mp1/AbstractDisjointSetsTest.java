@@ -0,0 +1,246 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Test comuni alle implementazioni di DisjointSets che tengono i contatori di {@link DisjointSetsCounters}. Ogni
+ * sottoclasse fornisce la collezione da provare con {@link #crea()}.
+ *
+ * @param <D> il tipo della collezione provata
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+abstract class AbstractDisjointSetsTest<D extends DisjointSets & DisjointSetsCounters> {
+
+    /**
+     * Crea una collezione vuota dell'implementazione da provare.
+     *
+     * @return una nuova collezione vuota
+     */
+    abstract D crea();
+
+    /*
+        Crea n elementi con valori da 0 a n-1 e per ognuno crea un singoletto in ds
+     */
+    static MyIntLinkedListDisjointSetElement[] elementi(DisjointSets ds, int n) {
+        MyIntLinkedListDisjointSetElement[] elementi = new MyIntLinkedListDisjointSetElement[n];
+        for (int i = 0; i < n; i++) {
+            elementi[i] = new MyIntLinkedListDisjointSetElement(i);
+            ds.makeSet(elementi[i]);
+        }
+        return elementi;
+    }
+
+    @Test
+    final void testDelete() {
+        DisjointSets ds = crea();
+        MyIntLinkedListDisjointSetElement[] e = elementi(ds, 7);
+        ds.union(e[0], e[1]);
+        ds.union(e[0], e[2]);
+        ds.union(e[0], e[3]);
+        ds.union(e[4], e[5]);
+        DisjointSetElement rappresentante = ds.findSet(e[0]);
+        assertThrows(NullPointerException.class, () -> ds.delete(null));
+        assertThrows(IllegalArgumentException.class, () -> ds.delete(new MyIntLinkedListDisjointSetElement(9)));
+        //Elimino un elemento che non è il rappresentante
+        DisjointSetElement altro = rappresentante == e[3] ? e[2] : e[3];
+        ds.delete(altro);
+        assertFalse(ds.isPresent(altro));
+        assertSame(rappresentante, ds.findSet(e[0]));
+        assertEquals(3, ds.getCardinalityOfSetContaining(e[0]));
+        assertFalse(ds.getCurrentElementsOfSetContaining(e[0]).contains(altro));
+        assertEquals(3, ds.numberOfSets());
+        assertThrows(IllegalArgumentException.class, () -> ds.findSet(altro));
+        //Elimino il rappresentante: gli altri elementi restano insieme con un nuovo rappresentante
+        ds.delete(rappresentante);
+        Set<DisjointSetElement> rimasti = new HashSet<>(List.of(e[0], e[1], e[2], e[3]));
+        rimasti.remove(altro);
+        rimasti.remove(rappresentante);
+        assertEquals(2, rimasti.size());
+        Iterator<DisjointSetElement> iterator = rimasti.iterator();
+        DisjointSetElement primo = iterator.next();
+        DisjointSetElement secondo = iterator.next();
+        assertSame(ds.findSet(primo), ds.findSet(secondo));
+        assertTrue(rimasti.contains(ds.findSet(primo)));
+        assertEquals(rimasti, ds.getCurrentElementsOfSetContaining(primo));
+        assertEquals(2, ds.getCardinalityOfSetContaining(secondo));
+        assertEquals(3, ds.numberOfSets());
+        //Elimino un singoletto
+        ds.delete(e[6]);
+        assertEquals(2, ds.numberOfSets());
+        //Gli elementi eliminati possono essere reinseriti senza comparire due volte tra i rappresentanti
+        ds.makeSet(rappresentante);
+        ds.makeSet(altro);
+        ds.makeSet(e[6]);
+        Set<DisjointSetElement> rappresentanti = ds.getCurrentRepresentatives();
+        List<DisjointSetElement> visitati = new ArrayList<>(rappresentanti);
+        assertEquals(5, visitati.size());
+        assertEquals(5, new HashSet<>(visitati).size());
+        assertEquals(5, rappresentanti.size());
+        assertTrue(rappresentanti.contains(rappresentante));
+        ds.union(altro, primo);
+        assertEquals(3, ds.getCardinalityOfSetContaining(altro));
+        assertEquals(4, ds.numberOfSets());
+    }
+
+    @Test
+    final void testDeleteAgainstLabels() {
+        int n = 300;
+        DisjointSets ds = crea();
+        MyIntLinkedListDisjointSetElement[] e = elementi(ds, n);
+        //Etichetta dell'insieme di ogni elemento, -1 per gli elementi eliminati
+        int[] etichette = new int[n];
+        for (int i = 0; i < n; i++) etichette[i] = i;
+        int prossima = n;
+        Random random = new Random(7);
+        for (int passo = 0; passo < 4000; passo++) {
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            if (etichette[a] < 0) {
+                //Reinserisco un elemento eliminato, che può essere ancora vacante nel suo vecchio insieme
+                ds.makeSet(e[a]);
+                etichette[a] = prossima++;
+            } else if (random.nextInt(4) == 0) {
+                ds.delete(e[a]);
+                etichette[a] = -1;
+            } else if (etichette[b] >= 0) {
+                ds.union(e[a], e[b]);
+                int vecchia = etichette[b];
+                int nuova = etichette[a];
+                if (vecchia != nuova) for (int i = 0; i < n; i++) if (etichette[i] == vecchia) etichette[i] = nuova;
+            }
+            int x = random.nextInt(n);
+            if (etichette[x] < 0) {
+                assertFalse(ds.isPresent(e[x]));
+                continue;
+            }
+            Set<DisjointSetElement> attesi = new HashSet<>();
+            for (int i = 0; i < n; i++) if (etichette[i] == etichette[x]) attesi.add(e[i]);
+            DisjointSetElement rappresentante = ds.findSet(e[x]);
+            assertTrue(attesi.contains(rappresentante));
+            for (DisjointSetElement y : attesi) assertSame(rappresentante, ds.findSet(y));
+            assertEquals(attesi.size(), ds.getCardinalityOfSetContaining(e[x]));
+            assertEquals(attesi, ds.getCurrentElementsOfSetContaining(e[x]));
+            List<DisjointSetElement> membri = new ArrayList<>();
+            for (DisjointSetElement membro : ds.members(e[x])) membri.add(membro);
+            assertEquals(attesi.size(), membri.size());
+            assertEquals(attesi, new HashSet<>(membri));
+            List<DisjointSetElement> visitati = new ArrayList<>();
+            ds.forEachMember(e[x], visitati::add);
+            assertEquals(membri, visitati);
+            if (passo % 100 == 0) {
+                Set<Integer> componenti = new HashSet<>();
+                for (int i = 0; i < n; i++) if (etichette[i] >= 0) componenti.add(etichette[i]);
+                List<DisjointSetElement> rappresentanti = new ArrayList<>(ds.getCurrentRepresentatives());
+                assertEquals(componenti.size(), ds.numberOfSets());
+                assertEquals(componenti.size(), rappresentanti.size());
+                assertEquals(componenti.size(), new HashSet<>(rappresentanti).size());
+            }
+        }
+    }
+
+    @Test
+    final void testDeleteRelinks() {
+        D ds = crea();
+        MyIntLinkedListDisjointSetElement[] e = elementi(ds, 64);
+        for (int i = 1; i < 64; i++) ds.union(e[0], e[i]);
+        DisjointSetElement rappresentante = ds.findSet(e[0]);
+        long prima = ds.relinkedElements();
+        //Finché gli elementi vacanti non superano quelli presenti le eliminazioni non ricollegano nessuno
+        int eliminati = 0;
+        for (int i = 0; eliminati < 20; i++) {
+            if (e[i] == rappresentante) continue;
+            ds.delete(e[i]);
+            eliminati++;
+        }
+        assertEquals(prima, ds.relinkedElements());
+        assertEquals(44, ds.getCardinalityOfSetContaining(rappresentante));
+        //Eliminare il rappresentante sposta un solo riferimento
+        ds.delete(rappresentante);
+        assertEquals(prima + 1, ds.relinkedElements());
+        assertEquals(43, ds.getCardinalityOfSetContaining(e[63]));
+        assertEquals(1, ds.numberOfSets());
+    }
+
+    @Test
+    final void testForEachMemberAndMembers() {
+        DisjointSets ds = crea();
+        MyIntLinkedListDisjointSetElement[] e = new MyIntLinkedListDisjointSetElement[6];
+        for (int i = 0; i < 6; i++) {
+            e[i] = new MyIntLinkedListDisjointSetElement(i);
+            ds.makeSet(e[i]);
+        }
+        ds.union(e[0], e[1]);
+        ds.union(e[2], e[3]);
+        ds.union(e[4], e[2]);
+        ds.union(e[1], e[4]);
+        Set<DisjointSetElement> attesi = Set.of(e[0], e[1], e[2], e[3], e[4]);
+        List<DisjointSetElement> visitati = new ArrayList<>();
+        ds.forEachMember(e[3], visitati::add);
+        assertEquals(5, visitati.size());
+        assertEquals(attesi, new HashSet<>(visitati));
+        visitati.clear();
+        for (DisjointSetElement elemento : ds.members(e[1])) visitati.add(elemento);
+        assertEquals(5, visitati.size());
+        assertEquals(attesi, new HashSet<>(visitati));
+        Spliterator<DisjointSetElement> spliterator = ds.members(e[0]).spliterator();
+        assertEquals(5, spliterator.getExactSizeIfKnown());
+        assertEquals(attesi, StreamSupport.stream(spliterator, false).collect(Collectors.toSet()));
+        Iterator<DisjointSetElement> iterator = ds.members(e[5]).iterator();
+        assertSame(e[5], iterator.next());
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+        MyIntLinkedListDisjointSetElement assente = new MyIntLinkedListDisjointSetElement(6);
+        assertThrows(NullPointerException.class, () -> ds.forEachMember(null, visitati::add));
+        assertThrows(NullPointerException.class, () -> ds.forEachMember(e[0], null));
+        assertThrows(NullPointerException.class, () -> ds.members(null));
+        assertThrows(IllegalArgumentException.class, () -> ds.forEachMember(assente, visitati::add));
+        assertThrows(IllegalArgumentException.class, () -> ds.members(assente));
+    }
+
+    @Test
+    final void testRepresentativesView() {
+        DisjointSets ds = crea();
+        MyIntLinkedListDisjointSetElement[] e = new MyIntLinkedListDisjointSetElement[1000];
+        for (int i = 0; i < e.length; i++) {
+            e[i] = new MyIntLinkedListDisjointSetElement(i);
+            ds.makeSet(e[i]);
+        }
+        Set<DisjointSetElement> rappresentanti = ds.getCurrentRepresentatives();
+        assertEquals(1000, ds.numberOfSets());
+        assertThrows(UnsupportedOperationException.class, () -> rappresentanti.remove(e[0]));
+        assertThrows(UnsupportedOperationException.class, () -> rappresentanti.add(e[0]));
+        //Unisco gli elementi a coppie, poi a gruppi di 4 e così via, controllando che la vista resti aggiornata
+        for (int passo = 1; passo < e.length; passo *= 2) {
+            for (int i = 0; i + passo < e.length; i += 2 * passo) ds.union(e[i], e[i + passo]);
+            Set<DisjointSetElement> attesi = new HashSet<>();
+            for (MyIntLinkedListDisjointSetElement elemento : e) attesi.add(ds.findSet(elemento));
+            assertEquals(attesi.size(), ds.numberOfSets());
+            assertEquals(attesi.size(), rappresentanti.size());
+            assertEquals(attesi, rappresentanti);
+            for (MyIntLinkedListDisjointSetElement elemento : e) {
+                assertEquals(attesi.contains(elemento), rappresentanti.contains(elemento));
+            }
+        }
+        assertEquals(1, ds.numberOfSets());
+        Iterator<DisjointSetElement> iterator = rappresentanti.iterator();
+        iterator.next();
+        ds.makeSet(new MyIntLinkedListDisjointSetElement(1000));
+        assertThrows(ConcurrentModificationException.class, iterator::hasNext);
+        assertEquals(2, rappresentanti.size());
+    }
+
+}
@@ -0,0 +1,141 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Decoratore che associa ad ogni insieme di un'altra collezione di insiemi disgiunti un valore aggregato, ad esempio
+ * la somma, il minimo o il massimo dei valori dei suoi elementi, e lo mantiene aggiornato ad ogni unione come la
+ * cardinalità memorizzata nel numero del rappresentante.<br><br>
+ *
+ * Il valore di un insieme singoletto è calcolato dalla funzione iniziale al momento di makeSet; l'unione di due
+ * insiemi distinti combina i due valori con l'operatore indicato, che deve essere associativo, passando per primo il
+ * valore dell'insieme del primo elemento. Non è necessario che l'operatore sia commutativo: ad esempio una
+ * concatenazione mantiene l'ordine delle unioni.<br><br>
+ *
+ * I valori sono memorizzati in una mappa con chiave il rappresentante, che contiene solo gli insiemi esistenti, quindi
+ * {@link #getAggregate} costa una ricerca del rappresentante e un accesso alla mappa, senza scorrere gli elementi.
+ * Le chiavi sono confrontate per identità, come gli elementi nelle collezioni decorate.<br><br>
+ *
+ * La collezione decorata deve essere vuota e non deve essere modificata direttamente. L'eliminazione di un elemento
+ * non è supportata, perché in generale un valore aggregato non permette di togliere il contributo di un elemento.
+ *
+ * @param <A> il tipo dei valori aggregati
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+public class AggregatingDisjointSets<A> implements DisjointSets {
+
+    private final DisjointSets ds;
+    private final Function<? super DisjointSetElement, ? extends A> iniziale;
+    private final BinaryOperator<A> combinazione;
+    //Valore aggregato di ogni insieme esistente, con chiave il suo rappresentante
+    private final Map<DisjointSetElement, A> aggregati = new IdentityHashMap<>();
+
+    /**
+     * Decora una collezione vuota.
+     *
+     * @param ds       la collezione da decorare
+     * @param initial  la funzione che calcola il valore di un insieme singoletto dal suo elemento
+     * @param combiner l'operatore associativo che combina i valori di due insiemi uniti
+     * @throws NullPointerException     se uno degli argomenti è null
+     * @throws IllegalArgumentException se la collezione non è vuota
+     */
+    public AggregatingDisjointSets(DisjointSets ds, Function<? super DisjointSetElement, ? extends A> initial,
+                                   BinaryOperator<A> combiner) {
+        if (ds == null || initial == null || combiner == null) throw new NullPointerException("Argomento null");
+        if (ds.numberOfSets() != 0) throw new IllegalArgumentException("La collezione decorata deve essere vuota");
+        this.ds = ds;
+        iniziale = initial;
+        combinazione = combiner;
+    }
+
+    /**
+     * Restituisce il valore aggregato dell'insieme di cui fa parte un elemento. Complessità pari a quella di findSet
+     * nella collezione decorata.
+     *
+     * @param e l'elemento di cui si vuole il valore aggregato dell'insieme
+     * @return il valore aggregato dell'insieme di e
+     * @throws NullPointerException     se l'elemento è null
+     * @throws IllegalArgumentException se l'elemento non è presente
+     */
+    public A getAggregate(DisjointSetElement e) {
+        return aggregati.get(ds.findSet(e));
+    }
+
+    @Override
+    public boolean isPresent(DisjointSetElement e) {
+        return ds.isPresent(e);
+    }
+
+    /**
+     * @throws NullPointerException se la funzione iniziale restituisce null
+     */
+    @Override
+    public void makeSet(DisjointSetElement e) {
+        //Le eccezioni vengono lanciate prima di modificare la collezione decorata
+        if (e == null) throw new NullPointerException("Elemento null");
+        if (ds.isPresent(e)) throw new IllegalArgumentException("L'elemento passato fa già parte di un insieme " +
+                "disgiunto");
+        A valore = iniziale.apply(e);
+        if (valore == null) throw new NullPointerException("Valore iniziale null");
+        ds.makeSet(e);
+        aggregati.put(e, valore);
+    }
+
+    @Override
+    public DisjointSetElement findSet(DisjointSetElement e) {
+        return ds.findSet(e);
+    }
+
+    /**
+     * @throws NullPointerException se l'operatore restituisce null
+     */
+    @Override
+    public void union(DisjointSetElement e1, DisjointSetElement e2) {
+        //Le eccezioni per elementi null o assenti vengono lanciate qui dalla collezione decorata
+        DisjointSetElement r1 = ds.findSet(e1);
+        DisjointSetElement r2 = ds.findSet(e2);
+        if (r1 == r2) return;
+        A valore = combinazione.apply(aggregati.get(r1), aggregati.get(r2));
+        if (valore == null) throw new NullPointerException("Valore combinato null");
+        ds.union(e1, e2);
+        aggregati.remove(r1);
+        aggregati.remove(r2);
+        aggregati.put(ds.findSet(e1), valore);
+    }
+
+    @Override
+    public Set<DisjointSetElement> getCurrentRepresentatives() {
+        return ds.getCurrentRepresentatives();
+    }
+
+    @Override
+    public int numberOfSets() {
+        return ds.numberOfSets();
+    }
+
+    @Override
+    public Set<DisjointSetElement> getCurrentElementsOfSetContaining(DisjointSetElement e) {
+        return ds.getCurrentElementsOfSetContaining(e);
+    }
+
+    @Override
+    public void forEachMember(DisjointSetElement e, Consumer<? super DisjointSetElement> action) {
+        ds.forEachMember(e, action);
+    }
+
+    @Override
+    public Iterable<DisjointSetElement> members(DisjointSetElement e) {
+        return ds.members(e);
+    }
+
+    @Override
+    public int getCardinalityOfSetContaining(DisjointSetElement e) {
+        return ds.getCardinalityOfSetContaining(e);
+    }
+
+}
@@ -0,0 +1,114 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Classe di test per AggregatingDisjointSets
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+class AggregatingDisjointSetsTest {
+
+    private static int valore(DisjointSetElement e) {
+        return ((MyIntLinkedListDisjointSetElement) e).getValue();
+    }
+
+    @Test
+    final void testAggregatingDisjointSets() {
+        assertThrows(NullPointerException.class, () -> new AggregatingDisjointSets<>(null,
+                AggregatingDisjointSetsTest::valore, Integer::sum));
+        assertThrows(NullPointerException.class, () -> new AggregatingDisjointSets<>(new ForestDisjointSets(), null,
+                Integer::sum));
+        assertThrows(NullPointerException.class, () -> new AggregatingDisjointSets<Integer>(new ForestDisjointSets(),
+                AggregatingDisjointSetsTest::valore, null));
+        DisjointSets piena = new ForestDisjointSets();
+        piena.makeSet(new MyIntLinkedListDisjointSetElement(1));
+        assertThrows(IllegalArgumentException.class, () -> new AggregatingDisjointSets<>(piena,
+                AggregatingDisjointSetsTest::valore, Integer::sum));
+    }
+
+    @Test
+    final void testSum() {
+        AggregatingDisjointSets<Integer> ds = new AggregatingDisjointSets<>(new LinkedListDisjointSets(),
+                AggregatingDisjointSetsTest::valore, Integer::sum);
+        MyIntLinkedListDisjointSetElement[] e = AbstractDisjointSetsTest.elementi(ds, 6);
+        for (int i = 0; i < 6; i++) assertEquals(i, ds.getAggregate(e[i]));
+        ds.union(e[1], e[2]);
+        ds.union(e[3], e[2]);
+        ds.union(e[4], e[5]);
+        assertEquals(6, ds.getAggregate(e[1]));
+        assertEquals(6, ds.getAggregate(e[3]));
+        assertEquals(9, ds.getAggregate(e[5]));
+        //Un'unione tra elementi dello stesso insieme non cambia il valore
+        ds.union(e[1], e[3]);
+        assertEquals(6, ds.getAggregate(e[2]));
+        ds.union(e[5], e[1]);
+        assertEquals(15, ds.getAggregate(e[4]));
+        assertEquals(0, ds.getAggregate(e[0]));
+        assertEquals(2, ds.numberOfSets());
+        assertEquals(5, ds.getCardinalityOfSetContaining(e[1]));
+        assertEquals(Set.of(e[0], ds.findSet(e[1])), ds.getCurrentRepresentatives());
+        assertThrows(NullPointerException.class, () -> ds.getAggregate(null));
+        assertThrows(IllegalArgumentException.class, () -> ds.getAggregate(new MyIntLinkedListDisjointSetElement(9)));
+        assertThrows(UnsupportedOperationException.class, () -> ds.delete(e[0]));
+    }
+
+    @Test
+    final void testOrder() {
+        //La concatenazione non è commutativa: il valore dell'insieme del primo elemento viene per primo
+        AggregatingDisjointSets<String> ds = new AggregatingDisjointSets<>(new ForestDisjointSets(),
+                e -> Integer.toString(valore(e)), String::concat);
+        MyIntLinkedListDisjointSetElement[] e = AbstractDisjointSetsTest.elementi(ds, 4);
+        ds.union(e[2], e[0]);
+        ds.union(e[1], e[3]);
+        ds.union(e[3], e[0]);
+        assertEquals("1320", ds.getAggregate(e[0]));
+    }
+
+    @Test
+    final void testExceptions() {
+        AggregatingDisjointSets<Integer> ds = new AggregatingDisjointSets<>(new ForestDisjointSets(),
+                e -> valore(e) == 3 ? null : valore(e), (a, b) -> a + b == 10 ? null : a + b);
+        MyIntLinkedListDisjointSetElement[] e = AbstractDisjointSetsTest.elementi(ds, 3);
+        assertThrows(NullPointerException.class, () -> ds.makeSet(null));
+        assertThrows(IllegalArgumentException.class, () -> ds.makeSet(e[0]));
+        //Un valore null viene rifiutato senza modificare la collezione decorata
+        MyIntLinkedListDisjointSetElement tre = new MyIntLinkedListDisjointSetElement(3);
+        assertThrows(NullPointerException.class, () -> ds.makeSet(tre));
+        assertFalse(ds.isPresent(tre));
+        MyIntLinkedListDisjointSetElement otto = new MyIntLinkedListDisjointSetElement(8);
+        ds.makeSet(otto);
+        assertThrows(NullPointerException.class, () -> ds.union(e[2], otto));
+        assertNotSame(ds.findSet(e[2]), ds.findSet(otto));
+        assertThrows(NullPointerException.class, () -> ds.union(e[0], null));
+        assertThrows(IllegalArgumentException.class, () -> ds.union(e[0], tre));
+        assertEquals(4, ds.numberOfSets());
+    }
+
+    @Test
+    final void testRandomAgainstFold() {
+        int n = 300;
+        AggregatingDisjointSets<int[]> ds = new AggregatingDisjointSets<>(new ForestDisjointSets(),
+                e -> new int[]{valore(e), valore(e)},
+                (a, b) -> new int[]{Math.min(a[0], b[0]), Math.max(a[1], b[1])});
+        MyIntLinkedListDisjointSetElement[] e = AbstractDisjointSetsTest.elementi(ds, n);
+        Random random = new Random(42);
+        for (int passo = 0; passo < 250; passo++) {
+            ds.union(e[random.nextInt(n)], e[random.nextInt(n)]);
+            MyIntLinkedListDisjointSetElement x = e[random.nextInt(n)];
+            int minimo = Integer.MAX_VALUE;
+            int massimo = Integer.MIN_VALUE;
+            for (DisjointSetElement membro : ds.getCurrentElementsOfSetContaining(x)) {
+                minimo = Math.min(minimo, valore(membro));
+                massimo = Math.max(massimo, valore(membro));
+            }
+            assertArrayEquals(new int[]{minimo, massimo}, ds.getAggregate(x));
+        }
+    }
+
+}
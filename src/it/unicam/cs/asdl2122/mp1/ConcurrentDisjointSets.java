@@ -0,0 +1,232 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Insiemi disgiunti sugli interi da 0 a n-1 che possono essere usati da più thread contemporaneamente senza lock,
+ * secondo l'algoritmo di Jayanti e Tarjan con collegamento per priorità casuale.<br><br>
+ *
+ * I padri sono in un {@link AtomicIntegerArray} e ogni modifica avviene con un compare-and-set: una radice è padre
+ * di se stessa e {@link ConcurrentDisjointSets#union} collega una radice all'altra solo se è ancora una radice,
+ * ripetendo la ricerca altrimenti. {@link ConcurrentDisjointSets#find} accorcia i cammini con il dimezzamento, anche
+ * questo con compare-and-set che, se falliscono, lasciano semplicemente il cammino com'era.<br><br>
+ *
+ * Invece del rango, che non può essere aggiornato insieme al padre con una sola operazione atomica, ogni elemento ha
+ * una priorità pseudo-casuale fissa ricavata dal suo indice e la radice con priorità minore viene collegata a quella
+ * con priorità maggiore. L'altezza attesa degli alberi resta O(log n) e la complessità ammortizzata attesa di ogni
+ * operazione è quella della versione sequenziale.<br><br>
+ *
+ * Tutte le operazioni sono lock-free e linearizzabili, quindi {@link ConcurrentDisjointSets#sameSet} può essere
+ * chiamato mentre altri thread stanno unendo insiemi. Le cardinalità degli insiemi non sono disponibili, perché non
+ * si possono mantenere in modo atomico con i padri; {@link ConcurrentDisjointSets#numberOfSets} è esatto quando non
+ * ci sono unioni in corso.<br><br>
+ *
+ * {@link ConcurrentDisjointSets#unionAll} applica una lista di archi dividendola tra i thread di un
+ * {@link ForkJoinPool}.
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+public class ConcurrentDisjointSets {
+
+    private final AtomicIntegerArray padre;
+    private final AtomicInteger numeroInsiemi;
+
+    /**
+     * Crea n insiemi singoletto, uno per ogni intero da 0 a n-1.
+     *
+     * @param n il numero di elementi
+     * @throws IllegalArgumentException se n è negativo
+     */
+    public ConcurrentDisjointSets(int n) {
+        if (n < 0) throw new IllegalArgumentException("Il numero di elementi non può essere negativo");
+        padre = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i++) padre.set(i, i);
+        numeroInsiemi = new AtomicInteger(n);
+    }
+
+    /**
+     * Restituisce il numero di elementi.
+     *
+     * @return n
+     */
+    public int capacity() {
+        return padre.length();
+    }
+
+    /**
+     * Restituisce il numero di insiemi disgiunti. Se ci sono unioni in corso il valore può non tenere conto di quelle
+     * non ancora terminate.
+     *
+     * @return il numero di insiemi
+     */
+    public int numberOfSets() {
+        return numeroInsiemi.get();
+    }
+
+    private void controlla(int x) {
+        if (x < 0 || x >= padre.length()) throw new IllegalArgumentException("L'elemento " + x + " non è " +
+                "compreso tra 0 e " + (padre.length() - 1));
+    }
+
+    /*
+        Priorità fissa di un elemento, una permutazione pseudo-casuale degli indici
+     */
+    private static int priorita(int x) {
+        x *= 0x9E3779B9;
+        x ^= x >>> 16;
+        x *= 0x85EBCA6B;
+        return x ^ (x >>> 13);
+    }
+
+    /*
+        Determina se la radice a va collegata sotto la radice b
+     */
+    private static boolean precede(int a, int b) {
+        int pa = priorita(a);
+        int pb = priorita(b);
+        return pa < pb || (pa == pb && a < b);
+    }
+
+    /*
+        Radice di x con il dimezzamento dei cammini. Un compare-and-set fallito significa che un altro thread ha già
+        cambiato il padre di x con un antenato, quindi si può proseguire comunque
+     */
+    private int radice(int x) {
+        int p = padre.get(x);
+        while (p != x) {
+            int nonno = padre.get(p);
+            if (p != nonno) padre.compareAndSet(x, p, nonno);
+            x = nonno;
+            p = padre.get(x);
+        }
+        return x;
+    }
+
+    /**
+     * Restituisce il rappresentante dell'insieme di cui fa parte x. Se ci sono unioni in corso il rappresentante
+     * restituito era corretto in un istante durante la chiamata.
+     *
+     * @param x l'elemento di cui cercare il rappresentante
+     * @return il rappresentante dell'insieme di x
+     * @throws IllegalArgumentException se x non è compreso tra 0 e n-1
+     */
+    public int find(int x) {
+        controlla(x);
+        return radice(x);
+    }
+
+    /**
+     * Determina se due elementi fanno parte dello stesso insieme.
+     *
+     * @param x il primo elemento
+     * @param y il secondo elemento
+     * @return true se x e y fanno parte dello stesso insieme
+     * @throws IllegalArgumentException se x o y non sono compresi tra 0 e n-1
+     */
+    public boolean sameSet(int x, int y) {
+        controlla(x);
+        controlla(y);
+        while (true) {
+            int rx = radice(x);
+            int ry = radice(y);
+            if (rx == ry) return true;
+            //Se rx è ancora una radice allora c'è stato un istante in cui x e y erano in insiemi diversi
+            if (padre.get(rx) == rx) return false;
+        }
+    }
+
+    /**
+     * Unisce gli insiemi di cui fanno parte i due elementi.
+     *
+     * @param x un elemento del primo insieme
+     * @param y un elemento del secondo insieme
+     * @return true se questa chiamata ha unito due insiemi distinti, false se x e y erano già nello stesso insieme
+     * @throws IllegalArgumentException se x o y non sono compresi tra 0 e n-1
+     */
+    public boolean union(int x, int y) {
+        controlla(x);
+        controlla(y);
+        while (true) {
+            int rx = radice(x);
+            int ry = radice(y);
+            if (rx == ry) return false;
+            if (precede(ry, rx)) {
+                int t = rx;
+                rx = ry;
+                ry = t;
+            }
+            //Collego rx sotto ry solo se nel frattempo nessuno lo ha collegato ad un'altra radice
+            if (padre.compareAndSet(rx, rx, ry)) {
+                numeroInsiemi.decrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Unisce gli insiemi di ogni coppia {@code (from[i], to[i])} usando i thread del pool comune. Equivale a chiamare
+     * {@link ConcurrentDisjointSets#union} per ogni coppia, in un ordine qualsiasi.
+     *
+     * @param from il primo elemento di ogni coppia
+     * @param to   il secondo elemento di ogni coppia
+     * @throws NullPointerException     se uno dei due array è null
+     * @throws IllegalArgumentException se gli array hanno lunghezze diverse o contengono elementi non compresi tra
+     *                                  0 e n-1, nel qual caso alcune coppie possono essere già state unite
+     */
+    public void unionAll(int[] from, int[] to) {
+        unionAll(from, to, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Unisce gli insiemi di ogni coppia {@code (from[i], to[i])} usando i thread del pool passato.
+     *
+     * @param from il primo elemento di ogni coppia
+     * @param to   il secondo elemento di ogni coppia
+     * @param pool il pool in cui eseguire le unioni
+     * @throws NullPointerException     se uno degli argomenti è null
+     * @throws IllegalArgumentException se gli array hanno lunghezze diverse o contengono elementi non compresi tra
+     *                                  0 e n-1, nel qual caso alcune coppie possono essere già state unite
+     */
+    public void unionAll(int[] from, int[] to, ForkJoinPool pool) {
+        if (from == null || to == null || pool == null) throw new NullPointerException("Argomento null");
+        if (from.length != to.length) throw new IllegalArgumentException("Gli array hanno lunghezze diverse");
+        pool.invoke(new Unioni(from, to, 0, from.length));
+    }
+
+    /*
+        Divide a metà l'intervallo di coppie finché non è abbastanza piccolo da unirlo direttamente
+     */
+    private class Unioni extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        //Coppie sotto le quali non conviene più dividere il lavoro
+        private static final int SOGLIA = 1 << 14;
+
+        private final int[] da;
+        private final int[] a;
+        private final int inizio;
+        private final int fine;
+
+        Unioni(int[] da, int[] a, int inizio, int fine) {
+            this.da = da;
+            this.a = a;
+            this.inizio = inizio;
+            this.fine = fine;
+        }
+
+        @Override
+        protected void compute() {
+            if (fine - inizio <= SOGLIA) {
+                for (int i = inizio; i < fine; i++) union(da[i], a[i]);
+                return;
+            }
+            int meta = (inizio + fine) >>> 1;
+            invokeAll(new Unioni(da, a, inizio, meta), new Unioni(da, a, meta, fine));
+        }
+    }
+
+}
@@ -0,0 +1,100 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per ConcurrentDisjointSets
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+class ConcurrentDisjointSetsTest {
+
+    @Test
+    final void testConcurrentDisjointSets() {
+        ConcurrentDisjointSets ds = new ConcurrentDisjointSets(5);
+        assertEquals(5, ds.capacity());
+        assertEquals(5, ds.numberOfSets());
+        for (int i = 0; i < 5; i++) assertEquals(i, ds.find(i));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentDisjointSets(-1));
+        assertThrows(IllegalArgumentException.class, () -> ds.find(5));
+        assertThrows(IllegalArgumentException.class, () -> ds.union(-1, 0));
+        assertThrows(IllegalArgumentException.class, () -> ds.sameSet(0, 5));
+    }
+
+    @Test
+    final void testUnion() {
+        ConcurrentDisjointSets ds = new ConcurrentDisjointSets(5);
+        assertTrue(ds.union(0, 1));
+        assertTrue(ds.union(2, 3));
+        assertFalse(ds.union(1, 0));
+        assertTrue(ds.sameSet(0, 1));
+        assertFalse(ds.sameSet(1, 2));
+        assertEquals(3, ds.numberOfSets());
+        assertTrue(ds.union(3, 0));
+        assertTrue(ds.sameSet(1, 2));
+        assertEquals(ds.find(0), ds.find(3));
+        assertFalse(ds.sameSet(4, 0));
+        assertEquals(2, ds.numberOfSets());
+    }
+
+    @Test
+    final void testParallelUnion() throws InterruptedException {
+        int n = 20000;
+        int archi = 16000;
+        int[] da = new int[archi];
+        int[] a = new int[archi];
+        Random random = new Random(3);
+        IntDisjointSets attesi = new IntDisjointSets(n);
+        for (int i = 0; i < archi; i++) {
+            da[i] = random.nextInt(n);
+            a[i] = random.nextInt(n);
+            attesi.union(da[i], a[i]);
+        }
+        ConcurrentDisjointSets ds = new ConcurrentDisjointSets(n);
+        AtomicInteger unioni = new AtomicInteger();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            int primo = t;
+            threads[t] = new Thread(() -> {
+                //Ogni thread applica tutti gli archi in un ordine diverso, così molte unioni sono in conflitto
+                for (int i = 0; i < archi; i++) {
+                    int j = (i * 7 + primo * 1999) % archi;
+                    if (ds.union(da[j], a[j])) unioni.incrementAndGet();
+                    ds.sameSet(da[i], a[j]);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) thread.join();
+        assertEquals(attesi.numberOfSets(), ds.numberOfSets());
+        assertEquals(n - attesi.numberOfSets(), unioni.get());
+        for (int i = 0; i < n; i++) {
+            int j = random.nextInt(n);
+            assertEquals(attesi.sameSet(i, j), ds.sameSet(i, j));
+        }
+    }
+
+    @Test
+    final void testUnionAll() {
+        ConcurrentDisjointSets ds = new ConcurrentDisjointSets(100000);
+        int[] da = new int[99999];
+        int[] a = new int[99999];
+        //Una catena che collega tutti i nodi
+        for (int i = 0; i < da.length; i++) {
+            da[i] = i;
+            a[i] = i + 1;
+        }
+        ds.unionAll(da, a);
+        assertEquals(1, ds.numberOfSets());
+        assertTrue(ds.sameSet(0, 99999));
+        assertThrows(NullPointerException.class, () -> ds.unionAll(null, a));
+        assertThrows(IllegalArgumentException.class, () -> ds.unionAll(new int[1], new int[2]));
+        assertThrows(IllegalArgumentException.class, () -> ds.unionAll(new int[]{0}, new int[]{100000}));
+    }
+
+}
@@ -0,0 +1,467 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Multinsieme thread-safe. Gli elementi sono le chiavi di una {@link ConcurrentHashMap} e ad ognuno è associato un
+ * contatore {@link AtomicInteger} con le sue occorrenze, così che thread che lavorano su elementi diversi non si
+ * contendano mai lo stesso lock o la stessa variabile.<br><br>
+ *
+ * Le operazioni {@link ConcurrentMultiset#add}, {@link ConcurrentMultiset#remove} e
+ * {@link ConcurrentMultiset#setCount} sono atomiche e realizzate con compareAndSet sul contatore dell'elemento. Un
+ * contatore che arriva a zero viene tolto dalla mappa; un thread che trova un contatore a zero non ancora tolto lo
+ * considera assente e lo sostituisce con uno nuovo.<br><br>
+ *
+ * La dimensione totale è mantenuta in un {@link LongAdder}, quindi aggiornarla non crea contesa tra i thread; il
+ * valore restituito da {@link ConcurrentMultiset#size} è esatto quando non ci sono modifiche in corso.<br><br>
+ *
+ * Gli iteratori e le viste sono <b>weakly consistent</b> come quelli di {@link ConcurrentHashMap}: non lanciano mai
+ * {@code ConcurrentModificationException} e possono riflettere o meno le modifiche fatte dopo la loro creazione. Per
+ * questo motivo questa classe non rispetta la richiesta di iteratore fail-fast di {@link Multiset#iterator}.
+ *
+ * @param <E> il tipo degli elementi del multiset
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+public class ConcurrentMultiset<E> implements Multiset<E> {
+
+    private final ConcurrentHashMap<E, AtomicInteger> mappa;
+    private final LongAdder size;
+
+    /**
+     * Crea un multiset vuoto.
+     */
+    public ConcurrentMultiset() {
+        mappa = new ConcurrentHashMap<>();
+        size = new LongAdder();
+    }
+
+    /**
+     * Restituisce il numero totale di occorrenze. Se il totale supera Integer.MAX_VALUE restituisce
+     * Integer.MAX_VALUE.
+     *
+     * @return la dimensione del multinsieme
+     */
+    @Override
+    public int size() {
+        //Ogni contatore e il totale vengono aggiornati in due passi separati, quindi durante aggiunte e rimozioni
+        //concorrenti la somma può essere momentaneamente negativa
+        long totale = size.sum();
+        if (totale < 0) return 0;
+        return totale > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) totale;
+    }
+
+    /**
+     * Restituisco le occorrenze di un elemento
+     *
+     * @param element l'elemento di cui contare le occorrenze
+     * @return numero di occorrenze di {@code element}. Restituisco 0 se non presente
+     * @throws NullPointerException se element è null
+     */
+    @Override
+    public int count(Object element) {
+        if (element == null) throw new NullPointerException("L'elemento passato al count è null");
+        AtomicInteger contatore = mappa.get(element);
+        return contatore == null ? 0 : contatore.get();
+    }
+
+    /*
+        Prova ad inserire un contatore nuovo al posto di uno assente o arrivato a zero. Restituisce false se un altro
+        thread ha inserito un contatore valido nel frattempo
+     */
+    private boolean sostituisci(E element, AtomicInteger morto, int occorrenze) {
+        AtomicInteger nuovo = new AtomicInteger(occorrenze);
+        boolean inserito = morto == null ? mappa.putIfAbsent(element, nuovo) == null
+                : mappa.replace(element, morto, nuovo);
+        if (inserito) size.add(occorrenze);
+        return inserito;
+    }
+
+    /**
+     * Aggiunge atomicamente delle occorrenze di un elemento.
+     *
+     * @param element     l'elemento di cui aggiungere le occorrenze
+     * @param occurrences il numero di occorrenze dell'elemento da aggiungere. Può essere zero, nel qual caso non
+     *                    verrà apportata alcuna modifica.
+     * @return il numero di occorrenze dell'elemento prima dell'operazione
+     * @throws NullPointerException     se element è null
+     * @throws IllegalArgumentException se le occorrenze sono negative o se si superasse Integer.MAX_VALUE
+     */
+    @Override
+    public int add(E element, int occurrences) {
+        if (element == null) throw new NullPointerException("L'elemento da aggiungere è null");
+        if (occurrences < 0) throw new IllegalArgumentException("Non si possono aggiungere valori negativi");
+        if (occurrences == 0) return count(element);
+        while (true) {
+            AtomicInteger contatore = mappa.get(element);
+            if (contatore == null) {
+                if (sostituisci(element, null, occurrences)) return 0;
+                continue;
+            }
+            int vecchie = contatore.get();
+            while (vecchie != 0) {
+                if (((long) vecchie) + occurrences > Integer.MAX_VALUE) throw new IllegalArgumentException("Questa " +
+                        "operazione aggiungerebbe un numero maggiore di Integer.MAX_VALUE");
+                if (contatore.compareAndSet(vecchie, vecchie + occurrences)) {
+                    size.add(occurrences);
+                    return vecchie;
+                }
+                vecchie = contatore.get();
+            }
+            //Il contatore è arrivato a zero, quindi l'elemento è da considerare assente
+            if (sostituisci(element, contatore, occurrences)) return 0;
+        }
+    }
+
+    /**
+     * Variante del metodo add che aggiunge una sola occorrenza.
+     *
+     * @param element l'elemento di cui aggiungere l'occorrenza
+     * @throws NullPointerException se element è null
+     */
+    @Override
+    public void add(E element) {
+        add(element, 1);
+    }
+
+    /**
+     * Rimuove atomicamente delle occorrenze di un elemento. Se le occorrenze da togliere superano quelle presenti,
+     * rimuovo l'elemento.
+     *
+     * @param element     l'elemento di cui rimuovere le occorrenze
+     * @param occurrences il numero di occorrenze da rimuovere. Può essere zero, nel qual caso non verrà apportata
+     *                    alcuna modifica
+     * @return numero di occorrenze prima dell'operazione
+     * @throws NullPointerException     se element è null
+     * @throws IllegalArgumentException se le occorrenze sono negative
+     */
+    @Override
+    public int remove(Object element, int occurrences) {
+        if (element == null) throw new NullPointerException("Elemento da rimuovere null");
+        if (occurrences < 0) throw new IllegalArgumentException("Occorrenze da rimuovere negative");
+        AtomicInteger contatore = mappa.get(element);
+        if (contatore == null) return 0;
+        if (occurrences == 0) return contatore.get();
+        while (true) {
+            int vecchie = contatore.get();
+            if (vecchie == 0) return 0;
+            int nuove = Math.max(0, vecchie - occurrences);
+            if (contatore.compareAndSet(vecchie, nuove)) {
+                if (nuove == 0) mappa.remove(element, contatore);
+                size.add(nuove - vecchie);
+                return vecchie;
+            }
+        }
+    }
+
+    /**
+     * Variante del metodo remove che rimuove una sola occorrenza.
+     *
+     * @param element l'elemento di cui rimuovere l'occorrenza
+     * @return vero se è stata rimossa un'occorrenza, falso altrimenti
+     * @throws NullPointerException se element è null
+     */
+    @Override
+    public boolean remove(Object element) {
+        return remove(element, 1) > 0;
+    }
+
+    /**
+     * Imposta atomicamente un certo numero di occorrenze per un elemento.
+     *
+     * @param element l'elemento di cui aggiungere o togliere occorrenze
+     * @param count   numero di occorrenze da impostare
+     * @return numero di occorrenze prima dell'operazione
+     * @throws NullPointerException     se element è null
+     * @throws IllegalArgumentException se count è negativo
+     */
+    @Override
+    public int setCount(E element, int count) {
+        if (element == null) throw new NullPointerException("Elemento da modificare null");
+        if (count < 0) throw new IllegalArgumentException("Numero di occorrenze negativo");
+        while (true) {
+            AtomicInteger contatore = mappa.get(element);
+            if (contatore == null) {
+                if (count == 0 || sostituisci(element, null, count)) return 0;
+                continue;
+            }
+            int vecchie = contatore.get();
+            if (vecchie == 0) {
+                if (count == 0 || sostituisci(element, contatore, count)) return 0;
+                continue;
+            }
+            if (contatore.compareAndSet(vecchie, count)) {
+                if (count == 0) mappa.remove(element, contatore);
+                size.add(count - vecchie);
+                return vecchie;
+            }
+        }
+    }
+
+    /**
+     * Imposta il numero di occorrenze di un elemento solo se quello corrente è uguale a quello atteso. L'operazione
+     * è atomica: controllo e modifica avvengono insieme.
+     *
+     * @param element  l'elemento di cui modificare le occorrenze
+     * @param expected il numero di occorrenze atteso, possibilmente zero
+     * @param count    il nuovo numero di occorrenze
+     * @return true se le occorrenze erano quelle attese e sono state modificate, false altrimenti
+     * @throws NullPointerException     se element è null
+     * @throws IllegalArgumentException se expected o count sono negativi
+     */
+    public boolean setCount(E element, int expected, int count) {
+        if (element == null) throw new NullPointerException("Elemento da modificare null");
+        if (expected < 0 || count < 0) throw new IllegalArgumentException("Numero di occorrenze negativo");
+        while (true) {
+            AtomicInteger contatore = mappa.get(element);
+            int vecchie = contatore == null ? 0 : contatore.get();
+            if (vecchie != expected) return false;
+            if (vecchie == 0) {
+                if (count == 0 || sostituisci(element, contatore, count)) return true;
+                continue;
+            }
+            if (contatore.compareAndSet(vecchie, count)) {
+                if (count == 0) mappa.remove(element, contatore);
+                size.add(count - vecchie);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Restituisce una vista weakly consistent sugli elementi distinti.
+     *
+     * @return set degli elementi, senza le eventuali occorrenze
+     */
+    @Override
+    public Set<E> elementSet() {
+        return new VistaElementi();
+    }
+
+    /**
+     * Restituisce una vista weakly consistent sulle coppie (elemento, occorrenze). Ogni coppia contiene le occorrenze
+     * lette nel momento in cui l'iteratore la restituisce.
+     *
+     * @return set delle coppie, una per ogni elemento distinto
+     */
+    @Override
+    public Set<Multiset.Entry<E>> entrySet() {
+        return new VistaCoppie();
+    }
+
+    @Override
+    public void forEachEntry(ObjIntConsumer<? super E> action) {
+        if (action == null) throw new NullPointerException("Azione null");
+        for (Map.Entry<E, AtomicInteger> entry : mappa.entrySet()) {
+            int occorrenze = entry.getValue().get();
+            if (occorrenze > 0) action.accept(entry.getKey(), occorrenze);
+        }
+    }
+
+    /**
+     * Crea un iteratore weakly consistent che presenta ogni elemento tante volte quante erano le sue occorrenze nel
+     * momento in cui l'iteratore lo ha raggiunto.
+     *
+     * @return iterator
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * Verifica se un elemento è contenuto nel multinsieme.
+     *
+     * @param element l'elemento da cercare
+     * @return true se è nell'insieme, false altrimenti
+     * @throws NullPointerException se element è null
+     */
+    @Override
+    public boolean contains(Object element) {
+        return count(element) > 0;
+    }
+
+    /**
+     * Rimuove tutte le occorrenze di ogni elemento. Le aggiunte fatte in concorrenza con questo metodo possono
+     * essere conservate o meno.
+     */
+    @Override
+    public void clear() {
+        for (Map.Entry<E, AtomicInteger> entry : mappa.entrySet()) {
+            AtomicInteger contatore = entry.getValue();
+            int vecchie = contatore.getAndSet(0);
+            mappa.remove(entry.getKey(), contatore);
+            size.add(-vecchie);
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /*
+        Iteratore weakly consistent sulle occorrenze
+     */
+    private class Itr implements Iterator<E> {
+        private final Iterator<Map.Entry<E, AtomicInteger>> iteratore;
+        private E corrente;
+        private int rimanenti;
+
+        private Itr() {
+            iteratore = mappa.entrySet().iterator();
+            rimanenti = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (rimanenti == 0 && iteratore.hasNext()) {
+                Map.Entry<E, AtomicInteger> entry = iteratore.next();
+                corrente = entry.getKey();
+                rimanenti = entry.getValue().get();
+            }
+            return rimanenti > 0;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) throw new NoSuchElementException("Non ci sono altri elementi");
+            rimanenti--;
+            return corrente;
+        }
+    }
+
+    /*
+        Vista sugli elementi distinti, legge direttamente le chiavi della mappa
+     */
+    private class VistaElementi extends AbstractSet<E> {
+
+        @Override
+        public int size() {
+            return mappa.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o != null && ConcurrentMultiset.this.contains(o);
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            Iterator<Map.Entry<E, AtomicInteger>> iteratore = mappa.entrySet().iterator();
+            return new Iterator<E>() {
+                private E prossimo = avanza();
+                private E ultimo;
+
+                //Salta i contatori arrivati a zero e non ancora tolti dalla mappa, come VistaCoppie
+                private E avanza() {
+                    while (iteratore.hasNext()) {
+                        Map.Entry<E, AtomicInteger> entry = iteratore.next();
+                        if (entry.getValue().get() > 0) return entry.getKey();
+                    }
+                    return null;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return prossimo != null;
+                }
+
+                @Override
+                public E next() {
+                    if (prossimo == null) throw new NoSuchElementException("Non ci sono altri elementi");
+                    ultimo = prossimo;
+                    prossimo = avanza();
+                    return ultimo;
+                }
+
+                @Override
+                public void remove() {
+                    if (ultimo == null) throw new IllegalStateException("Nessun elemento da rimuovere");
+                    ConcurrentMultiset.this.setCount(ultimo, 0);
+                    ultimo = null;
+                }
+            };
+        }
+
+        //Aggiungere un elemento assente equivale ad aggiungerne una occorrenza
+        @Override
+        public boolean add(E e) {
+            return ConcurrentMultiset.this.setCount(e, 0, 1);
+        }
+
+        //Rimuovere un elemento dalla vista ne toglie tutte le occorrenze
+        @Override
+        public boolean remove(Object o) {
+            return o != null && ConcurrentMultiset.this.remove(o, Integer.MAX_VALUE) > 0;
+        }
+
+        @Override
+        public void clear() {
+            ConcurrentMultiset.this.clear();
+        }
+    }
+
+    /*
+        Vista sulle coppie (elemento, occorrenze), ogni coppia è una fotografia del contatore
+     */
+    private class VistaCoppie extends AbstractSet<Multiset.Entry<E>> {
+
+        @Override
+        public int size() {
+            return mappa.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Multiset.Entry)) return false;
+            Multiset.Entry<?> coppia = (Multiset.Entry<?>) o;
+            return coppia.getElement() != null && coppia.getCount() > 0
+                    && count(coppia.getElement()) == coppia.getCount();
+        }
+
+        @Override
+        public Iterator<Multiset.Entry<E>> iterator() {
+            Iterator<Map.Entry<E, AtomicInteger>> iteratore = mappa.entrySet().iterator();
+            return new Iterator<Multiset.Entry<E>>() {
+                private Multiset.Entry<E> prossima = avanza();
+
+                //Salta i contatori arrivati a zero e non ancora tolti dalla mappa
+                private Multiset.Entry<E> avanza() {
+                    while (iteratore.hasNext()) {
+                        Map.Entry<E, AtomicInteger> entry = iteratore.next();
+                        int occorrenze = entry.getValue().get();
+                        if (occorrenze > 0) return new ImmutableMultisetEntry<>(entry.getKey(), occorrenze);
+                    }
+                    return null;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return prossima != null;
+                }
+
+                @Override
+                public Multiset.Entry<E> next() {
+                    if (prossima == null) throw new NoSuchElementException("Non ci sono altri elementi");
+                    Multiset.Entry<E> coppia = prossima;
+                    prossima = avanza();
+                    return coppia;
+                }
+            };
+        }
+
+        @Override
+        public void clear() {
+            ConcurrentMultiset.this.clear();
+        }
+    }
+
+}
@@ -0,0 +1,114 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Iterator;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per ConcurrentMultiset
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ *
+ */
+public class ConcurrentMultisetTest {
+
+    @Test
+    public void testConcurrentMultiset() {
+        ConcurrentMultiset<Integer> m = new ConcurrentMultiset<Integer>();
+        assertTrue(m.isEmpty());
+        assertEquals(0, m.size());
+    }
+
+    @Test
+    public void testExceptions() {
+        ConcurrentMultiset<Integer> m = new ConcurrentMultiset<Integer>();
+        assertThrows(NullPointerException.class, () -> m.add(null));
+        assertThrows(NullPointerException.class, () -> m.count(null));
+        assertThrows(NullPointerException.class, () -> m.remove(null));
+        assertThrows(IllegalArgumentException.class, () -> m.add(1, -1));
+        assertThrows(IllegalArgumentException.class, () -> m.remove(1, -1));
+        assertThrows(IllegalArgumentException.class, () -> m.setCount(1, -1));
+        m.add(1, Integer.MAX_VALUE);
+        assertThrows(IllegalArgumentException.class, () -> m.add(1));
+    }
+
+    @Test
+    public void testAddRemove() {
+        ConcurrentMultiset<Integer> m = new ConcurrentMultiset<Integer>();
+        assertEquals(0, m.add(1, 3));
+        m.add(2);
+        assertEquals(3, m.add(1, 2));
+        assertEquals(5, m.count(1));
+        assertEquals(6, m.size());
+        assertEquals(5, m.remove(1, 4));
+        assertTrue(m.remove(1));
+        assertFalse(m.contains(1));
+        assertFalse(m.remove(1));
+        assertEquals(1, m.size());
+        assertEquals(1, m.elementSet().size());
+    }
+
+    @Test
+    public void testSetCount() {
+        ConcurrentMultiset<Integer> m = new ConcurrentMultiset<Integer>();
+        assertEquals(0, m.setCount(1, 3));
+        assertEquals(3, m.setCount(1, 1));
+        assertEquals(1, m.setCount(1, 0));
+        assertTrue(m.isEmpty());
+        assertTrue(m.setCount(2, 0, 4));
+        assertFalse(m.setCount(2, 0, 5));
+        assertTrue(m.setCount(2, 4, 0));
+        assertFalse(m.contains(2));
+        assertEquals(0, m.size());
+    }
+
+    @Test
+    public void testIteratorAndViews() {
+        ConcurrentMultiset<Integer> m = new ConcurrentMultiset<Integer>();
+        m.add(1, 3);
+        m.add(2);
+        int n = 0;
+        Iterator<Integer> itr = m.iterator();
+        while (itr.hasNext()) {
+            itr.next();
+            //Le modifiche durante l'iterazione non lanciano eccezioni
+            m.add(3);
+            n++;
+        }
+        assertTrue(n >= 4);
+        Set<Integer> elementi = m.elementSet();
+        assertTrue(elementi.remove(3));
+        assertEquals(2, elementi.size());
+        int totale = 0;
+        for (Multiset.Entry<Integer> coppia : m.entrySet()) totale += coppia.getCount();
+        assertEquals(4, totale);
+        m.clear();
+        assertTrue(m.isEmpty());
+        assertTrue(elementi.isEmpty());
+    }
+
+    @Test
+    public void testParallelAdd() throws InterruptedException {
+        ConcurrentMultiset<Integer> m = new ConcurrentMultiset<Integer>();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    m.add(i % 100);
+                    //Aggiungo e tolgo per far passare i contatori per lo zero
+                    m.add(1000 + i % 3);
+                    m.remove(1000 + i % 3);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) thread.join();
+        assertEquals(80000, m.size());
+        for (int i = 0; i < 100; i++) assertEquals(800, m.count(i));
+        assertFalse(m.contains(1000));
+    }
+
+}
@@ -0,0 +1,160 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Componenti connesse di un grafo non orientato con nodi da 0 a n-1, dato come lista di archi in due array
+ * paralleli.<br><br>
+ *
+ * Gli archi vengono divisi tra i thread di un {@link ForkJoinPool} e uniti in un unico {@link ConcurrentDisjointSets};
+ * poi, sempre in parallelo, si calcola la radice di ogni nodo e infine le radici vengono numerate da 0 a k-1 con una
+ * passata sequenziale. Il risultato occupa un int per nodo più un int per componente.
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+public final class ConnectedComponents {
+
+    //Componente di ogni nodo
+    private final int[] etichette;
+    //Numero di nodi di ogni componente
+    private final int[] cardinalita;
+
+    private ConnectedComponents(int[] etichette, int[] cardinalita) {
+        this.etichette = etichette;
+        this.cardinalita = cardinalita;
+    }
+
+    /**
+     * Calcola le componenti connesse usando i thread del pool comune.
+     *
+     * @param n    il numero di nodi
+     * @param from il primo nodo di ogni arco
+     * @param to   il secondo nodo di ogni arco
+     * @return le componenti connesse del grafo
+     * @throws NullPointerException     se uno dei due array è null
+     * @throws IllegalArgumentException se n è negativo, se gli array hanno lunghezze diverse o se contengono nodi non
+     *                                  compresi tra 0 e n-1
+     */
+    public static ConnectedComponents of(int n, int[] from, int[] to) {
+        return of(n, from, to, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Calcola le componenti connesse usando i thread del pool passato.
+     *
+     * @param n    il numero di nodi
+     * @param from il primo nodo di ogni arco
+     * @param to   il secondo nodo di ogni arco
+     * @param pool il pool in cui eseguire il calcolo
+     * @return le componenti connesse del grafo
+     * @throws NullPointerException     se uno degli argomenti è null
+     * @throws IllegalArgumentException se n è negativo, se gli array hanno lunghezze diverse o se contengono nodi non
+     *                                  compresi tra 0 e n-1
+     */
+    public static ConnectedComponents of(int n, int[] from, int[] to, ForkJoinPool pool) {
+        ConcurrentDisjointSets ds = new ConcurrentDisjointSets(n);
+        ds.unionAll(from, to, pool);
+        int[] etichette = new int[n];
+        pool.invoke(new Radici(ds, etichette, 0, n));
+        //Numero le radici nell'ordine in cui compare il primo nodo della loro componente
+        int[] denso = new int[n];
+        Arrays.fill(denso, -1);
+        int componenti = 0;
+        for (int i = 0; i < n; i++) {
+            int radice = etichette[i];
+            if (denso[radice] < 0) denso[radice] = componenti++;
+            etichette[i] = denso[radice];
+        }
+        int[] cardinalita = new int[componenti];
+        for (int etichetta : etichette) cardinalita[etichetta]++;
+        return new ConnectedComponents(etichette, cardinalita);
+    }
+
+    /**
+     * Restituisce il numero di nodi del grafo.
+     *
+     * @return n
+     */
+    public int nodes() {
+        return etichette.length;
+    }
+
+    /**
+     * Restituisce il numero di componenti connesse.
+     *
+     * @return il numero di componenti
+     */
+    public int count() {
+        return cardinalita.length;
+    }
+
+    /**
+     * Restituisce la componente di un nodo. Le componenti sono numerate da 0 a count()-1 in ordine di nodo minimo,
+     * quindi il risultato non dipende dall'ordine in cui sono state eseguite le unioni.
+     *
+     * @param node il nodo
+     * @return la componente del nodo
+     * @throws IllegalArgumentException se il nodo non è compreso tra 0 e n-1
+     */
+    public int component(int node) {
+        if (node < 0 || node >= etichette.length) throw new IllegalArgumentException("Nodo non compreso tra 0 e " +
+                (etichette.length - 1));
+        return etichette[node];
+    }
+
+    /**
+     * Restituisce il numero di nodi di una componente.
+     *
+     * @param component la componente
+     * @return il numero di nodi della componente
+     * @throws IllegalArgumentException se la componente non è compresa tra 0 e count()-1
+     */
+    public int size(int component) {
+        if (component < 0 || component >= cardinalita.length) throw new IllegalArgumentException("Componente non " +
+                "compresa tra 0 e " + (cardinalita.length - 1));
+        return cardinalita[component];
+    }
+
+    /**
+     * Restituisce una copia della componente di ogni nodo.
+     *
+     * @return un array con la componente di ogni nodo
+     */
+    public int[] labels() {
+        return etichette.clone();
+    }
+
+    /*
+        Scrive la radice di ogni nodo di un intervallo, dividendolo a metà finché è abbastanza piccolo
+     */
+    private static class Radici extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private static final int SOGLIA = 1 << 14;
+
+        private final ConcurrentDisjointSets ds;
+        private final int[] radici;
+        private final int inizio;
+        private final int fine;
+
+        Radici(ConcurrentDisjointSets ds, int[] radici, int inizio, int fine) {
+            this.ds = ds;
+            this.radici = radici;
+            this.inizio = inizio;
+            this.fine = fine;
+        }
+
+        @Override
+        protected void compute() {
+            if (fine - inizio <= SOGLIA) {
+                for (int i = inizio; i < fine; i++) radici[i] = ds.find(i);
+                return;
+            }
+            int meta = (inizio + fine) >>> 1;
+            invokeAll(new Radici(ds, radici, inizio, meta), new Radici(ds, radici, meta, fine));
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per ConnectedComponents
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+class ConnectedComponentsTest {
+
+    @Test
+    final void testSmallGraph() {
+        ConnectedComponents cc = ConnectedComponents.of(6, new int[]{4, 1, 5}, new int[]{1, 4, 2});
+        assertEquals(6, cc.nodes());
+        assertEquals(4, cc.count());
+        //Le componenti sono numerate in ordine di nodo minimo
+        assertArrayEquals(new int[]{0, 1, 2, 3, 1, 2}, cc.labels());
+        assertEquals(1, cc.size(0));
+        assertEquals(2, cc.size(1));
+        assertEquals(2, cc.size(2));
+        assertEquals(1, cc.size(3));
+        assertEquals(1, cc.component(4));
+        assertThrows(IllegalArgumentException.class, () -> cc.component(6));
+        assertThrows(IllegalArgumentException.class, () -> cc.size(4));
+    }
+
+    @Test
+    final void testExceptions() {
+        assertThrows(NullPointerException.class, () -> ConnectedComponents.of(3, null, new int[0]));
+        assertThrows(IllegalArgumentException.class, () -> ConnectedComponents.of(3, new int[1], new int[2]));
+        assertThrows(IllegalArgumentException.class, () -> ConnectedComponents.of(3, new int[]{0}, new int[]{3}));
+        assertThrows(IllegalArgumentException.class, () -> ConnectedComponents.of(-1, new int[0], new int[0]));
+        assertEquals(0, ConnectedComponents.of(0, new int[0], new int[0]).count());
+    }
+
+    @Test
+    final void testAgainstIntDisjointSets() {
+        int n = 200000;
+        int archi = 150000;
+        int[] da = new int[archi];
+        int[] a = new int[archi];
+        Random random = new Random(11);
+        IntDisjointSets attesi = new IntDisjointSets(n);
+        for (int i = 0; i < archi; i++) {
+            da[i] = random.nextInt(n);
+            a[i] = random.nextInt(n);
+            attesi.union(da[i], a[i]);
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ConnectedComponents cc = ConnectedComponents.of(n, da, a, pool);
+            assertEquals(attesi.numberOfSets(), cc.count());
+            for (int i = 0; i < n; i++) {
+                assertEquals(attesi.size(i), cc.size(cc.component(i)));
+                int j = random.nextInt(n);
+                assertEquals(attesi.sameSet(i, j), cc.component(i) == cc.component(j));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+}
@@ -1,6 +1,7 @@
 package it.unicam.cs.asdl2122.mp1;
 
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Una classe che implementa questa interfaccia è in grado di gestire una
@@ -88,6 +89,30 @@ public interface DisjointSets {
      */
     void union(DisjointSetElement e1, DisjointSetElement e2);
 
+    /**
+     * Elimina un elemento dall'insieme disgiunto di cui fa parte, senza
+     * ricostruire gli altri insiemi. Dopo l'operazione l'elemento non è più
+     * presente e può essere inserito di nuovo con {@link #makeSet}. Se era il
+     * rappresentante ne viene scelto un altro tra gli elementi rimasti; se
+     * era l'unico elemento l'insieme scompare. L'implementazione di default
+     * lancia {@code UnsupportedOperationException}.
+     * 
+     * @param e
+     *              l'elemento da eliminare
+     * @throws NullPointerException
+     *                                           se l'elemento passato è null
+     * @throws IllegalArgumentException
+     *                                           se l'elemento passato non è
+     *                                           presente in nessuno degli
+     *                                           insiemi disgiunti correnti
+     * @throws UnsupportedOperationException
+     *                                           se la classe non permette di
+     *                                           eliminare gli elementi
+     */
+    default void delete(DisjointSetElement e) {
+        throw new UnsupportedOperationException("Eliminazione non supportata");
+    }
+
     /**
      * Restituisce l'insieme dei rappresentantanti degli insiemi disgiunti
      * attualmente presenti.
@@ -130,4 +155,63 @@ public interface DisjointSets {
      */
     int getCardinalityOfSetContaining(DisjointSetElement e);
 
-}
\ No newline at end of file
+    /**
+     * Restituisce il numero di insiemi disgiunti attualmente presenti.
+     * L'implementazione di default restituisce la dimensione di
+     * {@link #getCurrentRepresentatives}.
+     * 
+     * @return il numero corrente di insiemi disgiunti
+     */
+    default int numberOfSets() {
+        return getCurrentRepresentatives().size();
+    }
+
+    /**
+     * Esegue un'azione su ogni elemento dell'insieme disgiunto di cui fa
+     * parte un certo elemento. L'implementazione di default scorre il
+     * risultato di {@link #getCurrentElementsOfSetContaining}; le classi che
+     * possono visitare gli elementi direttamente dovrebbero ridefinirla per
+     * evitare la copia.
+     * 
+     * @param e
+     *                   l'elemento di cui si vogliono visitare gli elementi
+     *                   dell'insieme disgiunto
+     * @param action
+     *                   l'azione da eseguire su ogni elemento
+     * @throws NullPointerException
+     *                                      se l'elemento o l'azione sono null
+     * @throws IllegalArgumentException
+     *                                      se l'elemento passato non è
+     *                                      contenuto in nessun insieme
+     *                                      disgiunto
+     */
+    default void forEachMember(DisjointSetElement e,
+            Consumer<? super DisjointSetElement> action) {
+        if (action == null)
+            throw new NullPointerException("Azione null");
+        getCurrentElementsOfSetContaining(e).forEach(action);
+    }
+
+    /**
+     * Restituisce gli elementi dell'insieme disgiunto di cui fa parte un
+     * certo elemento come {@code Iterable}. L'implementazione di default
+     * restituisce il risultato di {@link #getCurrentElementsOfSetContaining};
+     * le classi che la ridefiniscono possono restituire una vista che non
+     * copia gli elementi, valida finché l'insieme non viene modificato.
+     * 
+     * @param e
+     *              l'elemento di cui si vogliono ottenere gli elementi
+     *              dell'insieme disgiunto
+     * @return gli elementi dell'insieme di cui fa parte l'elemento passato
+     * @throws NullPointerException
+     *                                      se l'elemento passato è null
+     * @throws IllegalArgumentException
+     *                                      se l'elemento passato non è
+     *                                      contenuto in nessun insieme
+     *                                      disgiunto
+     */
+    default Iterable<DisjointSetElement> members(DisjointSetElement e) {
+        return getCurrentElementsOfSetContaining(e);
+    }
+
+}
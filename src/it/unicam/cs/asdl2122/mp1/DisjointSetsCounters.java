@@ -0,0 +1,28 @@
+package it.unicam.cs.asdl2122.mp1;
+
+/**
+ * Contatori interni di una implementazione di {@link DisjointSets}, che crescono dalla creazione della collezione e
+ * misurano il lavoro fatto sui riferimenti degli elementi. Leggendoli prima e dopo un'operazione si ottiene il lavoro
+ * di quella operazione, come fa {@link InstrumentedDisjointSets}.
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+public interface DisjointSetsCounters {
+
+    /**
+     * Restituisce il numero totale di elementi il cui riferimento al rappresentante, o al padre, è stato cambiato
+     * dalle unioni.
+     *
+     * @return il numero di elementi ricollegati
+     */
+    long relinkedElements();
+
+    /**
+     * Restituisce il numero totale di riferimenti percorsi dalle ricerche dei rappresentanti, cioè la somma delle
+     * lunghezze dei cammini verso i rappresentanti.
+     *
+     * @return il numero di riferimenti percorsi
+     */
+    long traversedLinks();
+
+}
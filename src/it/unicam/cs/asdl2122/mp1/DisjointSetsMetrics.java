@@ -0,0 +1,182 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Destinazione predefinita delle misure di {@link InstrumentedDisjointSets}: conta le operazioni e raccoglie gli
+ * istogrammi delle durate, degli elementi ricollegati dalle unioni e delle cardinalità degli insiemi, e li espone
+ * come MXBean.<br><br>
+ *
+ * Gli istogrammi hanno 64 fasce in potenze di due, quindi occupano una quantità di memoria fissa e registrare una
+ * misura costa un incremento atomico. L'istogramma delle cardinalità viene aggiornato ad ogni makeSet, ad ogni unione
+ * di insiemi distinti e ad ogni eliminazione, quindi descrive sempre gli insiemi esistenti e permette di riconoscere,
+ * ad esempio, una collezione in cui un insieme enorme assorbe uno alla volta molti insiemi piccoli.<br><br>
+ *
+ * Le misure possono essere lette da un altro thread, ad esempio quello di JMX, mentre vengono registrate.
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+public class DisjointSetsMetrics implements DisjointSetsMetricsSink, DisjointSetsMetricsMXBean {
+
+    private static final int FASCE = 64;
+
+    private final LongAdder makeSet = new LongAdder();
+    private final LongAdder findSet = new LongAdder();
+    private final LongAdder union = new LongAdder();
+    private final LongAdder unioni = new LongAdder();
+    private final LongAdder eliminazioni = new LongAdder();
+    private final LongAdder ricollegati = new LongAdder();
+    private final LongAdder collegamenti = new LongAdder();
+    private final LongAccumulator massimoRicollegati = new LongAccumulator(Long::max, 0);
+    private final LongAccumulator massimoCammino = new LongAccumulator(Long::max, 0);
+    private final LongAccumulator massimaUnione = new LongAccumulator(Long::max, 0);
+    private final AtomicLongArray durateFindSet = new AtomicLongArray(FASCE);
+    private final AtomicLongArray durateUnion = new AtomicLongArray(FASCE);
+    private final AtomicLongArray fasceRicollegati = new AtomicLongArray(FASCE);
+    private final AtomicLongArray cardinalita = new AtomicLongArray(FASCE);
+
+    /*
+        Fascia di un valore non negativo: i per i valori tra 2^i e 2^(i+1)-1, 0 anche per lo zero
+     */
+    private static int fascia(long valore) {
+        return 63 - Long.numberOfLeadingZeros(valore | 1);
+    }
+
+    @Override
+    public void makeSet(long nanos) {
+        makeSet.increment();
+        cardinalita.incrementAndGet(0);
+    }
+
+    @Override
+    public void findSet(long nanos, long links) {
+        findSet.increment();
+        durateFindSet.incrementAndGet(fascia(nanos));
+        collegamenti.add(links);
+        massimoCammino.accumulate(links);
+    }
+
+    @Override
+    public void union(long nanos, long relinked, long links, int size1, int size2) {
+        union.increment();
+        durateUnion.incrementAndGet(fascia(nanos));
+        massimaUnione.accumulate(nanos);
+        collegamenti.add(links);
+        if (size1 == 0) return;
+        unioni.increment();
+        ricollegati.add(relinked);
+        massimoRicollegati.accumulate(relinked);
+        fasceRicollegati.incrementAndGet(fascia(relinked));
+        cardinalita.decrementAndGet(fascia(size1));
+        cardinalita.decrementAndGet(fascia(size2));
+        cardinalita.incrementAndGet(fascia((long) size1 + size2));
+    }
+
+    @Override
+    public void delete(long nanos, long relinked, int size) {
+        eliminazioni.increment();
+        ricollegati.add(relinked);
+        cardinalita.decrementAndGet(fascia(size));
+        if (size > 1) cardinalita.incrementAndGet(fascia(size - 1));
+    }
+
+    @Override
+    public long getMakeSetCount() {
+        return makeSet.sum();
+    }
+
+    @Override
+    public long getFindSetCount() {
+        return findSet.sum();
+    }
+
+    @Override
+    public long getUnionCount() {
+        return union.sum();
+    }
+
+    @Override
+    public long getMergeCount() {
+        return unioni.sum();
+    }
+
+    @Override
+    public long getDeleteCount() {
+        return eliminazioni.sum();
+    }
+
+    @Override
+    public long getRelinkedElements() {
+        return ricollegati.sum();
+    }
+
+    @Override
+    public long getMaxRelinkedElements() {
+        return massimoRicollegati.get();
+    }
+
+    @Override
+    public long getTraversedLinks() {
+        return collegamenti.sum();
+    }
+
+    @Override
+    public long getMaxPathLength() {
+        return massimoCammino.get();
+    }
+
+    @Override
+    public long getMaxUnionNanos() {
+        return massimaUnione.get();
+    }
+
+    @Override
+    public long[] getFindSetLatencyHistogram() {
+        return copia(durateFindSet);
+    }
+
+    @Override
+    public long[] getUnionLatencyHistogram() {
+        return copia(durateUnion);
+    }
+
+    @Override
+    public long[] getRelinkedHistogram() {
+        return copia(fasceRicollegati);
+    }
+
+    @Override
+    public long[] getSetSizeHistogram() {
+        return copia(cardinalita);
+    }
+
+    private static long[] copia(AtomicLongArray istogramma) {
+        long[] copia = new long[istogramma.length()];
+        for (int i = 0; i < copia.length; i++) copia[i] = istogramma.get(i);
+        return copia;
+    }
+
+    /**
+     * Registra le misure nel server MBean della piattaforma, con il nome
+     * {@code it.unicam.cs.asdl2122.mp1:type=DisjointSets,name=}<code>name</code>.
+     *
+     * @param name il nome con cui distinguere questa collezione dalle altre
+     * @return il nome JMX con cui le misure sono state registrate
+     * @throws NullPointerException se il nome è null
+     * @throws JMException          se il nome non è valido o è già registrato
+     */
+    public ObjectName register(String name) throws JMException {
+        if (name == null) throw new NullPointerException("Nome null");
+        ObjectName nome = new ObjectName("it.unicam.cs.asdl2122.mp1:type=DisjointSets,name=" +
+                ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, nome);
+        return nome;
+    }
+
+}
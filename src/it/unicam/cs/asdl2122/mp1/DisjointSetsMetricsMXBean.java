@@ -0,0 +1,81 @@
+package it.unicam.cs.asdl2122.mp1;
+
+/**
+ * Interfaccia JMX di {@link DisjointSetsMetrics}. Gli istogrammi hanno fasce in potenze di due: la fascia i conta i
+ * valori compresi tra 2^i e 2^(i+1)-1, e la fascia 0 comprende anche lo zero.
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+public interface DisjointSetsMetricsMXBean {
+
+    /**
+     * @return il numero di chiamate a makeSet
+     */
+    long getMakeSetCount();
+
+    /**
+     * @return il numero di chiamate a findSet
+     */
+    long getFindSetCount();
+
+    /**
+     * @return il numero di chiamate a union, comprese quelle su elementi già nello stesso insieme
+     */
+    long getUnionCount();
+
+    /**
+     * @return il numero di unioni che hanno unito due insiemi distinti
+     */
+    long getMergeCount();
+
+    /**
+     * @return il numero di chiamate a delete
+     */
+    long getDeleteCount();
+
+    /**
+     * @return il numero totale di elementi ricollegati dalle unioni e dalle eliminazioni
+     */
+    long getRelinkedElements();
+
+    /**
+     * @return il massimo numero di elementi ricollegati da una sola unione
+     */
+    long getMaxRelinkedElements();
+
+    /**
+     * @return il numero totale di riferimenti percorsi da ricerche e unioni
+     */
+    long getTraversedLinks();
+
+    /**
+     * @return il cammino più lungo percorso da una sola ricerca
+     */
+    long getMaxPathLength();
+
+    /**
+     * @return la durata più lunga di una sola unione in nanosecondi
+     */
+    long getMaxUnionNanos();
+
+    /**
+     * @return l'istogramma delle durate di findSet in nanosecondi
+     */
+    long[] getFindSetLatencyHistogram();
+
+    /**
+     * @return l'istogramma delle durate di union in nanosecondi
+     */
+    long[] getUnionLatencyHistogram();
+
+    /**
+     * @return l'istogramma degli elementi ricollegati da ogni unione che ha unito due insiemi distinti
+     */
+    long[] getRelinkedHistogram();
+
+    /**
+     * @return l'istogramma delle cardinalità degli insiemi esistenti in questo momento
+     */
+    long[] getSetSizeHistogram();
+
+}
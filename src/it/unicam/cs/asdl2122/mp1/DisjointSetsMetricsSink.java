@@ -0,0 +1,51 @@
+package it.unicam.cs.asdl2122.mp1;
+
+/**
+ * Destinazione delle misure raccolte da {@link InstrumentedDisjointSets}: una chiamata per ogni operazione eseguita
+ * con successo. {@link DisjointSetsMetrics} le accumula in contatori e istogrammi esposti tramite JMX; altre
+ * implementazioni possono inoltrarle ad un sistema di monitoraggio esterno.<br><br>
+ *
+ * I metodi vengono chiamati dal thread che esegue l'operazione, subito dopo la sua fine, quindi devono essere veloci.
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+public interface DisjointSetsMetricsSink {
+
+    /**
+     * Registra la creazione di un insieme singoletto.
+     *
+     * @param nanos la durata dell'operazione in nanosecondi
+     */
+    void makeSet(long nanos);
+
+    /**
+     * Registra la ricerca di un rappresentante.
+     *
+     * @param nanos la durata dell'operazione in nanosecondi
+     * @param links i riferimenti percorsi per arrivare al rappresentante, 0 se l'implementazione non li conta
+     */
+    void findSet(long nanos, long links);
+
+    /**
+     * Registra un'unione. Se i due elementi erano già nello stesso insieme entrambe le cardinalità valgono 0.
+     *
+     * @param nanos    la durata dell'operazione in nanosecondi
+     * @param relinked gli elementi ricollegati al nuovo rappresentante, 0 se l'implementazione non li conta
+     * @param links    i riferimenti percorsi dalle ricerche dell'unione, 0 se l'implementazione non li conta
+     * @param size1    la cardinalità dell'insieme del primo elemento prima dell'unione
+     * @param size2    la cardinalità dell'insieme del secondo elemento prima dell'unione
+     */
+    void union(long nanos, long relinked, long links, int size1, int size2);
+
+    /**
+     * Registra l'eliminazione di un elemento. L'implementazione di default non fa nulla, per le destinazioni che non
+     * sono interessate alle eliminazioni.
+     *
+     * @param nanos    la durata dell'operazione in nanosecondi
+     * @param relinked gli elementi ricollegati per ricostruire l'insieme, 0 se l'implementazione non li conta
+     * @param size     la cardinalità dell'insieme dell'elemento prima dell'eliminazione
+     */
+    default void delete(long nanos, long relinked, int size) {
+    }
+
+}
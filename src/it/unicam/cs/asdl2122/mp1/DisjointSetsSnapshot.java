@@ -0,0 +1,307 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Scrittura e lettura di una fotografia compatta della partizione di una collezione di insiemi disgiunti, per
+ * ripristinarla senza ripetere tutte le operazioni che l'hanno prodotta.<br><br>
+ *
+ * Gli elementi sono identificati da interi non negativi. La fotografia elenca i gruppi, cioè gli insiemi disgiunti,
+ * in ordine crescente del loro identificativo minimo, e gli elementi di ogni gruppo in ordine crescente. Ogni numero è
+ * scritto come varint senza segno (7 bit per byte) ed è la differenza rispetto al precedente, quindi identificativi
+ * densi occupano quasi sempre un byte per elemento. Il formato è:
+ * <pre>
+ *     "DSSN" versione numeroGruppi
+ *     per ogni gruppo: cardinalità (minimo - minimo del gruppo precedente - 1) (differenze tra elementi successivi - 1)
+ * </pre>
+ * Per il primo gruppo il minimo del gruppo precedente vale -1. I singoletti sono gruppi di un elemento. La scrittura
+ * e la lettura passano da un buffer e usano solo canali NIO; la lettura ricostruisce la partizione in una sola
+ * passata con un {@code makeSet} per elemento e un {@code union} per ogni elemento che non è il minimo del suo gruppo.
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+public final class DisjointSetsSnapshot {
+
+    private static final int MAGICO = 0x4453534E;
+    private static final byte VERSIONE = 1;
+    private static final int DIMENSIONE_BUFFER = 1 << 16;
+
+    private DisjointSetsSnapshot() {
+        //Classe di sole operazioni statiche, non istanziabile
+    }
+
+    /**
+     * Scrive la partizione di una collezione di insiemi disgiunti. Complessità O(n log n) per ordinare gli elementi
+     * di ogni gruppo.
+     *
+     * @param ds  la collezione da scrivere
+     * @param id  l'identificativo non negativo di ogni elemento, diverso per elementi diversi
+     * @param out il canale in cui scrivere, che non viene chiuso
+     * @throws NullPointerException     se uno degli argomenti è null
+     * @throws IllegalArgumentException se un identificativo è negativo
+     * @throws IOException              se la scrittura fallisce
+     */
+    public static void write(DisjointSets ds, ToIntFunction<? super DisjointSetElement> id, WritableByteChannel out)
+            throws IOException {
+        if (ds == null || id == null || out == null) throw new NullPointerException("Argomento null");
+        List<int[]> gruppi = new ArrayList<>(ds.numberOfSets());
+        for (DisjointSetElement rappresentante : ds.getCurrentRepresentatives()) {
+            int[] gruppo = new int[ds.getCardinalityOfSetContaining(rappresentante)];
+            int[] indice = {0};
+            ds.forEachMember(rappresentante, e -> gruppo[indice[0]++] = id.applyAsInt(e));
+            Arrays.sort(gruppo);
+            gruppi.add(gruppo);
+        }
+        gruppi.sort((a, b) -> Integer.compare(a[0], b[0]));
+        Scrittore scrittore = new Scrittore(out, gruppi.size());
+        int precedente = -1;
+        for (int[] gruppo : gruppi) {
+            scrittore.gruppo(gruppo, 0, gruppo.length, precedente);
+            precedente = gruppo[0];
+        }
+        scrittore.chiudi();
+    }
+
+    /**
+     * Scrive la partizione di un {@link IntDisjointSets}, usando gli interi come identificativi. Complessità O(n),
+     * perché gli elementi vengono raggruppati con un ordinamento per conteggio.
+     *
+     * @param ds  la collezione da scrivere
+     * @param out il canale in cui scrivere, che non viene chiuso
+     * @throws NullPointerException se uno degli argomenti è null
+     * @throws IOException          se la scrittura fallisce
+     */
+    public static void write(IntDisjointSets ds, WritableByteChannel out) throws IOException {
+        if (ds == null || out == null) throw new NullPointerException("Argomento null");
+        int n = ds.capacity();
+        //Numero i gruppi nell'ordine del loro elemento minimo e conto i loro elementi
+        int[] gruppoDi = new int[n];
+        int[] numeroGruppo = new int[n];
+        Arrays.fill(numeroGruppo, -1);
+        int gruppi = 0;
+        for (int i = 0; i < n; i++) {
+            int radice = ds.find(i);
+            if (numeroGruppo[radice] < 0) numeroGruppo[radice] = gruppi++;
+            gruppoDi[i] = numeroGruppo[radice];
+        }
+        //Disposizione CSR: gli elementi del gruppo g sono elementi[inizio[g]..inizio[g+1]), già in ordine crescente
+        int[] inizio = new int[gruppi + 1];
+        for (int i = 0; i < n; i++) inizio[gruppoDi[i] + 1]++;
+        for (int g = 0; g < gruppi; g++) inizio[g + 1] += inizio[g];
+        int[] posizione = Arrays.copyOf(inizio, gruppi);
+        int[] elementi = numeroGruppo;
+        for (int i = 0; i < n; i++) elementi[posizione[gruppoDi[i]]++] = i;
+        Scrittore scrittore = new Scrittore(out, gruppi);
+        int precedente = -1;
+        for (int g = 0; g < gruppi; g++) {
+            scrittore.gruppo(elementi, inizio[g], inizio[g + 1], precedente);
+            precedente = elementi[inizio[g]];
+        }
+        scrittore.chiudi();
+    }
+
+    /**
+     * Legge una partizione e la ricrea in una collezione di insiemi disgiunti, che non deve contenere gli elementi
+     * letti. Complessità O(n) operazioni della collezione.
+     *
+     * @param in       il canale da cui leggere, che non viene chiuso
+     * @param ds       la collezione in cui ricreare la partizione
+     * @param elemento l'elemento corrispondente ad ogni identificativo
+     * @throws NullPointerException     se uno degli argomenti è null o se un elemento è null
+     * @throws IllegalArgumentException se un elemento è già presente nella collezione
+     * @throws IOException              se la lettura fallisce o i dati non sono nel formato previsto
+     */
+    public static void read(ReadableByteChannel in, DisjointSets ds, IntFunction<? extends DisjointSetElement> elemento)
+            throws IOException {
+        if (in == null || ds == null || elemento == null) throw new NullPointerException("Argomento null");
+        Lettore lettore = new Lettore(in);
+        int gruppi = lettore.intestazione();
+        int minimo = -1;
+        for (int g = 0; g < gruppi; g++) {
+            int cardinalita = lettore.positivo();
+            minimo = lettore.successivo(minimo);
+            DisjointSetElement primo = elemento.apply(minimo);
+            ds.makeSet(primo);
+            int id = minimo;
+            for (int i = 1; i < cardinalita; i++) {
+                id = lettore.successivo(id);
+                DisjointSetElement e = elemento.apply(id);
+                ds.makeSet(e);
+                ds.union(primo, e);
+            }
+        }
+    }
+
+    /**
+     * Legge una partizione i cui identificativi sono tutti gli interi da 0 a n-1, come quella scritta da
+     * {@link DisjointSetsSnapshot#write(IntDisjointSets, WritableByteChannel)}, e la ricrea in un nuovo
+     * {@link IntDisjointSets}. Complessità O(n).
+     *
+     * @param in il canale da cui leggere, che non viene chiuso
+     * @return la collezione ricostruita
+     * @throws NullPointerException se il canale è null
+     * @throws IOException          se la lettura fallisce, se i dati non sono nel formato previsto o se gli
+     *                              identificativi non sono gli interi da 0 a n-1
+     */
+    public static IntDisjointSets readInt(ReadableByteChannel in) throws IOException {
+        if (in == null) throw new NullPointerException("Canale null");
+        Lettore lettore = new Lettore(in);
+        int gruppi = lettore.intestazione();
+        if (gruppi > Integer.MAX_VALUE - 8) throw new IOException("Troppi elementi per IntDisjointSets");
+        //Il numero totale di elementi non è nell'intestazione, quindi prima leggo i gruppi in formato CSR
+        int[] inizio = new int[gruppi + 1];
+        int[] elementi = new int[Math.max(16, gruppi)];
+        long n = 0;
+        int minimo = -1;
+        for (int g = 0; g < gruppi; g++) {
+            int cardinalita = lettore.positivo();
+            n += cardinalita;
+            if (n > Integer.MAX_VALUE - 8) throw new IOException("Troppi elementi per IntDisjointSets");
+            if (n > elementi.length) elementi = Arrays.copyOf(elementi, (int) Math.min(Integer.MAX_VALUE - 8,
+                    Math.max(n, 2L * elementi.length)));
+            int id = minimo = lettore.successivo(minimo);
+            elementi[inizio[g]] = id;
+            for (int i = 1; i < cardinalita; i++) elementi[inizio[g] + i] = id = lettore.successivo(id);
+            inizio[g + 1] = (int) n;
+        }
+        //Gli identificativi sono gli interi da 0 a n-1 solo se sono tutti minori di n e nessuno è ripetuto
+        boolean[] visto = new boolean[(int) n];
+        for (int i = 0; i < n; i++) {
+            if (elementi[i] >= n || visto[elementi[i]]) throw new IOException("Gli identificativi non sono gli " +
+                    "interi da 0 a " + (n - 1));
+            visto[elementi[i]] = true;
+        }
+        IntDisjointSets ds = new IntDisjointSets((int) n);
+        for (int g = 0; g < gruppi; g++) {
+            for (int i = inizio[g] + 1; i < inizio[g + 1]; i++) ds.union(elementi[inizio[g]], elementi[i]);
+        }
+        return ds;
+    }
+
+    /*
+        Scrive i numeri come varint in un buffer che viene svuotato nel canale quando è pieno
+     */
+    private static class Scrittore {
+
+        private final WritableByteChannel canale;
+        private final ByteBuffer buffer;
+
+        Scrittore(WritableByteChannel canale, int gruppi) throws IOException {
+            this.canale = canale;
+            buffer = ByteBuffer.allocate(DIMENSIONE_BUFFER);
+            buffer.putInt(MAGICO);
+            buffer.put(VERSIONE);
+            varint(gruppi);
+        }
+
+        void varint(int valore) throws IOException {
+            if (buffer.remaining() < 5) svuota();
+            while ((valore & ~0x7F) != 0) {
+                buffer.put((byte) ((valore & 0x7F) | 0x80));
+                valore >>>= 7;
+            }
+            buffer.put((byte) valore);
+        }
+
+        /*
+            Scrive il gruppo formato da elementi[da..a), ordinati, dato il minimo del gruppo precedente
+         */
+        void gruppo(int[] elementi, int da, int a, int minimoPrecedente) throws IOException {
+            if (elementi[da] < 0) throw new IllegalArgumentException("Identificativo negativo: " + elementi[da]);
+            if (elementi[da] == minimoPrecedente) throw new IllegalArgumentException("Identificativo ripetuto: " +
+                    elementi[da]);
+            varint(a - da);
+            varint(elementi[da] - minimoPrecedente - 1);
+            for (int i = da + 1; i < a; i++) {
+                if (elementi[i] == elementi[i - 1]) throw new IllegalArgumentException("Identificativo ripetuto: " +
+                        elementi[i]);
+                varint(elementi[i] - elementi[i - 1] - 1);
+            }
+        }
+
+        private void svuota() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) canale.write(buffer);
+            buffer.clear();
+        }
+
+        void chiudi() throws IOException {
+            svuota();
+        }
+    }
+
+    /*
+        Legge i varint da un buffer che viene riempito dal canale quando è vuoto
+     */
+    private static class Lettore {
+
+        private final ReadableByteChannel canale;
+        private final ByteBuffer buffer;
+
+        Lettore(ReadableByteChannel canale) {
+            this.canale = canale;
+            buffer = ByteBuffer.allocate(DIMENSIONE_BUFFER);
+            buffer.flip();
+        }
+
+        private byte leggi() throws IOException {
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                int letti;
+                do {
+                    letti = canale.read(buffer);
+                } while (letti == 0);
+                buffer.flip();
+                if (letti < 0) throw new EOFException("La fotografia è incompleta");
+            }
+            return buffer.get();
+        }
+
+        int intestazione() throws IOException {
+            int magico = 0;
+            for (int i = 0; i < 4; i++) magico = (magico << 8) | (leggi() & 0xFF);
+            if (magico != MAGICO) throw new IOException("I dati non sono una fotografia di insiemi disgiunti");
+            byte versione = leggi();
+            if (versione != VERSIONE) throw new IOException("Versione non supportata: " + versione);
+            return varint();
+        }
+
+        int varint() throws IOException {
+            int valore = 0;
+            for (int spostamento = 0; spostamento < 35; spostamento += 7) {
+                byte b = leggi();
+                valore |= (b & 0x7F) << spostamento;
+                if (b >= 0) {
+                    if (valore < 0) throw new IOException("Varint fuori dall'intervallo");
+                    return valore;
+                }
+            }
+            throw new IOException("Varint troppo lungo");
+        }
+
+        int positivo() throws IOException {
+            int valore = varint();
+            if (valore == 0) throw new IOException("Gruppo vuoto");
+            return valore;
+        }
+
+        /*
+            Legge la differenza dal precedente identificativo, che è sempre maggiore di almeno uno
+         */
+        int successivo(int precedente) throws IOException {
+            long id = (long) precedente + varint() + 1;
+            if (id > Integer.MAX_VALUE) throw new IOException("Identificativo fuori dall'intervallo");
+            return (int) id;
+        }
+    }
+
+}
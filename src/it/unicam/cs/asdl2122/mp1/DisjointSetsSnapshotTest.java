@@ -0,0 +1,173 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Classe di test per DisjointSetsSnapshot
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+class DisjointSetsSnapshotTest {
+
+    @TempDir
+    Path cartella;
+
+    private static byte[] scrivi(IntDisjointSets ds) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DisjointSetsSnapshot.write(ds, Channels.newChannel(out));
+        return out.toByteArray();
+    }
+
+    private static IntDisjointSets leggi(byte[] dati) throws IOException {
+        return DisjointSetsSnapshot.readInt(Channels.newChannel(new ByteArrayInputStream(dati)));
+    }
+
+    @Test
+    final void testIntRoundTrip() throws IOException {
+        int n = 200_000;
+        IntDisjointSets ds = new IntDisjointSets(n);
+        Random random = new Random(19);
+        for (int i = 0; i < n / 2; i++) ds.union(random.nextInt(n), random.nextInt(n));
+        byte[] dati = scrivi(ds);
+        IntDisjointSets letto = leggi(dati);
+        assertEquals(n, letto.capacity());
+        assertEquals(ds.numberOfSets(), letto.numberOfSets());
+        for (int i = 0; i < n; i++) {
+            assertEquals(ds.size(i), letto.size(i));
+            int j = random.nextInt(n);
+            assertEquals(ds.sameSet(i, j), letto.sameSet(i, j));
+        }
+    }
+
+    @Test
+    final void testCompactness() throws IOException {
+        int n = 100_000;
+        IntDisjointSets ds = new IntDisjointSets(n);
+        //Blocchi di elementi consecutivi: ogni differenza occupa un byte
+        for (int i = 1; i < n; i++) if (i % 100 != 0) ds.union(i - 1, i);
+        byte[] dati = scrivi(ds);
+        assertTrue(dati.length <= n + 2 * ds.numberOfSets() + 8);
+        assertEquals(1000, leggi(dati).numberOfSets());
+    }
+
+    @Test
+    final void testEmptyAndSingletons() throws IOException {
+        assertEquals(0, leggi(scrivi(new IntDisjointSets(0))).capacity());
+        IntDisjointSets letto = leggi(scrivi(new IntDisjointSets(1000)));
+        assertEquals(1000, letto.numberOfSets());
+    }
+
+    @Test
+    final void testFileChannel() throws IOException {
+        IntDisjointSets ds = new IntDisjointSets(10);
+        ds.union(0, 9);
+        ds.union(3, 9);
+        ds.union(4, 5);
+        Path file = cartella.resolve("ds.snap");
+        try (FileChannel canale = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            DisjointSetsSnapshot.write(ds, canale);
+        }
+        try (FileChannel canale = FileChannel.open(file, StandardOpenOption.READ)) {
+            IntDisjointSets letto = DisjointSetsSnapshot.readInt(canale);
+            assertEquals(7, letto.numberOfSets());
+            assertTrue(letto.sameSet(0, 3));
+            assertTrue(letto.sameSet(4, 5));
+            assertFalse(letto.sameSet(0, 4));
+            assertEquals(3, letto.size(9));
+        }
+    }
+
+    @Test
+    final void testGenericRoundTrip() throws IOException {
+        int n = 500;
+        MyIntLinkedListDisjointSetElement[] elementi = new MyIntLinkedListDisjointSetElement[n];
+        DisjointSets ds = new LinkedListDisjointSets();
+        for (int i = 0; i < n; i++) {
+            //Identificativi sparsi, per avere differenze di più byte
+            elementi[i] = new MyIntLinkedListDisjointSetElement(i * 1000);
+            ds.makeSet(elementi[i]);
+        }
+        Random random = new Random(3);
+        for (int i = 0; i < n / 2; i++) ds.union(elementi[random.nextInt(n)], elementi[random.nextInt(n)]);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DisjointSetsSnapshot.write(ds, e -> ((MyIntLinkedListDisjointSetElement) e).getValue(),
+                Channels.newChannel(out));
+
+        MyIntLinkedListDisjointSetElement[] copie = new MyIntLinkedListDisjointSetElement[n];
+        DisjointSets letto = new ForestDisjointSets();
+        DisjointSetsSnapshot.read(Channels.newChannel(new ByteArrayInputStream(out.toByteArray())), letto,
+                id -> copie[id / 1000] = new MyIntLinkedListDisjointSetElement(id));
+        assertEquals(ds.numberOfSets(), letto.numberOfSets());
+        for (int i = 0; i < n; i++) {
+            assertEquals(ds.getCardinalityOfSetContaining(elementi[i]), letto.getCardinalityOfSetContaining(copie[i]));
+            int j = random.nextInt(n);
+            assertEquals(ds.findSet(elementi[i]) == ds.findSet(elementi[j]),
+                    letto.findSet(copie[i]) == letto.findSet(copie[j]));
+        }
+    }
+
+    @Test
+    final void testInvalidArguments() {
+        DisjointSets ds = new LinkedListDisjointSets();
+        MyIntLinkedListDisjointSetElement e1 = new MyIntLinkedListDisjointSetElement(1);
+        MyIntLinkedListDisjointSetElement e2 = new MyIntLinkedListDisjointSetElement(2);
+        ds.makeSet(e1);
+        ds.makeSet(e2);
+        ds.union(e1, e2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThrows(NullPointerException.class, () -> DisjointSetsSnapshot.write(ds, null,
+                Channels.newChannel(out)));
+        assertThrows(NullPointerException.class, () -> DisjointSetsSnapshot.write((IntDisjointSets) null,
+                Channels.newChannel(out)));
+        assertThrows(IllegalArgumentException.class, () -> DisjointSetsSnapshot.write(ds, e -> -1,
+                Channels.newChannel(out)));
+        assertThrows(IllegalArgumentException.class, () -> DisjointSetsSnapshot.write(ds, e -> 7,
+                Channels.newChannel(out)));
+    }
+
+    @Test
+    final void testInvalidData() throws IOException {
+        IntDisjointSets ds = new IntDisjointSets(300);
+        for (int i = 1; i < 300; i += 2) ds.union(i - 1, i);
+        byte[] dati = scrivi(ds);
+        byte[] magico = dati.clone();
+        magico[0] = 'X';
+        assertThrows(IOException.class, () -> leggi(magico));
+        byte[] versione = dati.clone();
+        versione[4] = 9;
+        assertThrows(IOException.class, () -> leggi(versione));
+        assertThrows(EOFException.class, () -> leggi(Arrays.copyOf(dati, dati.length - 1)));
+        assertThrows(EOFException.class, () -> leggi(new byte[0]));
+        //Un solo gruppo {0, 2}: manca l'identificativo 1
+        byte[] buco = {'D', 'S', 'S', 'N', 1, 1, 2, 0, 1};
+        assertThrows(IOException.class, () -> leggi(buco));
+        //Due gruppi {0, 1} e {1}: l'identificativo 1 è ripetuto
+        byte[] ripetuto = {'D', 'S', 'S', 'N', 1, 2, 2, 0, 0, 1, 0};
+        assertThrows(IOException.class, () -> leggi(ripetuto));
+        //Con read l'elemento ripetuto è già presente nella collezione
+        MyIntLinkedListDisjointSetElement[] elementi = {new MyIntLinkedListDisjointSetElement(0),
+                new MyIntLinkedListDisjointSetElement(1)};
+        assertThrows(IllegalArgumentException.class, () -> DisjointSetsSnapshot.read(Channels.newChannel(
+                new ByteArrayInputStream(ripetuto)), new ForestDisjointSets(), id -> elementi[id]));
+        byte[] valido = {'D', 'S', 'S', 'N', 1, 2, 2, 0, 0, 1, 1};
+        IntDisjointSets letto = leggi(valido);
+        assertEquals(3, letto.capacity());
+        assertEquals(2, letto.numberOfSets());
+        assertTrue(letto.sameSet(0, 1));
+    }
+
+}
@@ -0,0 +1,205 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Connettività dinamica offline: registra una sequenza di inserimenti e cancellazioni di archi di un grafo non
+ * orientato con nodi da 0 a n-1, intervallata da domande del tipo "u e v sono connessi in questo momento?", e poi
+ * risponde a tutte le domande insieme con {@link DynamicConnectivity#solve}.<br><br>
+ *
+ * Ogni arco è presente in un intervallo di domande consecutive. Gli intervalli vengono inseriti in un segment tree
+ * costruito sulle domande, in modo che ognuno compaia in O(log q) nodi. Una visita in profondità dell'albero aggiunge
+ * gli archi di ogni nodo ad un {@link RollbackDisjointSets}, risponde alla domanda quando arriva ad una foglia e
+ * annulla le unioni del nodo quando lo lascia. Il costo totale è O((m + q) log q log n), dove m è il numero di
+ * inserimenti, invece di ricostruire le componenti ad ogni cancellazione.<br><br>
+ *
+ * Gli archi sono identificati dalla coppia di nodi, senza ordine. Un arco inserito più volte resta presente finché non
+ * è stato cancellato lo stesso numero di volte.
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+public class DynamicConnectivity {
+
+    private final int n;
+    //Per ogni arco presente il numero di copie e la prima domanda in cui è presente
+    private final HashMap<Long, int[]> presenti;
+    //Intervalli di domande [inizio, fine) in cui ogni arco è stato presente, quattro interi per intervallo
+    private int[] intervalli;
+    private int numeroIntervalli;
+    //Nodi delle domande, due interi per domanda
+    private int[] domande;
+    private int numeroDomande;
+
+    /**
+     * Crea un registro vuoto per un grafo con n nodi e nessun arco.
+     *
+     * @param n il numero di nodi
+     * @throws IllegalArgumentException se n è negativo
+     */
+    public DynamicConnectivity(int n) {
+        if (n < 0) throw new IllegalArgumentException("Il numero di nodi non può essere negativo");
+        this.n = n;
+        presenti = new HashMap<>();
+        intervalli = new int[64];
+        numeroIntervalli = 0;
+        domande = new int[32];
+        numeroDomande = 0;
+    }
+
+    private void controlla(int x) {
+        if (x < 0 || x >= n) throw new IllegalArgumentException("Il nodo " + x + " non è compreso tra 0 e " + (n - 1));
+    }
+
+    private static long chiave(int u, int v) {
+        return u < v ? ((long) u << 32) | v : ((long) v << 32) | u;
+    }
+
+    /**
+     * Inserisce un arco.
+     *
+     * @param u il primo nodo
+     * @param v il secondo nodo
+     * @throws IllegalArgumentException se uno dei nodi non è compreso tra 0 e n-1
+     */
+    public void addEdge(int u, int v) {
+        controlla(u);
+        controlla(v);
+        int[] arco = presenti.computeIfAbsent(chiave(u, v), k -> new int[]{0, numeroDomande});
+        arco[0]++;
+    }
+
+    /**
+     * Cancella un arco inserito in precedenza.
+     *
+     * @param u il primo nodo
+     * @param v il secondo nodo
+     * @throws IllegalArgumentException se uno dei nodi non è compreso tra 0 e n-1 o se l'arco non è presente
+     */
+    public void removeEdge(int u, int v) {
+        controlla(u);
+        controlla(v);
+        long chiave = chiave(u, v);
+        int[] arco = presenti.get(chiave);
+        if (arco == null) throw new IllegalArgumentException("L'arco (" + u + ", " + v + ") non è presente");
+        if (--arco[0] > 0) return;
+        presenti.remove(chiave);
+        registra(u, v, arco[1], numeroDomande);
+    }
+
+    /**
+     * Registra una domanda sulla connessione di due nodi con gli archi presenti in questo momento.
+     *
+     * @param u il primo nodo
+     * @param v il secondo nodo
+     * @return l'indice della domanda nel risultato di {@link DynamicConnectivity#solve}
+     * @throws IllegalArgumentException se uno dei nodi non è compreso tra 0 e n-1
+     */
+    public int query(int u, int v) {
+        controlla(u);
+        controlla(v);
+        if (2 * numeroDomande == domande.length) domande = Arrays.copyOf(domande, domande.length * 2);
+        domande[2 * numeroDomande] = u;
+        domande[2 * numeroDomande + 1] = v;
+        return numeroDomande++;
+    }
+
+    /**
+     * Restituisce il numero di domande registrate.
+     *
+     * @return il numero di domande
+     */
+    public int queries() {
+        return numeroDomande;
+    }
+
+    /*
+        Registra l'intervallo di domande in cui un arco è stato presente, se non è vuoto
+     */
+    private void registra(int u, int v, int inizio, int fine) {
+        if (inizio == fine) return;
+        if (4 * numeroIntervalli == intervalli.length) intervalli = Arrays.copyOf(intervalli, intervalli.length * 2);
+        int i = 4 * numeroIntervalli++;
+        intervalli[i] = u;
+        intervalli[i + 1] = v;
+        intervalli[i + 2] = inizio;
+        intervalli[i + 3] = fine;
+    }
+
+    /**
+     * Risponde a tutte le domande registrate. Gli archi ancora presenti restano presenti fino all'ultima domanda. Il
+     * registro non viene modificato, quindi si possono aggiungere altre operazioni e chiamare di nuovo questo metodo.
+     *
+     * @return per ogni domanda, nell'ordine in cui sono state registrate, true se i due nodi erano connessi
+     */
+    public boolean[] solve() {
+        boolean[] risposte = new boolean[numeroDomande];
+        if (numeroDomande == 0) return risposte;
+        Albero albero = new Albero(numeroDomande);
+        for (int i = 0; i < 4 * numeroIntervalli; i += 4) {
+            albero.inserisci(1, 0, numeroDomande, intervalli[i + 2], intervalli[i + 3], intervalli[i],
+                    intervalli[i + 1]);
+        }
+        for (Map.Entry<Long, int[]> arco : presenti.entrySet()) {
+            long chiave = arco.getKey();
+            albero.inserisci(1, 0, numeroDomande, arco.getValue()[1], numeroDomande, (int) (chiave >>> 32),
+                    (int) chiave);
+        }
+        albero.visita(1, 0, numeroDomande, new RollbackDisjointSets(n), risposte);
+        return risposte;
+    }
+
+    /*
+        Segment tree sulle domande. Gli archi di ogni nodo formano una lista concatenata memorizzata in array di
+        primitivi, così l'albero non crea un oggetto per arco
+     */
+    private class Albero {
+
+        //Primo arco della lista di ogni nodo, -1 se la lista è vuota
+        private final int[] testa;
+        //Per ogni arco i due nodi e l'indice del successivo nella lista
+        private int[] archi;
+        private int numeroArchi;
+
+        Albero(int foglie) {
+            testa = new int[4 * foglie];
+            Arrays.fill(testa, -1);
+            archi = new int[3 * 16];
+            numeroArchi = 0;
+        }
+
+        /*
+            Aggiunge l'arco (u, v) ai nodi che coprono esattamente l'intervallo di domande [da, a)
+         */
+        void inserisci(int nodo, int inizio, int fine, int da, int a, int u, int v) {
+            if (a <= inizio || fine <= da) return;
+            if (da <= inizio && fine <= a) {
+                if (3 * numeroArchi == archi.length) archi = Arrays.copyOf(archi, archi.length * 2);
+                int i = 3 * numeroArchi;
+                archi[i] = u;
+                archi[i + 1] = v;
+                archi[i + 2] = testa[nodo];
+                testa[nodo] = numeroArchi++;
+                return;
+            }
+            int meta = (inizio + fine) >>> 1;
+            inserisci(2 * nodo, inizio, meta, da, a, u, v);
+            inserisci(2 * nodo + 1, meta, fine, da, a, u, v);
+        }
+
+        void visita(int nodo, int inizio, int fine, RollbackDisjointSets ds, boolean[] risposte) {
+            int checkpoint = ds.checkpoint();
+            for (int i = testa[nodo]; i >= 0; i = archi[3 * i + 2]) ds.union(archi[3 * i], archi[3 * i + 1]);
+            if (fine - inizio == 1) {
+                risposte[inizio] = ds.sameSet(domande[2 * inizio], domande[2 * inizio + 1]);
+            } else {
+                int meta = (inizio + fine) >>> 1;
+                visita(2 * nodo, inizio, meta, ds, risposte);
+                visita(2 * nodo + 1, meta, fine, ds, risposte);
+            }
+            ds.rollback(checkpoint);
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Classe di test per DynamicConnectivity
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+class DynamicConnectivityTest {
+
+    @Test
+    final void testSmallLog() {
+        DynamicConnectivity dc = new DynamicConnectivity(4);
+        assertEquals(0, dc.solve().length);
+        dc.addEdge(0, 1);
+        dc.addEdge(1, 2);
+        assertEquals(0, dc.query(0, 2));
+        dc.removeEdge(2, 1);
+        dc.query(0, 2);
+        dc.query(0, 1);
+        dc.addEdge(2, 3);
+        dc.addEdge(3, 0);
+        dc.query(1, 2);
+        dc.addEdge(3, 0);
+        dc.removeEdge(0, 3);
+        //Il secondo inserimento di (3, 0) tiene l'arco presente
+        dc.query(1, 3);
+        dc.removeEdge(0, 3);
+        dc.query(1, 3);
+        dc.query(3, 3);
+        assertEquals(7, dc.queries());
+        assertArrayEquals(new boolean[]{true, false, true, true, true, false, true}, dc.solve());
+    }
+
+    @Test
+    final void testExceptions() {
+        assertThrows(IllegalArgumentException.class, () -> new DynamicConnectivity(-1));
+        DynamicConnectivity dc = new DynamicConnectivity(3);
+        assertThrows(IllegalArgumentException.class, () -> dc.addEdge(0, 3));
+        assertThrows(IllegalArgumentException.class, () -> dc.query(-1, 0));
+        assertThrows(IllegalArgumentException.class, () -> dc.removeEdge(0, 1));
+        dc.addEdge(0, 1);
+        dc.removeEdge(1, 0);
+        assertThrows(IllegalArgumentException.class, () -> dc.removeEdge(0, 1));
+    }
+
+    @Test
+    final void testRandomAgainstRebuild() {
+        int n = 40;
+        Random random = new Random(9);
+        DynamicConnectivity dc = new DynamicConnectivity(n);
+        //Archi presenti, ricostruendo le componenti da zero ad ogni domanda
+        List<int[]> archi = new ArrayList<>();
+        List<Boolean> attese = new ArrayList<>();
+        for (int passo = 0; passo < 3000; passo++) {
+            int scelta = random.nextInt(3);
+            if (scelta == 0 || archi.isEmpty()) {
+                int u = random.nextInt(n);
+                int v = random.nextInt(n);
+                dc.addEdge(u, v);
+                archi.add(new int[]{u, v});
+            } else if (scelta == 1) {
+                int[] arco = archi.remove(random.nextInt(archi.size()));
+                dc.removeEdge(arco[1], arco[0]);
+            } else {
+                int u = random.nextInt(n);
+                int v = random.nextInt(n);
+                dc.query(u, v);
+                IntDisjointSets ds = new IntDisjointSets(n);
+                for (int[] arco : archi) ds.union(arco[0], arco[1]);
+                attese.add(ds.sameSet(u, v));
+            }
+        }
+        boolean[] risposte = dc.solve();
+        assertEquals(attese.size(), risposte.length);
+        for (int i = 0; i < risposte.length; i++) assertEquals(attese.get(i), risposte[i]);
+    }
+
+}
@@ -0,0 +1,291 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Componenti connesse di un grafo non orientato con nodi da 0 a n-1, letto in streaming da un file di archi e scritto
+ * come file di etichette, senza caricare gli archi in memoria.<br><br>
+ *
+ * Il file degli archi viene mappato in memoria a finestre di dimensione fissa. Un thread lettore decodifica gli archi
+ * di ogni finestra in lotti di int e li passa al thread chiamante, che li unisce in un {@link IntDisjointSets} mentre
+ * il lettore prepara i lotti successivi. I lotti sono pochi e vengono riusati: quando sono tutti pieni il lettore si
+ * ferma finché le unioni non ne liberano uno, quindi la memoria occupata non dipende dalla dimensione del file e
+ * nessun oggetto viene creato per arco.<br><br>
+ *
+ * Alla fine le componenti vengono numerate da 0 a k-1 in ordine di nodo minimo, come in {@link ConnectedComponents},
+ * e l'etichetta di ogni nodo viene scritta nel file di output nello stesso formato del file degli archi:
+ * <ul>
+ *     <li>{@link Format#BINARY}: gli archi sono coppie di int little-endian, le etichette un int little-endian per
+ *     nodo;</li>
+ *     <li>{@link Format#TEXT}: gli archi sono righe con due numeri separati da spazi o tabulazioni, le righe vuote o
+ *     che iniziano con # vengono ignorate; le etichette sono una riga per nodo.</li>
+ * </ul>
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+public final class EdgeFileComponents {
+
+    /**
+     * Formato dei file di archi e di etichette.
+     */
+    public enum Format {
+        BINARY, TEXT
+    }
+
+    //Ogni finestra mappata è di 64 MiB
+    private static final int FINESTRA = 1 << 26;
+    //Ogni lotto contiene 2^16 archi, cioè 512 KiB
+    private static final int LOTTO = 1 << 16;
+    private static final int LOTTI = 4;
+    private static final int DIMENSIONE_BUFFER = 1 << 16;
+
+    private EdgeFileComponents() {
+        //Classe di sole operazioni statiche, non istanziabile
+    }
+
+    /**
+     * Legge il file degli archi, calcola le componenti connesse e scrive l'etichetta di ogni nodo nel file di output,
+     * sovrascrivendolo se esiste già.
+     *
+     * @param edges  il file degli archi
+     * @param format il formato dei due file
+     * @param n      il numero di nodi
+     * @param labels il file delle etichette da scrivere
+     * @return il numero di componenti connesse
+     * @throws NullPointerException     se uno degli argomenti è null
+     * @throws IllegalArgumentException se n è negativo
+     * @throws IOException              se un file non può essere letto o scritto, se il file degli archi non è nel
+     *                                  formato previsto o se contiene nodi non compresi tra 0 e n-1
+     */
+    public static int compute(Path edges, Format format, int n, Path labels) throws IOException {
+        return compute(edges, format, n, labels, FINESTRA);
+    }
+
+    static int compute(Path edges, Format format, int n, Path labels, int finestra) throws IOException {
+        if (edges == null || format == null || labels == null) throw new NullPointerException("Argomento null");
+        if (n < 0) throw new IllegalArgumentException("Il numero di nodi non può essere negativo");
+        IntDisjointSets ds = new IntDisjointSets(n);
+        try (FileChannel canale = FileChannel.open(edges, StandardOpenOption.READ)) {
+            Lettore lettore = new Lettore(canale, format, n, finestra);
+            Thread thread = new Thread(lettore, "EdgeFileComponents-lettore");
+            thread.setDaemon(true);
+            thread.start();
+            try {
+                for (Lotto lotto = lettore.pieni.take(); lotto != Lotto.FINE; lotto = lettore.pieni.take()) {
+                    int[] archi = lotto.archi;
+                    for (int i = 0; i < 2 * lotto.numero; i += 2) ds.union(archi[i], archi[i + 1]);
+                    lettore.liberi.put(lotto);
+                }
+                thread.join();
+            } catch (InterruptedException e) {
+                thread.interrupt();
+                Thread.currentThread().interrupt();
+                throw new IOException("Lettura interrotta", e);
+            }
+            if (lettore.errore != null) throw lettore.errore;
+        }
+        int[] denso = new int[n];
+        Arrays.fill(denso, -1);
+        int componenti = 0;
+        try (FileChannel canale = FileChannel.open(labels, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(DIMENSIONE_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < n; i++) {
+                int radice = ds.find(i);
+                if (denso[radice] < 0) denso[radice] = componenti++;
+                //Un int binario o al massimo dieci cifre e un a capo
+                if (buffer.remaining() < 11) svuota(canale, buffer);
+                if (format == Format.BINARY) buffer.putInt(denso[radice]);
+                else scriviNumero(buffer, denso[radice]);
+            }
+            svuota(canale, buffer);
+        }
+        return componenti;
+    }
+
+    private static void scriviNumero(ByteBuffer buffer, int valore) {
+        int cifre = 1;
+        for (int x = valore; x >= 10; x /= 10) cifre++;
+        int fine = buffer.position() + cifre;
+        for (int i = fine - 1; i >= buffer.position(); i--) {
+            buffer.put(i, (byte) ('0' + valore % 10));
+            valore /= 10;
+        }
+        buffer.position(fine);
+        buffer.put((byte) '\n');
+    }
+
+    private static void svuota(FileChannel canale, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) canale.write(buffer);
+        buffer.clear();
+    }
+
+    /*
+        Un lotto di archi decodificati, due int per arco. FINE segnala che il lettore ha terminato
+     */
+    private static class Lotto {
+
+        static final Lotto FINE = new Lotto(0);
+
+        final int[] archi;
+        int numero;
+
+        Lotto(int archi) {
+            this.archi = new int[2 * archi];
+        }
+    }
+
+    /*
+        Decodifica il file una finestra alla volta e riempie i lotti liberi. La coda dei lotti pieni ha un posto in più
+        del numero di lotti, così l'inserimento di FINE non può mai bloccarsi
+     */
+    private static class Lettore implements Runnable {
+
+        final BlockingQueue<Lotto> liberi = new ArrayBlockingQueue<>(LOTTI);
+        final BlockingQueue<Lotto> pieni = new ArrayBlockingQueue<>(LOTTI + 1);
+        volatile IOException errore;
+
+        private final FileChannel canale;
+        private final Format formato;
+        private final int n;
+        private final int finestra;
+        private Lotto corrente;
+        //Numero dell'arco, o della riga nel formato testuale, per i messaggi di errore
+        private long numero;
+
+        Lettore(FileChannel canale, Format formato, int n, int finestra) {
+            this.canale = canale;
+            this.formato = formato;
+            this.n = n;
+            this.finestra = finestra;
+            for (int i = 0; i < LOTTI; i++) liberi.add(new Lotto(LOTTO));
+        }
+
+        @Override
+        public void run() {
+            try {
+                corrente = liberi.take();
+                corrente.numero = 0;
+                if (formato == Format.BINARY) leggiBinario();
+                else leggiTesto();
+                if (corrente.numero > 0) pieni.put(corrente);
+            } catch (IOException e) {
+                errore = e;
+            } catch (InterruptedException e) {
+                errore = new IOException("Lettura interrotta", e);
+            } catch (Throwable e) {
+                //Anche gli Error, come l'InternalError di un file mappato troncato, devono far fallire compute:
+                //altrimenti FINE arriverebbe senza errore dopo aver letto solo una parte degli archi
+                errore = new IOException("Errore durante la lettura", e);
+            } finally {
+                pieni.add(Lotto.FINE);
+            }
+        }
+
+        private void aggiungi(int u, int v) throws IOException, InterruptedException {
+            if (u >= n || v >= n) throw new IOException((formato == Format.BINARY ? "L'arco " : "La riga ") + numero +
+                    " ha un nodo non compreso tra 0 e " + (n - 1));
+            int i = 2 * corrente.numero;
+            corrente.archi[i] = u;
+            corrente.archi[i + 1] = v;
+            if (++corrente.numero == LOTTO) {
+                pieni.put(corrente);
+                corrente = liberi.take();
+                corrente.numero = 0;
+            }
+        }
+
+        private void leggiBinario() throws IOException, InterruptedException {
+            long dimensione = canale.size();
+            if (dimensione % 8 != 0) throw new IOException("La dimensione del file non è un multiplo di 8 byte");
+            int passo = Math.max(8, finestra & ~7);
+            for (long inizio = 0; inizio < dimensione; inizio += passo) {
+                MappedByteBuffer mappa = canale.map(FileChannel.MapMode.READ_ONLY, inizio,
+                        Math.min(passo, dimensione - inizio));
+                mappa.order(ByteOrder.LITTLE_ENDIAN);
+                while (mappa.hasRemaining()) {
+                    int u = mappa.getInt();
+                    int v = mappa.getInt();
+                    if (u < 0 || v < 0) throw new IOException("L'arco " + numero + " ha un nodo negativo");
+                    aggiungi(u, v);
+                    numero++;
+                }
+            }
+        }
+
+        /*
+            Ogni finestra viene decodificata fino al suo ultimo a capo, e la successiva inizia dalla riga incompleta
+         */
+        private void leggiTesto() throws IOException, InterruptedException {
+            long dimensione = canale.size();
+            numero = 1;
+            long inizio = 0;
+            while (inizio < dimensione) {
+                int lunghezza = (int) Math.min(finestra, dimensione - inizio);
+                MappedByteBuffer mappa = canale.map(FileChannel.MapMode.READ_ONLY, inizio, lunghezza);
+                int fine = lunghezza;
+                if (inizio + lunghezza < dimensione) {
+                    while (fine > 0 && mappa.get(fine - 1) != '\n') fine--;
+                    if (fine == 0) throw new IOException("La riga " + numero + " è più lunga di una finestra");
+                }
+                int i = 0;
+                while (i < fine) i = riga(mappa, i, fine);
+                inizio += fine;
+            }
+        }
+
+        /*
+            Decodifica la riga che inizia in posizione i e restituisce la posizione successiva al suo a capo
+         */
+        private int riga(MappedByteBuffer mappa, int i, int fine) throws IOException, InterruptedException {
+            i = spazi(mappa, i, fine);
+            if (i < fine && mappa.get(i) == '#') {
+                while (i < fine && mappa.get(i) != '\n') i++;
+            } else if (i < fine && mappa.get(i) != '\n') {
+                int da = i;
+                long u = 0;
+                for (byte b; i < fine && (b = mappa.get(i)) >= '0' && b <= '9'; i++) {
+                    u = u * 10 + (b - '0');
+                    if (u > Integer.MAX_VALUE) throw new IOException("Nodo troppo grande alla riga " + numero);
+                }
+                boolean primo = i > da;
+                i = spazi(mappa, i, fine);
+                da = i;
+                long v = 0;
+                for (byte b; i < fine && (b = mappa.get(i)) >= '0' && b <= '9'; i++) {
+                    v = v * 10 + (b - '0');
+                    if (v > Integer.MAX_VALUE) throw new IOException("Nodo troppo grande alla riga " + numero);
+                }
+                boolean secondo = i > da;
+                i = spazi(mappa, i, fine);
+                //Dopo il secondo nodo può esserci solo la fine della riga
+                if (!primo || !secondo || (i < fine && mappa.get(i) != '\n')) {
+                    throw new IOException("La riga " + numero + " non contiene due nodi");
+                }
+                aggiungi((int) u, (int) v);
+            }
+            numero++;
+            return i + 1;
+        }
+
+        private static int spazi(MappedByteBuffer mappa, int i, int fine) {
+            while (i < fine) {
+                byte b = mappa.get(i);
+                if (b != ' ' && b != '\t' && b != '\r') break;
+                i++;
+            }
+            return i;
+        }
+    }
+
+}
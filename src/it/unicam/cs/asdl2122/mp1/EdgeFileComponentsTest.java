@@ -0,0 +1,142 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Classe di test per EdgeFileComponents
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+class EdgeFileComponentsTest {
+
+    @TempDir
+    Path cartella;
+
+    private Path binario(int[] from, int[] to) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8 * from.length).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < from.length; i++) buffer.putInt(from[i]).putInt(to[i]);
+        return Files.write(cartella.resolve("archi.bin"), buffer.array());
+    }
+
+    private Path testo(String contenuto) throws IOException {
+        return Files.write(cartella.resolve("archi.txt"), contenuto.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private int[] etichetteBinarie(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        int[] etichette = new int[buffer.remaining() / 4];
+        for (int i = 0; i < etichette.length; i++) etichette[i] = buffer.getInt();
+        return etichette;
+    }
+
+    @Test
+    final void testBinaryAgainstConnectedComponents() throws IOException {
+        Random random = new Random(21);
+        int n = 50_000;
+        //Più archi di un lotto, su molte finestre
+        int m = 200_000;
+        int[] from = new int[m];
+        int[] to = new int[m];
+        for (int i = 0; i < m; i++) {
+            from[i] = random.nextInt(n);
+            to[i] = random.nextInt(n);
+        }
+        Path archi = binario(from, to);
+        Path etichette = cartella.resolve("etichette.bin");
+        ConnectedComponents attese = ConnectedComponents.of(n, from, to);
+        assertEquals(attese.count(), EdgeFileComponents.compute(archi, EdgeFileComponents.Format.BINARY, n,
+                etichette, 4096 + 3));
+        assertArrayEquals(attese.labels(), etichetteBinarie(etichette));
+        assertEquals(attese.count(), EdgeFileComponents.compute(archi, EdgeFileComponents.Format.BINARY, n,
+                etichette));
+        assertArrayEquals(attese.labels(), etichetteBinarie(etichette));
+    }
+
+    @Test
+    final void testText() throws IOException {
+        Path archi = testo("# grafo di prova\n0 1\r\n\n  4\t3  \n#\n1 2\n5 5");
+        Path etichette = cartella.resolve("etichette.txt");
+        assertEquals(4, EdgeFileComponents.compute(archi, EdgeFileComponents.Format.TEXT, 7, etichette));
+        assertEquals(List.of("0", "0", "0", "1", "1", "2", "3"), Files.readAllLines(etichette));
+        //Finestre più corte del file: le righe vengono spezzate tra una finestra e l'altra
+        assertEquals(4, EdgeFileComponents.compute(archi, EdgeFileComponents.Format.TEXT, 7, etichette, 20));
+        assertEquals(List.of("0", "0", "0", "1", "1", "2", "3"), Files.readAllLines(etichette));
+    }
+
+    @Test
+    final void testTextAgainstConnectedComponents() throws IOException {
+        Random random = new Random(22);
+        int n = 20_000;
+        int m = 100_000;
+        int[] from = new int[m];
+        int[] to = new int[m];
+        StringBuilder contenuto = new StringBuilder();
+        for (int i = 0; i < m; i++) {
+            from[i] = random.nextInt(n);
+            to[i] = random.nextInt(n);
+            contenuto.append(from[i]).append(' ').append(to[i]).append('\n');
+        }
+        Path archi = testo(contenuto.toString());
+        Path etichette = cartella.resolve("etichette.txt");
+        ConnectedComponents attese = ConnectedComponents.of(n, from, to);
+        assertEquals(attese.count(), EdgeFileComponents.compute(archi, EdgeFileComponents.Format.TEXT, n,
+                etichette, 1000));
+        List<String> righe = Files.readAllLines(etichette);
+        assertEquals(n, righe.size());
+        for (int i = 0; i < n; i++) assertEquals(attese.component(i), Integer.parseInt(righe.get(i)));
+    }
+
+    @Test
+    final void testEmpty() throws IOException {
+        Path etichette = cartella.resolve("etichette.bin");
+        assertEquals(3, EdgeFileComponents.compute(binario(new int[0], new int[0]), EdgeFileComponents.Format.BINARY,
+                3, etichette));
+        assertArrayEquals(new int[]{0, 1, 2}, etichetteBinarie(etichette));
+        assertEquals(0, EdgeFileComponents.compute(testo(""), EdgeFileComponents.Format.TEXT, 0, etichette));
+        assertEquals(0, Files.size(etichette));
+    }
+
+    @Test
+    final void testInvalidInput() throws IOException {
+        Path etichette = cartella.resolve("etichette");
+        EdgeFileComponents.Format binario = EdgeFileComponents.Format.BINARY;
+        EdgeFileComponents.Format testuale = EdgeFileComponents.Format.TEXT;
+        assertThrows(NullPointerException.class, () -> EdgeFileComponents.compute(null, binario, 1, etichette));
+        assertThrows(IllegalArgumentException.class, () -> EdgeFileComponents.compute(testo(""), testuale, -1,
+                etichette));
+        assertThrows(IOException.class, () -> EdgeFileComponents.compute(binario(new int[]{0}, new int[]{3}),
+                binario, 3, etichette));
+        assertThrows(IOException.class, () -> EdgeFileComponents.compute(binario(new int[]{0}, new int[]{-1}),
+                binario, 3, etichette));
+        Files.write(cartella.resolve("dispari.bin"), new byte[12]);
+        assertThrows(IOException.class, () -> EdgeFileComponents.compute(cartella.resolve("dispari.bin"), binario,
+                3, etichette));
+        assertThrows(IOException.class, () -> EdgeFileComponents.compute(testo("0 1\n1\n"), testuale, 3,
+                etichette));
+        assertThrows(IOException.class, () -> EdgeFileComponents.compute(testo("0 1 2\n"), testuale, 3,
+                etichette));
+        assertThrows(IOException.class, () -> EdgeFileComponents.compute(testo("0 x\n"), testuale, 3, etichette));
+        assertThrows(IOException.class, () -> EdgeFileComponents.compute(testo("0 -1\n"), testuale, 3, etichette));
+        assertThrows(IOException.class, () -> EdgeFileComponents.compute(testo("0 99999999999\n"), testuale, 3,
+                etichette));
+        assertThrows(IOException.class, () -> EdgeFileComponents.compute(testo("0 3\n"), testuale, 3, etichette));
+        //Una riga più lunga della finestra
+        assertThrows(IOException.class, () -> EdgeFileComponents.compute(testo("0      1\n1 2\n"), testuale, 3,
+                etichette, 4));
+        assertThrows(IOException.class, () -> EdgeFileComponents.compute(cartella.resolve("assente"), testuale, 3,
+                etichette));
+    }
+
+}
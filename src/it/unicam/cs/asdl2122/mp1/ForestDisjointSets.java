@@ -0,0 +1,367 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Implementazione degli insiemi disgiunti con una foresta di alberi, con unione per dimensione e dimezzamento dei
+ * cammini (path halving).<br><br>
+ *
+ * Il riferimento ref1 di un elemento è il padre nell'albero, la radice è il rappresentante ed è padre di se stessa.
+ * Il numero della radice è la cardinalità del suo insieme; quello degli altri elementi non viene più aggiornato dopo
+ * che smettono di essere radici e non ha significato.<br><br>
+ *
+ * Per poter elencare gli elementi di un insieme senza scorrere tutta la collezione, ogni insieme è anche una lista
+ * circolare collegata tramite ref2: un singoletto punta a se stesso e l'unione concatena le due liste in tempo
+ * costante scambiando i successivi delle due radici.<br><br>
+ *
+ * {@link ForestDisjointSets#makeSet} e {@link ForestDisjointSets#union} a parte le ricerche hanno complessità O(1),
+ * {@link ForestDisjointSets#findSet} ha complessità ammortizzata O(α(n)), dove α è l'inversa della funzione di
+ * Ackermann, quindi in pratica costante. Con l'unione per dimensione ogni albero ha altezza O(log n) anche prima che
+ * i cammini vengano accorciati.<br><br>
+ *
+ * {@link ForestDisjointSets#delete} non toglie l'elemento dall'albero, perché i suoi figli non sono raggiungibili
+ * senza scorrere l'insieme: l'elemento diventa vacante, con numero 0, e resta nell'albero e nella lista circolare
+ * finché il suo insieme non viene ricostruito. Se l'elemento eliminato è la radice, il primo elemento presente che la
+ * segue nella lista diventa la nuova radice e la vecchia viene appesa ad esso. Un insieme viene ricostruito, togliendo
+ * gli elementi vacanti e appendendo quelli presenti direttamente alla radice, solo quando gli elementi vacanti
+ * superano quelli presenti, quindi ogni ricostruzione è pagata dalle eliminazioni che l'hanno resa necessaria e
+ * un'eliminazione costa O(α(n)) ammortizzato. Gli elementi vacanti saltati per trovare la nuova radice restano dietro
+ * di essa nella lista, quindi vengono saltati di nuovo solo dopo un'unione o un giro completo della lista.<br><br>
+ *
+ * I contatori di {@link DisjointSetsCounters} sommano le radici collegate ad un'altra radice dalle unioni e dalle
+ * eliminazioni, una per operazione, più gli elementi riappesi alla radice dalle ricostruzioni, e i passi verso la
+ * radice fatti da tutte le ricerche, comprese quelle interne alle altre operazioni.
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+public class ForestDisjointSets implements DisjointSets, DisjointSetsCounters {
+
+    //Collezione dei rappresentanti, cioè delle radici degli alberi
+    private final Rappresentanti collezione;
+    //Numero di elementi vacanti di ogni insieme che ne ha, con chiave la radice
+    private final Map<DisjointSetElement, Integer> vacanti;
+    //Contatori del lavoro fatto dalle unioni e dalle ricerche
+    private long ricollegati;
+    private long percorsi;
+
+    /**
+     * Crea una collezione vuota di insiemi disgiunti.
+     */
+    public ForestDisjointSets() {
+        collezione = new Rappresentanti();
+        vacanti = new IdentityHashMap<>();
+    }
+
+    /**
+     * Verifica se un elemento è presente in un insieme disgiunto
+     *
+     * @param e l'elemento da cercare
+     * @return true se il padre non è null e l'elemento non è vacante, false altrimenti
+     */
+    @Override
+    public boolean isPresent(DisjointSetElement e) {
+        if (e == null) return false;
+        return e.getRef1() != null && !MembriInsieme.vacante(e);
+    }
+
+    /**
+     * Crea un insieme singoletto: l'elemento è padre e successivo di se stesso e la cardinalità è 1. Se l'elemento è
+     * stato eliminato ma è ancora vacante nel suo vecchio insieme, quell'insieme viene prima ricostruito, con
+     * complessità O(k) dove k è la sua cardinalità.
+     *
+     * @param e l'elemento da inserire nell'insieme creato
+     * @throws NullPointerException     se <code>e</code> è null
+     * @throws IllegalArgumentException se l'elemento fa già parte di un insieme disgiunto
+     */
+    @Override
+    public void makeSet(DisjointSetElement e) {
+        if (e == null) throw new NullPointerException("Elemento passato null");
+        if (isPresent(e)) throw new IllegalArgumentException("L'elemento passato fa già parte di un insieme disgiunto");
+        if (e.getRef1() != null) ricostruisci(radice(e));
+        e.setRef1(e);
+        e.setRef2(e);
+        e.setNumber(1);
+        collezione.aggiungi(e);
+    }
+
+    /*
+        Risale fino alla radice facendo puntare ogni elemento visitato al nonno, così il cammino si dimezza ad ogni
+        ricerca senza bisogno di una seconda passata o di ricorsione
+     */
+    private DisjointSetElement radice(DisjointSetElement e) {
+        DisjointSetElement padre = e.getRef1();
+        while (padre != e) {
+            DisjointSetElement nonno = padre.getRef1();
+            //Il salto al nonno percorre due riferimenti, uno solo se il padre è la radice
+            percorsi += nonno == padre ? 1 : 2;
+            e.setRef1(nonno);
+            e = nonno;
+            padre = e.getRef1();
+        }
+        return e;
+    }
+
+    /**
+     * Restituisce il rappresentante dell'elemento passato, accorciando il cammino percorso. Complessità ammortizzata
+     * O(α(n)).
+     *
+     * @param e l'elemento di cui cercare l'insieme disgiunto
+     * @return rappresentante dell'elemento
+     * @throws NullPointerException     se <code>e</code> è null
+     * @throws IllegalArgumentException se l'elemento passato non è presente in nessun insieme disgiunto
+     */
+    @Override
+    public DisjointSetElement findSet(DisjointSetElement e) {
+        if (e == null) throw new NullPointerException("e è null");
+        if (!isPresent(e)) throw new IllegalArgumentException("l'elemento passato non è presente " +
+                "in nessuno degli insiemi disgiunti correnti");
+        return radice(e);
+    }
+
+    /*
+     * Dopo l'unione di due insiemi effettivamente disgiunti il rappresentante
+     * dell'insieme unito è il rappresentate dell'insieme che aveva il numero
+     * maggiore di elementi. A parità di elementi il rappresentante è quello del
+     * vecchio insieme di {@code e1}, come in LinkedListDisjointSets.
+     */
+
+    /**
+     * Appende la radice dell'albero più piccolo a quella del più grande e concatena le due liste circolari degli
+     * elementi. A parte le due ricerche delle radici la complessità è O(1).
+     *
+     * @param e1 elemento del primo insieme da unire
+     * @param e2 elemento del secondo insieme da unire
+     * @throws NullPointerException     se almeno uno tra <code>e1</code> o <code>e2</code> è null
+     * @throws IllegalArgumentException almeno uno tra <code>e1</code> o <code>e2</code> non sono presenti in nessun
+     *                                  insieme disgiunto
+     */
+    @Override
+    public void union(DisjointSetElement e1, DisjointSetElement e2) {
+        if (e1 == null || e2 == null) throw new NullPointerException("e1 o e2 è null");
+        if (!isPresent(e1) || !isPresent(e2)) throw new IllegalArgumentException("e1 o e2 non è presente in nessuno " +
+                "degli insiemi disgiunti correnti");
+        DisjointSetElement radice1 = radice(e1);
+        DisjointSetElement radice2 = radice(e2);
+        if (radice1 == radice2) return;
+        DisjointSetElement grande = radice1;
+        DisjointSetElement piccola = radice2;
+        if (radice2.getNumber() > radice1.getNumber()) {
+            grande = radice2;
+            piccola = radice1;
+        }
+        piccola.setRef1(grande);
+        ricollegati++;
+        collezione.rimosso();
+        grande.setNumber(grande.getNumber() + piccola.getNumber());
+        if (!vacanti.isEmpty()) {
+            Integer vuoti = vacanti.remove(piccola);
+            if (vuoti != null) vacanti.merge(grande, vuoti, Integer::sum);
+        }
+        //Scambiando i successivi delle due radici le due liste circolari diventano una sola
+        DisjointSetElement successivo = grande.getRef2();
+        grande.setRef2(piccola.getRef2());
+        piccola.setRef2(successivo);
+    }
+
+    /**
+     * Elimina un elemento rendendolo vacante. Se è la radice, il primo elemento presente che la segue nella lista
+     * circolare diventa la nuova radice; se era l'ultimo elemento presente l'insieme scompare. L'insieme viene
+     * ricostruito solo quando gli elementi vacanti superano quelli presenti, quindi la complessità ammortizzata è
+     * O(α(n)). L'elemento torna ad avere riferimenti e numero azzerati quando il suo insieme viene ricostruito o
+     * scompare.
+     *
+     * @param e l'elemento da eliminare
+     * @throws NullPointerException     se <code>e</code> è null
+     * @throws IllegalArgumentException se <code>e</code> non è presente in nessun insieme disgiunto
+     */
+    @Override
+    public void delete(DisjointSetElement e) {
+        if (e == null) throw new NullPointerException("Elemento null");
+        if (!isPresent(e)) throw new IllegalArgumentException("Elemento non presente");
+        DisjointSetElement radice = radice(e);
+        int presenti = radice.getNumber() - 1;
+        Integer precedenti = vacanti.remove(radice);
+        if (presenti == 0) {
+            //Era l'ultimo elemento presente: l'insieme scompare insieme ai suoi elementi vacanti
+            libera(radice);
+            collezione.rimosso();
+            collezione.eliminazione();
+            return;
+        }
+        int vuoti = (precedenti == null ? 0 : precedenti) + 1;
+        e.setNumber(0);
+        if (e == radice) {
+            //La vecchia radice resta nell'albero, appesa al primo elemento presente che la segue nella lista
+            radice = e.getRef2();
+            while (MembriInsieme.vacante(radice)) radice = radice.getRef2();
+            radice.setRef1(radice);
+            e.setRef1(radice);
+            ricollegati++;
+            collezione.rimosso();
+            collezione.aggiungi(radice);
+        }
+        radice.setNumber(presenti);
+        if (vuoti > presenti) ricostruisci(radice);
+        else vacanti.put(radice, vuoti);
+        collezione.eliminazione();
+    }
+
+    /*
+        Toglie dalla lista circolare della radice gli elementi vacanti, azzerandoli, e appende direttamente alla radice
+        quelli presenti. Complessità O(k + v), dove v sono gli elementi vacanti
+     */
+    private void ricostruisci(DisjointSetElement radice) {
+        vacanti.remove(radice);
+        DisjointSetElement ultimo = radice;
+        DisjointSetElement elemento = radice.getRef2();
+        while (elemento != radice) {
+            DisjointSetElement successivo = elemento.getRef2();
+            if (MembriInsieme.vacante(elemento)) {
+                azzera(elemento);
+            } else {
+                if (elemento.getRef1() != radice) {
+                    elemento.setRef1(radice);
+                    ricollegati++;
+                }
+                ultimo.setRef2(elemento);
+                ultimo = elemento;
+            }
+            elemento = successivo;
+        }
+        ultimo.setRef2(radice);
+    }
+
+    /*
+        Azzera tutti gli elementi della lista circolare di una radice
+     */
+    private static void libera(DisjointSetElement radice) {
+        DisjointSetElement elemento = radice;
+        do {
+            DisjointSetElement successivo = elemento.getRef2();
+            azzera(elemento);
+            elemento = successivo;
+        } while (elemento != radice);
+    }
+
+    private static void azzera(DisjointSetElement e) {
+        e.setRef1(null);
+        e.setRef2(null);
+        e.setNumber(0);
+    }
+
+    /**
+     * Restituisce una vista di sola lettura, sempre aggiornata, sui rappresentanti degli insiemi disgiunti
+     *
+     * @return collezione dei rappresentanti
+     */
+    @Override
+    public Set<DisjointSetElement> getCurrentRepresentatives() {
+        return Collections.unmodifiableSet(collezione);
+    }
+
+    /**
+     * Restituisce il numero di insiemi disgiunti. Complessità O(1)
+     *
+     * @return numero di insiemi
+     */
+    @Override
+    public int numberOfSets() {
+        return collezione.size();
+    }
+
+    /**
+     * Restituisce gli elementi dell'insieme di cui fa parte l'elemento passato, scorrendo la sua lista circolare e
+     * saltando gli elementi vacanti. Complessità O(k) dove k è la cardinalità dell'insieme.
+     *
+     * @param e l'elemento di cui si vuole ottenere l'insieme disgiunto di cui fa parte
+     * @return set contenente gli elementi dell'insieme
+     * @throws NullPointerException     se <code>e</code> è null
+     * @throws IllegalArgumentException se l'elemento non è presente negli insiemi disgiunti
+     */
+    @Override
+    public Set<DisjointSetElement> getCurrentElementsOfSetContaining(DisjointSetElement e) {
+        if (e == null) throw new NullPointerException("Elemento passato null");
+        if (!isPresent(e)) throw new IllegalArgumentException("Elemento non presente negli insiemi");
+        Set<DisjointSetElement> set = new HashSet<>();
+        DisjointSetElement elemento = e;
+        do {
+            if (!MembriInsieme.vacante(elemento)) set.add(elemento);
+            elemento = elemento.getRef2();
+        } while (elemento != e);
+        return set;
+    }
+
+    /**
+     * Esegue un'azione su ogni elemento dell'insieme di cui fa parte l'elemento passato, scorrendo la sua lista
+     * circolare senza copiarla. Complessità O(k) dove k è la cardinalità dell'insieme.
+     *
+     * @param e      l'elemento di cui si vogliono visitare gli elementi dell'insieme
+     * @param action l'azione da eseguire su ogni elemento
+     * @throws NullPointerException     se <code>e</code> o l'azione sono null
+     * @throws IllegalArgumentException se l'elemento non è presente negli insiemi disgiunti
+     */
+    @Override
+    public void forEachMember(DisjointSetElement e, Consumer<? super DisjointSetElement> action) {
+        if (e == null || action == null) throw new NullPointerException("Elemento o azione null");
+        if (!isPresent(e)) throw new IllegalArgumentException("Elemento non presente negli insiemi");
+        MembriInsieme.visita(e, radice(e).getNumber(), action);
+    }
+
+    /**
+     * Restituisce una vista sugli elementi dell'insieme di cui fa parte l'elemento passato, che scorre la lista
+     * circolare senza copiarla e conosce già il numero di elementi. La vista è valida finché l'insieme non viene unito
+     * ad un altro o non ne viene eliminato un elemento.
+     *
+     * @param e l'elemento di cui si vogliono ottenere gli elementi dell'insieme
+     * @return la vista sugli elementi dell'insieme
+     * @throws NullPointerException     se <code>e</code> è null
+     * @throws IllegalArgumentException se l'elemento non è presente negli insiemi disgiunti
+     */
+    @Override
+    public Iterable<DisjointSetElement> members(DisjointSetElement e) {
+        if (e == null) throw new NullPointerException("Elemento passato null");
+        if (!isPresent(e)) throw new IllegalArgumentException("Elemento non presente negli insiemi");
+        return new MembriInsieme(e, radice(e).getNumber());
+    }
+
+    /**
+     * Cardinalità dell'insieme di e, conservata nella radice
+     *
+     * @param e l'elemento di cui si vuole ottenere la cardinalità
+     * @return cardinalità
+     * @throws NullPointerException     se <code>e</code> è null
+     * @throws IllegalArgumentException se <code>e</code> non è presente in nessun insieme disgiunto
+     */
+    @Override
+    public int getCardinalityOfSetContaining(DisjointSetElement e) {
+        if (e == null) throw new NullPointerException("Elemento null");
+        if (!isPresent(e)) throw new IllegalArgumentException("Elemento non presente");
+        return radice(e).getNumber();
+    }
+
+    /**
+     * Restituisce il numero totale di radici collegate ad un'altra radice dalle unioni. Complessità O(1)
+     *
+     * @return elementi ricollegati
+     */
+    @Override
+    public long relinkedElements() {
+        return ricollegati;
+    }
+
+    /**
+     * Restituisce il numero totale di passi verso la radice fatti dalle ricerche. Complessità O(1)
+     *
+     * @return riferimenti percorsi
+     */
+    @Override
+    public long traversedLinks() {
+        return percorsi;
+    }
+
+}
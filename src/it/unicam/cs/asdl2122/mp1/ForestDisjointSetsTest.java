@@ -0,0 +1,133 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Classe di test per ForestDisjointSets
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+class ForestDisjointSetsTest extends AbstractDisjointSetsTest<ForestDisjointSets> {
+
+    @Override
+    ForestDisjointSets crea() {
+        return new ForestDisjointSets();
+    }
+
+    @Test
+    final void testForestDisjointSets() {
+        DisjointSets ds = new ForestDisjointSets();
+        assertTrue(ds.getCurrentRepresentatives().isEmpty());
+    }
+
+    @Test
+    final void testMakeSet() {
+        DisjointSets ds = new ForestDisjointSets();
+        MyIntLinkedListDisjointSetElement e1 = new MyIntLinkedListDisjointSetElement(1);
+        assertFalse(ds.isPresent(e1));
+        ds.makeSet(e1);
+        assertTrue(ds.isPresent(e1));
+        assertSame(e1, e1.getRef1());
+        assertSame(e1, e1.getRef2());
+        assertEquals(1, e1.getNumber());
+        assertSame(e1, ds.findSet(e1));
+        assertEquals(Set.of(e1), ds.getCurrentRepresentatives());
+        assertEquals(Set.of(e1), ds.getCurrentElementsOfSetContaining(e1));
+    }
+
+    @Test
+    final void testExceptions() {
+        DisjointSets ds = new ForestDisjointSets();
+        MyIntLinkedListDisjointSetElement e1 = new MyIntLinkedListDisjointSetElement(1);
+        MyIntLinkedListDisjointSetElement e2 = new MyIntLinkedListDisjointSetElement(2);
+        assertThrows(NullPointerException.class, () -> ds.makeSet(null));
+        assertThrows(NullPointerException.class, () -> ds.findSet(null));
+        assertThrows(NullPointerException.class, () -> ds.union(null, e1));
+        assertThrows(NullPointerException.class, () -> ds.getCurrentElementsOfSetContaining(null));
+        assertThrows(NullPointerException.class, () -> ds.getCardinalityOfSetContaining(null));
+        assertThrows(IllegalArgumentException.class, () -> ds.findSet(e1));
+        ds.makeSet(e1);
+        assertThrows(IllegalArgumentException.class, () -> ds.makeSet(e1));
+        assertThrows(IllegalArgumentException.class, () -> ds.union(e1, e2));
+        assertThrows(IllegalArgumentException.class, () -> ds.getCurrentElementsOfSetContaining(e2));
+        assertThrows(IllegalArgumentException.class, () -> ds.getCardinalityOfSetContaining(e2));
+        ds.makeSet(e2);
+        ds.union(e1, e2);
+        assertThrows(IllegalArgumentException.class, () -> ds.makeSet(e2));
+    }
+
+    @Test
+    final void testUnionRepresentative() {
+        DisjointSets ds = new ForestDisjointSets();
+        MyIntLinkedListDisjointSetElement[] e = elementi(ds, 5);
+        //A parità di cardinalità vince il rappresentante di e1
+        ds.union(e[0], e[1]);
+        assertSame(e[0], ds.findSet(e[1]));
+        //Altrimenti vince quello dell'insieme più grande
+        ds.union(e[2], e[1]);
+        assertSame(e[0], ds.findSet(e[2]));
+        ds.union(e[3], e[4]);
+        ds.union(e[3], e[2]);
+        assertSame(e[0], ds.findSet(e[3]));
+        assertSame(e[0], ds.findSet(e[4]));
+        assertEquals(5, ds.getCardinalityOfSetContaining(e[4]));
+        assertEquals(Set.of(e[0]), ds.getCurrentRepresentatives());
+        //Unire elementi già nello stesso insieme non fa nulla
+        ds.union(e[4], e[1]);
+        assertEquals(5, ds.getCardinalityOfSetContaining(e[0]));
+        assertEquals(Set.of(e), ds.getCurrentElementsOfSetContaining(e[2]));
+    }
+
+    @Test
+    final void testPathHalving() {
+        DisjointSets ds = new ForestDisjointSets();
+        MyIntLinkedListDisjointSetElement[] e = elementi(ds, 8);
+        //Costruisco un albero binomiale di altezza 3
+        for (int passo = 1; passo < 8; passo *= 2) {
+            for (int i = 0; i < 8; i += 2 * passo) ds.union(e[i], e[i + passo]);
+        }
+        assertSame(e[0], ds.findSet(e[7]));
+        //La foglia più profonda ora punta direttamente o quasi alla radice
+        assertTrue(e[7].getRef1() == e[0] || e[7].getRef1().getRef1() == e[0]);
+        ds.findSet(e[7]);
+        assertSame(e[0], e[7].getRef1());
+    }
+
+    @Test
+    final void testRandomAgainstLabels() {
+        int n = 2000;
+        DisjointSets ds = new ForestDisjointSets();
+        MyIntLinkedListDisjointSetElement[] e = elementi(ds, n);
+        //Etichette delle componenti calcolate in modo ingenuo
+        int[] etichette = new int[n];
+        for (int i = 0; i < n; i++) etichette[i] = i;
+        Random random = new Random(42);
+        for (int passo = 0; passo < 1500; passo++) {
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            ds.union(e[a], e[b]);
+            int vecchia = etichette[b];
+            int nuova = etichette[a];
+            if (vecchia != nuova) for (int i = 0; i < n; i++) if (etichette[i] == vecchia) etichette[i] = nuova;
+        }
+        Set<Integer> componenti = new HashSet<>();
+        for (int i = 0; i < n; i++) {
+            componenti.add(etichette[i]);
+            int cardinalita = 0;
+            for (int j = 0; j < n; j++) {
+                if (etichette[j] == etichette[i]) cardinalita++;
+                if (j % 97 == 0) assertEquals(etichette[i] == etichette[j], ds.findSet(e[i]) == ds.findSet(e[j]));
+            }
+            assertEquals(cardinalita, ds.getCardinalityOfSetContaining(e[i]));
+            assertEquals(cardinalita, ds.getCurrentElementsOfSetContaining(e[i]).size());
+        }
+        assertEquals(componenti.size(), ds.getCurrentRepresentatives().size());
+    }
+
+}
@@ -0,0 +1,543 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Multinsieme che mantiene gli elementi ordinati per numero di occorrenze, con la stessa organizzazione usata dalle
+ * cache LFU.<br><br>
+ *
+ * Gli elementi con lo stesso numero di occorrenze formano un {@link Gruppo}; i gruppi sono collegati in una lista
+ * doppiamente concatenata in ordine crescente di occorrenze, e ogni gruppo contiene una lista doppiamente concatenata
+ * dei suoi {@link Nodo}. Una HashMap associa ad ogni oggetto il suo nodo.<br><br>
+ *
+ * Aggiungere o togliere una singola occorrenza sposta il nodo nel gruppo adiacente, quindi ha complessità O(1) attesa.
+ * Le operazioni che cambiano le occorrenze di più di uno devono scorrere i gruppi tra il vecchio e il nuovo numero di
+ * occorrenze, e hanno complessità O(g) dove g è il numero di gruppi attraversati.<br><br>
+ *
+ * I metodi {@link FrequencyMultiset#mostFrequent} e {@link FrequencyMultiset#leastFrequent} hanno complessità O(1),
+ * mentre {@link FrequencyMultiset#ascendingEntries} e {@link FrequencyMultiset#descendingEntries} presentano gli
+ * elementi in ordine di occorrenze con costo O(1) per elemento. Anche l'iteratore del multinsieme presenta gli
+ * elementi in ordine crescente di occorrenze.
+ *
+ * @param <E> il tipo degli elementi del multiset
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+public class FrequencyMultiset<E> implements Multiset<E> {
+
+    private final HashMap<E, Nodo<E>> nodi;
+    //Gruppo con meno occorrenze, primo della lista dei gruppi
+    private Gruppo<E> minimo;
+    //Gruppo con più occorrenze, ultimo della lista dei gruppi
+    private Gruppo<E> massimo;
+    private int size;
+    private int numeroModifiche;
+
+    /*
+        Gruppo degli elementi che hanno esattamente un certo numero di occorrenze. Un gruppo vuoto viene sempre tolto
+        dalla lista dei gruppi
+     */
+    private static class Gruppo<E> {
+        private final int occorrenze;
+        private Nodo<E> primo;
+        private Gruppo<E> precedente;
+        private Gruppo<E> successivo;
+
+        Gruppo(int occorrenze) {
+            this.occorrenze = occorrenze;
+        }
+    }
+
+    /*
+        Nodo di un elemento, le occorrenze sono quelle del gruppo in cui si trova
+     */
+    private static class Nodo<E> implements Multiset.Entry<E> {
+        private final E oggetto;
+        private Gruppo<E> gruppo;
+        private Nodo<E> precedente;
+        private Nodo<E> successivo;
+
+        Nodo(E oggetto) {
+            this.oggetto = oggetto;
+        }
+
+        @Override
+        public E getElement() {
+            return oggetto;
+        }
+
+        @Override
+        public int getCount() {
+            return gruppo == null ? 0 : gruppo.occorrenze;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Multiset.Entry)) return false;
+            Multiset.Entry<?> coppia = (Multiset.Entry<?>) o;
+            return getCount() == coppia.getCount() && oggetto.equals(coppia.getElement());
+        }
+
+        //Segue la formula di Multiset.Entry
+        @Override
+        public int hashCode() {
+            int hash = 31 * 17 + getCount();
+            hash = 31 * hash + oggetto.hashCode();
+            return hash;
+        }
+    }
+
+    /**
+     * Crea un multiset vuoto.
+     */
+    public FrequencyMultiset() {
+        nodi = new HashMap<>();
+        minimo = null;
+        massimo = null;
+        size = 0;
+        numeroModifiche = 0;
+    }
+
+    /*
+        Crea un gruppo con le occorrenze date subito dopo il gruppo passato, o in testa se il gruppo passato è null
+     */
+    private Gruppo<E> creaDopo(Gruppo<E> gruppo, int occorrenze) {
+        Gruppo<E> nuovo = new Gruppo<>(occorrenze);
+        nuovo.precedente = gruppo;
+        nuovo.successivo = gruppo == null ? minimo : gruppo.successivo;
+        if (nuovo.precedente != null) nuovo.precedente.successivo = nuovo;
+        else minimo = nuovo;
+        if (nuovo.successivo != null) nuovo.successivo.precedente = nuovo;
+        else massimo = nuovo;
+        return nuovo;
+    }
+
+    private void rimuoviGruppo(Gruppo<E> gruppo) {
+        if (gruppo.precedente != null) gruppo.precedente.successivo = gruppo.successivo;
+        else minimo = gruppo.successivo;
+        if (gruppo.successivo != null) gruppo.successivo.precedente = gruppo.precedente;
+        else massimo = gruppo.precedente;
+    }
+
+    private static <E> void collega(Nodo<E> nodo, Gruppo<E> gruppo) {
+        nodo.gruppo = gruppo;
+        nodo.precedente = null;
+        nodo.successivo = gruppo.primo;
+        if (gruppo.primo != null) gruppo.primo.precedente = nodo;
+        gruppo.primo = nodo;
+    }
+
+    /*
+        Toglie il nodo dal suo gruppo, e il gruppo dalla lista se rimane vuoto
+     */
+    private void scollega(Nodo<E> nodo) {
+        Gruppo<E> gruppo = nodo.gruppo;
+        if (nodo.precedente != null) nodo.precedente.successivo = nodo.successivo;
+        else gruppo.primo = nodo.successivo;
+        if (nodo.successivo != null) nodo.successivo.precedente = nodo.precedente;
+        if (gruppo.primo == null) rimuoviGruppo(gruppo);
+        nodo.gruppo = null;
+        nodo.precedente = null;
+        nodo.successivo = null;
+    }
+
+    /*
+        Restituisce il gruppo con le occorrenze date, creandolo se necessario, cercandolo a partire dal gruppo passato
+        nella direzione giusta. Se il gruppo di partenza è null la ricerca parte dal minimo
+     */
+    private Gruppo<E> cercaGruppo(Gruppo<E> partenza, int occorrenze) {
+        if (partenza == null) {
+            if (minimo == null || minimo.occorrenze > occorrenze) return creaDopo(null, occorrenze);
+            partenza = minimo;
+        }
+        Gruppo<E> gruppo = partenza;
+        if (occorrenze >= gruppo.occorrenze) {
+            while (gruppo.successivo != null && gruppo.successivo.occorrenze <= occorrenze) gruppo = gruppo.successivo;
+            return gruppo.occorrenze == occorrenze ? gruppo : creaDopo(gruppo, occorrenze);
+        }
+        while (gruppo.precedente != null && gruppo.precedente.occorrenze >= occorrenze) gruppo = gruppo.precedente;
+        return gruppo.occorrenze == occorrenze ? gruppo : creaDopo(gruppo.precedente, occorrenze);
+    }
+
+    /*
+        Porta le occorrenze di un elemento al valore dato, che deve essere diverso da quello attuale, e aggiorna la
+        dimensione. Restituisce le occorrenze precedenti
+     */
+    private int imposta(E element, Nodo<E> nodo, int occorrenze) {
+        int vecchie = 0;
+        if (nodo == null) {
+            nodo = new Nodo<>(element);
+            nodi.put(element, nodo);
+            //Le occorrenze di un elemento nuovo sono per lo più poche, quindi parto dal minimo, a meno che non
+            //superino già quelle del massimo
+            boolean dalMassimo = massimo != null && occorrenze >= massimo.occorrenze;
+            collega(nodo, cercaGruppo(dalMassimo ? massimo : null, occorrenze));
+        } else {
+            vecchie = nodo.gruppo.occorrenze;
+            if (occorrenze == 0) {
+                scollega(nodo);
+                nodi.remove(element);
+            } else {
+                //Cerco il gruppo di destinazione prima di scollegare il nodo, il suo gruppo fa da punto di partenza
+                Gruppo<E> destinazione = cercaGruppo(nodo.gruppo, occorrenze);
+                scollega(nodo);
+                collega(nodo, destinazione);
+            }
+        }
+        size += occorrenze - vecchie;
+        numeroModifiche++;
+        return vecchie;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int count(Object element) {
+        if (element == null) throw new NullPointerException("L'elemento passato al count è null");
+        Nodo<E> nodo = nodi.get(element);
+        return nodo == null ? 0 : nodo.gruppo.occorrenze;
+    }
+
+    /**
+     * Aggiunge delle occorrenze di un elemento. Con una sola occorrenza la complessità è O(1) attesa.
+     *
+     * @param element     l'elemento di cui aggiungere le occorrenze
+     * @param occurrences il numero di occorrenze da aggiungere, se zero non viene apportata alcuna modifica
+     * @return il numero di occorrenze dell'elemento prima dell'operazione
+     * @throws NullPointerException     se element è null
+     * @throws IllegalArgumentException se le occorrenze sono negative o se si superasse Integer.MAX_VALUE
+     */
+    @Override
+    public int add(E element, int occurrences) {
+        if (element == null) throw new NullPointerException("L'elemento da aggiungere è null");
+        if (occurrences < 0) throw new IllegalArgumentException("Non si possono aggiungere valori negativi");
+        Nodo<E> nodo = nodi.get(element);
+        int vecchie = nodo == null ? 0 : nodo.gruppo.occorrenze;
+        if (occurrences == 0) return vecchie;
+        if (((long) vecchie) + occurrences > Integer.MAX_VALUE) throw new IllegalArgumentException("Questa " +
+                "operazione aggiungerebbe un numero maggiore di Integer.MAX_VALUE");
+        return imposta(element, nodo, vecchie + occurrences);
+    }
+
+    @Override
+    public void add(E element) {
+        add(element, 1);
+    }
+
+    /**
+     * Rimuove delle occorrenze di un elemento. Con una sola occorrenza la complessità è O(1) attesa.
+     *
+     * @param element     l'elemento di cui rimuovere le occorrenze
+     * @param occurrences il numero di occorrenze da rimuovere, se zero non viene apportata alcuna modifica
+     * @return numero di occorrenze prima dell'operazione
+     * @throws NullPointerException     se element è null
+     * @throws IllegalArgumentException se le occorrenze sono negative
+     */
+    @Override
+    public int remove(Object element, int occurrences) {
+        if (element == null) throw new NullPointerException("Elemento da rimuovere null");
+        if (occurrences < 0) throw new IllegalArgumentException("Occorrenze da rimuovere negative");
+        Nodo<E> nodo = nodi.get(element);
+        if (nodo == null) return 0;
+        int vecchie = nodo.gruppo.occorrenze;
+        if (occurrences == 0) return vecchie;
+        return imposta(nodo.oggetto, nodo, Math.max(0, vecchie - occurrences));
+    }
+
+    @Override
+    public boolean remove(Object element) {
+        return remove(element, 1) > 0;
+    }
+
+    @Override
+    public int setCount(E element, int count) {
+        if (element == null) throw new NullPointerException("Elemento da modificare null");
+        if (count < 0) throw new IllegalArgumentException("Numero di occorrenze negativo");
+        Nodo<E> nodo = nodi.get(element);
+        int vecchie = nodo == null ? 0 : nodo.gruppo.occorrenze;
+        if (vecchie == count) return vecchie;
+        return imposta(element, nodo, count);
+    }
+
+    /**
+     * Restituisce un elemento con il massimo numero di occorrenze. Complessità O(1).
+     *
+     * @return un elemento con il massimo numero di occorrenze
+     * @throws NoSuchElementException se il multinsieme è vuoto
+     */
+    public E mostFrequent() {
+        if (massimo == null) throw new NoSuchElementException("Multinsieme vuoto");
+        return massimo.primo.oggetto;
+    }
+
+    /**
+     * Restituisce un elemento con il minimo numero di occorrenze. Complessità O(1).
+     *
+     * @return un elemento con il minimo numero di occorrenze
+     * @throws NoSuchElementException se il multinsieme è vuoto
+     */
+    public E leastFrequent() {
+        if (minimo == null) throw new NoSuchElementException("Multinsieme vuoto");
+        return minimo.primo.oggetto;
+    }
+
+    /**
+     * Restituisce le coppie (elemento, occorrenze) in ordine crescente di occorrenze. L'ordine tra elementi con le
+     * stesse occorrenze non è specificato. L'iteratore è fail-fast.
+     *
+     * @return le coppie in ordine crescente di occorrenze
+     */
+    public Iterable<Multiset.Entry<E>> ascendingEntries() {
+        return () -> coppie(true);
+    }
+
+    /**
+     * Restituisce le coppie (elemento, occorrenze) in ordine decrescente di occorrenze. L'ordine tra elementi con le
+     * stesse occorrenze non è specificato. L'iteratore è fail-fast.
+     *
+     * @return le coppie in ordine decrescente di occorrenze
+     */
+    public Iterable<Multiset.Entry<E>> descendingEntries() {
+        return () -> coppie(false);
+    }
+
+    @Override
+    public Set<E> elementSet() {
+        return new VistaElementi();
+    }
+
+    @Override
+    public Set<Multiset.Entry<E>> entrySet() {
+        return new VistaCoppie();
+    }
+
+    @Override
+    public void forEachEntry(ObjIntConsumer<? super E> action) {
+        if (action == null) throw new NullPointerException("Azione null");
+        for (Gruppo<E> gruppo = minimo; gruppo != null; gruppo = gruppo.successivo) {
+            for (Nodo<E> nodo = gruppo.primo; nodo != null; nodo = nodo.successivo) {
+                action.accept(nodo.oggetto, gruppo.occorrenze);
+            }
+        }
+    }
+
+    /**
+     * Crea un iteratore fail-fast che presenta gli elementi in ordine crescente di occorrenze.
+     *
+     * @return iterator
+     */
+    @Override
+    public Iterator<E> iterator() {
+        ItrNodi itr = new ItrNodi(true);
+        return new Iterator<E>() {
+            private Nodo<E> corrente;
+            private int rimanenti;
+
+            @Override
+            public boolean hasNext() {
+                return rimanenti > 0 || itr.hasNext();
+            }
+
+            @Override
+            public E next() {
+                itr.controlla();
+                if (rimanenti == 0) {
+                    corrente = itr.next();
+                    rimanenti = corrente.gruppo.occorrenze;
+                }
+                rimanenti--;
+                return corrente.oggetto;
+            }
+        };
+    }
+
+    @Override
+    public boolean contains(Object element) {
+        if (element == null) throw new NullPointerException("Elemento è null");
+        return nodi.containsKey(element);
+    }
+
+    @Override
+    public void clear() {
+        nodi.clear();
+        minimo = null;
+        massimo = null;
+        size = 0;
+        numeroModifiche++;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /*
+        Iteratore fail-fast sui nodi in ordine di occorrenze, crescente o decrescente. La rimozione toglie tutte le
+        occorrenze dell'ultimo elemento restituito
+     */
+    private class ItrNodi implements Iterator<Nodo<E>> {
+        private final boolean crescente;
+        private int numeroModificheAtteso;
+        private Gruppo<E> gruppo;
+        private Nodo<E> prossimo;
+        private Nodo<E> ultimo;
+
+        private ItrNodi(boolean crescente) {
+            this.crescente = crescente;
+            numeroModificheAtteso = numeroModifiche;
+            gruppo = crescente ? minimo : massimo;
+            prossimo = gruppo == null ? null : gruppo.primo;
+        }
+
+        private void controlla() {
+            if (numeroModificheAtteso != numeroModifiche) throw new ConcurrentModificationException("C'è stata una " +
+                    "modifica");
+        }
+
+        @Override
+        public boolean hasNext() {
+            return prossimo != null;
+        }
+
+        @Override
+        public Nodo<E> next() {
+            controlla();
+            if (prossimo == null) throw new NoSuchElementException("Non ci sono altri elementi");
+            ultimo = prossimo;
+            prossimo = prossimo.successivo;
+            if (prossimo == null) {
+                gruppo = crescente ? gruppo.successivo : gruppo.precedente;
+                prossimo = gruppo == null ? null : gruppo.primo;
+            }
+            return ultimo;
+        }
+
+        @Override
+        public void remove() {
+            if (ultimo == null) throw new IllegalStateException("Nessun elemento da rimuovere");
+            controlla();
+            //Il prossimo nodo è già stato calcolato e non dipende dal nodo rimosso
+            imposta(ultimo.oggetto, ultimo, 0);
+            numeroModificheAtteso = numeroModifiche;
+            ultimo = null;
+        }
+    }
+
+    /*
+        Iteratore sulle coppie in ordine di occorrenze, restituisce direttamente i nodi
+     */
+    private Iterator<Multiset.Entry<E>> coppie(boolean crescente) {
+        ItrNodi itr = new ItrNodi(crescente);
+        return new Iterator<Multiset.Entry<E>>() {
+            @Override
+            public boolean hasNext() {
+                return itr.hasNext();
+            }
+
+            @Override
+            public Multiset.Entry<E> next() {
+                return itr.next();
+            }
+
+            @Override
+            public void remove() {
+                itr.remove();
+            }
+        };
+    }
+
+    /*
+        Vista sugli elementi distinti
+     */
+    private class VistaElementi extends AbstractSet<E> {
+
+        @Override
+        public int size() {
+            return nodi.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o != null && nodi.containsKey(o);
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            ItrNodi itr = new ItrNodi(true);
+            return new Iterator<E>() {
+                @Override
+                public boolean hasNext() {
+                    return itr.hasNext();
+                }
+
+                @Override
+                public E next() {
+                    return itr.next().oggetto;
+                }
+
+                @Override
+                public void remove() {
+                    itr.remove();
+                }
+            };
+        }
+
+        @Override
+        public boolean add(E e) {
+            if (contains(e)) return false;
+            FrequencyMultiset.this.add(e);
+            return true;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) return false;
+            FrequencyMultiset.this.remove(o, Integer.MAX_VALUE);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            FrequencyMultiset.this.clear();
+        }
+    }
+
+    /*
+        Vista sulle coppie, restituisce direttamente i nodi in ordine crescente di occorrenze
+     */
+    private class VistaCoppie extends AbstractSet<Multiset.Entry<E>> {
+
+        @Override
+        public int size() {
+            return nodi.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Multiset.Entry)) return false;
+            Multiset.Entry<?> coppia = (Multiset.Entry<?>) o;
+            return coppia.getElement() != null && coppia.getCount() > 0
+                    && count(coppia.getElement()) == coppia.getCount();
+        }
+
+        @Override
+        public Iterator<Multiset.Entry<E>> iterator() {
+            return coppie(true);
+        }
+
+        @Override
+        public void clear() {
+            FrequencyMultiset.this.clear();
+        }
+    }
+
+}
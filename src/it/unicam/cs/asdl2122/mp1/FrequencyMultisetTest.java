@@ -0,0 +1,123 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per FrequencyMultiset
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ *
+ */
+public class FrequencyMultisetTest {
+
+    @Test
+    public void testFrequencyMultiset() {
+        FrequencyMultiset<String> m = new FrequencyMultiset<String>();
+        assertTrue(m.isEmpty());
+        assertThrows(NoSuchElementException.class, () -> m.mostFrequent());
+        assertThrows(NoSuchElementException.class, () -> m.leastFrequent());
+    }
+
+    @Test
+    public void testAddRemoveCount() {
+        FrequencyMultiset<String> m = new FrequencyMultiset<String>();
+        m.add("a");
+        m.add("b");
+        m.add("a");
+        assertEquals(0, m.add("c", 5));
+        assertEquals(2, m.count("a"));
+        assertEquals(1, m.count("b"));
+        assertEquals(5, m.count("c"));
+        assertEquals(8, m.size());
+        assertEquals(5, m.remove("c", 3));
+        assertEquals(2, m.count("c"));
+        assertTrue(m.remove("b"));
+        assertFalse(m.contains("b"));
+        assertEquals(2, m.setCount("a", 7));
+        assertEquals(9, m.size());
+        assertThrows(NullPointerException.class, () -> m.add(null));
+        assertThrows(IllegalArgumentException.class, () -> m.add("a", -1));
+    }
+
+    @Test
+    public void testMostLeastFrequent() {
+        FrequencyMultiset<String> m = new FrequencyMultiset<String>();
+        m.add("a");
+        m.add("b");
+        m.add("b");
+        m.add("c", 3);
+        assertEquals("c", m.mostFrequent());
+        assertEquals("a", m.leastFrequent());
+        m.add("a", 3);
+        assertEquals("a", m.mostFrequent());
+        assertEquals("b", m.leastFrequent());
+        m.remove("a", 4);
+        assertEquals("c", m.mostFrequent());
+        m.setCount("c", 0);
+        assertEquals("b", m.mostFrequent());
+        assertEquals("b", m.leastFrequent());
+    }
+
+    @Test
+    public void testOrderedEntries() {
+        FrequencyMultiset<Integer> m = new FrequencyMultiset<Integer>();
+        m.add(1, 4);
+        m.add(2, 1);
+        m.add(3, 9);
+        m.add(4, 2);
+        m.remove(3, 6);
+        int precedente = 0;
+        int passi = 0;
+        for (Multiset.Entry<Integer> coppia : m.ascendingEntries()) {
+            assertTrue(coppia.getCount() >= precedente);
+            assertEquals(m.count(coppia.getElement()), coppia.getCount());
+            precedente = coppia.getCount();
+            passi++;
+        }
+        assertEquals(4, passi);
+        precedente = Integer.MAX_VALUE;
+        for (Multiset.Entry<Integer> coppia : m.descendingEntries()) {
+            assertTrue(coppia.getCount() <= precedente);
+            precedente = coppia.getCount();
+        }
+    }
+
+    @Test
+    public void testIterator() {
+        FrequencyMultiset<Integer> m = new FrequencyMultiset<Integer>();
+        m.add(1, 3);
+        m.add(2);
+        Iterator<Integer> itr = m.iterator();
+        assertEquals(2, (int) itr.next());
+        assertEquals(1, (int) itr.next());
+        assertEquals(1, (int) itr.next());
+        assertEquals(1, (int) itr.next());
+        assertFalse(itr.hasNext());
+        Iterator<Integer> itr2 = m.iterator();
+        m.add(2);
+        assertThrows(ConcurrentModificationException.class, () -> itr2.next());
+    }
+
+    @Test
+    public void testViewsRemove() {
+        FrequencyMultiset<Integer> m = new FrequencyMultiset<Integer>();
+        for (int i = 1; i <= 5; i++) m.add(i, i);
+        Iterator<Integer> itr = m.elementSet().iterator();
+        while (itr.hasNext()) {
+            if (itr.next() % 2 == 1) itr.remove();
+        }
+        assertEquals(6, m.size());
+        assertEquals(2, m.elementSet().size());
+        assertEquals(4, (int) m.mostFrequent());
+        assertEquals(2, (int) m.leastFrequent());
+        m.clear();
+        assertTrue(m.elementSet().isEmpty());
+    }
+
+}
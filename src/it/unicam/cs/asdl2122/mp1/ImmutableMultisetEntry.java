@@ -0,0 +1,53 @@
+package it.unicam.cs.asdl2122.mp1;
+
+/**
+ * Coppia (elemento, occorrenze) immutabile, usata dalle implementazioni di {@link Multiset} che non conservano un
+ * oggetto per ogni elemento distinto e devono quindi crearne uno quando la coppia viene richiesta. Il numero di
+ * occorrenze è quello al momento della creazione.
+ *
+ * Uguaglianza e codice hash seguono il contratto di {@link Multiset.Entry}.
+ *
+ * @param <E> il tipo dell'elemento
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+final class ImmutableMultisetEntry<E> implements Multiset.Entry<E> {
+
+    private final E oggetto;
+    private final int occorrenze;
+
+    ImmutableMultisetEntry(E oggetto, int occorrenze) {
+        this.oggetto = oggetto;
+        this.occorrenze = occorrenze;
+    }
+
+    @Override
+    public E getElement() {
+        return oggetto;
+    }
+
+    @Override
+    public int getCount() {
+        return occorrenze;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Multiset.Entry)) return false;
+        Multiset.Entry<?> coppia = (Multiset.Entry<?>) o;
+        return occorrenze == coppia.getCount() && oggetto.equals(coppia.getElement());
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 31 * 17 + occorrenze;
+        hash = 31 * hash + oggetto.hashCode();
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return oggetto + " x " + occorrenze;
+    }
+
+}
@@ -0,0 +1,157 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Decoratore che misura le operazioni di un'altra collezione di insiemi disgiunti e le passa ad un
+ * {@link DisjointSetsMetricsSink}, senza cambiarne il comportamento.<br><br>
+ *
+ * Per ogni makeSet, findSet, union e delete vengono misurati la durata in nanosecondi e, se la collezione decorata
+ * implementa {@link DisjointSetsCounters}, gli elementi ricollegati e i riferimenti percorsi, leggendo i contatori
+ * prima e dopo l'operazione. Per union vengono passate anche le cardinalità dei due insiemi prima dell'unione: il
+ * decoratore cerca i due rappresentanti all'interno della misura, legge le cardinalità dalle radici e unisce
+ * direttamente i rappresentanti, così i cammini vengono contati prima di essere accorciati e nessuno viene percorso
+ * due volte. Le altre operazioni vengono solo delegate.<br><br>
+ *
+ * La collezione decorata deve essere vuota e non deve essere modificata direttamente, altrimenti le cardinalità
+ * registrate dalla destinazione non descrivono più gli insiemi esistenti.
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+public class InstrumentedDisjointSets implements DisjointSets {
+
+    private final DisjointSets ds;
+    private final DisjointSetsMetricsSink sink;
+    //La collezione decorata, se conta il proprio lavoro, altrimenti null
+    private final DisjointSetsCounters contatori;
+
+    /**
+     * Decora una collezione vuota, registrando le misure in un nuovo {@link DisjointSetsMetrics}.
+     *
+     * @param ds la collezione da decorare
+     * @throws NullPointerException     se la collezione è null
+     * @throws IllegalArgumentException se la collezione non è vuota
+     */
+    public InstrumentedDisjointSets(DisjointSets ds) {
+        this(ds, new DisjointSetsMetrics());
+    }
+
+    /**
+     * Decora una collezione vuota, passando le misure alla destinazione indicata.
+     *
+     * @param ds   la collezione da decorare
+     * @param sink la destinazione delle misure
+     * @throws NullPointerException     se uno degli argomenti è null
+     * @throws IllegalArgumentException se la collezione non è vuota
+     */
+    public InstrumentedDisjointSets(DisjointSets ds, DisjointSetsMetricsSink sink) {
+        if (ds == null || sink == null) throw new NullPointerException("Argomento null");
+        if (ds.numberOfSets() != 0) throw new IllegalArgumentException("La collezione decorata deve essere vuota");
+        this.ds = ds;
+        this.sink = sink;
+        contatori = ds instanceof DisjointSetsCounters ? (DisjointSetsCounters) ds : null;
+    }
+
+    /**
+     * Restituisce la destinazione delle misure, che con il costruttore ad un argomento è un
+     * {@link DisjointSetsMetrics}.
+     *
+     * @return la destinazione delle misure
+     */
+    public DisjointSetsMetricsSink sink() {
+        return sink;
+    }
+
+    private long ricollegati() {
+        return contatori == null ? 0 : contatori.relinkedElements();
+    }
+
+    private long collegamenti() {
+        return contatori == null ? 0 : contatori.traversedLinks();
+    }
+
+    @Override
+    public boolean isPresent(DisjointSetElement e) {
+        return ds.isPresent(e);
+    }
+
+    @Override
+    public void makeSet(DisjointSetElement e) {
+        long inizio = System.nanoTime();
+        ds.makeSet(e);
+        sink.makeSet(System.nanoTime() - inizio);
+    }
+
+    @Override
+    public DisjointSetElement findSet(DisjointSetElement e) {
+        long collegamenti = collegamenti();
+        long inizio = System.nanoTime();
+        DisjointSetElement rappresentante = ds.findSet(e);
+        long durata = System.nanoTime() - inizio;
+        sink.findSet(durata, collegamenti() - collegamenti);
+        return rappresentante;
+    }
+
+    @Override
+    public void union(DisjointSetElement e1, DisjointSetElement e2) {
+        long ricollegati = ricollegati();
+        long collegamenti = collegamenti();
+        long inizio = System.nanoTime();
+        //Le eccezioni per elementi null o assenti vengono lanciate qui dalla collezione decorata
+        DisjointSetElement rappresentante1 = ds.findSet(e1);
+        DisjointSetElement rappresentante2 = ds.findSet(e2);
+        int cardinalita1 = 0;
+        int cardinalita2 = 0;
+        if (rappresentante1 != rappresentante2) {
+            //I rappresentanti sono radici, quindi queste letture e l'unione non percorrono altri cammini
+            cardinalita1 = ds.getCardinalityOfSetContaining(rappresentante1);
+            cardinalita2 = ds.getCardinalityOfSetContaining(rappresentante2);
+            ds.union(rappresentante1, rappresentante2);
+        }
+        long durata = System.nanoTime() - inizio;
+        sink.union(durata, ricollegati() - ricollegati, collegamenti() - collegamenti, cardinalita1, cardinalita2);
+    }
+
+    @Override
+    public void delete(DisjointSetElement e) {
+        //Le eccezioni per elementi null o assenti vengono lanciate qui dalla collezione decorata
+        int cardinalita = ds.getCardinalityOfSetContaining(e);
+        long ricollegati = ricollegati();
+        long inizio = System.nanoTime();
+        ds.delete(e);
+        long durata = System.nanoTime() - inizio;
+        sink.delete(durata, ricollegati() - ricollegati, cardinalita);
+    }
+
+    @Override
+    public Set<DisjointSetElement> getCurrentRepresentatives() {
+        return ds.getCurrentRepresentatives();
+    }
+
+    @Override
+    public int numberOfSets() {
+        return ds.numberOfSets();
+    }
+
+    @Override
+    public Set<DisjointSetElement> getCurrentElementsOfSetContaining(DisjointSetElement e) {
+        return ds.getCurrentElementsOfSetContaining(e);
+    }
+
+    @Override
+    public void forEachMember(DisjointSetElement e, Consumer<? super DisjointSetElement> action) {
+        ds.forEachMember(e, action);
+    }
+
+    @Override
+    public Iterable<DisjointSetElement> members(DisjointSetElement e) {
+        return ds.members(e);
+    }
+
+    @Override
+    public int getCardinalityOfSetContaining(DisjointSetElement e) {
+        return ds.getCardinalityOfSetContaining(e);
+    }
+
+}
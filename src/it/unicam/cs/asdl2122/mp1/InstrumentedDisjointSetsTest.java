@@ -0,0 +1,226 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per InstrumentedDisjointSets e DisjointSetsMetrics
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+class InstrumentedDisjointSetsTest {
+
+    @Test
+    final void testInstrumentedDisjointSets() {
+        assertThrows(NullPointerException.class, () -> new InstrumentedDisjointSets(null));
+        assertThrows(NullPointerException.class, () -> new InstrumentedDisjointSets(new ForestDisjointSets(), null));
+        DisjointSets piena = new ForestDisjointSets();
+        piena.makeSet(new MyIntLinkedListDisjointSetElement(1));
+        assertThrows(IllegalArgumentException.class, () -> new InstrumentedDisjointSets(piena));
+        assertTrue(new InstrumentedDisjointSets(new LinkedListDisjointSets()).sink() instanceof DisjointSetsMetrics);
+    }
+
+    @Test
+    final void testDelegation() {
+        InstrumentedDisjointSets ds = new InstrumentedDisjointSets(new LinkedListDisjointSets());
+        MyIntLinkedListDisjointSetElement[] e = AbstractDisjointSetsTest.elementi(ds, 4);
+        assertThrows(IllegalArgumentException.class, () -> ds.makeSet(e[0]));
+        assertThrows(NullPointerException.class, () -> ds.union(e[0], null));
+        assertThrows(IllegalArgumentException.class, () -> ds.union(e[0],
+                new MyIntLinkedListDisjointSetElement(9)));
+        ds.union(e[0], e[1]);
+        ds.union(e[2], e[1]);
+        assertTrue(ds.isPresent(e[3]));
+        assertSame(e[0], ds.findSet(e[2]));
+        assertEquals(3, ds.getCardinalityOfSetContaining(e[1]));
+        assertEquals(2, ds.numberOfSets());
+        assertEquals(Set.of(e[0], e[3]), ds.getCurrentRepresentatives());
+        assertEquals(Set.of(e[0], e[1], e[2]), ds.getCurrentElementsOfSetContaining(e[2]));
+        List<DisjointSetElement> membri = new ArrayList<>();
+        ds.forEachMember(e[3], membri::add);
+        assertEquals(List.of(e[3]), membri);
+        assertEquals(3, ds.members(e[0]).spliterator().getExactSizeIfKnown());
+        DisjointSetsMetrics metriche = (DisjointSetsMetrics) ds.sink();
+        //Le chiamate fallite non vengono registrate
+        assertEquals(4, metriche.getMakeSetCount());
+        assertEquals(2, metriche.getUnionCount());
+        assertEquals(1, metriche.getFindSetCount());
+    }
+
+    @Test
+    final void testLinkedListMetrics() {
+        LinkedListDisjointSets lista = new LinkedListDisjointSets();
+        InstrumentedDisjointSets ds = new InstrumentedDisjointSets(lista);
+        DisjointSetsMetrics metriche = (DisjointSetsMetrics) ds.sink();
+        MyIntLinkedListDisjointSetElement[] e = AbstractDisjointSetsTest.elementi(ds, 16);
+        //Un insieme grande che assorbe i singoletti uno alla volta, poi un'unione tra due insiemi di 4 e 8 elementi
+        for (int i = 1; i < 8; i++) ds.union(e[0], e[i]);
+        for (int i = 9; i < 12; i++) ds.union(e[8], e[i]);
+        ds.union(e[8], e[0]);
+        ds.union(e[3], e[5]);
+        assertEquals(16, metriche.getMakeSetCount());
+        assertEquals(12, metriche.getUnionCount());
+        assertEquals(11, metriche.getMergeCount());
+        assertEquals(7 + 3 + 4, metriche.getRelinkedElements());
+        assertEquals(14, lista.relinkedElements());
+        assertEquals(4, metriche.getMaxRelinkedElements());
+        long[] ricollegati = metriche.getRelinkedHistogram();
+        assertEquals(10, ricollegati[0]);
+        assertEquals(1, ricollegati[2]);
+        assertEquals(11, Arrays.stream(ricollegati).sum());
+        //Rimangono un insieme di 12 elementi e quattro singoletti
+        long[] cardinalita = metriche.getSetSizeHistogram();
+        assertEquals(4, cardinalita[0]);
+        assertEquals(1, cardinalita[3]);
+        assertEquals(5, Arrays.stream(cardinalita).sum());
+        assertEquals(12, Arrays.stream(metriche.getUnionLatencyHistogram()).sum());
+        assertTrue(metriche.getMaxUnionNanos() >= 0);
+        ds.findSet(e[7]);
+        ds.findSet(e[15]);
+        assertEquals(2, Arrays.stream(metriche.getFindSetLatencyHistogram()).sum());
+        assertEquals(1, metriche.getMaxPathLength());
+        //Ogni unione cerca i due rappresentanti, un riferimento ciascuno
+        assertEquals(12 * 2 + 2, metriche.getTraversedLinks());
+    }
+
+    @Test
+    final void testForestMetrics() {
+        ForestDisjointSets foresta = new ForestDisjointSets();
+        InstrumentedDisjointSets ds = new InstrumentedDisjointSets(foresta);
+        DisjointSetsMetrics metriche = (DisjointSetsMetrics) ds.sink();
+        MyIntLinkedListDisjointSetElement[] e = AbstractDisjointSetsTest.elementi(ds, 8);
+        ds.union(e[0], e[1]);
+        ds.union(e[2], e[3]);
+        ds.union(e[0], e[2]);
+        //Ogni unione di insiemi distinti collega una sola radice
+        assertEquals(3, metriche.getRelinkedElements());
+        assertEquals(3, foresta.relinkedElements());
+        //e[3] dista due passi dalla radice e[0]
+        long prima = foresta.traversedLinks();
+        assertSame(e[0], ds.findSet(e[3]));
+        assertEquals(2, foresta.traversedLinks() - prima);
+        assertEquals(2, metriche.getMaxPathLength());
+        long[] cardinalita = metriche.getSetSizeHistogram();
+        assertEquals(4, cardinalita[0]);
+        assertEquals(1, cardinalita[2]);
+    }
+
+    @Test
+    final void testUnionPathLength() {
+        long[] cammino = new long[1];
+        DisjointSetsMetricsSink sink = new DisjointSetsMetricsSink() {
+            @Override
+            public void makeSet(long nanos) {
+            }
+
+            @Override
+            public void findSet(long nanos, long links) {
+            }
+
+            @Override
+            public void union(long nanos, long relinked, long links, int size1, int size2) {
+                cammino[0] = links;
+            }
+        };
+        ForestDisjointSets foresta = new ForestDisjointSets();
+        InstrumentedDisjointSets ds = new InstrumentedDisjointSets(foresta, sink);
+        MyIntLinkedListDisjointSetElement[] e = AbstractDisjointSetsTest.elementi(ds, 9);
+        //Unendo sempre insiemi della stessa cardinalità e[7] finisce a profondità 3: e[7] -> e[6] -> e[4] -> e[0]
+        for (int passo = 1; passo < 8; passo *= 2) {
+            for (int i = 0; i < 8; i += 2 * passo) ds.union(e[i], e[i + passo]);
+        }
+        assertSame(e[6], e[7].getRef1());
+        assertSame(e[4], e[6].getRef1());
+        long prima = foresta.traversedLinks();
+        ds.union(e[7], e[8]);
+        //Il cammino viene contato prima di essere dimezzato e la foresta non lo percorre una seconda volta
+        assertEquals(3, cammino[0]);
+        assertEquals(3, foresta.traversedLinks() - prima);
+        assertEquals(9, ds.getCardinalityOfSetContaining(e[8]));
+    }
+
+    @Test
+    final void testDeleteMetrics() {
+        ForestDisjointSets foresta = new ForestDisjointSets();
+        InstrumentedDisjointSets ds = new InstrumentedDisjointSets(foresta);
+        DisjointSetsMetrics metriche = (DisjointSetsMetrics) ds.sink();
+        MyIntLinkedListDisjointSetElement[] e = AbstractDisjointSetsTest.elementi(ds, 5);
+        ds.union(e[0], e[1]);
+        ds.union(e[0], e[2]);
+        ds.union(e[0], e[3]);
+        assertThrows(IllegalArgumentException.class, () -> ds.delete(new MyIntLinkedListDisjointSetElement(9)));
+        long prima = metriche.getRelinkedElements();
+        //Eliminare la radice passa il ruolo ad un altro elemento, ricollegando solo la vecchia radice
+        ds.delete(ds.findSet(e[1]));
+        ds.delete(e[4]);
+        assertEquals(2, metriche.getDeleteCount());
+        assertEquals(1, metriche.getRelinkedElements() - prima);
+        //Rimane solo un insieme di 3 elementi
+        long[] cardinalita = metriche.getSetSizeHistogram();
+        assertEquals(1, cardinalita[1]);
+        assertEquals(1, Arrays.stream(cardinalita).sum());
+    }
+
+    @Test
+    final void testCustomSink() {
+        long[] ricevute = new long[5];
+        DisjointSetsMetricsSink sink = new DisjointSetsMetricsSink() {
+            @Override
+            public void makeSet(long nanos) {
+                ricevute[0]++;
+            }
+
+            @Override
+            public void findSet(long nanos, long links) {
+                ricevute[1]++;
+            }
+
+            @Override
+            public void union(long nanos, long relinked, long links, int size1, int size2) {
+                ricevute[2]++;
+                ricevute[3] += size1;
+                ricevute[4] += size2;
+            }
+        };
+        //IntDisjointSets non conta il proprio lavoro, ma le durate e le cardinalità vengono misurate comunque
+        DisjointSets ds = new InstrumentedDisjointSets(new IntDisjointSets(4).asDisjointSets(), sink);
+        MyIntLinkedListDisjointSetElement[] e = AbstractDisjointSetsTest.elementi(ds, 3);
+        ds.union(e[0], e[1]);
+        ds.union(e[1], e[2]);
+        ds.union(e[0], e[2]);
+        ds.findSet(e[2]);
+        assertArrayEquals(new long[]{3, 1, 3, 1 + 2, 1 + 1}, ricevute);
+    }
+
+    @Test
+    final void testJmx() throws JMException {
+        InstrumentedDisjointSets ds = new InstrumentedDisjointSets(new ForestDisjointSets());
+        DisjointSetsMetrics metriche = (DisjointSetsMetrics) ds.sink();
+        MyIntLinkedListDisjointSetElement[] e = AbstractDisjointSetsTest.elementi(ds, 3);
+        ds.union(e[0], e[1]);
+        ObjectName nome = metriche.register("test");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            assertThrows(JMException.class, () -> metriche.register("test"));
+            assertEquals(3L, server.getAttribute(nome, "MakeSetCount"));
+            assertEquals(1L, server.getAttribute(nome, "MergeCount"));
+            long[] cardinalita = (long[]) server.getAttribute(nome, "SetSizeHistogram");
+            assertEquals(1, cardinalita[0]);
+            assertEquals(1, cardinalita[1]);
+        } finally {
+            server.unregisterMBean(nome);
+        }
+    }
+
+}
@@ -0,0 +1,256 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Insiemi disgiunti sugli interi da 0 a n-1, memorizzati in array di primitivi senza creare un oggetto per elemento.
+ * <br><br>
+ *
+ * Ogni intero parte in un insieme singoletto. L'array {@code padre} contiene il padre di ogni elemento nella foresta;
+ * per le radici contiene invece la cardinalità dell'insieme cambiata di segno, così le dimensioni non richiedono un
+ * array a parte. L'array {@code rango} contiene il rango di ogni radice, che non supera mai 31 e quindi sta in un
+ * byte: ogni elemento occupa in tutto 5 byte.<br><br>
+ *
+ * {@link IntDisjointSets#union} usa l'unione per rango e {@link IntDisjointSets#find} il dimezzamento dei cammini,
+ * quindi ogni operazione ha complessità ammortizzata O(α(n)), dove α è l'inversa della funzione di Ackermann.<br><br>
+ *
+ * {@link IntDisjointSets#asDisjointSets} restituisce un adattatore all'interface {@link DisjointSets} per il codice
+ * che lavora con gli elementi.
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+public class IntDisjointSets {
+
+    //Padre di ogni elemento, o la cardinalità cambiata di segno se l'elemento è una radice
+    private final int[] padre;
+    //Rango di ogni radice, non più aggiornato per gli altri elementi
+    private final byte[] rango;
+    private int numeroInsiemi;
+
+    /**
+     * Crea n insiemi singoletto, uno per ogni intero da 0 a n-1.
+     *
+     * @param n il numero di elementi
+     * @throws IllegalArgumentException se n è negativo
+     */
+    public IntDisjointSets(int n) {
+        if (n < 0) throw new IllegalArgumentException("Il numero di elementi non può essere negativo");
+        padre = new int[n];
+        Arrays.fill(padre, -1);
+        rango = new byte[n];
+        numeroInsiemi = n;
+    }
+
+    /**
+     * Restituisce il numero di elementi.
+     *
+     * @return n
+     */
+    public int capacity() {
+        return padre.length;
+    }
+
+    /**
+     * Restituisce il numero di insiemi disgiunti correnti. Complessità O(1).
+     *
+     * @return il numero di insiemi
+     */
+    public int numberOfSets() {
+        return numeroInsiemi;
+    }
+
+    private void controlla(int x) {
+        if (x < 0 || x >= padre.length) throw new IllegalArgumentException("L'elemento " + x + " non è " +
+                "compreso tra 0 e " + (padre.length - 1));
+    }
+
+    /*
+        Radice di x con il dimezzamento dei cammini, senza controllare l'intervallo
+     */
+    private int radice(int x) {
+        int p = padre[x];
+        while (p >= 0) {
+            int nonno = padre[p];
+            if (nonno < 0) return p;
+            padre[x] = nonno;
+            x = nonno;
+            p = padre[x];
+        }
+        return x;
+    }
+
+    /**
+     * Restituisce il rappresentante dell'insieme di cui fa parte x, accorciando il cammino percorso.
+     *
+     * @param x l'elemento di cui cercare il rappresentante
+     * @return il rappresentante dell'insieme di x
+     * @throws IllegalArgumentException se x non è compreso tra 0 e n-1
+     */
+    public int find(int x) {
+        controlla(x);
+        return radice(x);
+    }
+
+    /**
+     * Determina se due elementi fanno parte dello stesso insieme.
+     *
+     * @param x il primo elemento
+     * @param y il secondo elemento
+     * @return true se x e y hanno lo stesso rappresentante
+     * @throws IllegalArgumentException se x o y non sono compresi tra 0 e n-1
+     */
+    public boolean sameSet(int x, int y) {
+        controlla(x);
+        controlla(y);
+        return radice(x) == radice(y);
+    }
+
+    /**
+     * Unisce gli insiemi di cui fanno parte i due elementi. La radice di rango minore viene appesa a quella di rango
+     * maggiore; a parità di rango il rappresentante dell'insieme unito è quello dell'insieme di x.
+     *
+     * @param x un elemento del primo insieme
+     * @param y un elemento del secondo insieme
+     * @return true se gli insiemi erano distinti, false se x e y erano già nello stesso insieme
+     * @throws IllegalArgumentException se x o y non sono compresi tra 0 e n-1
+     */
+    public boolean union(int x, int y) {
+        controlla(x);
+        controlla(y);
+        int rx = radice(x);
+        int ry = radice(y);
+        if (rx == ry) return false;
+        if (rango[rx] < rango[ry]) {
+            int t = rx;
+            rx = ry;
+            ry = t;
+        } else if (rango[rx] == rango[ry]) {
+            rango[rx]++;
+        }
+        //Entrambe le cardinalità sono negative, quindi la somma è la nuova cardinalità cambiata di segno
+        padre[rx] += padre[ry];
+        padre[ry] = rx;
+        numeroInsiemi--;
+        return true;
+    }
+
+    /**
+     * Restituisce la cardinalità dell'insieme di cui fa parte x.
+     *
+     * @param x l'elemento di cui si vuole ottenere la cardinalità dell'insieme
+     * @return il numero di elementi dell'insieme di x
+     * @throws IllegalArgumentException se x non è compreso tra 0 e n-1
+     */
+    public int size(int x) {
+        controlla(x);
+        return -padre[radice(x)];
+    }
+
+    /**
+     * Restituisce una vista di questa collezione come {@link DisjointSets}. Ogni {@code makeSet} associa all'elemento
+     * passato il primo intero non ancora usato, che viene memorizzato nel suo numero; i riferimenti ref1 e ref2
+     * dell'elemento non vengono usati, tranne ref1 che punta all'elemento stesso per segnalarne la presenza.<br><br>
+     *
+     * {@code findSet}, {@code union} e {@code getCardinalityOfSetContaining} hanno la stessa complessità delle
+     * operazioni sugli interi, mentre {@code getCurrentRepresentatives} e {@code getCurrentElementsOfSetContaining}
+     * scorrono tutti gli elementi inseriti e hanno complessità O(n).<br><br>
+     *
+     * Gli interi non ancora associati ad un elemento restano singoletti, quindi la vista va usata prima di unire
+     * direttamente gli interi.
+     *
+     * @return un adattatore a DisjointSets, che può contenere al massimo n elementi
+     */
+    public DisjointSets asDisjointSets() {
+        return new Adattatore();
+    }
+
+    /*
+        Vista a DisjointSets, con gli elementi associati agli interi in ordine di inserimento
+     */
+    private class Adattatore implements DisjointSets {
+
+        private final DisjointSetElement[] elementi = new DisjointSetElement[padre.length];
+        private int inseriti = 0;
+
+        /*
+            Identificativo dell'elemento, o -1 se non è stato inserito in questa collezione
+         */
+        private int indice(DisjointSetElement e) {
+            if (e.getRef1() == null) return -1;
+            int i = e.getNumber();
+            return i >= 0 && i < inseriti && elementi[i] == e ? i : -1;
+        }
+
+        private int presente(DisjointSetElement e) {
+            int i = indice(e);
+            if (i < 0) throw new IllegalArgumentException("Elemento non presente negli insiemi");
+            return i;
+        }
+
+        @Override
+        public boolean isPresent(DisjointSetElement e) {
+            if (e == null) return false;
+            return indice(e) >= 0;
+        }
+
+        /**
+         * @throws IllegalStateException se sono già stati inseriti n elementi
+         */
+        @Override
+        public void makeSet(DisjointSetElement e) {
+            if (e == null) throw new NullPointerException("Elemento passato null");
+            if (e.getRef1() != null) throw new IllegalArgumentException("L'elemento passato fa già parte di un " +
+                    "insieme disgiunto");
+            if (inseriti == elementi.length) throw new IllegalStateException("Sono già stati inseriti " +
+                    elementi.length + " elementi");
+            elementi[inseriti] = e;
+            e.setNumber(inseriti);
+            e.setRef1(e);
+            inseriti++;
+        }
+
+        @Override
+        public DisjointSetElement findSet(DisjointSetElement e) {
+            if (e == null) throw new NullPointerException("e è null");
+            return elementi[radice(presente(e))];
+        }
+
+        @Override
+        public void union(DisjointSetElement e1, DisjointSetElement e2) {
+            if (e1 == null || e2 == null) throw new NullPointerException("e1 o e2 è null");
+            IntDisjointSets.this.union(presente(e1), presente(e2));
+        }
+
+        @Override
+        public Set<DisjointSetElement> getCurrentRepresentatives() {
+            Set<DisjointSetElement> set = new HashSet<>();
+            for (int i = 0; i < inseriti; i++) if (padre[i] < 0) set.add(elementi[i]);
+            return set;
+        }
+
+        @Override
+        public int numberOfSets() {
+            //Gli interi non ancora associati ad un elemento sono tutti singoletti
+            return numeroInsiemi - (elementi.length - inseriti);
+        }
+
+        @Override
+        public Set<DisjointSetElement> getCurrentElementsOfSetContaining(DisjointSetElement e) {
+            if (e == null) throw new NullPointerException("Elemento passato null");
+            int r = radice(presente(e));
+            Set<DisjointSetElement> set = new HashSet<>();
+            for (int i = 0; i < inseriti; i++) if (radice(i) == r) set.add(elementi[i]);
+            return set;
+        }
+
+        @Override
+        public int getCardinalityOfSetContaining(DisjointSetElement e) {
+            if (e == null) throw new NullPointerException("Elemento null");
+            return -padre[radice(presente(e))];
+        }
+
+    }
+
+}
@@ -0,0 +1,120 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Classe di test per IntDisjointSets
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+class IntDisjointSetsTest {
+
+    @Test
+    final void testIntDisjointSets() {
+        IntDisjointSets ds = new IntDisjointSets(4);
+        assertEquals(4, ds.capacity());
+        assertEquals(4, ds.numberOfSets());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(i, ds.find(i));
+            assertEquals(1, ds.size(i));
+        }
+        assertEquals(0, new IntDisjointSets(0).numberOfSets());
+        assertThrows(IllegalArgumentException.class, () -> new IntDisjointSets(-1));
+    }
+
+    @Test
+    final void testOutOfRange() {
+        IntDisjointSets ds = new IntDisjointSets(3);
+        assertThrows(IllegalArgumentException.class, () -> ds.find(-1));
+        assertThrows(IllegalArgumentException.class, () -> ds.find(3));
+        assertThrows(IllegalArgumentException.class, () -> ds.union(0, 3));
+        assertThrows(IllegalArgumentException.class, () -> ds.sameSet(-1, 0));
+        assertThrows(IllegalArgumentException.class, () -> ds.size(5));
+    }
+
+    @Test
+    final void testUnion() {
+        IntDisjointSets ds = new IntDisjointSets(6);
+        assertTrue(ds.union(0, 1));
+        assertEquals(0, ds.find(1));
+        assertTrue(ds.union(2, 1));
+        //Il rango dell'insieme di 0 è maggiore, quindi 0 resta il rappresentante
+        assertEquals(0, ds.find(2));
+        assertFalse(ds.union(2, 0));
+        assertTrue(ds.sameSet(1, 2));
+        assertFalse(ds.sameSet(1, 3));
+        assertEquals(3, ds.size(2));
+        assertEquals(1, ds.size(3));
+        assertEquals(4, ds.numberOfSets());
+        ds.union(3, 4);
+        ds.union(4, 5);
+        ds.union(5, 0);
+        assertEquals(6, ds.size(4));
+        assertEquals(1, ds.numberOfSets());
+    }
+
+    @Test
+    final void testRandomAgainstLabels() {
+        int n = 3000;
+        IntDisjointSets ds = new IntDisjointSets(n);
+        int[] etichette = new int[n];
+        for (int i = 0; i < n; i++) etichette[i] = i;
+        int componenti = n;
+        Random random = new Random(7);
+        for (int passo = 0; passo < 2500; passo++) {
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            int vecchia = etichette[b];
+            int nuova = etichette[a];
+            assertEquals(vecchia != nuova, ds.union(a, b));
+            if (vecchia != nuova) {
+                componenti--;
+                for (int i = 0; i < n; i++) if (etichette[i] == vecchia) etichette[i] = nuova;
+            }
+        }
+        assertEquals(componenti, ds.numberOfSets());
+        int[] cardinalita = new int[n];
+        for (int i = 0; i < n; i++) cardinalita[etichette[i]]++;
+        for (int i = 0; i < n; i++) {
+            assertEquals(cardinalita[etichette[i]], ds.size(i));
+            int j = random.nextInt(n);
+            assertEquals(etichette[i] == etichette[j], ds.sameSet(i, j));
+        }
+    }
+
+    @Test
+    final void testAsDisjointSets() {
+        DisjointSets ds = new IntDisjointSets(3).asDisjointSets();
+        MyIntLinkedListDisjointSetElement e1 = new MyIntLinkedListDisjointSetElement(10);
+        MyIntLinkedListDisjointSetElement e2 = new MyIntLinkedListDisjointSetElement(20);
+        MyIntLinkedListDisjointSetElement e3 = new MyIntLinkedListDisjointSetElement(30);
+        MyIntLinkedListDisjointSetElement e4 = new MyIntLinkedListDisjointSetElement(40);
+        assertTrue(ds.getCurrentRepresentatives().isEmpty());
+        assertThrows(NullPointerException.class, () -> ds.makeSet(null));
+        ds.makeSet(e1);
+        ds.makeSet(e2);
+        ds.makeSet(e3);
+        assertThrows(IllegalArgumentException.class, () -> ds.makeSet(e1));
+        assertThrows(IllegalStateException.class, () -> ds.makeSet(e4));
+        assertTrue(ds.isPresent(e1));
+        assertFalse(ds.isPresent(e4));
+        assertFalse(ds.isPresent(null));
+        assertThrows(IllegalArgumentException.class, () -> ds.findSet(e4));
+        assertThrows(IllegalArgumentException.class, () -> ds.union(e1, e4));
+        assertThrows(NullPointerException.class, () -> ds.union(e1, null));
+        assertSame(e2, ds.findSet(e2));
+        ds.union(e1, e2);
+        assertSame(e1, ds.findSet(e2));
+        assertEquals(2, ds.getCardinalityOfSetContaining(e2));
+        assertEquals(Set.of(e1, e3), ds.getCurrentRepresentatives());
+        assertEquals(2, ds.numberOfSets());
+        assertEquals(Set.of(e1, e2), ds.getCurrentElementsOfSetContaining(e2));
+        assertEquals(Set.of(e3), ds.getCurrentElementsOfSetContaining(e3));
+    }
+
+}
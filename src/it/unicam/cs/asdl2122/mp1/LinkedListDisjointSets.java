@@ -1,11 +1,16 @@
 package it.unicam.cs.asdl2122.mp1;
 
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 
 /**
- * La classe fa uso di un hashset per contenere tutti i suoi rappresentanti.<br><br>
+ * La classe tiene i suoi rappresentanti in un array che non usa hashcode ed equals degli elementi, quindi togliere un
+ * rappresentante dopo un'unione costa O(1) ammortizzato e il numero di insiemi è sempre esatto.<br><br>
  *
  * I metodi {@link LinkedListDisjointSets#makeSet} e {@link LinkedListDisjointSets#findSet} hanno complessità O(1)
  * perché non dipendono dalla dimensione di una linkedlist<br><br>
@@ -13,20 +18,38 @@ import java.util.Set;
  * Il metodo {@link LinkedListDisjointSets#union} ha complessità O(<code>n</code>) dove <code>n</code> è la cardinalità
  * dell'insieme con cardinalità più piccola.<br><br>
  *
+ * {@link LinkedListDisjointSets#delete} non scorre la lista: l'elemento eliminato diventa vacante, con numero 0, e
+ * resta nella lista. Se è il rappresentante, la testa della lista resta al suo posto, perché tutti gli elementi puntano
+ * ad essa, e delega il ruolo di rappresentante al primo elemento presente che la segue: il ref1 della testa punta al
+ * delegato, il ref1 del delegato punta alla testa e il delegato tiene la cardinalità. findSet quindi restituisce sempre
+ * <code>e.getRef1().getRef1()</code>. Gli elementi vacanti vengono tolti dalla lista quando la ricerca del delegato o
+ * un'unione li attraversano, e tutto l'insieme viene ricostruito con il delegato in testa solo quando gli elementi
+ * vacanti superano quelli presenti, quindi un'eliminazione costa O(1) ammortizzato.<br><br>
+ *
+ * I contatori di {@link DisjointSetsCounters} sommano gli elementi ricollegati da ogni unione, cioè i presenti
+ * dell'insieme più piccolo, quelli ricollegati dalle eliminazioni e dalle ricostruzioni, e i riferimenti percorsi da
+ * ogni findSet, due se la testa della lista è stata eliminata.<br><br>
+ *
  * @author Luca Tesei (template) <br>
  * Enrico Ulissi enrico.ulissi@studenti.unicam.it (implementazione)
  */
-public class LinkedListDisjointSets implements DisjointSets {
+public class LinkedListDisjointSets implements DisjointSets, DisjointSetsCounters {
 
 
     //Collezione dei rappresentanti
-    private HashSet<DisjointSetElement> collezione;
+    private final Rappresentanti collezione;
+    //Numero di elementi vacanti di ogni insieme che ne ha, con chiave la testa della lista
+    private final Map<DisjointSetElement, Integer> vacanti;
+    //Contatori del lavoro fatto da union e findSet
+    private long ricollegati;
+    private long percorsi;
 
     /**
      * Crea una collezione vuota di insiemi disgiunti.
      */
     public LinkedListDisjointSets() {
-        collezione = new HashSet<>();
+        collezione = new Rappresentanti();
+        vacanti = new IdentityHashMap<>();
     }
 
     /*
@@ -39,13 +62,13 @@ public class LinkedListDisjointSets implements DisjointSets {
      * Verifica se un elemento è presente in un insieme disgiunto
      * @param e
      *              l'elemento da cercare
-     * @return true se il rappresentante non è null, false altrimenti
+     * @return true se il rappresentante non è null e l'elemento non è vacante, false altrimenti
      */
     @Override
     public boolean isPresent(DisjointSetElement e) {
         //Se e è null non lancio nessuna eccezione ma restituisco false
         if(e == null) return false;
-        return e.getRef1() != null;
+        return e.getRef1() != null && !MembriInsieme.vacante(e);
     }
 
     /*
@@ -57,7 +80,8 @@ public class LinkedListDisjointSets implements DisjointSets {
 
     /**
      * Crea un insieme singoletto con un solo elemento, imposta il rappresentante come <code>e</code> e la cardinalità
-     * ad 1
+     * ad 1. Se l'elemento è stato eliminato ma è ancora vacante nella sua vecchia lista, quell'insieme viene prima
+     * ricostruito, con complessità O(k) dove k è la sua cardinalità
      * @param e
      *              l'elemento da inserire nell'insieme creato
      * @throws NullPointerException se <code>e</code> è null
@@ -67,11 +91,14 @@ public class LinkedListDisjointSets implements DisjointSets {
     public void makeSet(DisjointSetElement e) {
         if (e == null) throw new NullPointerException("Elemento passato null");
         if (isPresent(e)) throw new IllegalArgumentException("L'elemento passato fa già parte di un insieme disgiunto");
-        //Visto che la complessità per l'add di un hashset è di O(1) allora anche il makeset avrà complessità costante
-        collezione.add(e);
+        //Un elemento vacante è la testa della sua vecchia lista se il suo ref1 punta al delegato, che punta a lui
+        if (e.getRef1() != null) ricostruisci(e.getRef1().getRef1() == e ? e : e.getRef1());
         //Imposto e come il suo stesso rappresentante e imposto la cardinalità della sua lista ad 1
         e.setRef1(e);
+        e.setRef2(null);
         e.setNumber(1);
+        //L'aggiunta alla collezione ha complessità O(1) ammortizzata, quindi anche il makeset
+        collezione.aggiungi(e);
     }
 
     /*
@@ -93,10 +120,12 @@ public class LinkedListDisjointSets implements DisjointSets {
     @Override
     public DisjointSetElement findSet(DisjointSetElement e) {
         if (e == null) throw new NullPointerException("e è null");
-        if (!isPresent(e.getRef1())) throw new IllegalArgumentException("l'elemento passato non è presente" +
+        if (!isPresent(e)) throw new IllegalArgumentException("l'elemento passato non è presente" +
                 "in nessuno degli insiemi disgiunti correnti");
-        //Complessità di findset O(1)
-        return e.getRef1();
+        //Complessità di findset O(1): la testa, o il suo delegato se è stata eliminata
+        DisjointSetElement testa = e.getRef1();
+        percorsi += testa.getRef1() == testa ? 1 : 2;
+        return testa.getRef1();
     }
 
     /*
@@ -121,8 +150,9 @@ public class LinkedListDisjointSets implements DisjointSets {
      * più piccola, poi il successivo dell'ultimo elemento della lista minore viene impostato come il secondo
      * membro della lista più grande(il successivo del rappresentante prima dell'operazione). Così da avere un numero
      * di operazioni pari alla cardinalità della lista minore, garantendo la complessità di O(n), n = cardinalità
-     * lista più piccola. Aggiorna poi i vari rappresentanti e la dimensione della lista.
-     * In fine rimuove il rappresentante della lista piccola dalla collezione.<br><br>
+     * lista più piccola. Aggiorna poi i vari rappresentanti e la dimensione della lista; gli elementi vacanti della
+     * lista più piccola vengono tolti durante lo scorrimento.
+     * In fine il rappresentante della lista piccola esce dalla collezione.<br><br>
      *
      * @param e1 elemento del primo insieme da unire
      *
@@ -142,64 +172,156 @@ public class LinkedListDisjointSets implements DisjointSets {
         //Se e1 e e2 fanno già parte dello stesso insieme disgiunto allora l’operazione non fa niente
         if (e1.getRef1() == e2.getRef1()) return;
 
-        //La cardinalità di e1 è maggiore o uguale di quella di e2, quest'ultimo viene inserito in e1
-        if (e1.getRef1().getNumber() >= e2.getRef1().getNumber()) {
-            //Salvo il rappresentante di e2
-            DisjointSetElement elementE2 = e2.getRef1();
-            //Rimuovo il rappresentante di e2 dalla collezione
-            collezione.remove(elementE2);
-            //Prendo il rappresentante di e1 e il suo successivo
-            DisjointSetElement rappElementoE1 = e1.getRef1();
-            DisjointSetElement successivoElementoE1 = e1.getRef1().getRef2();
-            //Imposto come successivo del rappresentante di e1 il rappresentante di e2
-            rappElementoE1.setRef2(elementE2);
-            //Cambio cardinalità
-            rappElementoE1.setNumber(rappElementoE1.getNumber() + e2.getRef1().getNumber());
-            while(elementE2.getRef2() != null) {
-                //Modifica rappresentante
-                elementE2.setRef1(rappElementoE1);
-                //Prendo il successivo
-                elementE2 = elementE2.getRef2();
+        //A parità di cardinalità la lista di e2 viene inserita in quella di e1
+        DisjointSetElement testaGrande = e1.getRef1();
+        DisjointSetElement testaPiccola = e2.getRef1();
+        if (testaPiccola.getRef1().getNumber() > testaGrande.getRef1().getNumber()) {
+            testaGrande = e2.getRef1();
+            testaPiccola = e1.getRef1();
+        }
+        DisjointSetElement rappGrande = testaGrande.getRef1();
+        DisjointSetElement rappPiccola = testaPiccola.getRef1();
+        rappGrande.setNumber(rappGrande.getNumber() + rappPiccola.getNumber());
+        if (!vacanti.isEmpty()) vacanti.remove(testaPiccola);
+        //Scorro la lista piccola: gli elementi presenti vengono ricollegati alla testa grande, quelli vacanti, compresa
+        //la testa se è stata eliminata, escono dalla lista e vengono azzerati
+        DisjointSetElement primo = null;
+        DisjointSetElement ultimo = null;
+        DisjointSetElement elemento = testaPiccola;
+        while (elemento != null) {
+            DisjointSetElement successivo = elemento.getRef2();
+            if (MembriInsieme.vacante(elemento)) {
+                azzera(elemento);
+            } else {
+                elemento.setRef1(testaGrande);
+                ricollegati++;
+                if (ultimo == null) primo = elemento;
+                else ultimo.setRef2(elemento);
+                ultimo = elemento;
+            }
+            elemento = successivo;
+        }
+        //La lista filtrata viene inserita tra la testa grande e il suo successivo
+        ultimo.setRef2(testaGrande.getRef2());
+        testaGrande.setRef2(primo);
+        //Il vecchio rappresentante della lista piccola non punta più a se stesso o alla testa, quindi esce dalla
+        //collezione
+        collezione.rimosso();
+    }
+
+    /**
+     * Elimina un elemento rendendolo vacante, senza scorrere la lista. Se l'elemento è il rappresentante, il primo
+     * elemento presente che segue la testa diventa il delegato della testa, togliendo dalla lista gli elementi vacanti
+     * attraversati; se era l'ultimo elemento presente l'insieme scompare. L'insieme viene ricostruito solo quando gli
+     * elementi vacanti superano quelli presenti, quindi la complessità ammortizzata è O(1). L'elemento torna ad avere
+     * riferimenti e numero azzerati quando viene tolto dalla lista.
+     *
+     * @param e l'elemento da eliminare
+     *
+     * @throws NullPointerException se <code>e</code> è null
+     *
+     * @throws IllegalArgumentException se <code>e</code> non è presente in nessun insieme disgiunto
+     */
+    @Override
+    public void delete(DisjointSetElement e) {
+        if (e == null) throw new NullPointerException("Elemento null");
+        if (!isPresent(e)) throw new IllegalArgumentException("Elemento non presente");
+        DisjointSetElement testa = e.getRef1();
+        DisjointSetElement rappresentante = testa.getRef1();
+        int presenti = rappresentante.getNumber() - 1;
+        Integer precedenti = vacanti.remove(testa);
+        if (presenti == 0) {
+            //Era l'ultimo elemento presente: l'insieme scompare insieme ai suoi elementi vacanti
+            for (DisjointSetElement elemento = testa; elemento != null; ) {
+                DisjointSetElement successivo = elemento.getRef2();
+                azzera(elemento);
+                elemento = successivo;
             }
-            //Al termine del ciclo elementE2 è l'ultimo elemento di E2 allora cambio il suo rappresentante e imposto
-            //come suo successivo il secondo elemento della lista di E1
-            elementE2.setRef1(rappElementoE1);
-            elementE2.setRef2(successivoElementoE1);
+            collezione.rimosso();
+            collezione.eliminazione();
             return;
         }
-        //Allora la cardinalità di e2 è più grande
-
-        //Salvo il rappresentante di e1 e lo rimuovo dalla collezione
-        DisjointSetElement elementE1 = e1.getRef1();
-        collezione.remove(elementE1);
-
-        //Salvo il secondo elemento di e2 e il suo rappresentante
-        DisjointSetElement rappE2 = e2.getRef1();
-        DisjointSetElement successivoElementoE2 = rappE2.getRef2();
-        //Imposto come successivo del rappresentante di e2 il rappresentante di e1
-        rappE2.setRef2(elementE1);
-        //Cambio cardinalità
-        rappE2.setNumber(elementE1.getNumber() + rappE2.getNumber());
-        while(elementE1.getRef2() != null) {
-            //Modifica rappresentante
-            elementE1.setRef1(rappE2);
-            //Prendo il successivo
-            elementE1 = elementE1.getRef2();
+        int vuoti = (precedenti == null ? 0 : precedenti) + 1;
+        e.setNumber(0);
+        if (e == rappresentante) {
+            DisjointSetElement precedente = testa;
+            DisjointSetElement delegato = testa.getRef2();
+            while (MembriInsieme.vacante(delegato)) {
+                precedente.setRef2(delegato.getRef2());
+                azzera(delegato);
+                vuoti--;
+                delegato = precedente.getRef2();
+            }
+            testa.setRef1(delegato);
+            ricollegati++;
+            collezione.rimosso();
+            collezione.aggiungi(delegato);
+            rappresentante = delegato;
+        }
+        rappresentante.setNumber(presenti);
+        if (vuoti > presenti) ricostruisci(testa);
+        else vacanti.put(testa, vuoti);
+        collezione.eliminazione();
+    }
+
+    /*
+        Toglie dalla lista gli elementi vacanti, azzerandoli, e se la testa è stata eliminata porta il delegato in testa
+        e ci ricollega tutti gli elementi presenti. Complessità O(k + v), dove v sono gli elementi vacanti
+     */
+    private void ricostruisci(DisjointSetElement testa) {
+        vacanti.remove(testa);
+        DisjointSetElement rappresentante = testa.getRef1();
+        boolean nuovaTesta = rappresentante != testa;
+        DisjointSetElement primo = null;
+        DisjointSetElement ultimo = null;
+        DisjointSetElement elemento = testa;
+        while (elemento != null) {
+            DisjointSetElement successivo = elemento.getRef2();
+            if (elemento == rappresentante) {
+                //Il rappresentante viene messo in testa alla fine
+            } else if (MembriInsieme.vacante(elemento)) {
+                azzera(elemento);
+            } else {
+                if (nuovaTesta) {
+                    elemento.setRef1(rappresentante);
+                    ricollegati++;
+                }
+                if (ultimo == null) primo = elemento;
+                else ultimo.setRef2(elemento);
+                ultimo = elemento;
+            }
+            elemento = successivo;
+        }
+        if (ultimo != null) ultimo.setRef2(null);
+        rappresentante.setRef2(primo);
+        if (nuovaTesta) {
+            rappresentante.setRef1(rappresentante);
+            ricollegati++;
         }
-        //Terminato il ciclo elementE1 corrisponde all'ultimo elemento della lista più piccola, allora imposto come suo
-        //successivo il secondo elemento della lista più grande(prima dell'operazione) e aggiorno il suo rappresentante
-        elementE1.setRef1(e2.getRef1());
-        elementE1.setRef2(successivoElementoE2);
+    }
+
+    private static void azzera(DisjointSetElement e) {
+        e.setRef1(null);
+        e.setRef2(null);
+        e.setNumber(0);
     }
 
     /**
-     * Restituisce insieme dei rappresentanti degli insiemi disgiunti
+     * Restituisce una vista di sola lettura, sempre aggiornata, sui rappresentanti degli insiemi disgiunti
      * @return collezione dei rappresentanti
      */
     @Override
     public Set<DisjointSetElement> getCurrentRepresentatives() {
-        //Restituisco direttamente l'intera collezione di rappresentanti
-        return collezione;
+        return Collections.unmodifiableSet(collezione);
+    }
+
+    /**
+     * Restituisce il numero di insiemi disgiunti. Complessità costante
+     * @return numero di insiemi
+     */
+    @Override
+    public int numberOfSets() {
+        return collezione.size();
     }
 
     /**
@@ -219,17 +341,50 @@ public class LinkedListDisjointSets implements DisjointSets {
         if(e == null) throw new NullPointerException("Elemento passato null");
         if(!isPresent(e)) throw new IllegalArgumentException("Elemento non presente negli insiemi");
         Set<DisjointSetElement> set = new HashSet<>();
-        //Prendo il primo elemento di e ed inizio ad inserirlo nel set
+        //Parto dalla testa della lista di e, saltando gli elementi vacanti
         DisjointSetElement elemento = e.getRef1();
 
         while(elemento!= null) {
-            set.add(elemento);
+            if (!MembriInsieme.vacante(elemento)) set.add(elemento);
             elemento = elemento.getRef2();
         }
 
         return set;
     }
 
+    /**
+     * Esegue un'azione su ogni elemento della lista di cui fa parte l'elemento passato, partendo dalla testa e
+     * saltando gli elementi vacanti, senza copiarli. Complessità O(k) dove k è la cardinalità dell'insieme.
+     *
+     * @param e      l'elemento di cui si vogliono visitare gli elementi dell'insieme
+     * @param action l'azione da eseguire su ogni elemento
+     * @throws NullPointerException     se <code>e</code> o l'azione sono null
+     * @throws IllegalArgumentException se l'elemento non è presente negli insiemi disgiunti
+     */
+    @Override
+    public void forEachMember(DisjointSetElement e, Consumer<? super DisjointSetElement> action) {
+        if (e == null || action == null) throw new NullPointerException("Elemento o azione null");
+        if (!isPresent(e)) throw new IllegalArgumentException("Elemento non presente negli insiemi");
+        MembriInsieme.visita(e.getRef1(), e.getRef1().getRef1().getNumber(), action);
+    }
+
+    /**
+     * Restituisce una vista sugli elementi della lista di cui fa parte l'elemento passato, che la scorre senza copiarla
+     * e conosce già il numero di elementi. La vista è valida finché l'insieme non viene unito ad un altro o non ne
+     * viene eliminato un elemento.
+     *
+     * @param e l'elemento di cui si vogliono ottenere gli elementi dell'insieme
+     * @return la vista sugli elementi dell'insieme
+     * @throws NullPointerException     se <code>e</code> è null
+     * @throws IllegalArgumentException se l'elemento non è presente negli insiemi disgiunti
+     */
+    @Override
+    public Iterable<DisjointSetElement> members(DisjointSetElement e) {
+        if (e == null) throw new NullPointerException("Elemento passato null");
+        if (!isPresent(e)) throw new IllegalArgumentException("Elemento non presente negli insiemi");
+        return new MembriInsieme(e.getRef1(), e.getRef1().getRef1().getNumber());
+    }
+
     /**
      * cardinalità dell'insieme di e
      * @param e
@@ -244,7 +399,27 @@ public class LinkedListDisjointSets implements DisjointSets {
     public int getCardinalityOfSetContaining(DisjointSetElement e) {
         if(e == null) throw new NullPointerException("Elemento null");
         if(!isPresent(e)) throw new IllegalArgumentException("Elemento non presente");
-        return e.getRef1().getNumber();
+        return e.getRef1().getRef1().getNumber();
+    }
+
+    /**
+     * Restituisce il numero totale di elementi a cui le unioni, le eliminazioni e le ricostruzioni hanno cambiato
+     * riferimento al rappresentante. Complessità costante
+     * @return elementi ricollegati
+     */
+    @Override
+    public long relinkedElements() {
+        return ricollegati;
+    }
+
+    /**
+     * Restituisce il numero di riferimenti ai rappresentanti letti da findSet, uno per chiamata o due se la testa della
+     * lista è stata eliminata. Complessità costante
+     * @return riferimenti percorsi
+     */
+    @Override
+    public long traversedLinks() {
+        return percorsi;
     }
 
 }
@@ -3,8 +3,8 @@ package it.unicam.cs.asdl2122.mp1;
 import static org.junit.jupiter.api.Assertions.*;
 
 import org.junit.jupiter.api.Test;
-import java.util.Set;
 import java.util.HashSet;
+import java.util.Set;
 
 /**
  * Classe di test per LinkedListDisjointSets
@@ -12,7 +12,12 @@ import java.util.HashSet;
  * @author Luca Tesei
  *
  */
-class LinkedListDisjointSetsTest {
+class LinkedListDisjointSetsTest extends AbstractDisjointSetsTest<LinkedListDisjointSets> {
+
+    @Override
+    LinkedListDisjointSets crea() {
+        return new LinkedListDisjointSets();
+    }
 
     @Test
     final void testLinkedListDisjointSets() {
@@ -0,0 +1,626 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Multinsieme in cui le occorrenze di ogni elemento e la dimensione totale sono rappresentate con un {@code long}, così
+ * da non fermarsi a {@code Integer.MAX_VALUE}.<br><br>
+ *
+ * La struttura è la stessa di {@link MyMultiset}: una HashMap associa ad ogni oggetto un {@link Elemento} con le sue
+ * occorrenze, che vengono modificate direttamente senza toccare la chiave. Le operazioni puntuali hanno complessità O(1)
+ * attesa.<br><br>
+ *
+ * Oltre ai metodi di {@link Multiset} la classe offre le varianti {@link LongCountMultiset#add(Object, long)},
+ * {@link LongCountMultiset#remove(Object, long)}, {@link LongCountMultiset#setCount(Object, long)},
+ * {@link LongCountMultiset#countLong} e {@link LongCountMultiset#sizeLong}. Finché i valori sono rappresentabili con un
+ * {@code int} i metodi di {@link Multiset} si comportano come descritto dall'interface; quando le occorrenze di un
+ * elemento o la dimensione totale superano {@code Integer.MAX_VALUE} i metodi che restituiscono un {@code int}
+ * restituiscono {@code Integer.MAX_VALUE}, mentre le aggiunte non vengono rifiutate finché non si supera
+ * {@code Long.MAX_VALUE}.
+ *
+ * @param <E> il tipo degli elementi del multiset
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+public class LongCountMultiset<E> implements Multiset<E> {
+
+    private long size;
+    private HashMap<E, Elemento<E>> insieme;
+    private int numeroModifiche;
+
+    /*
+        Elemento dell'insieme con le sue occorrenze in un long. Come coppia di Multiset.Entry restituisce le occorrenze
+        limitate a Integer.MAX_VALUE
+     */
+    private static class Elemento<E> implements Multiset.Entry<E> {
+        private long occorrenze;
+        private E oggetto;
+
+        Elemento(E oggetto, long occorrenze) {
+            this.occorrenze = occorrenze;
+            this.oggetto = oggetto;
+        }
+
+        @Override
+        public E getElement() {
+            return oggetto;
+        }
+
+        @Override
+        public int getCount() {
+            return limita(occorrenze);
+        }
+
+        //Confronta le occorrenze limitate, come fa hashCode, per restare coerente con le altre Multiset.Entry
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Multiset.Entry)) return false;
+            Multiset.Entry<?> coppia = (Multiset.Entry<?>) o;
+            return getCount() == coppia.getCount() && this.oggetto.equals(coppia.getElement());
+        }
+
+        /*
+            Confronto esatto con un altro Elemento, usato dall'equals del multinsieme
+         */
+        boolean stesseOccorrenze(Elemento<?> elemento) {
+            return this.occorrenze == elemento.occorrenze && this.oggetto.equals(elemento.oggetto);
+        }
+
+        //Segue la formula di Multiset.Entry
+        @Override
+        public int hashCode() {
+            int hash = 31 * 17 + getCount();
+            hash = 31 * hash + this.oggetto.hashCode();
+            return hash;
+        }
+    }
+
+    /*
+        Iteratore fail-fast sulle occorrenze, come quello di MyMultiset ma con un contatore long
+     */
+    private class Itr implements Iterator<E> {
+        private final int numeroModificheAtteso;
+        private final Iterator<Elemento<E>> iteratore;
+        private E corrente;
+        private long rimanenti;
+
+        private Itr() {
+            numeroModificheAtteso = numeroModifiche;
+            iteratore = insieme.values().iterator();
+            rimanenti = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return rimanenti > 0 || iteratore.hasNext();
+        }
+
+        @Override
+        public E next() {
+            if (numeroModificheAtteso != numeroModifiche) throw new ConcurrentModificationException("C'è stata una " +
+                    "modifica");
+            if (rimanenti == 0) {
+                Elemento<E> elemento = iteratore.next();
+                corrente = elemento.oggetto;
+                rimanenti = elemento.occorrenze;
+            }
+            rimanenti--;
+            return corrente;
+        }
+    }
+
+    /**
+     * Crea un multiset vuoto.
+     */
+    public LongCountMultiset() {
+        insieme = new HashMap<>();
+        size = 0;
+        numeroModifiche = 0;
+    }
+
+    /*
+        Riduce un long all'intervallo di un int non negativo
+     */
+    private static int limita(long valore) {
+        return valore > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) valore;
+    }
+
+    /**
+     * Restituisce la dimensione del multinsieme, limitata a Integer.MAX_VALUE. Si veda {@link #sizeLong()}.
+     *
+     * @return la dimensione del multinsieme
+     */
+    @Override
+    public int size() {
+        return limita(size);
+    }
+
+    /**
+     * Restituisce la dimensione del multinsieme contando tutte le occorrenze.
+     *
+     * @return la dimensione del multinsieme
+     */
+    public long sizeLong() {
+        return size;
+    }
+
+    /**
+     * Restituisce le occorrenze di un elemento, limitate a Integer.MAX_VALUE. Si veda {@link #countLong(Object)}.
+     *
+     * @param element l'elemento di cui contare le occorrenze
+     * @return numero di occorrenze di {@code element}. Restituisco 0 se non presente
+     * @throws NullPointerException se element è null
+     */
+    @Override
+    public int count(Object element) {
+        return limita(countLong(element));
+    }
+
+    /**
+     * Restituisce le occorrenze di un elemento.
+     *
+     * @param element l'elemento di cui contare le occorrenze
+     * @return numero di occorrenze di {@code element}. Restituisco 0 se non presente
+     * @throws NullPointerException se element è null
+     */
+    public long countLong(Object element) {
+        if (element == null) throw new NullPointerException("L'elemento passato al count è null");
+        Elemento<E> elemento = insieme.get(element);
+        return elemento == null ? 0 : elemento.occorrenze;
+    }
+
+    /**
+     * Aggiunge delle occorrenze di un elemento. Restituisce le occorrenze precedenti limitate a Integer.MAX_VALUE,
+     * si veda {@link #add(Object, long)}.
+     *
+     * @param element     l'elemento di cui aggiungere le occorrenze
+     * @param occurrences il numero di occorrenze da aggiungere, se zero non viene apportata alcuna modifica
+     * @return il numero di occorrenze dell'elemento prima dell'operazione
+     * @throws NullPointerException     se element è null
+     * @throws IllegalArgumentException se le occorrenze sono negative o se si superasse Long.MAX_VALUE
+     */
+    @Override
+    public int add(E element, int occurrences) {
+        return limita(add(element, (long) occurrences));
+    }
+
+    /**
+     * Aggiunge delle occorrenze di un elemento.
+     *
+     * @param element     l'elemento di cui aggiungere le occorrenze
+     * @param occurrences il numero di occorrenze da aggiungere, se zero non viene apportata alcuna modifica
+     * @return il numero di occorrenze dell'elemento prima dell'operazione
+     * @throws NullPointerException     se element è null
+     * @throws IllegalArgumentException se le occorrenze sono negative o se le occorrenze dell'elemento o la
+     *                                  dimensione totale superassero Long.MAX_VALUE
+     */
+    public long add(E element, long occurrences) {
+        if (element == null) throw new NullPointerException("L'elemento da aggiungere è null");
+        if (occurrences < 0) throw new IllegalArgumentException("Non si possono aggiungere valori negativi");
+        Elemento<E> elemento = insieme.get(element);
+        long vecchie = elemento == null ? 0 : elemento.occorrenze;
+        if (occurrences == 0) return vecchie;
+        //Le occorrenze di un elemento non superano mai la dimensione totale, basta controllare quest'ultima
+        if (size > Long.MAX_VALUE - occurrences) throw new IllegalArgumentException("Questa operazione " +
+                "aggiungerebbe un numero maggiore di Long.MAX_VALUE");
+        if (elemento == null) insieme.put(element, new Elemento<>(element, occurrences));
+        else elemento.occorrenze += occurrences;
+        size += occurrences;
+        numeroModifiche++;
+        return vecchie;
+    }
+
+    @Override
+    public void add(E element) {
+        add(element, 1L);
+    }
+
+    /**
+     * Rimuove delle occorrenze di un elemento. Restituisce le occorrenze precedenti limitate a Integer.MAX_VALUE,
+     * si veda {@link #remove(Object, long)}.
+     *
+     * @param element     l'elemento di cui rimuovere le occorrenze
+     * @param occurrences il numero di occorrenze da rimuovere, se zero non viene apportata alcuna modifica
+     * @return numero di occorrenze prima dell'operazione
+     * @throws NullPointerException     se element è null
+     * @throws IllegalArgumentException se le occorrenze sono negative
+     */
+    @Override
+    public int remove(Object element, int occurrences) {
+        return limita(remove(element, (long) occurrences));
+    }
+
+    /**
+     * Rimuove delle occorrenze di un elemento. Se le occorrenze da togliere superano quelle presenti, rimuovo
+     * l'elemento.
+     *
+     * @param element     l'elemento di cui rimuovere le occorrenze
+     * @param occurrences il numero di occorrenze da rimuovere, se zero non viene apportata alcuna modifica
+     * @return numero di occorrenze prima dell'operazione
+     * @throws NullPointerException     se element è null
+     * @throws IllegalArgumentException se le occorrenze sono negative
+     */
+    public long remove(Object element, long occurrences) {
+        if (element == null) throw new NullPointerException("Elemento da rimuovere null");
+        if (occurrences < 0) throw new IllegalArgumentException("Occorrenze da rimuovere negative");
+        Elemento<E> elemento = insieme.get(element);
+        if (elemento == null) return 0;
+        long vecchie = elemento.occorrenze;
+        if (occurrences == 0) return vecchie;
+        if (vecchie > occurrences) {
+            elemento.occorrenze -= occurrences;
+            size -= occurrences;
+        } else {
+            insieme.remove(element);
+            size -= vecchie;
+        }
+        numeroModifiche++;
+        return vecchie;
+    }
+
+    @Override
+    public boolean remove(Object element) {
+        return remove(element, 1L) > 0;
+    }
+
+    /**
+     * Imposta le occorrenze di un elemento. Restituisce le occorrenze precedenti limitate a Integer.MAX_VALUE, si
+     * veda {@link #setCount(Object, long)}.
+     *
+     * @param element l'elemento di cui aggiungere o togliere occorrenze
+     * @param count   numero di occorrenze da impostare
+     * @return numero di occorrenze prima dell'operazione
+     * @throws NullPointerException     se element è null
+     * @throws IllegalArgumentException se count è negativo
+     */
+    @Override
+    public int setCount(E element, int count) {
+        return limita(setCount(element, (long) count));
+    }
+
+    /**
+     * Imposta le occorrenze di un elemento.
+     *
+     * @param element l'elemento di cui aggiungere o togliere occorrenze
+     * @param count   numero di occorrenze da impostare
+     * @return numero di occorrenze prima dell'operazione
+     * @throws NullPointerException     se element è null
+     * @throws IllegalArgumentException se count è negativo o se la dimensione totale superasse Long.MAX_VALUE
+     */
+    public long setCount(E element, long count) {
+        if (element == null) throw new NullPointerException("Elemento da modificare null");
+        if (count < 0) throw new IllegalArgumentException("Numero di occorrenze negativo");
+        long vecchie = countLong(element);
+        if (count > vecchie) add(element, count - vecchie);
+        else if (count < vecchie) remove(element, vecchie - count);
+        return vecchie;
+    }
+
+    @Override
+    public Set<E> elementSet() {
+        return new VistaElementi();
+    }
+
+    /**
+     * Restituisce una vista sulle coppie (oggetto, occorrenze). Le coppie riportano le occorrenze limitate a
+     * Integer.MAX_VALUE, si veda {@link #forEachEntryLong} per i valori esatti.
+     *
+     * @return set delle coppie, una per ogni elemento distinto
+     */
+    @Override
+    public Set<Multiset.Entry<E>> entrySet() {
+        return new VistaCoppie();
+    }
+
+    @Override
+    public void forEachEntry(ObjIntConsumer<? super E> action) {
+        if (action == null) throw new NullPointerException("Azione null");
+        for (Elemento<E> elemento : insieme.values()) action.accept(elemento.oggetto, limita(elemento.occorrenze));
+    }
+
+    /**
+     * Esegue l'azione per ogni elemento distinto passando le sue occorrenze esatte.
+     *
+     * @param action l'azione da eseguire per ogni elemento distinto
+     * @throws NullPointerException se action è null
+     */
+    public void forEachEntryLong(ObjLongConsumer<? super E> action) {
+        if (action == null) throw new NullPointerException("Azione null");
+        for (Elemento<E> elemento : insieme.values()) action.accept(elemento.oggetto, elemento.occorrenze);
+    }
+
+    /*
+        Occorrenze di un elemento in un altro multinsieme, esatte se anche questo conta con un long
+     */
+    private static long occorrenzeIn(Multiset<?> other, Object element) {
+        if (other instanceof LongCountMultiset) return ((LongCountMultiset<?>) other).countLong(element);
+        return other.count(element);
+    }
+
+    /**
+     * Aggiunge tutte le occorrenze degli elementi di other sommando le molteplicità come {@code long}. Se other è un
+     * LongCountMultiset vengono usate le sue occorrenze esatte.
+     *
+     * @param other il multinsieme di cui aggiungere le occorrenze
+     * @return true se il multinsieme è stato modificato
+     * @throws NullPointerException     se other è null
+     * @throws IllegalArgumentException se la dimensione totale superasse Long.MAX_VALUE; in tal caso le occorrenze
+     *                                  degli elementi già visitati restano aggiunte
+     */
+    @Override
+    public boolean addAll(Multiset<? extends E> other) {
+        if (other == null) throw new NullPointerException("Multinsieme null");
+        if (other.isEmpty()) return false;
+        if (other instanceof LongCountMultiset) {
+            ((LongCountMultiset<? extends E>) other).forEachEntryLong((element, occurrences) -> add(element,
+                    occurrences));
+        } else {
+            other.forEachEntry((element, occurrences) -> add(element, (long) occurrences));
+        }
+        return true;
+    }
+
+    /**
+     * Mantiene solo le occorrenze presenti anche in other, in una sola passata sui valori della mappa confrontando le
+     * occorrenze esatte di questo multinsieme.
+     *
+     * @param other il multinsieme con cui intersecare questo multinsieme
+     * @return true se il multinsieme è stato modificato
+     * @throws NullPointerException se other è null
+     */
+    @Override
+    public boolean retainAll(Multiset<?> other) {
+        if (other == null) throw new NullPointerException("Multinsieme null");
+        boolean modificato = false;
+        Iterator<Elemento<E>> iterator = insieme.values().iterator();
+        while (iterator.hasNext()) {
+            Elemento<E> elemento = iterator.next();
+            long altre = occorrenzeIn(other, elemento.oggetto);
+            if (altre >= elemento.occorrenze) continue;
+            size -= elemento.occorrenze - altre;
+            if (altre == 0) iterator.remove();
+            else elemento.occorrenze = altre;
+            modificato = true;
+        }
+        if (modificato) numeroModifiche++;
+        return modificato;
+    }
+
+    /**
+     * Rimuove le occorrenze presenti in other, usando le occorrenze esatte quando other è un LongCountMultiset. Se
+     * other ha meno elementi distinti di questo multinsieme visito other, altrimenti visito questo multinsieme in una
+     * sola passata.
+     *
+     * @param other il multinsieme di cui rimuovere le occorrenze
+     * @return true se il multinsieme è stato modificato
+     * @throws NullPointerException se other è null
+     */
+    @Override
+    public boolean removeAll(Multiset<?> other) {
+        if (other == null) throw new NullPointerException("Multinsieme null");
+        if (other == this) {
+            boolean modificato = !isEmpty();
+            clear();
+            return modificato;
+        }
+        if (other.elementSet().size() < insieme.size()) {
+            boolean[] modificato = new boolean[1];
+            if (other instanceof LongCountMultiset) {
+                ((LongCountMultiset<?>) other).forEachEntryLong((element, occurrences) -> {
+                    if (remove(element, occurrences) > 0) modificato[0] = true;
+                });
+            } else {
+                other.forEachEntry((element, occurrences) -> {
+                    if (remove(element, (long) occurrences) > 0) modificato[0] = true;
+                });
+            }
+            return modificato[0];
+        }
+        boolean modificato = false;
+        Iterator<Elemento<E>> iterator = insieme.values().iterator();
+        while (iterator.hasNext()) {
+            Elemento<E> elemento = iterator.next();
+            long altre = occorrenzeIn(other, elemento.oggetto);
+            if (altre == 0) continue;
+            if (altre >= elemento.occorrenze) {
+                size -= elemento.occorrenze;
+                iterator.remove();
+            } else {
+                size -= altre;
+                elemento.occorrenze -= altre;
+            }
+            modificato = true;
+        }
+        if (modificato) numeroModifiche++;
+        return modificato;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    @Override
+    public boolean contains(Object element) {
+        if (element == null) throw new NullPointerException("Elemento è null");
+        return insieme.containsKey(element);
+    }
+
+    @Override
+    public void clear() {
+        insieme.clear();
+        numeroModifiche++;
+        size = 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /*
+     * Due multinsiemi sono uguali se contengono gli stessi elementi con le stesse molteplicità.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof LongCountMultiset)) return false;
+        LongCountMultiset<?> obj = (LongCountMultiset<?>) o;
+        if (obj.size != size || obj.insieme.size() != insieme.size()) return false;
+        //Gli Elemento si confrontano con le occorrenze limitate, qui servono quelle esatte
+        for (Elemento<?> elemento : obj.insieme.values()) {
+            Elemento<E> mio = insieme.get(elemento.oggetto);
+            if (mio == null || !mio.stesseOccorrenze(elemento)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (Elemento<E> elemento : insieme.values()) {
+            hash += 31 * elemento.hashCode();
+        }
+        return hash;
+    }
+
+    /*
+        Iteratore sugli elementi della mappa usato dalle viste, la rimozione toglie tutte le occorrenze
+     */
+    private class ItrElementi implements Iterator<Elemento<E>> {
+        private final Iterator<Elemento<E>> iteratore = insieme.values().iterator();
+        private Elemento<E> ultimo;
+
+        @Override
+        public boolean hasNext() {
+            return iteratore.hasNext();
+        }
+
+        @Override
+        public Elemento<E> next() {
+            ultimo = iteratore.next();
+            return ultimo;
+        }
+
+        @Override
+        public void remove() {
+            if (ultimo == null) throw new IllegalStateException("Nessun elemento da rimuovere");
+            iteratore.remove();
+            size -= ultimo.occorrenze;
+            numeroModifiche++;
+            ultimo = null;
+        }
+    }
+
+    /*
+        Vista sugli elementi distinti
+     */
+    private class VistaElementi extends AbstractSet<E> {
+
+        @Override
+        public int size() {
+            return insieme.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o != null && insieme.containsKey(o);
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            ItrElementi elementi = new ItrElementi();
+            return new Iterator<E>() {
+                @Override
+                public boolean hasNext() {
+                    return elementi.hasNext();
+                }
+
+                @Override
+                public E next() {
+                    return elementi.next().oggetto;
+                }
+
+                @Override
+                public void remove() {
+                    elementi.remove();
+                }
+            };
+        }
+
+        @Override
+        public boolean add(E e) {
+            if (contains(e)) return false;
+            LongCountMultiset.this.add(e, 1L);
+            return true;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) return false;
+            LongCountMultiset.this.remove(o, Long.MAX_VALUE);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            LongCountMultiset.this.clear();
+        }
+    }
+
+    /*
+        Vista sulle coppie, restituisce direttamente gli Elemento della mappa
+     */
+    private class VistaCoppie extends AbstractSet<Multiset.Entry<E>> {
+
+        @Override
+        public int size() {
+            return insieme.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Multiset.Entry)) return false;
+            Multiset.Entry<?> coppia = (Multiset.Entry<?>) o;
+            if (coppia.getElement() == null || coppia.getCount() <= 0) return false;
+            //Le coppie di questa vista portano le occorrenze esatte, le altre quelle limitate
+            if (o instanceof Elemento) return countLong(coppia.getElement()) == ((Elemento<?>) o).occorrenze;
+            return limita(countLong(coppia.getElement())) == coppia.getCount();
+        }
+
+        @Override
+        public Iterator<Multiset.Entry<E>> iterator() {
+            ItrElementi elementi = new ItrElementi();
+            return new Iterator<Multiset.Entry<E>>() {
+                @Override
+                public boolean hasNext() {
+                    return elementi.hasNext();
+                }
+
+                @Override
+                public Multiset.Entry<E> next() {
+                    if (!elementi.hasNext()) throw new NoSuchElementException("Non ci sono altri elementi");
+                    return elementi.next();
+                }
+
+                @Override
+                public void remove() {
+                    elementi.remove();
+                }
+            };
+        }
+
+        @Override
+        public void clear() {
+            LongCountMultiset.this.clear();
+        }
+    }
+
+}
@@ -0,0 +1,199 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per LongCountMultiset
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ *
+ */
+public class LongCountMultisetTest {
+
+    @Test
+    public void testLongCountMultiset() {
+        LongCountMultiset<Integer> m = new LongCountMultiset<Integer>();
+        assertTrue(m.isEmpty());
+        assertEquals(0, m.sizeLong());
+    }
+
+    @Test
+    public void testIntContract() {
+        LongCountMultiset<Integer> m = new LongCountMultiset<Integer>();
+        assertEquals(0, m.add(1, 3));
+        m.add(2);
+        assertEquals(3, m.count(1));
+        assertEquals(4, m.size());
+        assertEquals(3, m.remove(1, 1));
+        assertTrue(m.remove(2));
+        assertEquals(2, m.setCount(1, 5));
+        assertEquals(5, m.size());
+        assertThrows(NullPointerException.class, () -> m.add(null));
+        assertThrows(IllegalArgumentException.class, () -> m.add(1, -1));
+        assertThrows(IllegalArgumentException.class, () -> m.setCount(1, -1));
+    }
+
+    @Test
+    public void testBeyondIntegerMaxValue() {
+        LongCountMultiset<String> m = new LongCountMultiset<String>();
+        m.add("a", Integer.MAX_VALUE);
+        m.add("a");
+        m.add("b", Integer.MAX_VALUE);
+        assertEquals((long) Integer.MAX_VALUE + 1, m.countLong("a"));
+        assertEquals(Integer.MAX_VALUE, m.count("a"));
+        assertEquals(2L * Integer.MAX_VALUE + 1, m.sizeLong());
+        assertEquals(Integer.MAX_VALUE, m.size());
+        assertEquals((long) Integer.MAX_VALUE + 1, m.remove("a", 2L));
+        assertEquals(Integer.MAX_VALUE - 1, m.count("a"));
+    }
+
+    @Test
+    public void testLongOverflow() {
+        LongCountMultiset<String> m = new LongCountMultiset<String>();
+        m.add("a", Long.MAX_VALUE);
+        assertThrows(IllegalArgumentException.class, () -> m.add("b"));
+        assertEquals(Long.MAX_VALUE, m.setCount("a", 0L));
+        assertTrue(m.isEmpty());
+    }
+
+    @Test
+    public void testForEachEntryLong() {
+        LongCountMultiset<String> m = new LongCountMultiset<String>();
+        m.add("a", 5000000000L);
+        long[] totale = new long[1];
+        m.forEachEntryLong((e, n) -> totale[0] += n);
+        assertEquals(5000000000L, totale[0]);
+        m.forEachEntry((e, n) -> assertEquals(Integer.MAX_VALUE, n));
+    }
+
+    @Test
+    public void testIteratorFailFast() {
+        LongCountMultiset<Integer> m = new LongCountMultiset<Integer>();
+        m.add(1, 2);
+        Iterator<Integer> itr = m.iterator();
+        assertEquals(1, (int) itr.next());
+        assertEquals(1, (int) itr.next());
+        assertFalse(itr.hasNext());
+        Iterator<Integer> itr2 = m.iterator();
+        m.add(2);
+        assertThrows(ConcurrentModificationException.class, () -> itr2.next());
+    }
+
+    @Test
+    public void testEquals() {
+        LongCountMultiset<Integer> m1 = new LongCountMultiset<Integer>();
+        LongCountMultiset<Integer> m2 = new LongCountMultiset<Integer>();
+        m1.add(1, 3L);
+        m2.setCount(1, 3);
+        assertTrue(m1.equals(m2));
+        assertEquals(m1.hashCode(), m2.hashCode());
+        m2.add(1);
+        assertFalse(m1.equals(m2));
+    }
+
+    @Test
+    public void testEntryEqualsSimmetrico() {
+        LongCountMultiset<String> m = new LongCountMultiset<String>();
+        m.add("a", 5000000000L);
+        Multiset.Entry<String> coppia = m.entrySet().iterator().next();
+        Multiset.Entry<String> limitata = new ImmutableMultisetEntry<String>("a", Integer.MAX_VALUE);
+        assertTrue(coppia.equals(limitata));
+        assertTrue(limitata.equals(coppia));
+        assertEquals(limitata.hashCode(), coppia.hashCode());
+        LongCountMultiset<String> altro = new LongCountMultiset<String>();
+        altro.add("a", 4000000000L);
+        Multiset.Entry<String> maggiore = altro.entrySet().iterator().next();
+        assertTrue(limitata.equals(maggiore));
+        assertTrue(coppia.equals(maggiore));
+    }
+
+    @Test
+    public void testEntrySetContainsOltreInt() {
+        LongCountMultiset<String> m = new LongCountMultiset<String>();
+        m.add("a", 3000000000L);
+        m.add("b", 2);
+        Set<Multiset.Entry<String>> coppie = m.entrySet();
+        for (Multiset.Entry<String> coppia : coppie) assertTrue(coppie.contains(coppia));
+        assertTrue(coppie.containsAll(m.entrySet()));
+        assertTrue(coppie.contains(new ImmutableMultisetEntry<String>("a", Integer.MAX_VALUE)));
+        LongCountMultiset<String> altro = new LongCountMultiset<String>();
+        altro.add("a", 4000000000L);
+        assertFalse(coppie.contains(altro.entrySet().iterator().next()));
+        assertTrue(coppie.remove(coppie.iterator().next()));
+        assertEquals(1, coppie.size());
+    }
+
+    @Test
+    public void testEqualsOltreInt() {
+        LongCountMultiset<String> m1 = new LongCountMultiset<String>();
+        LongCountMultiset<String> m2 = new LongCountMultiset<String>();
+        m1.add("a", 3000000000L);
+        m1.add("b", 4000000000L);
+        m2.add("a", 4000000000L);
+        m2.add("b", 3000000000L);
+        assertFalse(m1.equals(m2));
+        m2.setCount("a", 3000000000L);
+        m2.setCount("b", 4000000000L);
+        assertTrue(m1.equals(m2));
+    }
+
+    @Test
+    public void testAddAllOltreInt() {
+        LongCountMultiset<String> x = new LongCountMultiset<String>();
+        LongCountMultiset<String> y = new LongCountMultiset<String>();
+        x.add("a", 5000000000L);
+        y.add("a", 3000000000L);
+        y.add("b", 4000000000L);
+        assertTrue(x.addAll(y));
+        assertEquals(8000000000L, x.countLong("a"));
+        assertEquals(4000000000L, x.countLong("b"));
+        assertEquals(12000000000L, x.sizeLong());
+        MyMultiset<String> z = new MyMultiset<String>();
+        z.add("a", 7);
+        assertTrue(x.addAll(z));
+        assertEquals(8000000007L, x.countLong("a"));
+    }
+
+    @Test
+    public void testRemoveAllOltreInt() {
+        LongCountMultiset<String> x = new LongCountMultiset<String>();
+        LongCountMultiset<String> y = new LongCountMultiset<String>();
+        x.add("a", 5000000000L);
+        x.add("b", 10);
+        y.add("a", 3000000000L);
+        assertTrue(x.removeAll(y));
+        assertEquals(2000000000L, x.countLong("a"));
+        assertEquals(2000000010L, x.sizeLong());
+        y.add("b", 4000000000L);
+        y.add("c", 1);
+        assertTrue(x.removeAll(y));
+        assertEquals(0, x.countLong("a"));
+        assertEquals(0, x.countLong("b"));
+        assertTrue(x.isEmpty());
+    }
+
+    @Test
+    public void testRetainAllOltreInt() {
+        LongCountMultiset<String> x = new LongCountMultiset<String>();
+        LongCountMultiset<String> y = new LongCountMultiset<String>();
+        x.add("a", 5000000000L);
+        x.add("b", 4);
+        y.add("a", 3000000000L);
+        assertTrue(x.retainAll(y));
+        assertEquals(3000000000L, x.countLong("a"));
+        assertFalse(x.contains("b"));
+        assertEquals(3000000000L, x.sizeLong());
+        MyMultiset<String> z = new MyMultiset<String>();
+        z.add("a", 5);
+        assertTrue(x.retainAll(z));
+        assertEquals(5, x.countLong("a"));
+        assertEquals(5, x.sizeLong());
+    }
+
+}
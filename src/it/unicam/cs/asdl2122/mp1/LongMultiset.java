@@ -0,0 +1,579 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Multinsieme specializzato per elementi di tipo {@code long}. Gli elementi non vengono mai convertiti in
+ * {@link Long} e non viene creato nessun oggetto per ogni elemento distinto: la tabella hash è a indirizzamento
+ * aperto (linear probing) ed è formata da due array paralleli, uno per le chiavi e uno per le occorrenze.<br><br>
+ *
+ * Una cella è libera se e solo se le sue occorrenze sono 0, per questo non è necessario un array di stati. La
+ * cancellazione sposta all'indietro gli elementi successivi della stessa sequenza di probing (backward shift) così da
+ * non lasciare celle marcate come cancellate.<br><br>
+ *
+ * Le operazioni {@link LongMultiset#count}, {@link LongMultiset#add}, {@link LongMultiset#remove} e
+ * {@link LongMultiset#setCount} hanno complessità O(1) attesa e non allocano memoria, tranne quando la tabella deve
+ * essere ingrandita.<br><br>
+ *
+ * Il metodo {@link LongMultiset#asMultiset} restituisce una vista che implementa {@link Multiset} di {@link Long},
+ * utile per passare questo multinsieme al codice che usa l'interface generica.
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+public class LongMultiset {
+
+    //Capacità iniziale di default, deve essere una potenza di 2
+    private static final int CAPACITA_DEFAULT = 16;
+
+    private long[] chiavi;
+    private int[] occorrenze;
+    //Maschera usata al posto del modulo, vale chiavi.length - 1
+    private int maschera;
+    //Numero di elementi distinti presenti
+    private int distinti;
+    //Numero di elementi distinti oltre il quale la tabella viene raddoppiata
+    private int soglia;
+    private int size;
+    private int numeroModifiche;
+
+    /**
+     * Crea un multiset vuoto.
+     */
+    public LongMultiset() {
+        this(CAPACITA_DEFAULT);
+    }
+
+    /**
+     * Crea un multiset vuoto in grado di contenere il numero di elementi distinti indicato senza ingrandire la
+     * tabella.
+     *
+     * @param elementiDistinti numero previsto di elementi distinti
+     * @throws IllegalArgumentException se elementiDistinti è negativo
+     */
+    public LongMultiset(int elementiDistinti) {
+        if (elementiDistinti < 0) throw new IllegalArgumentException("Numero di elementi distinti negativo");
+        //Il fattore di carico massimo è 1/2, allora la capacità è la potenza di 2 maggiore o uguale al doppio
+        int capacita = CAPACITA_DEFAULT;
+        while (capacita / 2 < elementiDistinti && capacita < (1 << 30)) capacita <<= 1;
+        alloca(capacita);
+        size = 0;
+        numeroModifiche = 0;
+    }
+
+    /*
+        Inizializza gli array della tabella con la capacità passata, che deve essere una potenza di 2
+     */
+    private void alloca(int capacita) {
+        chiavi = new long[capacita];
+        occorrenze = new int[capacita];
+        maschera = capacita - 1;
+        soglia = capacita / 2;
+        distinti = 0;
+    }
+
+    /*
+        Distribuisce i bit della chiave per evitare che chiavi consecutive finiscano in celle adiacenti
+     */
+    private static int mescola(long chiave) {
+        long h = chiave * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /*
+        Restituisce l'indice della cella che contiene la chiave, altrimenti -(indice della prima cella libera) - 1
+     */
+    private int indice(long chiave) {
+        int i = mescola(chiave) & maschera;
+        while (occorrenze[i] != 0) {
+            if (chiavi[i] == chiave) return i;
+            i = (i + 1) & maschera;
+        }
+        return -i - 1;
+    }
+
+    /*
+        Raddoppia la tabella e reinserisce tutti gli elementi
+     */
+    private void ingrandisci() {
+        long[] vecchieChiavi = chiavi;
+        int[] vecchieOccorrenze = occorrenze;
+        alloca(chiavi.length * 2);
+        for (int i = 0; i < vecchieChiavi.length; i++) {
+            if (vecchieOccorrenze[i] != 0) {
+                int j = -indice(vecchieChiavi[i]) - 1;
+                chiavi[j] = vecchieChiavi[i];
+                occorrenze[j] = vecchieOccorrenze[i];
+                distinti++;
+            }
+        }
+    }
+
+    /*
+        Inserisce una chiave non presente con le occorrenze date, ingrandendo la tabella se necessario
+     */
+    private void inserisci(long chiave, int quante) {
+        if (distinti >= soglia) ingrandisci();
+        int i = -indice(chiave) - 1;
+        chiavi[i] = chiave;
+        occorrenze[i] = quante;
+        distinti++;
+    }
+
+    /*
+        Svuota la cella i e sposta indietro gli elementi successivi che, con la cella libera, non sarebbero più
+        raggiungibili dalla loro posizione ideale
+     */
+    private void elimina(int i) {
+        int libero = i;
+        int j = (i + 1) & maschera;
+        while (occorrenze[j] != 0) {
+            int ideale = mescola(chiavi[j]) & maschera;
+            //La cella libera si trova tra la posizione ideale e j, allora l'elemento può essere spostato
+            if (((j - ideale) & maschera) >= ((j - libero) & maschera)) {
+                chiavi[libero] = chiavi[j];
+                occorrenze[libero] = occorrenze[j];
+                libero = j;
+            }
+            j = (j + 1) & maschera;
+        }
+        chiavi[libero] = 0L;
+        occorrenze[libero] = 0;
+        distinti--;
+    }
+
+    /**
+     * Metodo per ottenere la cardinalità di un multinsieme, tiene conto delle occorrenze di ogni elemento.
+     *
+     * @return la dimensione del multinsieme
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Restituisce il numero di elementi distinti presenti.
+     *
+     * @return numero di elementi distinti
+     */
+    public int distinctSize() {
+        return distinti;
+    }
+
+    /**
+     * Restituisco le occorrenze di un elemento
+     *
+     * @param element l'elemento di cui contare le occorrenze
+     * @return numero di occorrenze di {@code element}. Restituisco 0 se non presente
+     */
+    public int count(long element) {
+        int i = indice(element);
+        return i < 0 ? 0 : occorrenze[i];
+    }
+
+    /**
+     * Verifica se un elemento è contenuto nel multinsieme.
+     *
+     * @param element l'elemento da cercare
+     * @return true se è presente almeno un'occorrenza, false altrimenti
+     */
+    public boolean contains(long element) {
+        return indice(element) >= 0;
+    }
+
+    /**
+     * Aggiunge delle occorrenze di un elemento.
+     *
+     * @param element     l'elemento di cui aggiungere le occorrenze
+     * @param occurrences il numero di occorrenze da aggiungere, se zero non viene apportata alcuna modifica
+     * @return il numero di occorrenze dell'elemento prima dell'operazione
+     * @throws IllegalArgumentException se le occorrenze sono negative o se si superasse Integer.MAX_VALUE
+     */
+    public int add(long element, int occurrences) {
+        if (occurrences < 0) throw new IllegalArgumentException("Non si possono aggiungere valori negativi");
+        int i = indice(element);
+        if (i >= 0) {
+            int vecchie = occorrenze[i];
+            if (occurrences == 0) return vecchie;
+            if (((long) vecchie) + occurrences > Integer.MAX_VALUE) throw new IllegalArgumentException("Questa " +
+                    "operazione aggiungerebbe un numero maggiore di Integer.MAX_VALUE");
+            occorrenze[i] = vecchie + occurrences;
+            numeroModifiche++;
+            size += occurrences;
+            return vecchie;
+        }
+        if (occurrences == 0) return 0;
+        inserisci(element, occurrences);
+        numeroModifiche++;
+        size += occurrences;
+        return 0;
+    }
+
+    /**
+     * Variante del metodo add che aggiunge una sola occorrenza.
+     *
+     * @param element l'elemento di cui aggiungere l'occorrenza
+     * @throws IllegalArgumentException se si superasse Integer.MAX_VALUE
+     */
+    public void add(long element) {
+        add(element, 1);
+    }
+
+    /**
+     * Rimuove delle occorrenze di un elemento. Se le occorrenze da togliere superano quelle presenti, rimuovo
+     * l'elemento.
+     *
+     * @param element     l'elemento di cui rimuovere le occorrenze
+     * @param occurrences il numero di occorrenze da rimuovere, se zero non viene apportata alcuna modifica
+     * @return numero di occorrenze prima dell'operazione
+     * @throws IllegalArgumentException se le occorrenze sono negative
+     */
+    public int remove(long element, int occurrences) {
+        if (occurrences < 0) throw new IllegalArgumentException("Occorrenze da rimuovere negative");
+        int i = indice(element);
+        if (i < 0) return 0;
+        int vecchie = occorrenze[i];
+        if (occurrences == 0) return vecchie;
+        if (vecchie > occurrences) {
+            occorrenze[i] = vecchie - occurrences;
+            size -= occurrences;
+        } else {
+            elimina(i);
+            size -= vecchie;
+        }
+        numeroModifiche++;
+        return vecchie;
+    }
+
+    /**
+     * Variante del metodo remove che rimuove una sola occorrenza.
+     *
+     * @param element l'elemento di cui rimuovere l'occorrenza
+     * @return vero se è stata rimossa un'occorrenza, falso altrimenti
+     */
+    public boolean remove(long element) {
+        return remove(element, 1) > 0;
+    }
+
+    /**
+     * Imposta un certo numero di occorrenze per un elemento.
+     *
+     * @param element l'elemento di cui aggiungere o togliere occorrenze
+     * @param count   numero di occorrenze da impostare
+     * @return numero di occorrenze prima dell'operazione
+     * @throws IllegalArgumentException se count è negativo
+     */
+    public int setCount(long element, int count) {
+        if (count < 0) throw new IllegalArgumentException("Numero di occorrenze negativo");
+        int i = indice(element);
+        int vecchie = i < 0 ? 0 : occorrenze[i];
+        if (vecchie == count) return vecchie;
+        if (i < 0) inserisci(element, count);
+        else if (count == 0) elimina(i);
+        else occorrenze[i] = count;
+        size += count - vecchie;
+        numeroModifiche++;
+        return vecchie;
+    }
+
+    /**
+     * Svuota il multinsieme mantenendo la capacità della tabella.
+     */
+    public void clear() {
+        Arrays.fill(chiavi, 0L);
+        Arrays.fill(occorrenze, 0);
+        distinti = 0;
+        size = 0;
+        numeroModifiche++;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Restituisce una vista di questo multinsieme come {@link Multiset} di {@link Long}. La vista non copia gli
+     * elementi: ogni modifica fatta attraverso la vista è visibile in questo multinsieme e viceversa.
+     *
+     * @return la vista generica di questo multinsieme
+     */
+    public Multiset<Long> asMultiset() {
+        return new Vista();
+    }
+
+    /*
+     * Due multinsiemi di long sono uguali se contengono gli stessi elementi con le stesse molteplicità.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof LongMultiset)) return false;
+        LongMultiset altro = (LongMultiset) o;
+        if (altro.size != size || altro.distinti != distinti) return false;
+        for (int i = 0; i < chiavi.length; i++) {
+            if (occorrenze[i] != 0 && altro.count(chiavi[i]) != occorrenze[i]) return false;
+        }
+        return true;
+    }
+
+    /*
+     * La somma non dipende dalla posizione degli elementi nella tabella, quindi è coerente con equals.
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0; i < chiavi.length; i++) {
+            if (occorrenze[i] != 0) hash += 31 * (31 * 17 + occorrenze[i]) + (int) (chiavi[i] ^ (chiavi[i] >>> 32));
+        }
+        return hash;
+    }
+
+    /*
+        Iteratore fail-fast che presenta ogni elemento tante volte quante sono le sue occorrenze
+     */
+    private class Itr implements Iterator<Long> {
+        private final int numeroModificheAtteso;
+        //Prossima cella da visitare nella tabella
+        private int cella;
+        //Occorrenze ancora da restituire per l'elemento corrente
+        private int rimanenti;
+        private long corrente;
+
+        private Itr() {
+            numeroModificheAtteso = numeroModifiche;
+            cella = 0;
+            rimanenti = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (rimanenti > 0) return true;
+            while (cella < chiavi.length && occorrenze[cella] == 0) cella++;
+            return cella < chiavi.length;
+        }
+
+        @Override
+        public Long next() {
+            if (numeroModificheAtteso != numeroModifiche) throw new ConcurrentModificationException("C'è stata una " +
+                    "modifica");
+            if (!hasNext()) throw new NoSuchElementException("Non ci sono altri elementi");
+            if (rimanenti == 0) {
+                corrente = chiavi[cella];
+                rimanenti = occorrenze[cella];
+                cella++;
+            }
+            rimanenti--;
+            return corrente;
+        }
+    }
+
+    /*
+        Iteratore fail-fast sulle celle occupate della tabella, presenta un valore per ogni elemento distinto. Non
+        supporta la rimozione perché lo spostamento all'indietro potrebbe portare elementi non ancora visitati in celle
+        già visitate
+     */
+    private abstract class ItrCelle<T> implements Iterator<T> {
+        private final int numeroModificheAtteso;
+        private int cella;
+
+        private ItrCelle() {
+            numeroModificheAtteso = numeroModifiche;
+            cella = 0;
+        }
+
+        //Restituisce il valore da presentare per la cella occupata i
+        abstract T valore(int i);
+
+        @Override
+        public boolean hasNext() {
+            while (cella < chiavi.length && occorrenze[cella] == 0) cella++;
+            return cella < chiavi.length;
+        }
+
+        @Override
+        public T next() {
+            if (numeroModificheAtteso != numeroModifiche) throw new ConcurrentModificationException("C'è stata una " +
+                    "modifica");
+            if (!hasNext()) throw new NoSuchElementException("Non ci sono altri elementi");
+            return valore(cella++);
+        }
+    }
+
+    /*
+        Vista sugli elementi distinti che legge direttamente la tabella
+     */
+    private class VistaElementi extends AbstractSet<Long> {
+
+        @Override
+        public int size() {
+            return distinti;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Long && LongMultiset.this.contains((Long) o);
+        }
+
+        @Override
+        public Iterator<Long> iterator() {
+            return new ItrCelle<Long>() {
+                @Override
+                Long valore(int i) {
+                    return chiavi[i];
+                }
+            };
+        }
+
+        //Aggiungere un elemento assente equivale ad aggiungerne una occorrenza
+        @Override
+        public boolean add(Long e) {
+            if (e == null) throw new NullPointerException("L'elemento da aggiungere è null");
+            if (LongMultiset.this.contains(e)) return false;
+            LongMultiset.this.add(e, 1);
+            return true;
+        }
+
+        //Rimuovere un elemento dalla vista ne toglie tutte le occorrenze
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) return false;
+            LongMultiset.this.setCount((Long) o, 0);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            LongMultiset.this.clear();
+        }
+    }
+
+    /*
+        Vista sulle coppie (elemento, occorrenze), ogni coppia viene creata quando l'iteratore la restituisce
+     */
+    private class VistaCoppie extends AbstractSet<Multiset.Entry<Long>> {
+
+        @Override
+        public int size() {
+            return distinti;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Multiset.Entry)) return false;
+            Multiset.Entry<?> coppia = (Multiset.Entry<?>) o;
+            return coppia.getElement() instanceof Long && coppia.getCount() > 0
+                    && count((Long) coppia.getElement()) == coppia.getCount();
+        }
+
+        @Override
+        public Iterator<Multiset.Entry<Long>> iterator() {
+            return new ItrCelle<Multiset.Entry<Long>>() {
+                @Override
+                Multiset.Entry<Long> valore(int i) {
+                    return new ImmutableMultisetEntry<>(chiavi[i], occorrenze[i]);
+                }
+            };
+        }
+
+        @Override
+        public void clear() {
+            LongMultiset.this.clear();
+        }
+    }
+
+    /*
+        Adattatore verso l'interface Multiset, delega ogni operazione ai metodi primitivi
+     */
+    private class Vista implements Multiset<Long> {
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public int count(Object element) {
+            if (element == null) throw new NullPointerException("L'elemento passato al count è null");
+            if (!(element instanceof Long)) return 0;
+            return LongMultiset.this.count((Long) element);
+        }
+
+        @Override
+        public int add(Long element, int occurrences) {
+            if (element == null) throw new NullPointerException("L'elemento da aggiungere è null");
+            return LongMultiset.this.add(element, occurrences);
+        }
+
+        @Override
+        public void add(Long element) {
+            if (element == null) throw new NullPointerException("L'elemento da aggiungere è null");
+            LongMultiset.this.add(element, 1);
+        }
+
+        @Override
+        public int remove(Object element, int occurrences) {
+            if (element == null) throw new NullPointerException("Elemento da rimuovere null");
+            if (occurrences < 0) throw new IllegalArgumentException("Occorrenze da rimuovere negative");
+            if (!(element instanceof Long)) return 0;
+            return LongMultiset.this.remove((Long) element, occurrences);
+        }
+
+        @Override
+        public boolean remove(Object element) {
+            if (element == null) throw new NullPointerException("Elemento da rimuovere null");
+            if (!(element instanceof Long)) return false;
+            return LongMultiset.this.remove((Long) element, 1) > 0;
+        }
+
+        @Override
+        public int setCount(Long element, int occurrences) {
+            if (element == null) throw new NullPointerException("Elemento da modificare null");
+            return LongMultiset.this.setCount(element, occurrences);
+        }
+
+        @Override
+        public Set<Long> elementSet() {
+            return new VistaElementi();
+        }
+
+        @Override
+        public Set<Multiset.Entry<Long>> entrySet() {
+            return new VistaCoppie();
+        }
+
+        @Override
+        public void forEachEntry(ObjIntConsumer<? super Long> action) {
+            if (action == null) throw new NullPointerException("Azione null");
+            for (int i = 0; i < chiavi.length; i++) {
+                if (occorrenze[i] != 0) action.accept(chiavi[i], occorrenze[i]);
+            }
+        }
+
+        @Override
+        public Iterator<Long> iterator() {
+            return new Itr();
+        }
+
+        @Override
+        public boolean contains(Object element) {
+            if (element == null) throw new NullPointerException("Elemento è null");
+            return element instanceof Long && LongMultiset.this.contains((Long) element);
+        }
+
+        @Override
+        public void clear() {
+            LongMultiset.this.clear();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
+    }
+
+}
@@ -0,0 +1,171 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per LongMultiset
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ *
+ */
+public class LongMultisetTest {
+
+    @Test
+    public void testLongMultiset() {
+        LongMultiset m = new LongMultiset();
+        assertTrue(m.isEmpty());
+        assertEquals(0, m.size());
+        assertThrows(IllegalArgumentException.class, () -> new LongMultiset(-1));
+    }
+
+    @Test
+    public void testAddCount() {
+        LongMultiset m = new LongMultiset();
+        m.add(1);
+        m.add(1);
+        m.add(-7);
+        assertEquals(0, m.add(3, 4));
+        assertEquals(4, m.add(3, 0));
+        assertEquals(2, m.count(1));
+        assertEquals(1, m.count(-7));
+        assertEquals(4, m.count(3));
+        assertEquals(0, m.count(2));
+        assertEquals(7, m.size());
+        assertEquals(3, m.distinctSize());
+        assertThrows(IllegalArgumentException.class, () -> m.add(1, -1));
+    }
+
+    @Test
+    public void testAddZeroNotPresent() {
+        LongMultiset m = new LongMultiset();
+        assertEquals(0, m.add(5, 0));
+        assertFalse(m.contains(5));
+        assertEquals(0, m.distinctSize());
+    }
+
+    @Test
+    public void testAddOverflow() {
+        LongMultiset m = new LongMultiset();
+        m.add(1, Integer.MAX_VALUE);
+        assertThrows(IllegalArgumentException.class, () -> m.add(1));
+        assertEquals(Integer.MAX_VALUE, m.count(1));
+    }
+
+    @Test
+    public void testRemove() {
+        LongMultiset m = new LongMultiset();
+        m.add(1, 3);
+        m.add(2);
+        assertEquals(3, m.remove(1, 2));
+        assertEquals(1, m.count(1));
+        assertTrue(m.remove(1));
+        assertFalse(m.contains(1));
+        assertFalse(m.remove(1));
+        assertEquals(1, m.remove(2, 10));
+        assertTrue(m.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> m.remove(1, -1));
+    }
+
+    @Test
+    public void testSetCount() {
+        LongMultiset m = new LongMultiset();
+        assertEquals(0, m.setCount(4, 3));
+        assertEquals(3, m.setCount(4, 1));
+        assertEquals(1, m.size());
+        assertEquals(1, m.setCount(4, 0));
+        assertFalse(m.contains(4));
+        assertEquals(0, m.size());
+        assertThrows(IllegalArgumentException.class, () -> m.setCount(4, -1));
+    }
+
+    @Test
+    public void testManyElementsGrowAndRemove() {
+        LongMultiset m = new LongMultiset();
+        for (int i = 0; i < 10000; i++) m.add(i * 31L + Integer.MAX_VALUE, i % 5 + 1);
+        for (int i = 0; i < 10000; i++) assertEquals(i % 5 + 1, m.count(i * 31L + Integer.MAX_VALUE));
+        //Rimuovo metà degli elementi per verificare lo spostamento all'indietro
+        for (int i = 0; i < 10000; i += 2) m.setCount(i * 31L + Integer.MAX_VALUE, 0);
+        for (int i = 0; i < 10000; i++) assertEquals(i % 2 == 0 ? 0 : i % 5 + 1, m.count(i * 31L + Integer.MAX_VALUE));
+        assertEquals(5000, m.distinctSize());
+    }
+
+    @Test
+    public void testClear() {
+        LongMultiset m = new LongMultiset();
+        m.add(1, 2);
+        m.clear();
+        assertTrue(m.isEmpty());
+        assertEquals(0, m.count(1));
+        m.add(1);
+        assertEquals(1, m.count(1));
+    }
+
+    @Test
+    public void testEqualsHashCode() {
+        LongMultiset m1 = new LongMultiset();
+        LongMultiset m2 = new LongMultiset(1000);
+        m1.add(1, 2);
+        m1.add(3);
+        m2.add(3);
+        m2.add(1);
+        m2.add(1);
+        assertTrue(m1.equals(m2));
+        assertEquals(m1.hashCode(), m2.hashCode());
+        m2.add(3);
+        assertFalse(m1.equals(m2));
+    }
+
+    @Test
+    public void testAsMultiset() {
+        LongMultiset m = new LongMultiset();
+        Multiset<Long> v = m.asMultiset();
+        v.add(1L);
+        v.add(1L, 2);
+        v.add(2L);
+        assertEquals(3, m.count(1));
+        assertEquals(4, v.size());
+        assertEquals(0, v.count(1));
+        assertFalse(v.contains(1));
+        assertThrows(NullPointerException.class, () -> v.add(null));
+        assertThrows(NullPointerException.class, () -> v.count(null));
+        Set<Long> s = v.elementSet();
+        assertEquals(2, s.size());
+        assertTrue(s.contains(1L) && s.contains(2L));
+        assertTrue(v.remove(Long.valueOf(2)));
+        assertFalse(m.contains(2));
+    }
+
+    @Test
+    public void testIterator() {
+        LongMultiset m = new LongMultiset();
+        m.add(1, 3);
+        m.add(2);
+        Iterator<Long> it = m.asMultiset().iterator();
+        int uno = 0;
+        int due = 0;
+        while (it.hasNext()) {
+            long i = it.next();
+            if (i == 1) uno++;
+            if (i == 2) due++;
+        }
+        assertEquals(3, uno);
+        assertEquals(1, due);
+    }
+
+    @Test
+    public void testIteratorFailFast() {
+        LongMultiset m = new LongMultiset();
+        m.add(1, 3);
+        Iterator<Long> it = m.asMultiset().iterator();
+        it.next();
+        m.add(2);
+        assertThrows(ConcurrentModificationException.class, () -> it.next());
+    }
+
+}
@@ -0,0 +1,276 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Insiemi disgiunti sugli interi da 0 a n-1, con n che può superare 2^31, memorizzati in un file mappato in memoria.
+ * Lo heap contiene solo i riferimenti alle mappature: la residenza in memoria dei dati è gestita dalla page cache del
+ * sistema operativo, quindi la collezione può essere molto più grande dello heap e della memoria fisica.<br><br>
+ *
+ * Il file contiene un'intestazione di 64 byte seguita da un long little-endian per elemento. Il valore di un elemento
+ * è il padre più uno, oppure, se l'elemento è una radice, la cardinalità del suo insieme meno uno cambiata di segno.
+ * Così un file pieno di zeri rappresenta n singoletti: creare la collezione costa O(1) e i filesystem che supportano
+ * i file sparsi non occupano spazio su disco finché gli elementi non vengono uniti.<br><br>
+ *
+ * Le unioni sono per dimensione e le ricerche usano il dimezzamento dei cammini, come {@link IntDisjointSets}. Le
+ * modifiche vengono scritte direttamente nel file; {@link MappedIntDisjointSets#flush} le forza su disco e il file
+ * può essere riaperto con {@link MappedIntDisjointSets#open} senza ricostruire nulla.<br><br>
+ *
+ * La classe non è thread-safe. Dopo {@link MappedIntDisjointSets#close} le mappature vengono rilasciate dal garbage
+ * collector, quindi non bisogna più usare l'istanza.
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+public class MappedIntDisjointSets implements Closeable {
+
+    //Identifica il formato del file, "MPDS" in ASCII
+    private static final int MAGICO = 0x4D504453;
+    private static final int VERSIONE = 1;
+    private static final int INTESTAZIONE = 64;
+    //Ogni segmento mappato contiene 2^27 elementi, cioè 1 GiB
+    private static final int BIT_SEGMENTO = 27;
+
+    private final FileChannel canale;
+    private final MappedByteBuffer intestazione;
+    private final MappedByteBuffer[] segmenti;
+    private final int bitSegmento;
+    private final long maschera;
+    private final long n;
+    private long numeroInsiemi;
+
+    private MappedIntDisjointSets(FileChannel canale, long n, int bitSegmento) throws IOException {
+        this.canale = canale;
+        this.n = n;
+        this.bitSegmento = bitSegmento;
+        this.maschera = (1L << bitSegmento) - 1;
+        intestazione = canale.map(FileChannel.MapMode.READ_WRITE, 0, INTESTAZIONE);
+        intestazione.order(ByteOrder.LITTLE_ENDIAN);
+        long numero = (n + maschera) >>> bitSegmento;
+        segmenti = new MappedByteBuffer[(int) numero];
+        for (int i = 0; i < segmenti.length; i++) {
+            long inizio = (long) i << bitSegmento;
+            long elementi = Math.min(1L << bitSegmento, n - inizio);
+            segmenti[i] = canale.map(FileChannel.MapMode.READ_WRITE, INTESTAZIONE + inizio * Long.BYTES,
+                    elementi * Long.BYTES);
+            segmenti[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * Crea un nuovo file con n insiemi singoletto, sovrascrivendo il file se esiste già.
+     *
+     * @param file il file da creare
+     * @param n    il numero di elementi
+     * @return la collezione associata al file
+     * @throws NullPointerException     se il file è null
+     * @throws IllegalArgumentException se n è negativo o troppo grande per un file
+     * @throws IOException              se il file non può essere creato o mappato
+     */
+    public static MappedIntDisjointSets create(Path file, long n) throws IOException {
+        return create(file, n, BIT_SEGMENTO);
+    }
+
+    static MappedIntDisjointSets create(Path file, long n, int bitSegmento) throws IOException {
+        if (file == null) throw new NullPointerException("File null");
+        if (n < 0 || n > (Long.MAX_VALUE - INTESTAZIONE) / Long.BYTES) throw new IllegalArgumentException("Numero " +
+                "di elementi non valido: " + n);
+        FileChannel canale = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            //Il file viene esteso scrivendo solo il suo ultimo byte, tutti gli altri valgono zero
+            if (n > 0) canale.write(ByteBuffer.allocate(1), INTESTAZIONE + n * Long.BYTES - 1);
+            MappedIntDisjointSets ds = new MappedIntDisjointSets(canale, n, bitSegmento);
+            ds.intestazione.putInt(0, MAGICO);
+            ds.intestazione.putInt(4, VERSIONE);
+            ds.intestazione.putLong(8, n);
+            ds.numeroInsiemi = n;
+            ds.intestazione.putLong(16, n);
+            return ds;
+        } catch (IOException | RuntimeException e) {
+            canale.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Riapre un file creato con {@link MappedIntDisjointSets#create}, con gli insiemi che aveva quando è stato
+     * chiuso.
+     *
+     * @param file il file da aprire
+     * @return la collezione associata al file
+     * @throws NullPointerException se il file è null
+     * @throws IOException          se il file non può essere aperto o non è nel formato previsto
+     */
+    public static MappedIntDisjointSets open(Path file) throws IOException {
+        return open(file, BIT_SEGMENTO);
+    }
+
+    static MappedIntDisjointSets open(Path file, int bitSegmento) throws IOException {
+        if (file == null) throw new NullPointerException("File null");
+        FileChannel canale = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (canale.size() < INTESTAZIONE) throw new IOException("Il file è troppo corto per essere valido");
+            ByteBuffer letta = ByteBuffer.allocate(INTESTAZIONE).order(ByteOrder.LITTLE_ENDIAN);
+            while (letta.hasRemaining()) {
+                if (canale.read(letta, letta.position()) < 0) throw new IOException("Intestazione incompleta");
+            }
+            if (letta.getInt(0) != MAGICO) throw new IOException("Il file non contiene insiemi disgiunti");
+            if (letta.getInt(4) != VERSIONE) throw new IOException("Versione non supportata: " + letta.getInt(4));
+            long n = letta.getLong(8);
+            if (n < 0 || canale.size() != INTESTAZIONE + n * Long.BYTES) throw new IOException("La dimensione del " +
+                    "file non corrisponde all'intestazione");
+            MappedIntDisjointSets ds = new MappedIntDisjointSets(canale, n, bitSegmento);
+            ds.numeroInsiemi = letta.getLong(16);
+            return ds;
+        } catch (IOException | RuntimeException e) {
+            canale.close();
+            throw e;
+        }
+    }
+
+    private long leggi(long x) {
+        return segmenti[(int) (x >>> bitSegmento)].getLong((int) (x & maschera) << 3);
+    }
+
+    private void scrivi(long x, long valore) {
+        segmenti[(int) (x >>> bitSegmento)].putLong((int) (x & maschera) << 3, valore);
+    }
+
+    /**
+     * Restituisce il numero di elementi.
+     *
+     * @return n
+     */
+    public long capacity() {
+        return n;
+    }
+
+    /**
+     * Restituisce il numero di insiemi disgiunti correnti.
+     *
+     * @return il numero di insiemi
+     */
+    public long numberOfSets() {
+        return numeroInsiemi;
+    }
+
+    private void controlla(long x) {
+        if (x < 0 || x >= n) throw new IllegalArgumentException("L'elemento " + x + " non è compreso tra 0 e " +
+                (n - 1));
+    }
+
+    /*
+        Radice di x con il dimezzamento dei cammini. I valori positivi sono il padre più uno
+     */
+    private long radice(long x) {
+        long p = leggi(x);
+        while (p > 0) {
+            long padre = p - 1;
+            long nonno = leggi(padre);
+            if (nonno <= 0) return padre;
+            scrivi(x, nonno);
+            x = nonno - 1;
+            p = leggi(x);
+        }
+        return x;
+    }
+
+    /**
+     * Restituisce il rappresentante dell'insieme di cui fa parte x, accorciando il cammino percorso.
+     *
+     * @param x l'elemento di cui cercare il rappresentante
+     * @return il rappresentante dell'insieme di x
+     * @throws IllegalArgumentException se x non è compreso tra 0 e n-1
+     */
+    public long find(long x) {
+        controlla(x);
+        return radice(x);
+    }
+
+    /**
+     * Determina se due elementi fanno parte dello stesso insieme.
+     *
+     * @param x il primo elemento
+     * @param y il secondo elemento
+     * @return true se x e y hanno lo stesso rappresentante
+     * @throws IllegalArgumentException se x o y non sono compresi tra 0 e n-1
+     */
+    public boolean sameSet(long x, long y) {
+        controlla(x);
+        controlla(y);
+        return radice(x) == radice(y);
+    }
+
+    /**
+     * Restituisce la cardinalità dell'insieme di cui fa parte x.
+     *
+     * @param x l'elemento di cui si vuole ottenere la cardinalità dell'insieme
+     * @return il numero di elementi dell'insieme di x
+     * @throws IllegalArgumentException se x non è compreso tra 0 e n-1
+     */
+    public long size(long x) {
+        controlla(x);
+        return 1 - leggi(radice(x));
+    }
+
+    /**
+     * Unisce gli insiemi di cui fanno parte i due elementi, collegando la radice dell'insieme più piccolo a quella
+     * del più grande; a parità di cardinalità il rappresentante è quello dell'insieme di x.
+     *
+     * @param x un elemento del primo insieme
+     * @param y un elemento del secondo insieme
+     * @return true se gli insiemi erano distinti, false se x e y erano già nello stesso insieme
+     * @throws IllegalArgumentException se x o y non sono compresi tra 0 e n-1
+     */
+    public boolean union(long x, long y) {
+        controlla(x);
+        controlla(y);
+        long rx = radice(x);
+        long ry = radice(y);
+        if (rx == ry) return false;
+        long vx = leggi(rx);
+        long vy = leggi(ry);
+        //I valori delle radici sono le cardinalità meno uno cambiate di segno, il minore è l'insieme più grande
+        if (vy < vx) {
+            long t = rx;
+            rx = ry;
+            ry = t;
+            t = vx;
+            vx = vy;
+            vy = t;
+        }
+        scrivi(rx, vx + vy - 1);
+        scrivi(ry, rx + 1);
+        numeroInsiemi--;
+        intestazione.putLong(16, numeroInsiemi);
+        return true;
+    }
+
+    /**
+     * Forza la scrittura su disco di tutte le modifiche.
+     */
+    public void flush() {
+        intestazione.force();
+        for (MappedByteBuffer segmento : segmenti) segmento.force();
+    }
+
+    /**
+     * Scrive su disco le modifiche e chiude il file.
+     *
+     * @throws IOException se il file non può essere chiuso
+     */
+    @Override
+    public void close() throws IOException {
+        if (!canale.isOpen()) return;
+        flush();
+        canale.close();
+    }
+
+}
@@ -0,0 +1,106 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Classe di test per MappedIntDisjointSets
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+class MappedIntDisjointSetsTest {
+
+    @TempDir
+    Path cartella;
+
+    @Test
+    final void testCreate() throws IOException {
+        try (MappedIntDisjointSets ds = MappedIntDisjointSets.create(cartella.resolve("ds"), 5)) {
+            assertEquals(5, ds.capacity());
+            assertEquals(5, ds.numberOfSets());
+            for (int i = 0; i < 5; i++) {
+                assertEquals(i, ds.find(i));
+                assertEquals(1, ds.size(i));
+            }
+            assertTrue(ds.union(0, 1));
+            assertTrue(ds.union(2, 1));
+            assertFalse(ds.union(0, 2));
+            assertEquals(0, ds.find(2));
+            assertEquals(3, ds.size(1));
+            assertTrue(ds.sameSet(0, 2));
+            assertFalse(ds.sameSet(0, 3));
+            assertEquals(3, ds.numberOfSets());
+        }
+        assertEquals(64 + 5 * Long.BYTES, Files.size(cartella.resolve("ds")));
+    }
+
+    @Test
+    final void testExceptions() throws IOException {
+        assertThrows(NullPointerException.class, () -> MappedIntDisjointSets.create(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> MappedIntDisjointSets.create(cartella.resolve("a"), -1));
+        Path vuoto = cartella.resolve("vuoto");
+        Files.write(vuoto, new byte[10]);
+        assertThrows(IOException.class, () -> MappedIntDisjointSets.open(vuoto));
+        Files.write(vuoto, new byte[200]);
+        assertThrows(IOException.class, () -> MappedIntDisjointSets.open(vuoto));
+        try (MappedIntDisjointSets ds = MappedIntDisjointSets.create(cartella.resolve("ds"), 3)) {
+            assertThrows(IllegalArgumentException.class, () -> ds.find(3));
+            assertThrows(IllegalArgumentException.class, () -> ds.union(-1, 0));
+            assertThrows(IllegalArgumentException.class, () -> ds.sameSet(0, 3));
+            assertThrows(IllegalArgumentException.class, () -> ds.size(3));
+        }
+    }
+
+    @Test
+    final void testReopenAcrossSegments() throws IOException {
+        int n = 1000;
+        Path file = cartella.resolve("ds");
+        IntDisjointSets attesi = new IntDisjointSets(n);
+        Random random = new Random(21);
+        //Segmenti da 64 elementi, così le unioni attraversano molte mappature diverse
+        try (MappedIntDisjointSets ds = MappedIntDisjointSets.create(file, n, 6)) {
+            for (int i = 0; i < 700; i++) {
+                int a = random.nextInt(n);
+                int b = random.nextInt(n);
+                assertEquals(attesi.union(a, b), ds.union(a, b));
+            }
+        }
+        try (MappedIntDisjointSets ds = MappedIntDisjointSets.open(file, 5)) {
+            assertEquals(n, ds.capacity());
+            assertEquals(attesi.numberOfSets(), ds.numberOfSets());
+            for (int i = 0; i < n; i++) {
+                assertEquals(attesi.size(i), ds.size(i));
+                int j = random.nextInt(n);
+                assertEquals(attesi.sameSet(i, j), ds.sameSet(i, j));
+            }
+            ds.union(0, 1);
+            attesi.union(0, 1);
+        }
+        try (MappedIntDisjointSets ds = MappedIntDisjointSets.open(file)) {
+            assertEquals(attesi.numberOfSets(), ds.numberOfSets());
+            assertTrue(ds.sameSet(1, 0));
+        }
+    }
+
+    @Test
+    final void testLongIndices() throws IOException {
+        //Un file sparso con più di 2^31 elementi, di cui vengono toccate solo poche pagine
+        long n = (1L << 31) + 10;
+        try (MappedIntDisjointSets ds = MappedIntDisjointSets.create(cartella.resolve("grande"), n)) {
+            assertEquals(n, ds.numberOfSets());
+            assertTrue(ds.union(n - 1, 3));
+            assertTrue(ds.union(1L << 31, n - 1));
+            assertTrue(ds.sameSet(3, 1L << 31));
+            assertEquals(3, ds.size(n - 1));
+            assertEquals(n - 2, ds.numberOfSets());
+        }
+    }
+
+}
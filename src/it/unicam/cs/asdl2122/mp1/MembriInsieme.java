@@ -0,0 +1,146 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Vista sugli elementi di un insieme disgiunto collegati tramite ref2, a partire da un elemento e per un numero
+ * noto di elementi. Va bene sia per le liste terminate da null di {@link LinkedListDisjointSets}, partendo dalla
+ * testa della lista, sia per le liste circolari di {@link ForestDisjointSets}, partendo da un elemento qualsiasi.
+ * <br><br>
+ *
+ * Le liste possono contenere elementi vacanti, cioè eliminati ma ancora usati dalla struttura finché il loro
+ * insieme non viene ricostruito, che la vista salta e non conta tra gli elementi.<br><br>
+ *
+ * La vista non copia gli elementi e non alloca nulla oltre all'iteratore; il numero di elementi è fissato alla
+ * creazione, quindi la vista è valida finché l'insieme non viene modificato.
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+final class MembriInsieme implements Iterable<DisjointSetElement> {
+
+    private final DisjointSetElement primo;
+    private final int numero;
+
+    /**
+     * @param primo  il primo elemento da visitare
+     * @param numero il numero di elementi dell'insieme
+     */
+    MembriInsieme(DisjointSetElement primo, int numero) {
+        this.primo = primo;
+        this.numero = numero;
+    }
+
+    /**
+     * Determina se un elemento che fa parte della struttura di un insieme è vacante. Le radici e le teste delle liste
+     * che sono anche rappresentanti puntano a se stesse; gli altri elementi presenti hanno sempre un numero positivo,
+     * perché è la cardinalità che avevano quando erano rappresentanti o 1, mentre l'eliminazione lo azzera.
+     *
+     * @param e un elemento con ref1 diverso da null
+     * @return true se l'elemento è stato eliminato
+     */
+    static boolean vacante(DisjointSetElement e) {
+        return e.getRef1() != e && e.getNumber() == 0;
+    }
+
+    /**
+     * Esegue un'azione su ogni elemento seguendo ref2 e saltando quelli vacanti, senza creare un iteratore.
+     *
+     * @param primo  il primo elemento da visitare
+     * @param numero il numero di elementi da visitare
+     * @param action l'azione da eseguire
+     */
+    static void visita(DisjointSetElement primo, int numero, Consumer<? super DisjointSetElement> action) {
+        DisjointSetElement elemento = primo;
+        for (int i = 0; i < numero; elemento = elemento.getRef2()) {
+            if (vacante(elemento)) continue;
+            action.accept(elemento);
+            i++;
+        }
+    }
+
+    @Override
+    public Iterator<DisjointSetElement> iterator() {
+        return new Itr(primo, numero);
+    }
+
+    @Override
+    public void forEach(Consumer<? super DisjointSetElement> action) {
+        if (action == null) throw new NullPointerException("Azione null");
+        visita(primo, numero, action);
+    }
+
+    /**
+     * Crea uno spliterator che conosce il numero di elementi. Non si divide, perché per dividere una lista concatenata
+     * bisognerebbe scorrerla.
+     *
+     * @return uno spliterator con le caratteristiche SIZED, DISTINCT e NONNULL
+     */
+    @Override
+    public Spliterator<DisjointSetElement> spliterator() {
+        return new Itr(primo, numero);
+    }
+
+    /*
+        Iteratore e spliterator insieme, perché lo stato è lo stesso
+     */
+    private static class Itr implements Iterator<DisjointSetElement>, Spliterator<DisjointSetElement> {
+
+        private DisjointSetElement prossimo;
+        private int rimanenti;
+
+        Itr(DisjointSetElement primo, int numero) {
+            prossimo = primo;
+            rimanenti = numero;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return rimanenti > 0;
+        }
+
+        @Override
+        public DisjointSetElement next() {
+            if (rimanenti == 0) throw new NoSuchElementException("Non ci sono altri elementi nell'insieme");
+            while (vacante(prossimo)) prossimo = prossimo.getRef2();
+            DisjointSetElement elemento = prossimo;
+            prossimo = elemento.getRef2();
+            rimanenti--;
+            return elemento;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super DisjointSetElement> action) {
+            if (action == null) throw new NullPointerException("Azione null");
+            if (rimanenti == 0) return false;
+            action.accept(next());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super DisjointSetElement> action) {
+            if (action == null) throw new NullPointerException("Azione null");
+            int numero = rimanenti;
+            rimanenti = 0;
+            visita(prossimo, numero, action);
+        }
+
+        @Override
+        public Spliterator<DisjointSetElement> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return rimanenti;
+        }
+
+        @Override
+        public int characteristics() {
+            return SIZED | DISTINCT | NONNULL;
+        }
+    }
+
+}
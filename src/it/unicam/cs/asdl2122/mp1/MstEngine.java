@@ -0,0 +1,345 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.IntFunction;
+
+/**
+ * Albero ricoprente minimo di un grafo non orientato e pesato con nodi da 0 a n-1, dato come lista di archi in tre
+ * array paralleli. Se il grafo non è connesso il risultato è la foresta ricoprente minima, con un albero per ogni
+ * componente.<br><br>
+ *
+ * Il calcolo usa l'algoritmo filter-Kruskal: gli archi vengono partizionati come nel quicksort intorno ad un peso
+ * perno scelto a caso; prima si elaborano ricorsivamente gli archi più leggeri, poi quelli di peso uguale al perno, e
+ * infine dagli archi più pesanti vengono eliminati quelli i cui nodi sono già nello stesso insieme, prima di
+ * partizionarli a loro volta. Sui grafi densi la maggior parte degli archi pesanti viene scartata da una sola ricerca
+ * senza mai essere ordinata, e il calcolo si ferma appena resta un solo insieme. Partizioni piccole vengono ordinate
+ * per inserimento ed elaborate come in Kruskal.<br><br>
+ *
+ * Pesi e indici degli archi vengono copiati in due array di primitivi, 12 byte per arco, e partizionati sul posto:
+ * non viene creato nessun oggetto per arco. Le unioni sono eseguite da un {@link IntDisjointSets} oppure da una
+ * qualunque implementazione di {@link DisjointSets} passata dal chiamante.
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+public final class MstEngine {
+
+    //Archi scelti, come indici negli array di input, in ordine di peso non decrescente
+    private final int[] archi;
+    private final int[] da;
+    private final int[] a;
+    private final double[] pesi;
+    private final double pesoTotale;
+    private final int componenti;
+
+    private MstEngine(int[] archi, int[] from, int[] to, double[] weight, int n) {
+        this.archi = archi;
+        da = new int[archi.length];
+        a = new int[archi.length];
+        pesi = new double[archi.length];
+        double totale = 0;
+        for (int i = 0; i < archi.length; i++) {
+            da[i] = from[archi[i]];
+            a[i] = to[archi[i]];
+            pesi[i] = weight[archi[i]];
+            totale += pesi[i];
+        }
+        pesoTotale = totale;
+        componenti = n - archi.length;
+    }
+
+    /**
+     * Calcola la foresta ricoprente minima usando un {@link IntDisjointSets}.
+     *
+     * @param n      il numero di nodi
+     * @param from   il primo nodo di ogni arco
+     * @param to     il secondo nodo di ogni arco
+     * @param weight il peso di ogni arco
+     * @return la foresta ricoprente minima del grafo
+     * @throws NullPointerException     se uno degli array è null
+     * @throws IllegalArgumentException se n è negativo, se gli array hanno lunghezze diverse, se contengono nodi non
+     *                                  compresi tra 0 e n-1 o se un peso è NaN
+     */
+    public static MstEngine of(int n, int[] from, int[] to, double[] weight) {
+        controlla(n, from, to, weight);
+        return new Esecuzione(n, from, to, weight, new Primitiva(new IntDisjointSets(n))).esegui();
+    }
+
+    /**
+     * Calcola la foresta ricoprente minima usando una collezione di insiemi disgiunti qualunque, in cui viene creato
+     * un singoletto per ogni nodo.
+     *
+     * @param n        il numero di nodi
+     * @param from     il primo nodo di ogni arco
+     * @param to       il secondo nodo di ogni arco
+     * @param weight   il peso di ogni arco
+     * @param ds       la collezione che esegue le unioni, che non deve contenere gli elementi dei nodi
+     * @param elemento l'elemento corrispondente ad ogni nodo
+     * @return la foresta ricoprente minima del grafo
+     * @throws NullPointerException     se uno degli argomenti è null o se un elemento è null
+     * @throws IllegalArgumentException se n è negativo, se gli array hanno lunghezze diverse, se contengono nodi non
+     *                                  compresi tra 0 e n-1, se un peso è NaN o se un elemento è già presente nella
+     *                                  collezione
+     */
+    public static MstEngine of(int n, int[] from, int[] to, double[] weight, DisjointSets ds,
+                               IntFunction<? extends DisjointSetElement> elemento) {
+        if (ds == null || elemento == null) throw new NullPointerException("Argomento null");
+        controlla(n, from, to, weight);
+        DisjointSetElement[] elementi = new DisjointSetElement[n];
+        for (int i = 0; i < n; i++) {
+            elementi[i] = elemento.apply(i);
+            ds.makeSet(elementi[i]);
+        }
+        return new Esecuzione(n, from, to, weight, new Generica(ds, elementi)).esegui();
+    }
+
+    private static void controlla(int n, int[] from, int[] to, double[] weight) {
+        if (from == null || to == null || weight == null) throw new NullPointerException("Array null");
+        if (n < 0) throw new IllegalArgumentException("Il numero di nodi non può essere negativo");
+        if (from.length != to.length || from.length != weight.length) throw new IllegalArgumentException("Gli " +
+                "array degli archi hanno lunghezze diverse");
+        for (int i = 0; i < from.length; i++) {
+            if (from[i] < 0 || from[i] >= n || to[i] < 0 || to[i] >= n) throw new IllegalArgumentException("L'arco " +
+                    i + " ha un nodo non compreso tra 0 e " + (n - 1));
+            if (Double.isNaN(weight[i])) throw new IllegalArgumentException("L'arco " + i + " ha peso NaN");
+        }
+    }
+
+    /**
+     * Restituisce il numero di archi della foresta ricoprente minima, cioè n meno il numero di componenti.
+     *
+     * @return il numero di archi scelti
+     */
+    public int size() {
+        return archi.length;
+    }
+
+    /**
+     * Restituisce il numero di componenti connesse del grafo, cioè di alberi della foresta.
+     *
+     * @return il numero di componenti
+     */
+    public int components() {
+        return componenti;
+    }
+
+    /**
+     * Restituisce la somma dei pesi degli archi scelti.
+     *
+     * @return il peso della foresta ricoprente minima
+     */
+    public double totalWeight() {
+        return pesoTotale;
+    }
+
+    /**
+     * Restituisce una copia degli indici degli archi scelti negli array di input, in ordine di peso non
+     * decrescente.
+     *
+     * @return un array con l'indice di ogni arco scelto
+     */
+    public int[] edges() {
+        return archi.clone();
+    }
+
+    /**
+     * Restituisce una copia del primo nodo di ogni arco scelto, nello stesso ordine di {@link MstEngine#edges}.
+     *
+     * @return un array con il primo nodo di ogni arco scelto
+     */
+    public int[] from() {
+        return da.clone();
+    }
+
+    /**
+     * Restituisce una copia del secondo nodo di ogni arco scelto, nello stesso ordine di {@link MstEngine#edges}.
+     *
+     * @return un array con il secondo nodo di ogni arco scelto
+     */
+    public int[] to() {
+        return a.clone();
+    }
+
+    /**
+     * Restituisce una copia del peso di ogni arco scelto, nello stesso ordine di {@link MstEngine#edges}.
+     *
+     * @return un array con il peso di ogni arco scelto
+     */
+    public double[] weights() {
+        return pesi.clone();
+    }
+
+    /*
+        Le due operazioni di cui ha bisogno l'algoritmo, così lo stesso codice funziona con qualunque collezione
+     */
+    private interface Foresta {
+
+        boolean connessi(int u, int v);
+
+        //Unisce gli insiemi di u e v e restituisce true se erano distinti
+        boolean unisci(int u, int v);
+    }
+
+    private static class Primitiva implements Foresta {
+
+        private final IntDisjointSets ds;
+
+        Primitiva(IntDisjointSets ds) {
+            this.ds = ds;
+        }
+
+        @Override
+        public boolean connessi(int u, int v) {
+            return ds.find(u) == ds.find(v);
+        }
+
+        @Override
+        public boolean unisci(int u, int v) {
+            return ds.union(u, v);
+        }
+    }
+
+    private static class Generica implements Foresta {
+
+        private final DisjointSets ds;
+        private final DisjointSetElement[] elementi;
+
+        Generica(DisjointSets ds, DisjointSetElement[] elementi) {
+            this.ds = ds;
+            this.elementi = elementi;
+        }
+
+        @Override
+        public boolean connessi(int u, int v) {
+            return ds.findSet(elementi[u]) == ds.findSet(elementi[v]);
+        }
+
+        @Override
+        public boolean unisci(int u, int v) {
+            DisjointSetElement ru = ds.findSet(elementi[u]);
+            DisjointSetElement rv = ds.findSet(elementi[v]);
+            if (ru == rv) return false;
+            ds.union(ru, rv);
+            return true;
+        }
+    }
+
+    /*
+        Stato di un calcolo: pesi e indici degli archi ancora da elaborare, partizionati sul posto
+     */
+    private static class Esecuzione {
+
+        //Sotto questa dimensione le partizioni vengono ordinate per inserimento
+        private static final int SOGLIA = 32;
+
+        private final int n;
+        private final int[] from;
+        private final int[] to;
+        private final double[] weight;
+        private final Foresta foresta;
+        private final double[] chiave;
+        private final int[] indice;
+        private final int[] scelti;
+        private int numeroScelti;
+        private int insiemi;
+        //Seme fisso, così a parità di input il risultato non cambia tra un'esecuzione e l'altra
+        private final SplittableRandom random = new SplittableRandom(0x5DEECE66DL);
+
+        Esecuzione(int n, int[] from, int[] to, double[] weight, Foresta foresta) {
+            this.n = n;
+            this.from = from;
+            this.to = to;
+            this.weight = weight;
+            this.foresta = foresta;
+            chiave = weight.clone();
+            indice = new int[weight.length];
+            for (int i = 0; i < indice.length; i++) indice[i] = i;
+            scelti = new int[Math.max(0, n - 1)];
+            insiemi = n;
+        }
+
+        MstEngine esegui() {
+            filtraKruskal(0, chiave.length);
+            return new MstEngine(Arrays.copyOf(scelti, numeroScelti), from, to, weight, n);
+        }
+
+        private void filtraKruskal(int inizio, int fine) {
+            while (fine - inizio > SOGLIA && insiemi > 1) {
+                double perno = perno(inizio, fine);
+                //Tre parti: [inizio, minori) minori del perno, [minori, maggiori) uguali, [maggiori, fine) maggiori
+                int minori = inizio;
+                int maggiori = fine;
+                int i = inizio;
+                while (i < maggiori) {
+                    double c = chiave[i];
+                    if (c < perno) scambia(minori++, i++);
+                    else if (c > perno) scambia(i, --maggiori);
+                    else i++;
+                }
+                filtraKruskal(inizio, minori);
+                for (int k = minori; k < maggiori && insiemi > 1; k++) prova(indice[k]);
+                inizio = maggiori;
+                fine = filtra(maggiori, fine);
+            }
+            if (insiemi <= 1) return;
+            ordina(inizio, fine);
+            for (int k = inizio; k < fine && insiemi > 1; k++) prova(indice[k]);
+        }
+
+        /*
+            Mediana dei pesi di tre archi scelti a caso nell'intervallo
+         */
+        private double perno(int inizio, int fine) {
+            double x = chiave[random.nextInt(inizio, fine)];
+            double y = chiave[random.nextInt(inizio, fine)];
+            double z = chiave[random.nextInt(inizio, fine)];
+            return Math.max(Math.min(x, y), Math.min(Math.max(x, y), z));
+        }
+
+        private void prova(int arco) {
+            if (foresta.unisci(from[arco], to[arco])) {
+                scelti[numeroScelti++] = arco;
+                insiemi--;
+            }
+        }
+
+        /*
+            Sposta all'inizio dell'intervallo gli archi che collegano insiemi distinti e restituisce la nuova fine
+         */
+        private int filtra(int inizio, int fine) {
+            int j = inizio;
+            for (int i = inizio; i < fine; i++) {
+                int arco = indice[i];
+                if (foresta.connessi(from[arco], to[arco])) continue;
+                chiave[j] = chiave[i];
+                indice[j++] = arco;
+            }
+            return j;
+        }
+
+        private void ordina(int inizio, int fine) {
+            for (int i = inizio + 1; i < fine; i++) {
+                double c = chiave[i];
+                int arco = indice[i];
+                int j = i - 1;
+                while (j >= inizio && chiave[j] > c) {
+                    chiave[j + 1] = chiave[j];
+                    indice[j + 1] = indice[j];
+                    j--;
+                }
+                chiave[j + 1] = c;
+                indice[j + 1] = arco;
+            }
+        }
+
+        private void scambia(int i, int j) {
+            double c = chiave[i];
+            chiave[i] = chiave[j];
+            chiave[j] = c;
+            int arco = indice[i];
+            indice[i] = indice[j];
+            indice[j] = arco;
+        }
+    }
+
+}
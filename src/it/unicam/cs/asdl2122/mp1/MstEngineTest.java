@@ -0,0 +1,132 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per MstEngine
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+class MstEngineTest {
+
+    /*
+        Kruskal senza filtri: ordina tutti gli archi e restituisce il peso totale della foresta
+     */
+    private static double kruskal(int n, int[] from, int[] to, double[] weight) {
+        Integer[] ordine = new Integer[from.length];
+        for (int i = 0; i < ordine.length; i++) ordine[i] = i;
+        Arrays.sort(ordine, Comparator.comparingDouble(i -> weight[i]));
+        IntDisjointSets ds = new IntDisjointSets(n);
+        double totale = 0;
+        for (int i : ordine) if (ds.union(from[i], to[i])) totale += weight[i];
+        return totale;
+    }
+
+    @Test
+    final void testSmallGraph() {
+        int[] from = {0, 0, 1, 1, 2, 3, 4};
+        int[] to = {1, 2, 2, 3, 3, 4, 4};
+        double[] weight = {4, 1, 2, 5, 8, 3, 0};
+        MstEngine mst = MstEngine.of(5, from, to, weight);
+        assertEquals(4, mst.size());
+        assertEquals(1, mst.components());
+        assertEquals(11, mst.totalWeight());
+        assertArrayEquals(new int[]{1, 2, 5, 3}, mst.edges());
+        assertArrayEquals(new int[]{0, 1, 3, 1}, mst.from());
+        assertArrayEquals(new int[]{2, 2, 4, 3}, mst.to());
+        assertArrayEquals(new double[]{1, 2, 3, 5}, mst.weights());
+    }
+
+    @Test
+    final void testEmptyAndDisconnected() {
+        MstEngine vuoto = MstEngine.of(0, new int[0], new int[0], new double[0]);
+        assertEquals(0, vuoto.size());
+        assertEquals(0, vuoto.components());
+        MstEngine isolati = MstEngine.of(4, new int[0], new int[0], new double[0]);
+        assertEquals(0, isolati.size());
+        assertEquals(4, isolati.components());
+        MstEngine due = MstEngine.of(4, new int[]{0, 2, 1}, new int[]{1, 3, 0}, new double[]{-1, 7, -2});
+        assertEquals(2, due.size());
+        assertEquals(2, due.components());
+        assertEquals(5, due.totalWeight());
+    }
+
+    @Test
+    final void testRandomAgainstKruskal() {
+        Random random = new Random(20);
+        for (int prova = 0; prova < 20; prova++) {
+            int n = 1 + random.nextInt(2000);
+            int m = random.nextInt(20 * n);
+            int[] from = new int[m];
+            int[] to = new int[m];
+            double[] weight = new double[m];
+            for (int i = 0; i < m; i++) {
+                from[i] = random.nextInt(n);
+                to[i] = random.nextInt(n);
+                //Pochi pesi distinti, per avere molti archi di peso uguale al perno
+                weight[i] = prova % 2 == 0 ? random.nextDouble() : random.nextInt(10);
+            }
+            MstEngine mst = MstEngine.of(n, from, to, weight);
+            assertEquals(kruskal(n, from, to, weight), mst.totalWeight(), 1e-9);
+            IntDisjointSets componenti = new IntDisjointSets(n);
+            for (int i = 0; i < m; i++) componenti.union(from[i], to[i]);
+            assertEquals(componenti.numberOfSets(), mst.components());
+            assertEquals(n - componenti.numberOfSets(), mst.size());
+            //Gli archi scelti formano una foresta, in ordine di peso non decrescente
+            IntDisjointSets foresta = new IntDisjointSets(n);
+            int[] archi = mst.edges();
+            for (int i = 0; i < archi.length; i++) {
+                assertTrue(foresta.union(from[archi[i]], to[archi[i]]));
+                if (i > 0) assertTrue(weight[archi[i - 1]] <= weight[archi[i]]);
+            }
+        }
+    }
+
+    @Test
+    final void testAnyDisjointSets() {
+        Random random = new Random(21);
+        int n = 500;
+        int m = 5000;
+        int[] from = new int[m];
+        int[] to = new int[m];
+        double[] weight = new double[m];
+        for (int i = 0; i < m; i++) {
+            from[i] = random.nextInt(n);
+            to[i] = random.nextInt(n);
+            weight[i] = random.nextDouble();
+        }
+        MstEngine primitiva = MstEngine.of(n, from, to, weight);
+        MstEngine lista = MstEngine.of(n, from, to, weight, new LinkedListDisjointSets(),
+                MyIntLinkedListDisjointSetElement::new);
+        MstEngine foresta = MstEngine.of(n, from, to, weight, new ForestDisjointSets(),
+                MyIntLinkedListDisjointSetElement::new);
+        //Con pesi distinti l'albero ricoprente minimo è unico
+        assertArrayEquals(primitiva.edges(), lista.edges());
+        assertArrayEquals(primitiva.edges(), foresta.edges());
+    }
+
+    @Test
+    final void testInvalidArguments() {
+        int[] due = {0, 1};
+        double[] pesi = {1, 2};
+        assertThrows(NullPointerException.class, () -> MstEngine.of(2, null, due, pesi));
+        assertThrows(NullPointerException.class, () -> MstEngine.of(2, due, due, null));
+        assertThrows(IllegalArgumentException.class, () -> MstEngine.of(-1, new int[0], new int[0], new double[0]));
+        assertThrows(IllegalArgumentException.class, () -> MstEngine.of(2, due, new int[]{0}, pesi));
+        assertThrows(IllegalArgumentException.class, () -> MstEngine.of(2, due, new int[]{0, 2}, pesi));
+        assertThrows(IllegalArgumentException.class, () -> MstEngine.of(2, due, due, new double[]{1, Double.NaN}));
+        assertThrows(NullPointerException.class, () -> MstEngine.of(2, due, due, pesi, null,
+                MyIntLinkedListDisjointSetElement::new));
+        DisjointSets ds = new ForestDisjointSets();
+        MyIntLinkedListDisjointSetElement presente = new MyIntLinkedListDisjointSetElement(0);
+        ds.makeSet(presente);
+        assertThrows(IllegalArgumentException.class, () -> MstEngine.of(2, due, due, pesi, ds, i -> presente));
+    }
+
+}
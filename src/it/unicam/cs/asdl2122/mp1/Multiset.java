@@ -1,7 +1,10 @@
 package it.unicam.cs.asdl2122.mp1;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.function.ObjIntConsumer;
 
 /**
  * Un multinsieme (chiamato anche bag) è un insieme in cui gli elementi hanno un
@@ -146,10 +149,49 @@ public interface Multiset<E> {
      * Restituisce l'insieme di elementi distinti contenuti in questo
      * multinsieme. L'ordine degli elementi nel set risultato non è specificato.
      *
+     * Il set restituito è una vista e non una copia: le modifiche successive
+     * del multinsieme sono visibili nel set. Aggiungere un elemento assente
+     * alla vista equivale ad aggiungerne una occorrenza al multinsieme, mentre
+     * rimuovere un elemento dalla vista ne rimuove tutte le occorrenze.
+     *
      * @return l'insieme di elementi distinti in questo multinsieme
      */
     public Set<E> elementSet();
 
+    /**
+     * Restituisce l'insieme delle coppie (elemento, occorrenze) di questo
+     * multinsieme, una per ogni elemento distinto. L'ordine delle coppie non è
+     * specificato.
+     *
+     * Il set restituito è una vista e non una copia: le modifiche successive
+     * del multinsieme sono visibili nel set. Non è possibile aggiungere coppie
+     * attraverso la vista.
+     *
+     * Iterare sulle coppie costa un passo per ogni elemento distinto, a
+     * differenza di {@link #iterator()} che ne costa uno per ogni occorrenza.
+     *
+     * @return l'insieme delle coppie (elemento, occorrenze) di questo
+     *         multinsieme
+     */
+    public Set<Entry<E>> entrySet();
+
+    /**
+     * Esegue l'azione data per ogni elemento distinto di questo multinsieme,
+     * passando l'elemento e il suo numero di occorrenze. L'ordine non è
+     * specificato.
+     *
+     * @param action
+     *                   l'azione da eseguire per ogni elemento distinto
+     * @throws NullPointerException
+     *                                  se {@code action} è null
+     */
+    public default void forEachEntry(ObjIntConsumer<? super E> action) {
+        if (action == null) throw new NullPointerException("Azione null");
+        for (Entry<E> entry : entrySet()) {
+            action.accept(entry.getElement(), entry.getCount());
+        }
+    }
+
     /**
      * Restituisce un iteratore per questo multinsieme. L'iteratore deve
      * presentare tutti gli elementi del multinsieme (in un ordine qualsiasi) e
@@ -196,4 +238,121 @@ public interface Multiset<E> {
      */
     public boolean isEmpty();
 
+    /**
+     * Aggiunge a questo multinsieme tutte le occorrenze degli elementi del
+     * multinsieme dato, sommando le molteplicità.
+     *
+     * @param other
+     *                  il multinsieme di cui aggiungere le occorrenze
+     * @return {@code true} se questo multinsieme è stato modificato
+     * @throws NullPointerException
+     *                                      se {@code other} è null
+     * @throws IllegalArgumentException
+     *                                      se questa operazione comporterebbe
+     *                                      più di {@code Integer.MAX_VALUE}
+     *                                      occorrenze di un elemento; in tal
+     *                                      caso le occorrenze degli elementi
+     *                                      già visitati restano aggiunte
+     */
+    public default boolean addAll(Multiset<? extends E> other) {
+        if (other == null) throw new NullPointerException("Multinsieme null");
+        if (other.isEmpty()) return false;
+        other.forEachEntry((element, occurrences) -> add(element, occurrences));
+        return true;
+    }
+
+    /**
+     * Mantiene in questo multinsieme solo le occorrenze presenti anche nel
+     * multinsieme dato: la molteplicità di ogni elemento diventa il minimo tra
+     * quella in questo multinsieme e quella in {@code other}.
+     *
+     * @param other
+     *                  il multinsieme con cui intersecare questo multinsieme
+     * @return {@code true} se questo multinsieme è stato modificato
+     * @throws NullPointerException
+     *                                  se {@code other} è null
+     */
+    public default boolean retainAll(Multiset<?> other) {
+        if (other == null) throw new NullPointerException("Multinsieme null");
+        //Raccolgo prima le modifiche per non invalidare le viste durante la
+        //visita
+        List<Entry<E>> modifiche = new ArrayList<>();
+        forEachEntry((element, occurrences) -> {
+            int altre = other.count(element);
+            if (altre < occurrences) modifiche.add(new ImmutableMultisetEntry<>(element, altre));
+        });
+        for (Entry<E> modifica : modifiche) {
+            setCount(modifica.getElement(), modifica.getCount());
+        }
+        return !modifiche.isEmpty();
+    }
+
+    /**
+     * Rimuove da questo multinsieme le occorrenze presenti nel multinsieme
+     * dato: la molteplicità di ogni elemento diminuisce di quella in
+     * {@code other}, fermandosi a zero.
+     *
+     * @param other
+     *                  il multinsieme di cui rimuovere le occorrenze
+     * @return {@code true} se questo multinsieme è stato modificato
+     * @throws NullPointerException
+     *                                  se {@code other} è null
+     */
+    public default boolean removeAll(Multiset<?> other) {
+        if (other == null) throw new NullPointerException("Multinsieme null");
+        if (other == this) {
+            boolean modificato = !isEmpty();
+            clear();
+            return modificato;
+        }
+        boolean modificato = false;
+        //Visito il più piccolo tra i due multinsiemi
+        if (other.elementSet().size() <= elementSet().size()) {
+            for (Entry<?> entry : other.entrySet()) {
+                if (remove(entry.getElement(), entry.getCount()) > 0) modificato = true;
+            }
+            return modificato;
+        }
+        List<Entry<E>> modifiche = new ArrayList<>();
+        forEachEntry((element, occurrences) -> {
+            int altre = other.count(element);
+            if (altre > 0) modifiche.add(new ImmutableMultisetEntry<>(element, altre));
+        });
+        for (Entry<E> modifica : modifiche) {
+            remove(modifica.getElement(), modifica.getCount());
+        }
+        return !modifiche.isEmpty();
+    }
+
+    /**
+     * Una coppia (elemento, occorrenze) di un multinsieme, come restituita da
+     * {@link Multiset#entrySet()}.
+     *
+     * Due coppie sono uguali se hanno elementi uguali secondo {@code equals}
+     * e lo stesso numero di occorrenze. Il codice hash di una coppia è
+     * {@code 31 * (31 * 17 + getCount()) + getElement().hashCode()}, così che
+     * coppie uguali di implementazioni diverse abbiano lo stesso hash.
+     *
+     * @param <E>
+     *                il tipo dell'elemento
+     */
+    public interface Entry<E> {
+
+        /**
+         * Restituisce l'elemento di questa coppia.
+         *
+         * @return l'elemento, mai null
+         */
+        public E getElement();
+
+        /**
+         * Restituisce il numero di occorrenze dell'elemento. Se la coppia è
+         * ottenuta da una vista, il valore può riflettere le modifiche
+         * successive del multinsieme.
+         *
+         * @return il numero di occorrenze dell'elemento, sempre positivo
+         */
+        public int getCount();
+    }
+
 }
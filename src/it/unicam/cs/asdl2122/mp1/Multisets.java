@@ -0,0 +1,108 @@
+package it.unicam.cs.asdl2122.mp1;
+
+/**
+ * Operazioni insiemistiche su multinsiemi. Ogni operazione restituisce un nuovo {@link MyMultiset} e non modifica i
+ * multinsiemi passati.<br><br>
+ *
+ * Quando l'operazione lo permette viene visitato il multinsieme con meno elementi distinti, mentre l'altro viene
+ * interrogato con {@link Multiset#count}, e il risultato viene creato già dimensionato per il numero di elementi
+ * distinti che conterrà al massimo, così da non ridimensionare la mappa durante l'operazione.
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+public final class Multisets {
+
+    private Multisets() {
+        //Classe di sole operazioni statiche, non istanziabile
+    }
+
+    /**
+     * Restituisce la somma dei due multinsiemi: la molteplicità di ogni elemento è la somma delle molteplicità.
+     *
+     * @param a   il primo multinsieme
+     * @param b   il secondo multinsieme
+     * @param <E> il tipo degli elementi
+     * @return un nuovo multinsieme somma di a e b
+     * @throws NullPointerException     se a o b è null
+     * @throws IllegalArgumentException se una molteplicità superasse Integer.MAX_VALUE
+     */
+    public static <E> Multiset<E> sum(Multiset<? extends E> a, Multiset<? extends E> b) {
+        if (a == null || b == null) throw new NullPointerException("Multinsieme null");
+        MyMultiset<E> risultato = new MyMultiset<>(distinti(a) + distinti(b));
+        risultato.addAll(a);
+        risultato.addAll(b);
+        return risultato;
+    }
+
+    /**
+     * Restituisce l'unione dei due multinsiemi: la molteplicità di ogni elemento è la massima tra le due.
+     *
+     * @param a   il primo multinsieme
+     * @param b   il secondo multinsieme
+     * @param <E> il tipo degli elementi
+     * @return un nuovo multinsieme unione di a e b
+     * @throws NullPointerException se a o b è null
+     */
+    public static <E> Multiset<E> union(Multiset<? extends E> a, Multiset<? extends E> b) {
+        if (a == null || b == null) throw new NullPointerException("Multinsieme null");
+        Multiset<? extends E> grande = distinti(a) >= distinti(b) ? a : b;
+        Multiset<? extends E> piccolo = grande == a ? b : a;
+        MyMultiset<E> risultato = new MyMultiset<>(distinti(a) + distinti(b));
+        //Copio il più grande e poi alzo le molteplicità con quelle del più piccolo
+        risultato.addAll(grande);
+        piccolo.forEachEntry((element, occurrences) -> {
+            if (occurrences > risultato.count(element)) risultato.setCount(element, occurrences);
+        });
+        return risultato;
+    }
+
+    /**
+     * Restituisce l'intersezione dei due multinsiemi: la molteplicità di ogni elemento è la minima tra le due.
+     *
+     * @param a   il primo multinsieme
+     * @param b   il secondo multinsieme
+     * @param <E> il tipo degli elementi
+     * @return un nuovo multinsieme intersezione di a e b
+     * @throws NullPointerException se a o b è null
+     */
+    public static <E> Multiset<E> intersection(Multiset<? extends E> a, Multiset<? extends E> b) {
+        if (a == null || b == null) throw new NullPointerException("Multinsieme null");
+        Multiset<? extends E> piccolo = distinti(a) <= distinti(b) ? a : b;
+        Multiset<? extends E> grande = piccolo == a ? b : a;
+        MyMultiset<E> risultato = new MyMultiset<>(distinti(piccolo));
+        piccolo.forEachEntry((element, occurrences) -> {
+            int minimo = Math.min(occurrences, grande.count(element));
+            if (minimo > 0) risultato.add(element, minimo);
+        });
+        return risultato;
+    }
+
+    /**
+     * Restituisce la differenza dei due multinsiemi: la molteplicità di ogni elemento è quella in a diminuita di
+     * quella in b, fermandosi a zero.
+     *
+     * @param a   il multinsieme da cui togliere le occorrenze
+     * @param b   il multinsieme delle occorrenze da togliere
+     * @param <E> il tipo degli elementi
+     * @return un nuovo multinsieme differenza di a e b
+     * @throws NullPointerException se a o b è null
+     */
+    public static <E> Multiset<E> difference(Multiset<? extends E> a, Multiset<?> b) {
+        if (a == null || b == null) throw new NullPointerException("Multinsieme null");
+        MyMultiset<E> risultato = new MyMultiset<>(distinti(a));
+        //Il risultato contiene solo elementi di a, quindi a deve essere comunque visitato
+        a.forEachEntry((element, occurrences) -> {
+            int differenza = occurrences - b.count(element);
+            if (differenza > 0) risultato.add(element, differenza);
+        });
+        return risultato;
+    }
+
+    /*
+        Numero di elementi distinti, O(1) per le implementazioni che restituiscono una vista
+     */
+    private static int distinti(Multiset<?> m) {
+        return m.elementSet().size();
+    }
+
+}
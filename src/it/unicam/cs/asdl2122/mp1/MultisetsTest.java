@@ -0,0 +1,114 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per Multisets e per le operazioni di massa di Multiset
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ *
+ */
+public class MultisetsTest {
+
+    private static MyMultiset<Integer> crea(int... coppie) {
+        MyMultiset<Integer> m = new MyMultiset<Integer>();
+        for (int i = 0; i < coppie.length; i += 2) m.add(coppie[i], coppie[i + 1]);
+        return m;
+    }
+
+    @Test
+    public void testSum() {
+        Multiset<Integer> s = Multisets.sum(crea(1, 2, 2, 1), crea(1, 3, 3, 4));
+        assertTrue(crea(1, 5, 2, 1, 3, 4).equals(s));
+        assertEquals(10, s.size());
+    }
+
+    @Test
+    public void testUnion() {
+        Multiset<Integer> u = Multisets.union(crea(1, 2, 2, 1), crea(1, 3, 3, 4));
+        assertTrue(crea(1, 3, 2, 1, 3, 4).equals(u));
+        assertEquals(8, u.size());
+    }
+
+    @Test
+    public void testIntersection() {
+        Multiset<Integer> i = Multisets.intersection(crea(1, 2, 2, 1), crea(1, 3, 3, 4));
+        assertTrue(crea(1, 2).equals(i));
+        assertTrue(Multisets.intersection(crea(1, 2), crea(2, 2)).isEmpty());
+    }
+
+    @Test
+    public void testDifference() {
+        Multiset<Integer> d = Multisets.difference(crea(1, 5, 2, 1, 3, 1), crea(1, 3, 2, 4));
+        assertTrue(crea(1, 2, 3, 1).equals(d));
+        assertEquals(3, d.size());
+    }
+
+    @Test
+    public void testOperandsNotModified() {
+        MyMultiset<Integer> a = crea(1, 2);
+        MyMultiset<Integer> b = crea(1, 1, 2, 2);
+        Multisets.union(a, b);
+        Multisets.difference(a, b);
+        assertTrue(crea(1, 2).equals(a));
+        assertTrue(crea(1, 1, 2, 2).equals(b));
+    }
+
+    @Test
+    public void testNull() {
+        assertThrows(NullPointerException.class, () -> Multisets.sum(null, crea()));
+        assertThrows(NullPointerException.class, () -> Multisets.union(crea(), null));
+        assertThrows(NullPointerException.class, () -> Multisets.intersection(null, crea()));
+        assertThrows(NullPointerException.class, () -> Multisets.difference(crea(), null));
+        assertThrows(NullPointerException.class, () -> crea().addAll(null));
+    }
+
+    @Test
+    public void testAddAll() {
+        MyMultiset<Integer> a = crea(1, 2);
+        assertTrue(a.addAll(crea(1, 1, 2, 3)));
+        assertTrue(crea(1, 3, 2, 3).equals(a));
+        assertEquals(6, a.size());
+        assertFalse(a.addAll(crea()));
+    }
+
+    @Test
+    public void testRetainAll() {
+        MyMultiset<Integer> a = crea(1, 3, 2, 2, 3, 1);
+        assertTrue(a.retainAll(crea(1, 1, 2, 5)));
+        assertTrue(crea(1, 1, 2, 2).equals(a));
+        assertEquals(3, a.size());
+        assertFalse(a.retainAll(crea(1, 1, 2, 2)));
+    }
+
+    @Test
+    public void testRemoveAll() {
+        MyMultiset<Integer> a = crea(1, 3, 2, 2, 3, 1);
+        assertTrue(a.removeAll(crea(1, 1, 2, 5)));
+        assertTrue(crea(1, 2, 3, 1).equals(a));
+        assertEquals(3, a.size());
+        //Caso in cui il multinsieme passato ha più elementi distinti
+        assertTrue(a.removeAll(crea(1, 1, 4, 1, 5, 1, 6, 1)));
+        assertTrue(crea(1, 1, 3, 1).equals(a));
+        assertTrue(a.removeAll(a));
+        assertTrue(a.isEmpty());
+    }
+
+    @Test
+    public void testBulkOperationsDefault() {
+        IntMultiset m = new IntMultiset();
+        Multiset<Integer> v = m.asMultiset();
+        v.addAll(crea(1, 3, 2, 2));
+        assertEquals(5, m.size());
+        assertTrue(v.retainAll(crea(1, 1)));
+        assertEquals(1, m.count(1));
+        assertEquals(0, m.count(2));
+        v.add(2, 4);
+        assertTrue(v.removeAll(crea(2, 1, 7, 1, 8, 1)));
+        assertEquals(3, m.count(2));
+        assertEquals(4, m.size());
+    }
+
+}
@@ -3,20 +3,27 @@ package it.unicam.cs.asdl2122.mp1;
 
 import java.util.*;
 import java.util.Arrays;
+import java.util.function.ObjIntConsumer;
 
 /**
- * Un multiset sfrutta l'Hashset per contenere tutti i suoi elementi, l'hashset in questione contiene delle istanze di
- * tipo {@link Elemento}. Gli elementi hanno un oggetto e un intero che ne rappresentano le occorrenze così che, se un oggetto
- * dovesse ripetersi, non vengono creati molti puntatori allo stesso oggetto ma se ne incrementano le occorrenze dell'elemento.<br><br>
+ * Un multiset sfrutta una HashMap per contenere tutti i suoi elementi, la mappa associa ad ogni oggetto distinto
+ * un'istanza di tipo {@link Elemento}. Gli elementi hanno un oggetto e un intero che ne rappresentano le occorrenze così
+ * che, se un oggetto dovesse ripetersi, non vengono creati molti puntatori allo stesso oggetto ma se ne incrementano le
+ * occorrenze dell'elemento.<br><br>
  *
- * Sono stati ridefiniti i metodi {@link Elemento#equals} e {@link Elemento#hashCode} per un corretto controllo tra elementi.<br><br>
+ * La chiave della mappa è il solo oggetto, mentre le occorrenze sono conservate nel valore e possono essere modificate
+ * direttamente senza invalidare l'hash usato dalla mappa. In questo modo i metodi {@link MyMultiset#count},
+ * {@link MyMultiset#add}, {@link MyMultiset#remove}, {@link MyMultiset#setCount} e {@link MyMultiset#contains} hanno
+ * complessità O(1) attesa, invece di scorrere l'intera collezione.<br><br>
+ *
+ * Sono stati ridefiniti i metodi {@link Elemento#equals} e {@link Elemento#hashCode} per un corretto confronto tra
+ * multinsiemi.<br><br>
  *
  * È stato creato un iteratore {@link Itr} per il multiset. L'iteratore è fail-fast, i metodi {@link Itr#hasNext} e
  * {@link Itr#next} tengono conto delle occorrenze di uno stesso oggetto.<br><br>
  *
- * Tutti i metodi che modificano le occorrenze di un oggetto del multiset rimuovono e ricreano l'elemento con le occorrenze
- * giuste. Questo perché l'hashset usa una hashmap con key di ogni elemento il suo hashcode. Qualora si limitasse ad una
- * semplice modifica della variabile occorrenze si invaliderebbe l'hash usato come key.
+ * I metodi {@link MyMultiset#elementSet} e {@link MyMultiset#entrySet} restituiscono delle viste sulla mappa e non
+ * delle copie, gli elementi stessi sono usati come coppie (oggetto, occorrenze) dell'entrySet.
  *
  * @param <E> il tipo degli elementi del multiset
  * @author Luca Tesei (template) <br>
@@ -25,16 +32,17 @@ import java.util.Arrays;
 public class MyMultiset<E> implements Multiset<E> {
 
     private int size;
-    private HashSet<Elemento<E>> insieme;
+    private HashMap<E, Elemento<E>> insieme;
     private int numeroModifiche;
 
     /*
         Classe per gli elementi dell'insieme, ogni elemento ha un oggetto di tipo E ed un intero che ne rappresenta le
         occorrenze, così da non creare tanti puntatori ad un oggetto nel caso in cui dovesse ripetersi.
 
-        La classe è statica poiché non necessita di accedere ai campi della classe MyMultiset per funzionare
+        La classe è statica poiché non necessita di accedere ai campi della classe MyMultiset per funzionare.
+        Implementa Multiset.Entry così da poter essere restituita direttamente dalla vista entrySet
      */
-    private static class Elemento<E> {
+    private static class Elemento<E> implements Multiset.Entry<E> {
         private int occorrenze;
         private E oggetto;
 
@@ -43,16 +51,27 @@ public class MyMultiset<E> implements Multiset<E> {
             this.oggetto = oggetto;
         }
 
-        //Due elementi sono uguali se l'oggetto e le occorrenze sono uguali
+        @Override
+        public E getElement() {
+            return oggetto;
+        }
+
+        @Override
+        public int getCount() {
+            return occorrenze;
+        }
+
+        //Due elementi sono uguali se l'oggetto e le occorrenze sono uguali, anche se la coppia è di un'altra
+        //implementazione di Multiset.Entry
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
-            if (!(o instanceof MyMultiset.Elemento)) return false;
-            Elemento<?> elemento = (Elemento<?>) o;
-            return ((this.occorrenze == elemento.occorrenze) && (this.oggetto.equals(elemento.oggetto)));
+            if (!(o instanceof Multiset.Entry)) return false;
+            Multiset.Entry<?> elemento = (Multiset.Entry<?>) o;
+            return ((this.occorrenze == elemento.getCount()) && (this.oggetto.equals(elemento.getElement())));
         }
 
-        //Riscritto hashcode in accordo ai valori confrontati nell'equals
+        //Riscritto hashcode in accordo ai valori confrontati nell'equals, segue la formula di Multiset.Entry
         @Override
         public int hashCode() {
             int hash = 31 * 17 + this.occorrenze;
@@ -74,19 +93,19 @@ public class MyMultiset<E> implements Multiset<E> {
         private Itr() {
             elementoRestituito = null;
             numeroModificheAtteso = numeroModifiche;
-            iteratore = insieme.iterator();
+            iteratore = insieme.values().iterator();
         }
 
         @Override
         public boolean hasNext() {
-            //Alla prima chiamata dell'iteratore uso hasNext() del Hashset
+            //Alla prima chiamata dell'iteratore uso hasNext() della mappa
             if (elementoRestituito == null) return iteratore.hasNext();
 
             //Se ho ancora delle occorrenze allora hasNext() deve restituire true
             if (indiceOccorrenze > 0) {
                 return true;
             }
-            //Quando finiscono le occorrenze dello stesso oggetto allora uso l'hasNext() del Hashset
+            //Quando finiscono le occorrenze dello stesso oggetto allora uso l'hasNext() della mappa
             return iteratore.hasNext();
         }
 
@@ -109,11 +128,163 @@ public class MyMultiset<E> implements Multiset<E> {
         }
     }
 
+    /*
+        Iteratore sugli elementi della mappa usato dalle viste. La rimozione toglie tutte le occorrenze dell'elemento
+        corrente e viene contata come modifica, così da invalidare gli iteratori Itr già creati
+     */
+    private class ItrElementi implements Iterator<Elemento<E>> {
+        private final Iterator<Elemento<E>> iteratore;
+        private Elemento<E> ultimo;
+
+        private ItrElementi() {
+            iteratore = insieme.values().iterator();
+            ultimo = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iteratore.hasNext();
+        }
+
+        @Override
+        public Elemento<E> next() {
+            ultimo = iteratore.next();
+            return ultimo;
+        }
+
+        @Override
+        public void remove() {
+            if (ultimo == null) throw new IllegalStateException("Nessun elemento da rimuovere");
+            iteratore.remove();
+            size -= ultimo.occorrenze;
+            numeroModifiche++;
+            ultimo = null;
+        }
+    }
+
+    /*
+        Vista sugli elementi distinti, non copia nulla e legge direttamente le chiavi della mappa
+     */
+    private class VistaElementi extends AbstractSet<E> {
+
+        @Override
+        public int size() {
+            return insieme.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o != null && insieme.containsKey(o);
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            ItrElementi elementi = new ItrElementi();
+            return new Iterator<E>() {
+                @Override
+                public boolean hasNext() {
+                    return elementi.hasNext();
+                }
+
+                @Override
+                public E next() {
+                    return elementi.next().oggetto;
+                }
+
+                @Override
+                public void remove() {
+                    elementi.remove();
+                }
+            };
+        }
+
+        //Aggiungere un elemento assente equivale ad aggiungerne una occorrenza
+        @Override
+        public boolean add(E e) {
+            if (contains(e)) return false;
+            MyMultiset.this.add(e);
+            return true;
+        }
+
+        //Rimuovere un elemento dalla vista ne toglie tutte le occorrenze
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) return false;
+            MyMultiset.this.remove(o, Integer.MAX_VALUE);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            MyMultiset.this.clear();
+        }
+    }
+
+    /*
+        Vista sulle coppie (oggetto, occorrenze), restituisce direttamente gli Elemento della mappa
+     */
+    private class VistaCoppie extends AbstractSet<Multiset.Entry<E>> {
+
+        @Override
+        public int size() {
+            return insieme.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Multiset.Entry)) return false;
+            Multiset.Entry<?> coppia = (Multiset.Entry<?>) o;
+            return coppia.getElement() != null && coppia.getCount() > 0
+                    && count(coppia.getElement()) == coppia.getCount();
+        }
+
+        @Override
+        public Iterator<Multiset.Entry<E>> iterator() {
+            ItrElementi elementi = new ItrElementi();
+            return new Iterator<Multiset.Entry<E>>() {
+                @Override
+                public boolean hasNext() {
+                    return elementi.hasNext();
+                }
+
+                @Override
+                public Multiset.Entry<E> next() {
+                    return elementi.next();
+                }
+
+                @Override
+                public void remove() {
+                    elementi.remove();
+                }
+            };
+        }
+
+        @Override
+        public void clear() {
+            MyMultiset.this.clear();
+        }
+    }
+
     /**
      * Crea un multiset vuoto.
      */
     public MyMultiset() {
-        insieme = new HashSet<>();
+        insieme = new HashMap<>();
+        size = 0;
+        numeroModifiche = 0;
+    }
+
+    /**
+     * Crea un multiset vuoto in grado di contenere il numero di elementi distinti indicato senza dover ridimensionare
+     * la mappa, utile quando il numero di elementi è noto in anticipo come nelle operazioni di {@link Multisets}.
+     *
+     * @param elementiDistinti numero previsto di elementi distinti
+     * @throws IllegalArgumentException se elementiDistinti è negativo
+     */
+    public MyMultiset(int elementiDistinti) {
+        if (elementiDistinti < 0) throw new IllegalArgumentException("Numero di elementi distinti negativo");
+        //Il fattore di carico della HashMap è 0.75, allora la capacità deve essere almeno elementiDistinti / 0.75
+        insieme = new HashMap<>((int) Math.min((long) elementiDistinti * 4 / 3 + 1, Integer.MAX_VALUE));
         size = 0;
         numeroModifiche = 0;
     }
@@ -129,7 +300,7 @@ public class MyMultiset<E> implements Multiset<E> {
     }
 
     /**
-     * Restituisco le occorrenze di un elemento
+     * Restituisco le occorrenze di un elemento. Complessità O(1) attesa.
      *
      * @param element l'elemento di cui contare le occorrenze
      * @return numero di occorrenze di {@code element} nel multinsieme. Restituisco 0 se non presente
@@ -138,22 +309,15 @@ public class MyMultiset<E> implements Multiset<E> {
     @Override
     public int count(Object element) {
         if (element == null) throw new NullPointerException("L'elemento passato al count è null");
-        Iterator<Elemento<E>> iterator = insieme.iterator();
-        while (iterator.hasNext()) {
-            Elemento<E> elemento = iterator.next();
-            //Se trovo l'elemento restituisco le sue occorrenze
-            if (element.equals(elemento.oggetto)) return elemento.occorrenze;
-        }
+        Elemento<E> elemento = insieme.get(element);
         //Se non trovo l'elemento allora le sue occorrenze sono 0
-        return 0;
+        if (elemento == null) return 0;
+        return elemento.occorrenze;
     }
 
     /**
      * Aggiunge un elemento e le sue occorrenze all'insieme. Modifica le occorrenze se l'elemento è già
-     * presente, nel caso contrario ne crea un altro con le giuste occorrenze.<br><br>
-     *
-     * Nota: utilizzando un hashset quando si modifica un elemento questo deve essere rimosso e riaggiunto con
-     * le giuste occorrenze. Altrimenti invaliderei l'hash usato dall'hashset nell'hashmap.
+     * presente, nel caso contrario ne crea un altro con le giuste occorrenze.
      *
      * @param element     l'elemento di cui aggiungere le occorrenze
      * @param occurrences il numero di occorrenze dell'elemento da
@@ -170,46 +334,37 @@ public class MyMultiset<E> implements Multiset<E> {
         if (element == null) throw new NullPointerException("L'elemento da aggiungere è null");
         if (occurrences < 0) throw new IllegalArgumentException("Non si possono aggiungere valori negativi");
 
-        Iterator<Elemento<E>> iterator = insieme.iterator();
+        Elemento<E> elemento = insieme.get(element);
 
-        while (iterator.hasNext()) {
-            Elemento<E> elemento = iterator.next();
+        if (elemento != null) {
+            //Se le occorrenze da aggiungere sono 0, restituisco le occorrenze dell'oggetto e non apporto
+            //modifiche
+            if (occurrences == 0) return elemento.occorrenze;
+            //Controllo se le occorrenze dell'elemento sommate alle nuove occorrenze superano Integer.MAX_VALUE
+            //per fare questo casto momentaneamente le occorrenze in un long
+            if ((((long) elemento.occorrenze) + occurrences) > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("Questa " +
+                        "operazione aggiungerebbe un numero maggiore di Integer.MAX_VALUE");
 
-            if (element.equals(elemento.oggetto)) {
-                //Se le occorrenze da aggiungere sono 0, restituisco le occorrenze dell'oggetto e non apporto
-                //modifiche
-                if (occurrences == 0) return elemento.occorrenze;
-                //Controllo se le occorrenze dell'elemento sommate alle nuove occorrenze superano Integer.MAX_VALUE
-                //per fare questo casto momentaneamente le occorrenze in un long
-                if ((((long) elemento.occorrenze) + occurrences) > Integer.MAX_VALUE)
-                    throw new IllegalArgumentException("Questa " +
-                            "operazione aggiungerebbe un numero maggiore di Integer.MAX_VALUE");
-
-                //Aggiungo le modifiche, aumento la size e modifico le occorrenze
-                numeroModifiche++;
-                size += occurrences;
-                elemento.occorrenze += occurrences;
-                //Rimuovo e riaggiungo l'elemento con le giuste occorrenze per non invalidare l'hash dell'hashmap
-                iterator.remove();
-                insieme.add(elemento);
-                //restituisco le occorrenze prima della modifica
-                return elemento.occorrenze - occurrences;
-            }
+            //Aggiungo le modifiche, aumento la size e modifico le occorrenze direttamente nel valore della mappa
+            numeroModifiche++;
+            size += occurrences;
+            elemento.occorrenze += occurrences;
+            //restituisco le occorrenze prima della modifica
+            return elemento.occorrenze - occurrences;
         }
         //Arrivati a questo punto l'elemento non fa già parte dell'insieme
         //allora ne creo uno nuovo, aumento size e numero modifiche poi restituisco 0 perchè
         //non era presente nell'insieme prima di questa operazione.
-        insieme.add(new Elemento<E>(element, occurrences));
+        if (occurrences == 0) return 0;
+        insieme.put(element, new Elemento<E>(element, occurrences));
         numeroModifiche++;
         size += occurrences;
         return 0;
     }
 
     /**
-     * Variante del metodo add che aggiunge una sola occorrenza.<br><br>
-     *
-     * Nota: utilizzando un hashset quando si modifica un elemento questo deve essere rimosso e riaggiunto con
-     * le giuste occorrenze. Altrimenti invaliderei l'hash usato dall'hashset nell'hashmap.
+     * Variante del metodo add che aggiunge una sola occorrenza.
      *
      * @param element l'elemento di cui aggiungere l'occorrenza
      * @throws NullPointerException se element è null
@@ -218,36 +373,26 @@ public class MyMultiset<E> implements Multiset<E> {
     public void add(E element) {
         if (element == null) throw new NullPointerException("L'elemento da aggiungere è null");
 
-        Iterator<Elemento<E>> iterator = insieme.iterator();
-
-        while (iterator.hasNext()) {
-            Elemento<E> elemento = iterator.next();
-            if (element.equals(elemento.oggetto)) {
-
-                //Controllo se le occorrenze + 1 superano Integer.MAX_VALUE, per farlo casto le occorrenze in un long
-                if (((long) elemento.occorrenze + 1) > Integer.MAX_VALUE) throw new IllegalArgumentException("Questa " +
-                        "operazione aggiungerebbe un numero maggiore di Integer.MAX_VALUE");
-                //Modifico le occorrenze dell'oggetto
-                elemento.occorrenze++;
-                //Rimuovo e riaggiungo l'elemento per non invalidarne l'hash
-                iterator.remove();
-                insieme.add(elemento);
-                numeroModifiche++;
-                size++;
-                return;
-            }
+        Elemento<E> elemento = insieme.get(element);
+        if (elemento != null) {
+            //Controllo se le occorrenze + 1 superano Integer.MAX_VALUE
+            if (elemento.occorrenze == Integer.MAX_VALUE) throw new IllegalArgumentException("Questa " +
+                    "operazione aggiungerebbe un numero maggiore di Integer.MAX_VALUE");
+            //Modifico le occorrenze dell'oggetto
+            elemento.occorrenze++;
+            numeroModifiche++;
+            size++;
+            return;
         }
         //L'elemento non è gia presente e lo aggiungo
         numeroModifiche++;
         size++;
-        insieme.add(new Elemento<E>(element, 1));
+        insieme.put(element, new Elemento<E>(element, 1));
     }
 
     /**
      * Rimuove delle occorrenze di un dato elemento se presente nell'insieme. Se le occorrenze da togliere superano
-     * quelle presenti, rimuovo l'elemento.<br><br>
-     * Nota: utilizzando un hashset quando si modifica un elemento questo deve essere rimosso e riaggiunto con
-     * le giuste occorrenze. Altrimenti invaliderei l'hash usato dall'hashset nell'hashmap.
+     * quelle presenti, rimuovo l'elemento.
      *
      * @param element     l'elemento di cui rimuovere le occorrenze
      * @param occurrences il numero di occorrenze dell'elemento da
@@ -262,39 +407,28 @@ public class MyMultiset<E> implements Multiset<E> {
         if (element == null) throw new NullPointerException("Elemento da rimuovere null");
         if (occurrences < 0) throw new IllegalArgumentException("Occorrenze da rimuovere negative");
 
-        Iterator<Elemento<E>> iterator = insieme.iterator();
-
-        while (iterator.hasNext()) {
-            Elemento<E> elemento = iterator.next();
-            if (element.equals(elemento.oggetto)) {
-                //Se le occorrenze da rimuovere sono 0 allora fermo il metodo e restituisco le occorrenze correnti
-                if (occurrences == 0) return elemento.occorrenze;
-                //Se le occorrenze dell'oggetto sono maggiori di quelle da rimuovere, riduco le occorrenze.
-                if (elemento.occorrenze > occurrences) {
-                    elemento.occorrenze -= occurrences;
-                    //Rimuovo e aggiungo per non invalidare l'hash
-                    iterator.remove();
-                    insieme.add(elemento);
-                    numeroModifiche++;
-                    size -= occurrences;
-                    return elemento.occorrenze + occurrences;
-                }
-                //Altrimenti salvo le occorrenze e rimuovo l'elemento
-                int elementoOccorrenze = elemento.occorrenze;
-                insieme.remove(elemento);
-                numeroModifiche++;
-                size -= elementoOccorrenze;
-                return elementoOccorrenze;
-            }
-        }
+        Elemento<E> elemento = insieme.get(element);
         //L'elemento da rimuovere non era presente allora restituisco 0
-        return 0;
+        if (elemento == null) return 0;
+        //Se le occorrenze da rimuovere sono 0 allora fermo il metodo e restituisco le occorrenze correnti
+        if (occurrences == 0) return elemento.occorrenze;
+        //Se le occorrenze dell'oggetto sono maggiori di quelle da rimuovere, riduco le occorrenze.
+        if (elemento.occorrenze > occurrences) {
+            elemento.occorrenze -= occurrences;
+            numeroModifiche++;
+            size -= occurrences;
+            return elemento.occorrenze + occurrences;
+        }
+        //Altrimenti salvo le occorrenze e rimuovo l'elemento
+        int elementoOccorrenze = elemento.occorrenze;
+        insieme.remove(element);
+        numeroModifiche++;
+        size -= elementoOccorrenze;
+        return elementoOccorrenze;
     }
 
     /**
-     * Variante del metodo remove che rimuove una sola occorrenza<br>
-     * Nota: utilizzando un hashset quando si modifica un elemento questo deve essere rimosso e riaggiunto con
-     * le giuste occorrenze. Altrimenti invaliderei l'hash usato dall'hashset nell'hashmap.
+     * Variante del metodo remove che rimuove una sola occorrenza
      *
      * @param element l'elemento di cui rimuovere l'occorrenza
      * @return vero se è stata rimossa un'ocorrenza o falsa altrimenti
@@ -304,36 +438,19 @@ public class MyMultiset<E> implements Multiset<E> {
     public boolean remove(Object element) {
         if (element == null) throw new NullPointerException("Elemento da rimuovere null");
 
-        Iterator<Elemento<E>> iterator = insieme.iterator();
-
-        while (iterator.hasNext()) {
-            Elemento<E> elemento = iterator.next();
-            if (element.equals(elemento.oggetto)) {
-                //Se l'elemento ha una sola occorrenza lo rimuovo
-                if (elemento.occorrenze == 1) {
-                    numeroModifiche++;
-                    size--;
-                    return insieme.remove(elemento);
-                }
-                //Se ha più occorrenze lo rimuovo e lo ricreo con le giuste occorrenze, per non invalidare l'hash usato
-                //dall' hashset.
-                elemento.occorrenze--;
-                iterator.remove();
-                insieme.add(elemento);
-                numeroModifiche++;
-                size--;
-                return true;
-            }
-        }
-        //Arrivati in questo punto non ho trovato l'elemento e restituisco false
-        return false;
-
+        Elemento<E> elemento = insieme.get(element);
+        //Non ho trovato l'elemento e restituisco false
+        if (elemento == null) return false;
+        //Se l'elemento ha una sola occorrenza lo rimuovo, altrimenti decremento le occorrenze
+        if (elemento.occorrenze == 1) insieme.remove(element);
+        else elemento.occorrenze--;
+        numeroModifiche++;
+        size--;
+        return true;
     }
 
     /**
-     * Imposto un certo numero di occorrenze per un elemento<br>
-     * Nota: utilizzando un hashset quando si modifica un elemento questo deve essere rimosso e riaggiunto con
-     * le giuste occorrenze. Altrimenti invaliderei l'hash usato dall'hashset nell'hashmap.
+     * Imposto un certo numero di occorrenze per un elemento
      *
      * @param element l'elemento di cui aggiungere o togliere occorrenze
      * @param count   numero di occorrenze da impostare
@@ -346,70 +463,134 @@ public class MyMultiset<E> implements Multiset<E> {
         if (element == null) throw new NullPointerException("Elemento da modificare null");
         if (count < 0) throw new IllegalArgumentException("Numero di occorreze da rimuovere negativo");
 
-        Iterator<Elemento<E>> iterator = insieme.iterator();
+        Elemento<E> elemento = insieme.get(element);
 
-        int elementoOccorrenze = 0;
-        while (iterator.hasNext()) {
-            Elemento<E> elemento = iterator.next();
-
-            if (element.equals(elemento.oggetto)) {
-                elementoOccorrenze = elemento.occorrenze;
-                //Se count corrisponde alle occorrenze attuali allora non faccio nessuna modifica
-                if (count == elementoOccorrenze) return elementoOccorrenze;
-
-                //Sono sicuro di dover fare delle modifiche
+        if (elemento == null) {
+            //L'elemento non è presente nell'insieme e quindi ne creo uno se count è maggiore di 0, altrimenti non
+            //aggiungo nulla e restituisco 0
+            if (count > 0) {
+                insieme.put(element, new Elemento<>(element, count));
                 numeroModifiche++;
-                //Se count è 0 rimuovo l'oggetto
-                if (count == 0) {
-                    //Tolgo l'elemento e restituisco le vecchie occorrenze
-                    iterator.remove();
-                    size -= elementoOccorrenze;
-                    return elementoOccorrenze;
-                }
-                //Riscrivo le occorrenze
-                elemento.occorrenze = count;
-                //Rimuovo e aggiungo l'elemento per l'hash
-                iterator.remove();
-                insieme.add(elemento);
-                //Se count è maggiore delle occorrenze correnti allora ne aggiungo altre
-                if (count > elementoOccorrenze) {
-                    //Aggiungo alla dimensione la differenza tra le occorrenze attuali e count
-                    size += count - elementoOccorrenze;
-                }
-                //Se count è minore delle occorrenze correnti allora ne tolgo la differenza
-                if (count < elementoOccorrenze) {
-                    size -= elementoOccorrenze - count;
-                }
-                return elementoOccorrenze;
+                size += count;
             }
+            return 0;
         }
-        //Arrivati a questo punto l'elemento non è presente nell'insieme e quindi ne creo uno se count è maggiore
-        //di 0
-        if (count > 0) {
-            insieme.add(new Elemento<>(element, count));
-            numeroModifiche++;
-            size += count;
-            return elementoOccorrenze;
-        }
-        //In questo caso count è pari a 0 e l'elemento non è presente, allora non aggiungo nulla e restituisco 0
-        return 0;
+
+        int elementoOccorrenze = elemento.occorrenze;
+        //Se count corrisponde alle occorrenze attuali allora non faccio nessuna modifica
+        if (count == elementoOccorrenze) return elementoOccorrenze;
+
+        //Sono sicuro di dover fare delle modifiche
+        numeroModifiche++;
+        //Se count è 0 rimuovo l'oggetto
+        if (count == 0) insieme.remove(element);
+        else elemento.occorrenze = count;
+        //Aggiorno la dimensione con la differenza tra count e le occorrenze precedenti
+        size += count - elementoOccorrenze;
+        return elementoOccorrenze;
     }
 
     /**
-     * Creo un set contenente elementi distinti del multinsieme
+     * Restituisce una vista sugli elementi distinti del multinsieme, senza copiarli. Complessità O(1).
      *
      * @return set degli elementi, senza le eventuali occorrenze
      */
     @Override
     public Set<E> elementSet() {
+        return new VistaElementi();
+    }
+
+    /**
+     * Restituisce una vista sulle coppie (oggetto, occorrenze) del multinsieme, senza copiarle. Complessità O(1).
+     *
+     * @return set delle coppie, una per ogni elemento distinto
+     */
+    @Override
+    public Set<Multiset.Entry<E>> entrySet() {
+        return new VistaCoppie();
+    }
 
-        Iterator<Elemento<E>> iterator = insieme.iterator();
-        //Creo un hashset nuovo e ci inserisco solo gli oggetti dell'insieme senza contare le occorrenze
-        HashSet<E> h = new HashSet<>();
+    /**
+     * Esegue l'azione per ogni elemento distinto scorrendo direttamente i valori della mappa, con un solo passo per
+     * elemento indipendentemente dalle sue occorrenze.
+     *
+     * @param action l'azione da eseguire per ogni elemento distinto
+     * @throws NullPointerException se action è null
+     */
+    @Override
+    public void forEachEntry(ObjIntConsumer<? super E> action) {
+        if (action == null) throw new NullPointerException("Azione null");
+        for (Elemento<E> elemento : insieme.values()) {
+            action.accept(elemento.oggetto, elemento.occorrenze);
+        }
+    }
+
+    /**
+     * Mantiene solo le occorrenze presenti anche in other, in una sola passata sui valori della mappa: le occorrenze
+     * vengono modificate direttamente negli elementi e gli elementi che scendono a zero vengono rimossi con
+     * l'iteratore della mappa.
+     *
+     * @param other il multinsieme con cui intersecare questo multinsieme
+     * @return true se il multinsieme è stato modificato
+     * @throws NullPointerException se other è null
+     */
+    @Override
+    public boolean retainAll(Multiset<?> other) {
+        if (other == null) throw new NullPointerException("Multinsieme null");
+        boolean modificato = false;
+        Iterator<Elemento<E>> iterator = insieme.values().iterator();
         while (iterator.hasNext()) {
-            h.add(iterator.next().oggetto);
+            Elemento<E> elemento = iterator.next();
+            int altre = other.count(elemento.oggetto);
+            if (altre >= elemento.occorrenze) continue;
+            size -= elemento.occorrenze - altre;
+            if (altre == 0) iterator.remove();
+            else elemento.occorrenze = altre;
+            modificato = true;
         }
-        return h;
+        if (modificato) numeroModifiche++;
+        return modificato;
+    }
+
+    /**
+     * Rimuove le occorrenze presenti in other. Se other ha meno elementi distinti di questo multinsieme visito other e
+     * rimuovo con accesso diretto alla mappa, altrimenti visito questo multinsieme in una sola passata.
+     *
+     * @param other il multinsieme di cui rimuovere le occorrenze
+     * @return true se il multinsieme è stato modificato
+     * @throws NullPointerException se other è null
+     */
+    @Override
+    public boolean removeAll(Multiset<?> other) {
+        if (other == null) throw new NullPointerException("Multinsieme null");
+        if (other == this) {
+            boolean modificato = !isEmpty();
+            clear();
+            return modificato;
+        }
+        boolean modificato = false;
+        if (other.elementSet().size() < insieme.size()) {
+            for (Multiset.Entry<?> entry : other.entrySet()) {
+                if (remove(entry.getElement(), entry.getCount()) > 0) modificato = true;
+            }
+            return modificato;
+        }
+        Iterator<Elemento<E>> iterator = insieme.values().iterator();
+        while (iterator.hasNext()) {
+            Elemento<E> elemento = iterator.next();
+            int altre = other.count(elemento.oggetto);
+            if (altre == 0) continue;
+            if (altre >= elemento.occorrenze) {
+                size -= elemento.occorrenze;
+                iterator.remove();
+            } else {
+                size -= altre;
+                elemento.occorrenze -= altre;
+            }
+            modificato = true;
+        }
+        if (modificato) numeroModifiche++;
+        return modificato;
     }
 
     /**
@@ -423,7 +604,7 @@ public class MyMultiset<E> implements Multiset<E> {
     }
 
     /**
-     * Verifica se un elemento è contenuto in un multinsieme.
+     * Verifica se un elemento è contenuto in un multinsieme. Complessità O(1) attesa.
      *
      * @param element l'elemento da cercare
      * @return true se è nell'insieme, false altrimenti
@@ -432,14 +613,7 @@ public class MyMultiset<E> implements Multiset<E> {
     @Override
     public boolean contains(Object element) {
         if (element == null) throw new NullPointerException("Elemento è null");
-        Iterator<Elemento<E>> iterator = insieme.iterator();
-        //Controllo ogni elemento e se trovo l'oggetto che cerco restituisco true
-        while (iterator.hasNext()) {
-            Elemento<E> elemento = iterator.next();
-            if (element.equals(elemento.oggetto)) return true;
-        }
-        //Non avendo trovato l'oggetto restituisco false
-        return false;
+        return insieme.containsKey(element);
     }
 
     /**
@@ -471,8 +645,8 @@ public class MyMultiset<E> implements Multiset<E> {
         MyMultiset<?> obj = (MyMultiset<?>) o;
         //Se le dimensioni sono differenti sono certo non abbiano gli stessi oggetti
         if (obj.size != size) return false;
-        //Non avendo invalidato l'hash durante le modifiche allora sono in grado di usare il containsAll
-        return obj.insieme.containsAll(insieme);
+        //Le mappe sono uguali se hanno le stesse chiavi e gli elementi associati hanno le stesse occorrenze
+        return obj.insieme.equals(insieme);
     }
 
     /*
@@ -483,7 +657,7 @@ public class MyMultiset<E> implements Multiset<E> {
     @Override
     public int hashCode() {
         int hash = 0;
-        for (Elemento<E> elemento : insieme) {
+        for (Elemento<E> elemento : insieme.values()) {
             hash += 31 * elemento.hashCode();
         }
         return hash;
@@ -614,4 +614,78 @@ public class MyMultisetTest {
         assertEquals(true, m1.equals(m2));
     }
 
+    @Test
+    public void testElementSetLiveView() {
+        MyMultiset<Integer> m = new MyMultiset<Integer>();
+        Set<Integer> ms = m.elementSet();
+        assertTrue(ms.isEmpty());
+        m.add(1, 3);
+        m.add(2);
+        assertEquals(2, ms.size());
+        assertTrue(ms.contains(1));
+        assertTrue(ms.remove(1));
+        assertEquals(0, m.count(1));
+        assertEquals(1, m.size());
+        assertTrue(ms.add(5));
+        assertEquals(1, m.count(5));
+        assertFalse(ms.add(5));
+    }
+
+    @Test
+    public void testElementSetIteratorRemove() {
+        MyMultiset<Integer> m = new MyMultiset<Integer>();
+        m.add(1, 3);
+        m.add(2, 2);
+        Iterator<Integer> itr = m.elementSet().iterator();
+        while (itr.hasNext()) {
+            if (itr.next() == 1) itr.remove();
+        }
+        assertEquals(2, m.size());
+        assertFalse(m.contains(1));
+    }
+
+    @Test
+    public void testEntrySet() {
+        MyMultiset<String> m = new MyMultiset<String>();
+        m.add("a", 1000000);
+        m.add("b");
+        Set<Multiset.Entry<String>> entries = m.entrySet();
+        assertEquals(2, entries.size());
+        int passi = 0;
+        for (Multiset.Entry<String> entry : entries) {
+            assertEquals(m.count(entry.getElement()), entry.getCount());
+            passi++;
+        }
+        assertEquals(2, passi);
+        assertTrue(entries.contains(new ImmutableMultisetEntry<String>("b", 1)));
+        assertFalse(entries.contains(new ImmutableMultisetEntry<String>("b", 2)));
+        m.add("b");
+        assertTrue(entries.contains(new ImmutableMultisetEntry<String>("b", 2)));
+    }
+
+    @Test
+    public void testEntrySetFailFast() {
+        MyMultiset<Integer> m = new MyMultiset<Integer>();
+        m.add(1);
+        m.add(2);
+        Iterator<Integer> itr = m.iterator();
+        itr.next();
+        Iterator<Multiset.Entry<Integer>> entries = m.entrySet().iterator();
+        entries.next();
+        entries.remove();
+        assertThrows(ConcurrentModificationException.class, () -> itr.next());
+        assertEquals(1, m.size());
+    }
+
+    @Test
+    public void testForEachEntry() {
+        MyMultiset<Integer> m = new MyMultiset<Integer>();
+        m.add(1, 3);
+        m.add(2, 5);
+        MyMultiset<Integer> copia = new MyMultiset<Integer>();
+        m.forEachEntry((e, n) -> copia.add(e, n));
+        assertTrue(m.equals(copia));
+        assertThrows(NullPointerException.class, () -> m.forEachEntry(null));
+    }
+
 }
@@ -0,0 +1,176 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Insieme dei rappresentanti di {@link LinkedListDisjointSets} e {@link ForestDisjointSets}. Un elemento è
+ * rappresentante se il suo ref1 punta a se stesso, oppure se è il delegato di una testa di lista eliminata: in quel
+ * caso il suo ref1 punta alla testa, il ref1 della testa punta a lui e il suo numero, la cardinalità, non è 0.
+ * <br><br>
+ *
+ * I rappresentanti sono in un array nell'ordine in cui sono stati creati. Quando un rappresentante smette di esserlo
+ * non viene cercato nell'array: resta al suo posto e viene saltato dall'iteratore, e l'array viene compattato solo
+ * quando gli elementi non più rappresentanti superano quelli validi. Così segnalare un'unione costa O(1) ammortizzato
+ * senza calcolare hashcode e senza usare l'equals degli elementi, che può dipendere da campi che cambiano.<br><br>
+ *
+ * Senza eliminazioni un elemento smette di essere rappresentante per sempre. Dopo un'eliminazione invece un elemento
+ * che è ancora nell'array come non rappresentante può tornarlo, per un nuovo makeSet o perché ha preso il posto del
+ * rappresentante eliminato, e comparire due volte. Per questo dopo un'eliminazione la compattazione toglie anche i
+ * doppioni, riconoscendoli per identità con un insieme temporaneo, e viene fatta anche prima di creare un
+ * iteratore. Gli elementi non vengono mai modificati.<br><br>
+ *
+ * Verso l'esterno è una vista di sola lettura e sempre aggiornata; il suo iteratore è fail-fast.
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+final class Rappresentanti extends AbstractSet<DisjointSetElement> {
+
+    private static final int CAPACITA_INIZIALE = 16;
+
+    private DisjointSetElement[] elementi;
+    //Posizioni occupate dell'array, comprese quelle di elementi non più rappresentanti
+    private int usati;
+    //Numero di rappresentanti correnti
+    private int numero;
+    private int numeroModifiche;
+    //Vero se dopo un'eliminazione l'array può contenere due volte lo stesso rappresentante
+    private boolean doppioni;
+
+    Rappresentanti() {
+        elementi = new DisjointSetElement[CAPACITA_INIZIALE];
+        usati = 0;
+        numero = 0;
+        numeroModifiche = 0;
+        doppioni = false;
+    }
+
+    /**
+     * Registra un nuovo rappresentante, i cui riferimenti devono essere già stati impostati.
+     *
+     * @param e il nuovo rappresentante
+     */
+    void aggiungi(DisjointSetElement e) {
+        if (usati == elementi.length) {
+            //Se più di metà delle posizioni è occupata da elementi non più rappresentanti basta compattare
+            if (usati - numero > numero) compatta();
+            else elementi = Arrays.copyOf(elementi, elementi.length * 2);
+        }
+        elementi[usati++] = e;
+        numero++;
+        numeroModifiche++;
+    }
+
+    /**
+     * Segnala che un rappresentante ha smesso di esserlo. Va chiamato dopo aver cambiato il suo ref1.
+     */
+    void rimosso() {
+        numero--;
+        numeroModifiche++;
+        if (usati > CAPACITA_INIZIALE && usati - numero > numero) compatta();
+    }
+
+    /**
+     * Segnala che un elemento è stato eliminato, quindi che l'array può contenere doppioni. Va chiamato alla fine
+     * dell'eliminazione, perché una compattazione fatta durante l'eliminazione non toglierebbe i doppioni creati
+     * dopo.
+     */
+    void eliminazione() {
+        doppioni = true;
+        numeroModifiche++;
+    }
+
+    /**
+     * Svuota l'insieme, senza modificare gli elementi.
+     */
+    void svuota() {
+        Arrays.fill(elementi, 0, usati, null);
+        usati = 0;
+        numero = 0;
+        numeroModifiche++;
+        doppioni = false;
+    }
+
+    private static boolean valido(DisjointSetElement e) {
+        DisjointSetElement padre = e.getRef1();
+        if (padre == e) return true;
+        return padre != null && padre.getRef1() == e && e.getNumber() != 0;
+    }
+
+    /*
+        Sposta i rappresentanti all'inizio dell'array, mantenendo l'ordine e togliendo gli eventuali doppioni, e
+        riduce l'array se è troppo grande
+     */
+    private void compatta() {
+        //Rappresentanti già tenuti, confrontati per identità; serve solo se ci possono essere doppioni
+        Set<DisjointSetElement> tenuti = doppioni ? Collections.newSetFromMap(new IdentityHashMap<>(2 * numero))
+                : null;
+        int j = 0;
+        for (int i = 0; i < usati; i++) {
+            DisjointSetElement e = elementi[i];
+            if (!valido(e) || (tenuti != null && !tenuti.add(e))) continue;
+            elementi[j++] = e;
+        }
+        doppioni = false;
+        Arrays.fill(elementi, j, usati, null);
+        usati = j;
+        if (elementi.length > CAPACITA_INIZIALE && elementi.length > 4 * usati) {
+            elementi = Arrays.copyOf(elementi, Math.max(CAPACITA_INIZIALE, 2 * usati));
+        }
+    }
+
+    @Override
+    public int size() {
+        return numero;
+    }
+
+    /**
+     * Verifica se un oggetto è un rappresentante. Complessità O(1).
+     *
+     * @param o l'oggetto da cercare
+     * @return true se l'oggetto è un rappresentante
+     */
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof DisjointSetElement && valido((DisjointSetElement) o);
+    }
+
+    @Override
+    public Iterator<DisjointSetElement> iterator() {
+        //Gli iteratori già creati sono stati invalidati dall'eliminazione, quindi compattare non li disturba
+        if (doppioni) compatta();
+        return new Itr();
+    }
+
+    /*
+        Iteratore fail-fast che salta gli elementi non più rappresentanti
+     */
+    private class Itr implements Iterator<DisjointSetElement> {
+
+        private int indice = 0;
+        private int restituiti = 0;
+        private final int modificheAttese = numeroModifiche;
+
+        @Override
+        public boolean hasNext() {
+            if (modificheAttese != numeroModifiche) throw new ConcurrentModificationException("Gli insiemi " +
+                    "disgiunti sono stati modificati durante l'iterazione");
+            return restituiti < numero;
+        }
+
+        @Override
+        public DisjointSetElement next() {
+            if (!hasNext()) throw new NoSuchElementException("Non ci sono altri rappresentanti");
+            while (!valido(elementi[indice])) indice++;
+            restituiti++;
+            return elementi[indice++];
+        }
+    }
+
+}
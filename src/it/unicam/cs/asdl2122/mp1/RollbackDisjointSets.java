@@ -0,0 +1,181 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import java.util.Arrays;
+
+/**
+ * Insiemi disgiunti sugli interi da 0 a n-1 in cui le unioni possono essere annullate in ordine inverso.<br><br>
+ *
+ * La rappresentazione è quella di {@link IntDisjointSets}: un array di padri in cui le radici contengono la propria
+ * cardinalità cambiata di segno. Le unioni sono per dimensione ma i cammini non vengono mai accorciati, perché
+ * altrimenti annullare un'unione richiederebbe di ripristinare tutti i padri modificati dalle ricerche: così ogni
+ * unione cambia solo due posizioni dell'array e ogni albero ha comunque altezza O(log n).<br><br>
+ *
+ * Ogni unione effettiva viene registrata in una pila. {@link RollbackDisjointSets#checkpoint} restituisce l'altezza
+ * corrente della pila e {@link RollbackDisjointSets#rollback} annulla tutte le unioni successive, ciascuna in tempo
+ * O(1). {@link RollbackDisjointSets#find} e {@link RollbackDisjointSets#union} hanno complessità O(log n).
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+public class RollbackDisjointSets {
+
+    //Padre di ogni elemento, o la cardinalità cambiata di segno se l'elemento è una radice
+    private final int[] padre;
+    //Per ogni unione la radice collegata e il suo vecchio valore nell'array dei padri
+    private int[] pila;
+    private int cima;
+    private int numeroInsiemi;
+
+    /**
+     * Crea n insiemi singoletto, uno per ogni intero da 0 a n-1.
+     *
+     * @param n il numero di elementi
+     * @throws IllegalArgumentException se n è negativo
+     */
+    public RollbackDisjointSets(int n) {
+        if (n < 0) throw new IllegalArgumentException("Il numero di elementi non può essere negativo");
+        padre = new int[n];
+        Arrays.fill(padre, -1);
+        pila = new int[16];
+        cima = 0;
+        numeroInsiemi = n;
+    }
+
+    /**
+     * Restituisce il numero di elementi.
+     *
+     * @return n
+     */
+    public int capacity() {
+        return padre.length;
+    }
+
+    /**
+     * Restituisce il numero di insiemi disgiunti correnti.
+     *
+     * @return il numero di insiemi
+     */
+    public int numberOfSets() {
+        return numeroInsiemi;
+    }
+
+    private void controlla(int x) {
+        if (x < 0 || x >= padre.length) throw new IllegalArgumentException("L'elemento " + x + " non è " +
+                "compreso tra 0 e " + (padre.length - 1));
+    }
+
+    private int radice(int x) {
+        while (padre[x] >= 0) x = padre[x];
+        return x;
+    }
+
+    /**
+     * Restituisce il rappresentante dell'insieme di cui fa parte x. Complessità O(log n).
+     *
+     * @param x l'elemento di cui cercare il rappresentante
+     * @return il rappresentante dell'insieme di x
+     * @throws IllegalArgumentException se x non è compreso tra 0 e n-1
+     */
+    public int find(int x) {
+        controlla(x);
+        return radice(x);
+    }
+
+    /**
+     * Determina se due elementi fanno parte dello stesso insieme. Complessità O(log n).
+     *
+     * @param x il primo elemento
+     * @param y il secondo elemento
+     * @return true se x e y hanno lo stesso rappresentante
+     * @throws IllegalArgumentException se x o y non sono compresi tra 0 e n-1
+     */
+    public boolean sameSet(int x, int y) {
+        controlla(x);
+        controlla(y);
+        return radice(x) == radice(y);
+    }
+
+    /**
+     * Restituisce la cardinalità dell'insieme di cui fa parte x. Complessità O(log n).
+     *
+     * @param x l'elemento di cui si vuole ottenere la cardinalità dell'insieme
+     * @return il numero di elementi dell'insieme di x
+     * @throws IllegalArgumentException se x non è compreso tra 0 e n-1
+     */
+    public int size(int x) {
+        controlla(x);
+        return -padre[radice(x)];
+    }
+
+    /**
+     * Unisce gli insiemi di cui fanno parte i due elementi, collegando la radice dell'insieme più piccolo a quella
+     * del più grande. Solo le unioni di insiemi distinti vengono registrate. Complessità O(log n).
+     *
+     * @param x un elemento del primo insieme
+     * @param y un elemento del secondo insieme
+     * @return true se gli insiemi erano distinti, false se x e y erano già nello stesso insieme
+     * @throws IllegalArgumentException se x o y non sono compresi tra 0 e n-1
+     */
+    public boolean union(int x, int y) {
+        controlla(x);
+        controlla(y);
+        int rx = radice(x);
+        int ry = radice(y);
+        if (rx == ry) return false;
+        //Le cardinalità sono negative, quindi rx deve avere il valore minore per essere la radice più grande
+        if (padre[rx] > padre[ry]) {
+            int t = rx;
+            rx = ry;
+            ry = t;
+        }
+        if (cima == pila.length) pila = Arrays.copyOf(pila, pila.length * 2);
+        pila[cima++] = ry;
+        pila[cima++] = padre[ry];
+        padre[rx] += padre[ry];
+        padre[ry] = rx;
+        numeroInsiemi--;
+        return true;
+    }
+
+    /**
+     * Restituisce un punto di ripristino che rappresenta lo stato corrente, da passare a
+     * {@link RollbackDisjointSets#rollback}.
+     *
+     * @return il numero di unioni registrate finora
+     */
+    public int checkpoint() {
+        return cima / 2;
+    }
+
+    /**
+     * Annulla tutte le unioni eseguite dopo un punto di ripristino, in ordine inverso. Complessità O(1) per ogni
+     * unione annullata.
+     *
+     * @param checkpoint un valore restituito da {@link RollbackDisjointSets#checkpoint}
+     * @throws IllegalArgumentException se il punto di ripristino è negativo o successivo allo stato corrente, ad
+     *                                  esempio perché le sue unioni sono già state annullate
+     */
+    public void rollback(int checkpoint) {
+        if (checkpoint < 0 || checkpoint > cima / 2) throw new IllegalArgumentException("Punto di ripristino " +
+                "non valido: " + checkpoint);
+        while (cima > 2 * checkpoint) {
+            int vecchio = pila[--cima];
+            int figlio = pila[--cima];
+            //Tolgo dalla radice la cardinalità del figlio e lo faccio tornare una radice
+            padre[padre[figlio]] -= vecchio;
+            padre[figlio] = vecchio;
+            numeroInsiemi++;
+        }
+    }
+
+    /**
+     * Annulla l'ultima unione registrata.
+     *
+     * @return true se è stata annullata un'unione, false se non ce n'erano
+     */
+    public boolean undo() {
+        if (cima == 0) return false;
+        rollback(cima / 2 - 1);
+        return true;
+    }
+
+}
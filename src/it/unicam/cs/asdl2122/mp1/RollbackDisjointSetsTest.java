@@ -0,0 +1,78 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * Classe di test per RollbackDisjointSets
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+class RollbackDisjointSetsTest {
+
+    @Test
+    final void testUnionAndRollback() {
+        RollbackDisjointSets ds = new RollbackDisjointSets(6);
+        assertEquals(0, ds.checkpoint());
+        assertTrue(ds.union(0, 1));
+        int checkpoint = ds.checkpoint();
+        assertEquals(1, checkpoint);
+        assertTrue(ds.union(2, 3));
+        assertTrue(ds.union(1, 3));
+        assertFalse(ds.union(0, 2));
+        assertEquals(3, ds.checkpoint());
+        assertEquals(4, ds.size(2));
+        assertEquals(3, ds.numberOfSets());
+        ds.rollback(checkpoint);
+        assertEquals(1, ds.checkpoint());
+        assertTrue(ds.sameSet(0, 1));
+        assertFalse(ds.sameSet(1, 2));
+        assertFalse(ds.sameSet(2, 3));
+        assertEquals(2, ds.size(0));
+        assertEquals(1, ds.size(3));
+        assertEquals(5, ds.numberOfSets());
+        assertThrows(IllegalArgumentException.class, () -> ds.rollback(2));
+        assertThrows(IllegalArgumentException.class, () -> ds.rollback(-1));
+        assertTrue(ds.undo());
+        assertFalse(ds.sameSet(0, 1));
+        assertFalse(ds.undo());
+        assertEquals(6, ds.numberOfSets());
+    }
+
+    @Test
+    final void testExceptions() {
+        assertThrows(IllegalArgumentException.class, () -> new RollbackDisjointSets(-1));
+        RollbackDisjointSets ds = new RollbackDisjointSets(3);
+        assertThrows(IllegalArgumentException.class, () -> ds.find(3));
+        assertThrows(IllegalArgumentException.class, () -> ds.union(0, -1));
+        assertThrows(IllegalArgumentException.class, () -> ds.sameSet(4, 0));
+        assertThrows(IllegalArgumentException.class, () -> ds.size(-2));
+    }
+
+    @Test
+    final void testRandomRollbackRestoresState() {
+        int n = 500;
+        RollbackDisjointSets ds = new RollbackDisjointSets(n);
+        Random random = new Random(5);
+        for (int i = 0; i < 200; i++) ds.union(random.nextInt(n), random.nextInt(n));
+        int[] radici = new int[n];
+        int[] cardinalita = new int[n];
+        for (int i = 0; i < n; i++) {
+            radici[i] = ds.find(i);
+            cardinalita[i] = ds.size(i);
+        }
+        int insiemi = ds.numberOfSets();
+        int checkpoint = ds.checkpoint();
+        for (int i = 0; i < 300; i++) ds.union(random.nextInt(n), random.nextInt(n));
+        ds.rollback(checkpoint);
+        assertEquals(insiemi, ds.numberOfSets());
+        for (int i = 0; i < n; i++) {
+            assertEquals(radici[i], ds.find(i));
+            assertEquals(cardinalita[i], ds.size(i));
+        }
+    }
+
+}
@@ -0,0 +1,282 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Multinsieme approssimato basato su uno sketch Count-Min di Cormode e Muthukrishnan. La memoria occupata è costante e
+ * dipende solo dalla precisione richiesta, non dal numero di elementi aggiunti.<br><br>
+ *
+ * Lo sketch è una matrice di {@code d} righe e {@code w} colonne di contatori, con {@code w = ceil(e / epsilon)} e
+ * {@code d = ceil(ln(1 / delta))}. Ogni riga ha una propria funzione hash che associa l'elemento ad una colonna;
+ * aggiungere un elemento incrementa un contatore per riga e la stima delle sue occorrenze è il minimo di quei
+ * contatori. La stima non è mai minore delle occorrenze reali e, con probabilità almeno {@code 1 - delta}, non le
+ * supera di più di {@code epsilon * size()}.<br><br>
+ *
+ * Con l'aggiornamento conservativo (conservative update) si incrementano solo i contatori che sono minori della nuova
+ * stima: i limiti restano gli stessi ma l'errore in pratica è molto minore.<br><br>
+ *
+ * Le funzioni hash sono ottenute con il doppio hashing di Kirsch e Mitzenmacher a partire da
+ * {@link Object#hashCode()}, quindi ogni operazione costa O(d) senza allocazioni. Due sketch con gli stessi
+ * parametri usano le stesse funzioni hash e possono essere fusi con {@link SketchMultiset#merge}.<br><br>
+ *
+ * Lo sketch non conserva gli elementi, quindi {@link SketchMultiset#elementSet}, {@link SketchMultiset#entrySet} e
+ * {@link SketchMultiset#iterator} lanciano {@code UnsupportedOperationException}, come le operazioni di rimozione.
+ * I contatori si fermano a {@code Integer.MAX_VALUE} invece di lanciare un'eccezione, perché le collisioni rendono le
+ * stime più grandi dei valori reali.
+ *
+ * @param <E> il tipo degli elementi del multiset
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+public class SketchMultiset<E> implements Multiset<E> {
+
+    private final int larghezza;
+    private final int profondita;
+    private final boolean conservativo;
+    //Matrice dei contatori memorizzata per righe in un solo array
+    private final int[] contatori;
+    private long totale;
+
+    /**
+     * Crea uno sketch vuoto con aggiornamento standard.
+     *
+     * @param epsilon errore massimo relativo alla dimensione totale, compreso tra 0 e 1 esclusi
+     * @param delta   probabilità che l'errore superi epsilon, compresa tra 0 e 1 esclusi
+     * @throws IllegalArgumentException se epsilon o delta non sono compresi tra 0 e 1 esclusi
+     */
+    public SketchMultiset(double epsilon, double delta) {
+        this(epsilon, delta, false);
+    }
+
+    /**
+     * Crea uno sketch vuoto.
+     *
+     * @param epsilon      errore massimo relativo alla dimensione totale, compreso tra 0 e 1 esclusi
+     * @param delta        probabilità che l'errore superi epsilon, compresa tra 0 e 1 esclusi
+     * @param conservativo true per usare l'aggiornamento conservativo
+     * @throws IllegalArgumentException se epsilon o delta non sono compresi tra 0 e 1 esclusi, o se lo sketch
+     *                                  risultante fosse troppo grande
+     */
+    public SketchMultiset(double epsilon, double delta, boolean conservativo) {
+        if (!(epsilon > 0 && epsilon < 1)) throw new IllegalArgumentException("epsilon deve essere tra 0 e 1");
+        if (!(delta > 0 && delta < 1)) throw new IllegalArgumentException("delta deve essere tra 0 e 1");
+        long w = (long) Math.ceil(Math.E / epsilon);
+        int d = Math.max(1, (int) Math.ceil(Math.log(1 / delta)));
+        if (w * d > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("epsilon troppo piccolo");
+        this.larghezza = (int) w;
+        this.profondita = d;
+        this.conservativo = conservativo;
+        this.contatori = new int[larghezza * profondita];
+        this.totale = 0;
+    }
+
+    /**
+     * Restituisce il numero di colonne dello sketch.
+     *
+     * @return la larghezza w
+     */
+    public int width() {
+        return larghezza;
+    }
+
+    /**
+     * Restituisce il numero di righe dello sketch.
+     *
+     * @return la profondità d
+     */
+    public int depth() {
+        return profondita;
+    }
+
+    /*
+        Distribuisce i bit dell'hashcode dell'elemento, con una costante diversa per i due hash del doppio hashing
+     */
+    private static int mescola(int h, int costante) {
+        h *= costante;
+        h ^= h >>> 15;
+        h *= 0x85EBCA6B;
+        return h ^ (h >>> 13);
+    }
+
+    /*
+        Indice nell'array del contatore della riga data per un elemento con hash h1 e h2
+     */
+    private int cella(int riga, int h1, int h2) {
+        int h = h1 + riga * h2;
+        return riga * larghezza + (int) ((h & 0xFFFFFFFFL) % larghezza);
+    }
+
+    /**
+     * Restituisce il numero totale di occorrenze aggiunte, limitato a Integer.MAX_VALUE.
+     *
+     * @return la dimensione del multinsieme
+     */
+    @Override
+    public int size() {
+        return totale > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) totale;
+    }
+
+    /**
+     * Restituisce la stima delle occorrenze di un elemento, mai minore delle occorrenze reali. Complessità O(d).
+     *
+     * @param element l'elemento di cui stimare le occorrenze
+     * @return la stima delle occorrenze
+     * @throws NullPointerException se element è null
+     */
+    @Override
+    public int count(Object element) {
+        if (element == null) throw new NullPointerException("L'elemento passato al count è null");
+        int hash = element.hashCode();
+        int h1 = mescola(hash, 0x9E3779B9);
+        int h2 = mescola(hash, 0xC2B2AE35) | 1;
+        int minimo = Integer.MAX_VALUE;
+        for (int riga = 0; riga < profondita; riga++) {
+            minimo = Math.min(minimo, contatori[cella(riga, h1, h2)]);
+        }
+        return minimo;
+    }
+
+    /**
+     * Aggiunge delle occorrenze di un elemento. Complessità O(d).
+     *
+     * @param element     l'elemento di cui aggiungere le occorrenze
+     * @param occurrences il numero di occorrenze da aggiungere, se zero non viene apportata alcuna modifica
+     * @return la stima delle occorrenze dell'elemento prima dell'operazione
+     * @throws NullPointerException     se element è null
+     * @throws IllegalArgumentException se le occorrenze sono negative
+     */
+    @Override
+    public int add(E element, int occurrences) {
+        if (element == null) throw new NullPointerException("L'elemento da aggiungere è null");
+        if (occurrences < 0) throw new IllegalArgumentException("Non si possono aggiungere valori negativi");
+        int hash = element.hashCode();
+        int h1 = mescola(hash, 0x9E3779B9);
+        int h2 = mescola(hash, 0xC2B2AE35) | 1;
+        int minimo = Integer.MAX_VALUE;
+        for (int riga = 0; riga < profondita; riga++) {
+            minimo = Math.min(minimo, contatori[cella(riga, h1, h2)]);
+        }
+        if (occurrences == 0) return minimo;
+        int nuova = (int) Math.min((long) minimo + occurrences, Integer.MAX_VALUE);
+        for (int riga = 0; riga < profondita; riga++) {
+            int i = cella(riga, h1, h2);
+            if (conservativo) {
+                //Alzo il contatore solo fino alla nuova stima
+                if (contatori[i] < nuova) contatori[i] = nuova;
+            } else {
+                contatori[i] = (int) Math.min((long) contatori[i] + occurrences, Integer.MAX_VALUE);
+            }
+        }
+        totale += occurrences;
+        return minimo;
+    }
+
+    @Override
+    public void add(E element) {
+        add(element, 1);
+    }
+
+    /**
+     * Operazione non supportata.
+     *
+     * @throws UnsupportedOperationException sempre
+     */
+    @Override
+    public int remove(Object element, int occurrences) {
+        throw new UnsupportedOperationException("Rimozione non supportata da SketchMultiset");
+    }
+
+    /**
+     * Operazione non supportata.
+     *
+     * @throws UnsupportedOperationException sempre
+     */
+    @Override
+    public boolean remove(Object element) {
+        throw new UnsupportedOperationException("Rimozione non supportata da SketchMultiset");
+    }
+
+    /**
+     * Operazione non supportata.
+     *
+     * @throws UnsupportedOperationException sempre
+     */
+    @Override
+    public int setCount(E element, int occurrences) {
+        throw new UnsupportedOperationException("setCount non supportato da SketchMultiset");
+    }
+
+    /**
+     * Operazione non supportata, lo sketch non conserva gli elementi.
+     *
+     * @throws UnsupportedOperationException sempre
+     */
+    @Override
+    public Set<E> elementSet() {
+        throw new UnsupportedOperationException("SketchMultiset non conserva gli elementi");
+    }
+
+    /**
+     * Operazione non supportata, lo sketch non conserva gli elementi.
+     *
+     * @throws UnsupportedOperationException sempre
+     */
+    @Override
+    public Set<Multiset.Entry<E>> entrySet() {
+        throw new UnsupportedOperationException("SketchMultiset non conserva gli elementi");
+    }
+
+    /**
+     * Operazione non supportata, lo sketch non conserva gli elementi.
+     *
+     * @throws UnsupportedOperationException sempre
+     */
+    @Override
+    public Iterator<E> iterator() {
+        throw new UnsupportedOperationException("SketchMultiset non conserva gli elementi");
+    }
+
+    /**
+     * Determina se la stima delle occorrenze dell'elemento è positiva. Può restituire true per un elemento mai
+     * aggiunto, ma mai false per un elemento presente.
+     *
+     * @param element l'elemento da cercare
+     * @return true se la stima è positiva
+     * @throws NullPointerException se element è null
+     */
+    @Override
+    public boolean contains(Object element) {
+        return count(element) > 0;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(contatori, 0);
+        totale = 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return totale == 0;
+    }
+
+    /**
+     * Aggiunge a questo sketch i contatori di un altro sketch con gli stessi parametri, ottenendo lo sketch
+     * dell'unione dei due flussi. Le stime restano dei limiti superiori anche fondendo sketch conservativi.
+     *
+     * @param other lo sketch da fondere in questo, non viene modificato
+     * @throws NullPointerException     se other è null
+     * @throws IllegalArgumentException se gli sketch hanno dimensioni diverse
+     */
+    public void merge(SketchMultiset<? extends E> other) {
+        if (other == null) throw new NullPointerException("Sketch null");
+        if (other.larghezza != larghezza || other.profondita != profondita)
+            throw new IllegalArgumentException("Gli sketch hanno dimensioni diverse");
+        for (int i = 0; i < contatori.length; i++) {
+            contatori[i] = (int) Math.min((long) contatori[i] + other.contatori[i], Integer.MAX_VALUE);
+        }
+        totale += other.totale;
+    }
+
+}
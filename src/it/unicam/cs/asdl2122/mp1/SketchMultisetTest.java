@@ -0,0 +1,98 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per SketchMultiset
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ *
+ */
+public class SketchMultisetTest {
+
+    @Test
+    public void testSketchMultiset() {
+        SketchMultiset<Integer> m = new SketchMultiset<Integer>(0.01, 0.01);
+        assertTrue(m.isEmpty());
+        assertEquals(272, m.width());
+        assertEquals(5, m.depth());
+        assertThrows(IllegalArgumentException.class, () -> new SketchMultiset<Integer>(0, 0.1));
+        assertThrows(IllegalArgumentException.class, () -> new SketchMultiset<Integer>(0.1, 1));
+    }
+
+    @Test
+    public void testExceptions() {
+        SketchMultiset<Integer> m = new SketchMultiset<Integer>(0.01, 0.01);
+        assertThrows(NullPointerException.class, () -> m.add(null));
+        assertThrows(NullPointerException.class, () -> m.count(null));
+        assertThrows(IllegalArgumentException.class, () -> m.add(1, -1));
+        assertThrows(UnsupportedOperationException.class, () -> m.remove(1));
+        assertThrows(UnsupportedOperationException.class, () -> m.setCount(1, 2));
+        assertThrows(UnsupportedOperationException.class, () -> m.elementSet());
+        assertThrows(UnsupportedOperationException.class, () -> m.entrySet());
+        assertThrows(UnsupportedOperationException.class, () -> m.iterator());
+    }
+
+    @Test
+    public void testFewElementsExact() {
+        SketchMultiset<String> m = new SketchMultiset<String>(0.01, 0.01);
+        m.add("a", 3);
+        m.add("b");
+        assertEquals(3, m.add("a", 2));
+        assertEquals(5, m.count("a"));
+        assertEquals(1, m.count("b"));
+        assertEquals(6, m.size());
+        m.clear();
+        assertEquals(0, m.count("a"));
+        assertTrue(m.isEmpty());
+    }
+
+    private static void verificaLimiti(boolean conservativo) {
+        double epsilon = 0.001;
+        SketchMultiset<Integer> m = new SketchMultiset<Integer>(epsilon, 0.001, conservativo);
+        MyMultiset<Integer> esatto = new MyMultiset<Integer>();
+        Random random = new Random(3);
+        for (int i = 0; i < 100000; i++) {
+            int e = random.nextInt(20000);
+            m.add(e);
+            esatto.add(e);
+        }
+        int fuoriLimite = 0;
+        for (int e = 0; e < 20000; e++) {
+            int stima = m.count(e);
+            assertTrue(stima >= esatto.count(e));
+            if (stima > esatto.count(e) + epsilon * m.size()) fuoriLimite++;
+        }
+        assertTrue(fuoriLimite <= 20);
+    }
+
+    @Test
+    public void testErrorBounds() {
+        verificaLimiti(false);
+    }
+
+    @Test
+    public void testErrorBoundsConservative() {
+        verificaLimiti(true);
+    }
+
+    @Test
+    public void testMerge() {
+        SketchMultiset<Integer> m1 = new SketchMultiset<Integer>(0.01, 0.01);
+        SketchMultiset<Integer> m2 = new SketchMultiset<Integer>(0.01, 0.01);
+        m1.add(1, 3);
+        m2.add(1, 4);
+        m2.add(2);
+        m1.merge(m2);
+        assertTrue(m1.count(1) >= 7);
+        assertTrue(m1.count(2) >= 1);
+        assertEquals(8, m1.size());
+        assertThrows(IllegalArgumentException.class,
+                () -> m1.merge(new SketchMultiset<Integer>(0.1, 0.01)));
+    }
+
+}
@@ -0,0 +1,318 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Multinsieme approssimato che conserva al massimo {@code k} elementi distinti, quelli con più occorrenze, usando
+ * l'algoritmo Space-Saving di Metwally, Agrawal e El Abbadi. La memoria occupata dipende solo da {@code k} e non dal
+ * numero di elementi distinti aggiunti.<br><br>
+ *
+ * Quando arriva un elemento non monitorato e ci sono già {@code k} elementi, l'elemento con la stima minima
+ * {@code min} viene sostituito dal nuovo, che riceve come stima {@code min} più le occorrenze aggiunte e come errore
+ * {@code min}. Per ogni elemento monitorato vale quindi
+ * {@code count(e) - error(e) <= occorrenze reali <= count(e)}, e l'errore di ogni elemento non supera mai
+ * {@code size() / k}. Un elemento con più di {@code size() / k} occorrenze reali è sempre monitorato.<br><br>
+ *
+ * Le stime sono conservate in un {@link FrequencyMultiset}, così l'elemento con la stima minima si trova in O(1) e
+ * aggiungere una singola occorrenza costa O(1) attesa.<br><br>
+ *
+ * Del contratto di {@link Multiset} sono supportate le aggiunte e le operazioni di lettura, che riguardano le stime
+ * degli elementi monitorati: {@link TopKMultiset#count} restituisce 0 per un elemento non monitorato. Le operazioni
+ * che tolgono occorrenze lanciano {@code UnsupportedOperationException}, perché l'algoritmo non può garantire i limiti
+ * di errore dopo una rimozione. Le viste restituite sono di sola lettura.<br><br>
+ *
+ * Più istanze costruite su parti diverse degli stessi dati, ad esempio una per thread, possono essere combinate con
+ * {@link TopKMultiset#merge}.
+ *
+ * @param <E> il tipo degli elementi del multiset
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+public class TopKMultiset<E> implements Multiset<E> {
+
+    //Numero massimo di elementi monitorati
+    private final int k;
+    //Stime delle occorrenze degli elementi monitorati
+    private final FrequencyMultiset<E> stime;
+    //Errore massimo di ogni stima, presente solo per gli elementi entrati sostituendone un altro
+    private final HashMap<E, Integer> errori;
+    //Numero totale di occorrenze aggiunte, anche di elementi non più monitorati
+    private long totale;
+
+    /**
+     * Crea un multiset approssimato vuoto che monitora al massimo k elementi.
+     *
+     * @param k il numero massimo di elementi distinti conservati
+     * @throws IllegalArgumentException se k non è positivo
+     */
+    public TopKMultiset(int k) {
+        if (k <= 0) throw new IllegalArgumentException("k deve essere positivo");
+        this.k = k;
+        stime = new FrequencyMultiset<>();
+        errori = new HashMap<>();
+        totale = 0;
+    }
+
+    /**
+     * Restituisce il numero massimo di elementi monitorati.
+     *
+     * @return k
+     */
+    public int capacity() {
+        return k;
+    }
+
+    /**
+     * Restituisce il numero totale di occorrenze aggiunte, anche di elementi non più monitorati, limitato a
+     * Integer.MAX_VALUE.
+     *
+     * @return il numero totale di occorrenze aggiunte
+     */
+    @Override
+    public int size() {
+        return totale > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) totale;
+    }
+
+    /**
+     * Restituisce la stima delle occorrenze di un elemento, che non è mai minore delle occorrenze reali se
+     * l'elemento è monitorato.
+     *
+     * @param element l'elemento di cui stimare le occorrenze
+     * @return la stima delle occorrenze, 0 se l'elemento non è monitorato
+     * @throws NullPointerException se element è null
+     */
+    @Override
+    public int count(Object element) {
+        return stime.count(element);
+    }
+
+    /**
+     * Restituisce l'errore massimo della stima di un elemento.
+     *
+     * @param element l'elemento di cui ottenere l'errore
+     * @return l'errore massimo della stima, 0 se l'elemento non è monitorato o se la stima è esatta
+     * @throws NullPointerException se element è null
+     */
+    public int error(Object element) {
+        if (element == null) throw new NullPointerException("Elemento null");
+        Integer errore = errori.get(element);
+        return errore == null ? 0 : errore;
+    }
+
+    /**
+     * Restituisce il numero di occorrenze che l'elemento ha sicuramente, cioè la stima meno l'errore.
+     *
+     * @param element l'elemento di cui ottenere le occorrenze garantite
+     * @return il limite inferiore delle occorrenze reali
+     * @throws NullPointerException se element è null
+     */
+    public int guaranteedCount(Object element) {
+        return count(element) - error(element);
+    }
+
+    /**
+     * Restituisce l'errore massimo di qualsiasi stima: è la stima minima se sono monitorati k elementi, 0 altrimenti.
+     * Un elemento non monitorato ha al massimo questo numero di occorrenze reali.
+     *
+     * @return l'errore massimo delle stime, mai maggiore di size() / k
+     */
+    public int maxError() {
+        if (stime.elementSet().size() < k) return 0;
+        return stime.count(stime.leastFrequent());
+    }
+
+    /**
+     * Aggiunge delle occorrenze di un elemento. Se l'elemento non è monitorato e ci sono già k elementi, sostituisce
+     * l'elemento con la stima minima.
+     *
+     * @param element     l'elemento di cui aggiungere le occorrenze
+     * @param occurrences il numero di occorrenze da aggiungere, se zero non viene apportata alcuna modifica
+     * @return la stima delle occorrenze dell'elemento prima dell'operazione, 0 se non era monitorato
+     * @throws NullPointerException     se element è null
+     * @throws IllegalArgumentException se le occorrenze sono negative o se una stima superasse Integer.MAX_VALUE
+     */
+    @Override
+    public int add(E element, int occurrences) {
+        if (element == null) throw new NullPointerException("L'elemento da aggiungere è null");
+        if (occurrences < 0) throw new IllegalArgumentException("Non si possono aggiungere valori negativi");
+        int vecchie = stime.count(element);
+        if (occurrences == 0) return vecchie;
+        if (vecchie > 0 || stime.elementSet().size() < k) {
+            stime.add(element, occurrences);
+            totale += occurrences;
+            return vecchie;
+        }
+        //Sostituisco l'elemento con la stima minima, che diventa l'errore del nuovo elemento
+        E escluso = stime.leastFrequent();
+        int minimo = stime.count(escluso);
+        if (((long) minimo) + occurrences > Integer.MAX_VALUE) throw new IllegalArgumentException("Questa " +
+                "operazione aggiungerebbe un numero maggiore di Integer.MAX_VALUE");
+        stime.setCount(escluso, 0);
+        errori.remove(escluso);
+        stime.add(element, minimo + occurrences);
+        errori.put(element, minimo);
+        totale += occurrences;
+        return 0;
+    }
+
+    @Override
+    public void add(E element) {
+        add(element, 1);
+    }
+
+    /**
+     * Operazione non supportata.
+     *
+     * @throws UnsupportedOperationException sempre
+     */
+    @Override
+    public int remove(Object element, int occurrences) {
+        throw new UnsupportedOperationException("Rimozione non supportata da TopKMultiset");
+    }
+
+    /**
+     * Operazione non supportata.
+     *
+     * @throws UnsupportedOperationException sempre
+     */
+    @Override
+    public boolean remove(Object element) {
+        throw new UnsupportedOperationException("Rimozione non supportata da TopKMultiset");
+    }
+
+    /**
+     * Operazione non supportata.
+     *
+     * @throws UnsupportedOperationException sempre
+     */
+    @Override
+    public int setCount(E element, int occurrences) {
+        throw new UnsupportedOperationException("setCount non supportato da TopKMultiset");
+    }
+
+    /**
+     * Restituisce una vista di sola lettura sugli elementi monitorati.
+     *
+     * @return set degli elementi monitorati
+     */
+    @Override
+    public Set<E> elementSet() {
+        return Collections.unmodifiableSet(stime.elementSet());
+    }
+
+    /**
+     * Restituisce una vista di sola lettura sulle coppie (elemento, stima).
+     *
+     * @return set delle coppie degli elementi monitorati
+     */
+    @Override
+    public Set<Multiset.Entry<E>> entrySet() {
+        return Collections.unmodifiableSet(stime.entrySet());
+    }
+
+    @Override
+    public void forEachEntry(ObjIntConsumer<? super E> action) {
+        stime.forEachEntry(action);
+    }
+
+    /**
+     * Restituisce gli elementi monitorati in ordine decrescente di stima, quindi i più frequenti per primi.
+     *
+     * @return le coppie (elemento, stima) in ordine decrescente
+     */
+    public Iterable<Multiset.Entry<E>> topEntries() {
+        return stime.descendingEntries();
+    }
+
+    /**
+     * Crea un iteratore fail-fast che presenta ogni elemento monitorato tante volte quanto la sua stima.
+     *
+     * @return iterator
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return stime.iterator();
+    }
+
+    @Override
+    public boolean contains(Object element) {
+        return stime.contains(element);
+    }
+
+    @Override
+    public void clear() {
+        stime.clear();
+        errori.clear();
+        totale = 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return totale == 0;
+    }
+
+    /**
+     * Aggiunge a questo multinsieme le occorrenze riassunte da un altro TopKMultiset, secondo la fusione dei riassunti
+     * di Agarwal et al.: per ogni elemento si sommano le stime e gli errori delle due istanze, usando la stima minima
+     * dell'istanza in cui l'elemento non è monitorato; poi si conservano i k elementi con la stima maggiore. I limiti di
+     * errore restano validi rispetto alla somma dei due flussi.
+     *
+     * @param other il multinsieme da fondere in questo, non viene modificato
+     * @throws NullPointerException     se other è null
+     * @throws IllegalArgumentException se una stima superasse Integer.MAX_VALUE
+     */
+    public void merge(TopKMultiset<? extends E> other) {
+        if (other == null) throw new NullPointerException("Multinsieme null");
+        if (other.isEmpty()) return;
+        int minimoQuesto = maxError();
+        int minimoAltro = other.maxError();
+        List<Candidato<E>> candidati = new ArrayList<>(stime.elementSet().size() + other.stime.elementSet().size());
+        stime.forEachEntry((element, stima) -> {
+            int stimaAltro = other.stime.contains(element) ? other.count(element) : minimoAltro;
+            int erroreAltro = other.stime.contains(element) ? other.error(element) : minimoAltro;
+            candidati.add(new Candidato<>(element, somma(stima, stimaAltro), error(element) + erroreAltro));
+        });
+        other.stime.forEachEntry((element, stima) -> {
+            if (stime.contains(element)) return;
+            candidati.add(new Candidato<>(element, somma(stima, minimoQuesto), other.error(element) + minimoQuesto));
+        });
+        //Conservo i k candidati con la stima maggiore, inserendoli in ordine crescente
+        candidati.sort((a, b) -> Integer.compare(b.stima, a.stima));
+        List<Candidato<E>> conservati = candidati.subList(0, Math.min(k, candidati.size()));
+        long nuovoTotale = totale + other.totale;
+        clear();
+        for (int i = conservati.size() - 1; i >= 0; i--) {
+            Candidato<E> candidato = conservati.get(i);
+            stime.add(candidato.oggetto, candidato.stima);
+            if (candidato.errore > 0) errori.put(candidato.oggetto, candidato.errore);
+        }
+        totale = nuovoTotale;
+    }
+
+    private static int somma(int a, int b) {
+        if (((long) a) + b > Integer.MAX_VALUE) throw new IllegalArgumentException("La fusione produrrebbe una " +
+                "stima maggiore di Integer.MAX_VALUE");
+        return a + b;
+    }
+
+    /*
+        Elemento candidato durante la fusione, con stima ed errore combinati
+     */
+    private static class Candidato<E> {
+        private final E oggetto;
+        private final int stima;
+        private final int errore;
+
+        Candidato(E oggetto, int stima, int errore) {
+            this.oggetto = oggetto;
+            this.stima = stima;
+            this.errore = errore;
+        }
+    }
+
+}
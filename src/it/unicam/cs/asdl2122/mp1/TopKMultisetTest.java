@@ -0,0 +1,112 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per TopKMultiset
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ *
+ */
+public class TopKMultisetTest {
+
+    @Test
+    public void testTopKMultiset() {
+        TopKMultiset<String> m = new TopKMultiset<String>(3);
+        assertTrue(m.isEmpty());
+        assertEquals(3, m.capacity());
+        assertEquals(0, m.maxError());
+        assertThrows(IllegalArgumentException.class, () -> new TopKMultiset<String>(0));
+    }
+
+    @Test
+    public void testExactBelowCapacity() {
+        TopKMultiset<String> m = new TopKMultiset<String>(3);
+        m.add("a", 4);
+        m.add("b");
+        m.add("a");
+        assertEquals(5, m.count("a"));
+        assertEquals(1, m.count("b"));
+        assertEquals(0, m.error("a"));
+        assertEquals(6, m.size());
+    }
+
+    @Test
+    public void testEviction() {
+        TopKMultiset<String> m = new TopKMultiset<String>(2);
+        m.add("a", 5);
+        m.add("b", 2);
+        assertEquals(0, m.add("c", 1));
+        assertFalse(m.contains("b"));
+        assertEquals(3, m.count("c"));
+        assertEquals(2, m.error("c"));
+        assertEquals(1, m.guaranteedCount("c"));
+        assertEquals(8, m.size());
+        assertEquals(2, m.elementSet().size());
+    }
+
+    @Test
+    public void testUnsupported() {
+        TopKMultiset<String> m = new TopKMultiset<String>(2);
+        m.add("a");
+        assertThrows(UnsupportedOperationException.class, () -> m.remove("a"));
+        assertThrows(UnsupportedOperationException.class, () -> m.remove("a", 1));
+        assertThrows(UnsupportedOperationException.class, () -> m.setCount("a", 1));
+        assertThrows(UnsupportedOperationException.class, () -> m.elementSet().remove("a"));
+    }
+
+    @Test
+    public void testErrorBounds() {
+        TopKMultiset<Integer> m = new TopKMultiset<Integer>(20);
+        MyMultiset<Integer> esatto = new MyMultiset<Integer>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            //Distribuzione sbilanciata: pochi elementi frequenti e molti rari
+            int e = random.nextInt(4) == 0 ? random.nextInt(5) : random.nextInt(1000);
+            m.add(e);
+            esatto.add(e);
+        }
+        assertEquals(20000, m.size());
+        assertTrue(m.maxError() <= m.size() / 20);
+        for (Multiset.Entry<Integer> coppia : m.entrySet()) {
+            int reali = esatto.count(coppia.getElement());
+            assertTrue(coppia.getCount() >= reali);
+            assertTrue(m.guaranteedCount(coppia.getElement()) <= reali);
+        }
+        //Gli elementi con più di size / k occorrenze devono essere monitorati
+        for (int e = 0; e < 5; e++) assertTrue(m.contains(e));
+    }
+
+    @Test
+    public void testMerge() {
+        TopKMultiset<Integer> m1 = new TopKMultiset<Integer>(10);
+        TopKMultiset<Integer> m2 = new TopKMultiset<Integer>(10);
+        MyMultiset<Integer> esatto = new MyMultiset<Integer>();
+        Random random = new Random(7);
+        for (int i = 0; i < 10000; i++) {
+            int e = random.nextInt(3) == 0 ? random.nextInt(3) : random.nextInt(500);
+            if (i % 2 == 0) m1.add(e);
+            else m2.add(e);
+            esatto.add(e);
+        }
+        m1.merge(m2);
+        assertEquals(10000, m1.size());
+        assertTrue(m1.elementSet().size() <= 10);
+        for (Multiset.Entry<Integer> coppia : m1.entrySet()) {
+            int reali = esatto.count(coppia.getElement());
+            assertTrue(coppia.getCount() >= reali);
+            assertTrue(m1.guaranteedCount(coppia.getElement()) <= reali);
+        }
+        for (int e = 0; e < 3; e++) assertTrue(m1.contains(e));
+        int precedente = Integer.MAX_VALUE;
+        for (Multiset.Entry<Integer> coppia : m1.topEntries()) {
+            assertTrue(coppia.getCount() <= precedente);
+            precedente = coppia.getCount();
+        }
+    }
+
+}
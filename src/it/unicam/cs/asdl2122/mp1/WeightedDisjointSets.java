@@ -0,0 +1,262 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import java.util.Arrays;
+
+/**
+ * Insiemi disgiunti sugli interi da 0 a n-1 in cui ogni elemento ha un potenziale, noto solo a meno di una costante
+ * per ogni insieme: l'unione registra la differenza tra i potenziali di due elementi e {@link #difference} la
+ * ricava per qualsiasi coppia di elementi dello stesso insieme, senza visitare un grafo dei vincoli.<br><br>
+ *
+ * Come in {@link IntDisjointSets}, l'array {@code padre} contiene il padre di ogni elemento o, per le radici, la
+ * cardinalità cambiata di segno. L'array {@code peso} contiene la differenza tra il potenziale di ogni elemento e
+ * quello del padre, 0 per le radici. {@link #find} comprime del tutto il cammino percorso, sommando i pesi, quindi
+ * dopo una ricerca il peso di un elemento è direttamente la sua differenza dalla radice. Con l'unione per
+ * cardinalità ogni operazione ha complessità ammortizzata O(α(n)).<br><br>
+ *
+ * Con un modulo m maggiore di 0 i potenziali sono classi di resto modulo m: con m = 2 la differenza è la parità,
+ * che permette ad esempio di verificare se un grafo è bipartito unendo gli estremi di ogni arco con differenza 1.
+ * Con m = 0 i potenziali sono interi long e le somme che superano l'intervallo dei long si comportano come
+ * l'aritmetica modulo 2^64 di Java.<br><br>
+ *
+ * Un'unione tra due elementi già nello stesso insieme non cambia nulla; se la differenza indicata non è quella già
+ * nota la collezione ricorda di aver ricevuto un vincolo contraddittorio, che {@link #isConsistent()} segnala.
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+public class WeightedDisjointSets {
+
+    //Padre di ogni elemento, o la cardinalità cambiata di segno se l'elemento è una radice
+    private final int[] padre;
+    //Potenziale di ogni elemento meno quello del padre, 0 per le radici
+    private final long[] peso;
+    private final long modulo;
+    private int numeroInsiemi;
+    private boolean contraddizione;
+
+    /**
+     * Crea n insiemi singoletto con potenziali interi.
+     *
+     * @param n il numero di elementi
+     * @throws IllegalArgumentException se n è negativo
+     */
+    public WeightedDisjointSets(int n) {
+        this(n, 0);
+    }
+
+    /**
+     * Crea n insiemi singoletto con potenziali modulo m, o interi se m vale 0.
+     *
+     * @param n       il numero di elementi
+     * @param modulus il modulo dei potenziali, 0 per non ridurli
+     * @throws IllegalArgumentException se n o il modulo sono negativi
+     */
+    public WeightedDisjointSets(int n, long modulus) {
+        if (n < 0) throw new IllegalArgumentException("Il numero di elementi non può essere negativo");
+        if (modulus < 0) throw new IllegalArgumentException("Il modulo non può essere negativo");
+        padre = new int[n];
+        Arrays.fill(padre, -1);
+        peso = new long[n];
+        modulo = modulus;
+        numeroInsiemi = n;
+    }
+
+    /**
+     * Restituisce il numero di elementi.
+     *
+     * @return n
+     */
+    public int capacity() {
+        return padre.length;
+    }
+
+    /**
+     * Restituisce il modulo dei potenziali.
+     *
+     * @return il modulo, 0 se i potenziali sono interi
+     */
+    public long modulus() {
+        return modulo;
+    }
+
+    /**
+     * Restituisce il numero di insiemi disgiunti correnti. Complessità O(1).
+     *
+     * @return il numero di insiemi
+     */
+    public int numberOfSets() {
+        return numeroInsiemi;
+    }
+
+    private void controlla(int x) {
+        if (x < 0 || x >= padre.length) throw new IllegalArgumentException("L'elemento " + x + " non è " +
+                "compreso tra 0 e " + (padre.length - 1));
+    }
+
+    /*
+        Riduce d modulo m, tra 0 e m-1
+     */
+    private long riduci(long d) {
+        return modulo == 0 ? d : Math.floorMod(d, modulo);
+    }
+
+    /*
+        Somma di due potenziali già ridotti, senza traboccare anche con moduli vicini a Long.MAX_VALUE
+     */
+    private long somma(long a, long b) {
+        if (modulo == 0) return a + b;
+        long r = a - (modulo - b);
+        return r < 0 ? r + modulo : r;
+    }
+
+    private long opposto(long a) {
+        return modulo == 0 || a == 0 ? -a : modulo - a;
+    }
+
+    /*
+        Radice di x, senza controllare l'intervallo. Il primo passaggio trova la radice e la differenza di x da essa,
+        il secondo appende alla radice ogni elemento del cammino, togliendo man mano il peso dei tratti già superati
+     */
+    private int radice(int x) {
+        int r = x;
+        long totale = 0;
+        while (padre[r] >= 0) {
+            totale = somma(totale, peso[r]);
+            r = padre[r];
+        }
+        while (x != r) {
+            int p = padre[x];
+            long w = peso[x];
+            padre[x] = r;
+            peso[x] = totale;
+            totale = somma(totale, opposto(w));
+            x = p;
+        }
+        return r;
+    }
+
+    /**
+     * Restituisce il rappresentante dell'insieme di cui fa parte x, appendendo direttamente ad esso tutti gli
+     * elementi del cammino percorso.
+     *
+     * @param x l'elemento di cui cercare il rappresentante
+     * @return il rappresentante dell'insieme di x
+     * @throws IllegalArgumentException se x non è compreso tra 0 e n-1
+     */
+    public int find(int x) {
+        controlla(x);
+        return radice(x);
+    }
+
+    /**
+     * Determina se due elementi fanno parte dello stesso insieme, cioè se la differenza tra i loro potenziali è nota.
+     *
+     * @param x il primo elemento
+     * @param y il secondo elemento
+     * @return true se x e y hanno lo stesso rappresentante
+     * @throws IllegalArgumentException se x o y non sono compresi tra 0 e n-1
+     */
+    public boolean sameSet(int x, int y) {
+        controlla(x);
+        controlla(y);
+        return radice(x) == radice(y);
+    }
+
+    /**
+     * Registra che il potenziale di y supera quello di x di d, unendo gli insiemi dei due elementi. La radice
+     * dell'insieme più piccolo viene appesa a quella dell'insieme più grande; a parità di cardinalità il
+     * rappresentante dell'insieme unito è quello dell'insieme di x.<br><br>
+     *
+     * Se x e y sono già nello stesso insieme non cambia nulla, ma se d non è la differenza già nota la collezione
+     * smette di essere consistente.
+     *
+     * @param x          il primo elemento
+     * @param y          il secondo elemento
+     * @param difference il potenziale di y meno quello di x
+     * @return true se gli insiemi erano distinti, false se x e y erano già nello stesso insieme
+     * @throws IllegalArgumentException se x o y non sono compresi tra 0 e n-1
+     */
+    public boolean union(int x, int y, long difference) {
+        controlla(x);
+        controlla(y);
+        int rx = radice(x);
+        int ry = radice(y);
+        long d = riduci(difference);
+        //Dopo la ricerca x e y sono figli diretti della radice, o la radice stessa con peso 0
+        long px = peso[x];
+        long py = peso[y];
+        if (rx == ry) {
+            if (somma(py, opposto(px)) != d) contraddizione = true;
+            return false;
+        }
+        //Potenziale di ry meno quello di rx
+        long delta = somma(somma(d, px), opposto(py));
+        if (padre[rx] > padre[ry]) {
+            //L'insieme di y è più grande, quindi rx viene appesa a ry
+            padre[ry] += padre[rx];
+            padre[rx] = ry;
+            peso[rx] = opposto(delta);
+        } else {
+            padre[rx] += padre[ry];
+            padre[ry] = rx;
+            peso[ry] = delta;
+        }
+        numeroInsiemi--;
+        return true;
+    }
+
+    /**
+     * Restituisce di quanto il potenziale di y supera quello di x.
+     *
+     * @param x il primo elemento
+     * @param y il secondo elemento
+     * @return il potenziale di y meno quello di x, ridotto modulo m se il modulo non è 0
+     * @throws IllegalArgumentException se x o y non sono compresi tra 0 e n-1 o non sono nello stesso insieme
+     */
+    public long difference(int x, int y) {
+        controlla(x);
+        controlla(y);
+        if (radice(x) != radice(y)) throw new IllegalArgumentException("Gli elementi " + x + " e " + y + " non " +
+                "sono nello stesso insieme");
+        return somma(peso[y], opposto(peso[x]));
+    }
+
+    /**
+     * Determina se il vincolo "il potenziale di y supera quello di x di d" è compatibile con quelli già registrati,
+     * cioè se x e y sono in insiemi diversi o la loro differenza è proprio d. Non modifica la collezione.
+     *
+     * @param x          il primo elemento
+     * @param y          il secondo elemento
+     * @param difference la differenza da verificare
+     * @return true se il vincolo può essere aggiunto senza contraddizioni
+     * @throws IllegalArgumentException se x o y non sono compresi tra 0 e n-1
+     */
+    public boolean isConsistent(int x, int y, long difference) {
+        controlla(x);
+        controlla(y);
+        if (radice(x) != radice(y)) return true;
+        return somma(peso[y], opposto(peso[x])) == riduci(difference);
+    }
+
+    /**
+     * Determina se tutte le unioni eseguite finora sono compatibili tra loro. Complessità O(1).
+     *
+     * @return false se almeno un'unione tra elementi dello stesso insieme ha indicato una differenza diversa da
+     * quella già nota
+     */
+    public boolean isConsistent() {
+        return !contraddizione;
+    }
+
+    /**
+     * Restituisce la cardinalità dell'insieme di cui fa parte x.
+     *
+     * @param x l'elemento di cui si vuole ottenere la cardinalità dell'insieme
+     * @return il numero di elementi dell'insieme di x
+     * @throws IllegalArgumentException se x non è compreso tra 0 e n-1
+     */
+    public int size(int x) {
+        controlla(x);
+        return -padre[radice(x)];
+    }
+
+}
@@ -0,0 +1,133 @@
+package it.unicam.cs.asdl2122.mp1;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * Classe di test per WeightedDisjointSets
+ *
+ * @author Enrico Ulissi enrico.ulissi@studenti.unicam.it
+ */
+class WeightedDisjointSetsTest {
+
+    @Test
+    final void testWeightedDisjointSets() {
+        WeightedDisjointSets ds = new WeightedDisjointSets(3);
+        assertEquals(3, ds.capacity());
+        assertEquals(3, ds.numberOfSets());
+        assertEquals(0, ds.modulus());
+        assertTrue(ds.isConsistent());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i, ds.find(i));
+            assertEquals(1, ds.size(i));
+            assertEquals(0, ds.difference(i, i));
+        }
+        assertEquals(2, new WeightedDisjointSets(1, 2).modulus());
+        assertThrows(IllegalArgumentException.class, () -> new WeightedDisjointSets(-1));
+        assertThrows(IllegalArgumentException.class, () -> new WeightedDisjointSets(1, -2));
+    }
+
+    @Test
+    final void testExceptions() {
+        WeightedDisjointSets ds = new WeightedDisjointSets(3);
+        assertThrows(IllegalArgumentException.class, () -> ds.find(3));
+        assertThrows(IllegalArgumentException.class, () -> ds.union(-1, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> ds.difference(0, 3));
+        assertThrows(IllegalArgumentException.class, () -> ds.isConsistent(0, 3, 1));
+        assertThrows(IllegalArgumentException.class, () -> ds.sameSet(0, -1));
+        assertThrows(IllegalArgumentException.class, () -> ds.size(4));
+        //La differenza tra elementi di insiemi diversi non è nota
+        assertThrows(IllegalArgumentException.class, () -> ds.difference(0, 1));
+    }
+
+    @Test
+    final void testDifference() {
+        WeightedDisjointSets ds = new WeightedDisjointSets(6);
+        assertTrue(ds.union(0, 1, 5));
+        assertTrue(ds.union(2, 1, -3));
+        assertTrue(ds.union(3, 4, 10));
+        assertEquals(5, ds.difference(0, 1));
+        assertEquals(-5, ds.difference(1, 0));
+        assertEquals(8, ds.difference(0, 2));
+        assertTrue(ds.isConsistent(2, 0, -8));
+        assertFalse(ds.isConsistent(2, 0, 8));
+        //Tra insiemi diversi ogni vincolo è compatibile
+        assertTrue(ds.isConsistent(0, 3, 100));
+        //Unisco l'insieme più piccolo a quello più grande, passando per elementi che non sono radici
+        assertTrue(ds.union(4, 2, 1));
+        assertEquals(5, ds.size(3));
+        assertEquals(ds.find(0), ds.find(3));
+        //Fissando a 0 il potenziale di 0: 1 vale 5, 2 vale 8, 4 vale 7 e 3 vale -3
+        assertEquals(-1, ds.difference(2, 4));
+        assertEquals(2, ds.difference(1, 4));
+        assertEquals(-3, ds.difference(0, 3));
+        assertEquals(11, ds.difference(3, 2));
+        assertFalse(ds.union(3, 0, 1));
+        assertTrue(ds.union(5, 0, 1));
+        assertFalse(ds.isConsistent());
+        assertEquals(1, ds.numberOfSets());
+    }
+
+    @Test
+    final void testRandomAgainstPotentials() {
+        int n = 500;
+        Random random = new Random(42);
+        //Potenziali nascosti: ogni vincolo registrato è vero, quindi la collezione resta consistente
+        long[] potenziale = new long[n];
+        for (int i = 0; i < n; i++) potenziale[i] = random.nextInt(2001) - 1000;
+        WeightedDisjointSets ds = new WeightedDisjointSets(n);
+        int[] etichette = new int[n];
+        for (int i = 0; i < n; i++) etichette[i] = i;
+        for (int passo = 0; passo < 400; passo++) {
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            assertEquals(etichette[a] != etichette[b], ds.union(a, b, potenziale[b] - potenziale[a]));
+            int vecchia = etichette[b];
+            int nuova = etichette[a];
+            if (vecchia != nuova) for (int i = 0; i < n; i++) if (etichette[i] == vecchia) etichette[i] = nuova;
+            int x = random.nextInt(n);
+            int y = random.nextInt(n);
+            if (etichette[x] == etichette[y]) {
+                assertEquals(potenziale[y] - potenziale[x], ds.difference(x, y));
+                assertFalse(ds.isConsistent(x, y, potenziale[y] - potenziale[x] + 1));
+            } else {
+                assertFalse(ds.sameSet(x, y));
+            }
+        }
+        assertTrue(ds.isConsistent());
+    }
+
+    @Test
+    final void testParity() {
+        //Un ciclo di lunghezza pari è bipartito, uno di lunghezza dispari no
+        WeightedDisjointSets pari = new WeightedDisjointSets(6, 2);
+        for (int i = 0; i < 6; i++) pari.union(i, (i + 1) % 6, 1);
+        assertTrue(pari.isConsistent());
+        assertEquals(1, pari.difference(0, 3));
+        assertEquals(0, pari.difference(1, 5));
+        assertEquals(1, pari.difference(4, 1));
+        assertTrue(pari.isConsistent(0, 2, -2));
+        WeightedDisjointSets dispari = new WeightedDisjointSets(5, 2);
+        for (int i = 0; i < 4; i++) dispari.union(i, i + 1, 1);
+        assertFalse(dispari.isConsistent(4, 0, 1));
+        assertTrue(dispari.isConsistent());
+        dispari.union(4, 0, 1);
+        assertFalse(dispari.isConsistent());
+    }
+
+    @Test
+    final void testLargeModulus() {
+        //Le somme dei potenziali non devono traboccare nemmeno con un modulo vicino a Long.MAX_VALUE
+        long m = Long.MAX_VALUE - 1;
+        WeightedDisjointSets ds = new WeightedDisjointSets(3, m);
+        ds.union(0, 1, m - 1);
+        ds.union(1, 2, m - 2);
+        assertEquals(m - 3, ds.difference(0, 2));
+        assertEquals(3, ds.difference(2, 0));
+        assertTrue(ds.isConsistent(2, 0, 3 - m));
+    }
+
+}